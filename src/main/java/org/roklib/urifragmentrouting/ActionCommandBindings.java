@@ -0,0 +1,178 @@
+package org.roklib.urifragmentrouting;
+
+import org.roklib.urifragmentrouting.helper.Preconditions;
+import org.roklib.urifragmentrouting.mapper.AbstractUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.UriPathSegmentActionMapper;
+
+import java.util.Map;
+
+/**
+ * Per-session set of action command factories for the action mappers of a shared {@link UriActionMapperTree}. Action
+ * command factories frequently need access to the state of the current user session, for instance to create a command
+ * which navigates the session's UI to a particular view. If these factories are passed to the action mappers directly,
+ * a complete mapper tree has to be built for every session, duplicating every action mapper, every internal map and
+ * every compiled regular expression of the tree thousands of times.
+ * <p>
+ * With action command bindings, the action mapper tree only contains the route structure, i. e. the path segments, the
+ * URI parameters and the regular expressions. It is built once and shared by all sessions. Each session creates a
+ * small bindings object which assigns its session-specific action command factories to the action mappers by their
+ * mapper names, and passes this object to {@link UriActionMapperTree#interpretFragment(String, Object,
+ * ActionCommandBindings)}. Internally, the bindings of a session are stored in a single array indexed by a slot number
+ * which the tree assigns to each of its mapper names, so the memory cost per session is one array reference per action
+ * mapper.
+ * <p>
+ * The action mappers of a shared tree still need an action command factory so that URI fragments are resolved to them
+ * at all. Action mappers whose action command factory is the same for all sessions keep using this factory. For action
+ * mappers whose factory is provided by the sessions, {@link #sessionBound()} can be used as a placeholder:
+ * <pre>
+ * UriActionMapperTree tree = UriActionMapperTree.create().buildMapperTree()
+ *         .map("profile").onActionFactory(ActionCommandBindings.sessionBound()).finishMapper()
+ *         .build();
+ *
+ * // for each session
+ * ActionCommandBindings bindings = ActionCommandBindings.forTree(tree)
+ *         .bind("profile", () -&gt; new ShowProfileCommand(session))
+ *         .build();
+ * tree.interpretFragment("/profile", context, bindings);
+ * </pre>
+ * An action command factory bound to an action mapper is subject to the {@link ActionCommandLifecycle} which is
+ * configured for this action mapper when the bindings are built. For the {@link ActionCommandLifecycle#POOLED} and
+ * {@link ActionCommandLifecycle#STATELESS_SINGLETON} lifecycles, each bindings object has its own pool or singleton
+ * command object for the action mapper. The root action mapper can be bound with the mapper name {@link
+ * UriActionMapperTree#ROOT_MAPPER}.
+ * <p>
+ * Action command bindings are immutable and thread-safe. Action mappers which are added to the tree after a bindings
+ * object has been created cannot be bound by this bindings object.
+ */
+public final class ActionCommandBindings {
+    private static final UriActionCommandFactory SESSION_BOUND = () -> {
+        throw new IllegalStateException("This action mapper's action command factory is bound per session. "
+                + "Interpret the URI fragment with the session's ActionCommandBindings.");
+    };
+
+    private final UriActionMapperTree tree;
+    private final Map<String, Integer> slots;
+    private final UriActionCommandFactory[] factories;
+
+    private ActionCommandBindings(final UriActionMapperTree tree, final Map<String, Integer> slots,
+                                  final UriActionCommandFactory[] factories) {
+        this.tree = tree;
+        this.slots = slots;
+        this.factories = factories;
+    }
+
+    /**
+     * Starts building the action command bindings of a session for the given mapper tree.
+     *
+     * @param tree the completely built, shared mapper tree. Must not be {@code null}.
+     *
+     * @return a builder for the bindings
+     */
+    public static Builder forTree(final UriActionMapperTree tree) {
+        Preconditions.checkNotNull(tree);
+        return new Builder(tree, tree.getBindingSlots());
+    }
+
+    /**
+     * Returns a placeholder action command factory for action mappers of a shared tree whose action command factory is
+     * only provided through the {@link ActionCommandBindings} of the individual sessions. The placeholder throws an
+     * {@link IllegalStateException} when it is asked to create an action command, i. e. when such an action mapper is
+     * reached while interpreting a URI fragment without a binding for it.
+     *
+     * @return the placeholder action command factory
+     */
+    public static UriActionCommandFactory sessionBound() {
+        return SESSION_BOUND;
+    }
+
+    /**
+     * Returns the action command factory bound to the action mapper with the given name. The returned factory creates
+     * the command objects according to the action mapper's {@link ActionCommandLifecycle}.
+     *
+     * @param mapperName the name of an action mapper
+     *
+     * @return the bound action command factory or {@code null} if there is no binding for this action mapper
+     */
+    public UriActionCommandFactory getBinding(final String mapperName) {
+        final Integer slot = slots.get(mapperName);
+        return slot == null ? null : factories[slot];
+    }
+
+    /**
+     * Returns {@code true} if these bindings have been created for the given mapper tree.
+     *
+     * @param tree a mapper tree
+     *
+     * @return {@code true} if these bindings belong to the given tree
+     */
+    boolean isForTree(final UriActionMapperTree tree) {
+        return this.tree == tree;
+    }
+
+    @Override
+    public String toString() {
+        int bound = 0;
+        for (final UriActionCommandFactory factory : factories) {
+            if (factory != null) {
+                bound++;
+            }
+        }
+        return "ActionCommandBindings{bound=" + bound + ", slots=" + factories.length + '}';
+    }
+
+    /**
+     * Builder for {@link ActionCommandBindings}.
+     */
+    public static final class Builder {
+        private final UriActionMapperTree tree;
+        private final Map<String, Integer> slots;
+        private final UriActionCommandFactory[] factories;
+
+        private Builder(final UriActionMapperTree tree, final Map<String, Integer> slots) {
+            this.tree = tree;
+            this.slots = slots;
+            this.factories = new UriActionCommandFactory[slots.size()];
+        }
+
+        /**
+         * Binds the given action command factory to the action mapper with the given name. A previous binding for this
+         * action mapper is replaced.
+         *
+         * @param mapperName           the name of an action mapper of the tree
+         * @param actionCommandFactory the action command factory to be used for this action mapper in the current
+         *                             session. Must not be {@code null}.
+         *
+         * @return this builder
+         * @throws IllegalArgumentException if the tree has no action mapper with the given name
+         */
+        public Builder bind(final String mapperName, final UriActionCommandFactory actionCommandFactory) {
+            Preconditions.checkNotNull(mapperName);
+            Preconditions.checkNotNull(actionCommandFactory);
+            final Integer slot = slots.get(mapperName);
+            if (slot == null) {
+                throw new IllegalArgumentException("The mapper tree has no action mapper named '" + mapperName + "'");
+            }
+            factories[slot] = actionCommandFactory;
+            return this;
+        }
+
+        /**
+         * Creates the action command bindings.
+         *
+         * @return the immutable action command bindings
+         */
+        public ActionCommandBindings build() {
+            final UriActionCommandFactory[] lifecycleFactories = new UriActionCommandFactory[factories.length];
+            slots.forEach((mapperName, slot) -> {
+                final UriActionCommandFactory factory = factories[slot];
+                if (factory != null) {
+                    final UriPathSegmentActionMapper mapper = tree.findMapper(mapperName);
+                    lifecycleFactories[slot] = mapper instanceof AbstractUriPathSegmentActionMapper
+                            ? ((AbstractUriPathSegmentActionMapper) mapper).applyActionCommandLifecycle(factory)
+                            : factory;
+                }
+            });
+            return new ActionCommandBindings(tree, slots, lifecycleFactories);
+        }
+    }
+}
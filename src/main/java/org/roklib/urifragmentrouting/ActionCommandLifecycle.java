@@ -0,0 +1,33 @@
+package org.roklib.urifragmentrouting;
+
+/**
+ * Defines how the instances of the action command objects created by the {@link UriActionCommandFactory} of a {@link
+ * org.roklib.urifragmentrouting.mapper.UriPathSegmentActionMapper UriPathSegmentActionMapper} are managed. The
+ * lifecycle can be configured individually for each action mapper with {@link org.roklib.urifragmentrouting.mapper.AbstractUriPathSegmentActionMapper#setActionCommandLifecycle(ActionCommandLifecycle)
+ * setActionCommandLifecycle()} or with the mapper tree builder.
+ * <p>
+ * By default, every interpreted URI fragment results in a new action command object ({@link #PROTOTYPE}). For routes
+ * which are visited very frequently, this default can be changed to avoid creating a new command object for every
+ * visit.
+ */
+public enum ActionCommandLifecycle {
+    /**
+     * A new action command object is created by the action command factory for each interpreted URI fragment. This is
+     * the default.
+     */
+    PROTOTYPE,
+    /**
+     * Action command objects are taken from a bounded pool which is kept per action mapper. After an action command has
+     * been executed by the {@link UriActionMapperTree}, it is reset and returned to the pool. Action command classes
+     * used with this lifecycle have to implement {@link ResettableUriActionCommand}.
+     */
+    POOLED,
+    /**
+     * Only one single action command object is created for the action mapper, which is shared by all interpreted URI
+     * fragments. Since this instance is used concurrently, no data is injected into it through annotated setter
+     * methods. Action command classes used with this lifecycle have to implement {@link StatelessUriActionCommand}
+     * instead, so that they receive all data of the current URI fragment with {@link
+     * StatelessUriActionCommand#run(RouteMatch)}.
+     */
+    STATELESS_SINGLETON
+}
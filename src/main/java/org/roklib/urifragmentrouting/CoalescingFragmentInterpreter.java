@@ -0,0 +1,340 @@
+package org.roklib.urifragmentrouting;
+
+import org.roklib.urifragmentrouting.helper.ActionCommandConfigurer;
+import org.roklib.urifragmentrouting.helper.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.*;
+
+/**
+ * Front end for a {@link UriActionMapperTree} which coalesces rapidly succeeding URI fragment navigations per key so
+ * that only the most recent navigation is actually executed. This is useful when a user holds down the browser's back
+ * or forward button or when scripts fire many <tt>hashchange</tt> events in a row. Without coalescing, the action
+ * commands for all intermediate URI fragments would be executed one after the other, although only the result of the
+ * last one is visible to the user.
+ * <p>
+ * Every URI fragment passed to {@link #interpretFragment(Object, String, Object)} is interpreted eagerly on the calling
+ * thread. The resulting action command is not executed right away, though. Instead, it becomes the pending command for
+ * the given key (e. g. the ID of the current user session), replacing any previously pending command for this key. The
+ * pending command is executed when no further URI fragment has been interpreted for this key during a configurable
+ * quiet period. If a command of the same key is still running at that time, the pending command is executed as soon
+ * as the running command has completed. By that, at most one command per key is executed at any time.
+ * <p>
+ * A command which is replaced by a more recent command before it could be executed is reported as skipped: the future
+ * returned for it is completed with a {@link Result} whose status is {@link Status#SKIPPED}.
+ * <p>
+ * Action command objects obtained from an action mapper with the {@link ActionCommandLifecycle#POOLED} lifecycle are
+ * returned to their pool after they have been executed, skipped or rejected. The {@link Result} for such a command
+ * object contains a {@link ReleasedActionCommand} placeholder instead of the pooled command object, since the latter
+ * may already be in use for another URI fragment.
+ *
+ * @param <K> type of the key for which the navigations are coalesced
+ */
+public class CoalescingFragmentInterpreter<K> {
+    private static final Logger LOG = LoggerFactory.getLogger(CoalescingFragmentInterpreter.class);
+
+    /**
+     * Status of a coalesced navigation.
+     */
+    public enum Status {
+        /**
+         * The action command has been executed.
+         */
+        EXECUTED,
+        /**
+         * The action command has not been executed since a more recent URI fragment was interpreted for the same key
+         * before the action command was due for execution.
+         */
+        SKIPPED,
+        /**
+         * The URI fragment could not be resolved to any action command factory.
+         */
+        NOT_FOUND
+    }
+
+    /**
+     * The result of a coalesced navigation.
+     */
+    public static final class Result {
+        private final Status status;
+        private final UriActionCommand command;
+
+        private Result(final Status status, final UriActionCommand command) {
+            this.status = status;
+            this.command = command;
+        }
+
+        /**
+         * Returns the status of the navigation.
+         *
+         * @return the status of the navigation
+         */
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Returns the action command resolved for the navigation's URI fragment. This is {@code null} if the status is
+         * {@link Status#NOT_FOUND}. For a pooled action command object, a {@link ReleasedActionCommand} placeholder is
+         * returned.
+         *
+         * @return the action command resolved for the URI fragment
+         */
+        public UriActionCommand getCommand() {
+            return command;
+        }
+
+        /**
+         * Returns {@code true} if the action command has been skipped in favor of a more recent one.
+         *
+         * @return {@code true} if the action command has been skipped
+         */
+        public boolean isSkipped() {
+            return status == Status.SKIPPED;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{status=" + status + ", command=" + command + '}';
+        }
+    }
+
+    private final UriActionMapperTree uriActionMapperTree;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final long quietPeriodNanos;
+    private final ConcurrentMap<K, KeyState> keyStates = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new coalescing interpreter which uses the given scheduled executor service both for waiting for the
+     * quiet period and for executing the action commands.
+     *
+     * @param uriActionMapperTree the mapper tree which interprets the URI fragments. Must not be {@code null}.
+     * @param scheduler           the scheduler used for waiting for the quiet period and for executing the action
+     *                            commands. Must not be {@code null}.
+     * @param quietPeriod         the time which has to pass without a new URI fragment for a key before the pending
+     *                            command of this key is executed. Must not be negative.
+     * @param unit                the time unit of the quiet period. Must not be {@code null}.
+     */
+    public CoalescingFragmentInterpreter(final UriActionMapperTree uriActionMapperTree,
+                                         final ScheduledExecutorService scheduler,
+                                         final long quietPeriod,
+                                         final TimeUnit unit) {
+        this(uriActionMapperTree, scheduler, scheduler, quietPeriod, unit);
+    }
+
+    /**
+     * Creates a new coalescing interpreter which uses the given scheduled executor service for waiting for the quiet
+     * period and the given executor for executing the action commands.
+     *
+     * @param uriActionMapperTree the mapper tree which interprets the URI fragments. Must not be {@code null}.
+     * @param scheduler           the scheduler used for waiting for the quiet period. Must not be {@code null}.
+     * @param executor            the executor which runs the action commands. Must not be {@code null}.
+     * @param quietPeriod         the time which has to pass without a new URI fragment for a key before the pending
+     *                            command of this key is executed. Must not be negative.
+     * @param unit                the time unit of the quiet period. Must not be {@code null}.
+     */
+    public CoalescingFragmentInterpreter(final UriActionMapperTree uriActionMapperTree,
+                                         final ScheduledExecutorService scheduler,
+                                         final Executor executor,
+                                         final long quietPeriod,
+                                         final TimeUnit unit) {
+        Preconditions.checkNotNull(uriActionMapperTree);
+        Preconditions.checkNotNull(scheduler);
+        Preconditions.checkNotNull(executor);
+        Preconditions.checkNotNull(unit);
+        if (quietPeriod < 0) {
+            throw new IllegalArgumentException("quiet period must not be negative");
+        }
+        this.uriActionMapperTree = uriActionMapperTree;
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.quietPeriodNanos = unit.toNanos(quietPeriod);
+    }
+
+    /**
+     * Interprets the given URI fragment for the specified key and makes the resulting action command the pending
+     * command of this key. A command which has been pending for the key so far is skipped. If the URI fragment could
+     * not be resolved to an action command, the pending command is skipped as well, since the user has already
+     * navigated away from it.
+     *
+     * @param key         the key for which navigations are coalesced, e. g. a session ID. Must not be {@code null}.
+     * @param uriFragment the URI fragment to be interpreted
+     * @param context     a custom defined context object which is passed to the action command object via a method
+     *                    annotated with {@link org.roklib.urifragmentrouting.annotation.RoutingContext
+     *                    RoutingContext}.
+     * @param <C>         type of the context object
+     *
+     * @return a future which is completed with the result of the navigation once the command has been executed or
+     * skipped
+     */
+    public <C> CompletableFuture<Result> interpretFragment(final K key, final String uriFragment, final C context) {
+        return interpretFragment(key, uriFragment, context, null);
+    }
+
+    /**
+     * Interprets the given URI fragment for the specified key with the action command factories of the given session
+     * bindings (see {@link UriActionMapperTree#interpretFragment(String, Object, ActionCommandBindings, boolean)}) and
+     * makes the resulting action command the pending command of this key. See {@link #interpretFragment(Object,
+     * String, Object)} for details.
+     *
+     * @param key         the key for which navigations are coalesced, e. g. a session ID. Must not be {@code null}.
+     * @param uriFragment the URI fragment to be interpreted
+     * @param context     a custom defined context object which is passed to the action command object via a method
+     *                    annotated with {@link org.roklib.urifragmentrouting.annotation.RoutingContext
+     *                    RoutingContext}.
+     * @param bindings    the action command factories of the session. May be {@code null}, in which case only the
+     *                    action command factories of the action mappers are used.
+     * @param <C>         type of the context object
+     *
+     * @return a future which is completed with the result of the navigation once the command has been executed or
+     * skipped
+     */
+    public <C> CompletableFuture<Result> interpretFragment(final K key, final String uriFragment, final C context,
+                                                           final ActionCommandBindings bindings) {
+        Preconditions.checkNotNull(key);
+        final ActionCommandConfigurer configurer = uriActionMapperTree.interpretFragmentForDeferredExecution(uriFragment, context, bindings);
+        final PendingCommand pendingCommand = configurer == null ? null : new PendingCommand(configurer);
+
+        final PendingCommand[] superseded = new PendingCommand[1];
+        keyStates.compute(key, (k, existingState) -> {
+            final KeyState state = existingState == null ? new KeyState(k) : existingState;
+            synchronized (state) {
+                superseded[0] = state.replacePending(pendingCommand);
+                return state.isIdle() ? null : state;
+            }
+        });
+
+        if (superseded[0] != null) {
+            LOG.debug("interpretFragment() - Skipping superseded action command {} for key {}", superseded[0].command, key);
+            superseded[0].future.complete(new Result(Status.SKIPPED, UriActionMapperTree.releaseActionCommand(superseded[0].configurer)));
+        }
+        return pendingCommand == null
+                ? CompletableFuture.completedFuture(new Result(Status.NOT_FOUND, null))
+                : pendingCommand.future;
+    }
+
+    /**
+     * Returns the number of keys which currently have a pending or running action command.
+     *
+     * @return the number of keys with a pending or running action command
+     */
+    public int getActiveKeyCount() {
+        return keyStates.size();
+    }
+
+    private static final class PendingCommand {
+        private final ActionCommandConfigurer configurer;
+        private final UriActionCommand command;
+        private final CompletableFuture<Result> future = new CompletableFuture<>();
+
+        private PendingCommand(final ActionCommandConfigurer configurer) {
+            this.configurer = configurer;
+            this.command = configurer.getConfiguredUriActionCommand();
+        }
+    }
+
+    /**
+     * The coalescing state of one key. All fields are guarded by the state object's monitor.
+     */
+    private final class KeyState {
+        private final K key;
+        private PendingCommand pending;
+        private ScheduledFuture<?> quietPeriodTimer;
+        private boolean running;
+
+        private KeyState(final K key) {
+            this.key = key;
+        }
+
+        private PendingCommand replacePending(final PendingCommand newPending) {
+            final PendingCommand superseded = pending;
+            pending = newPending;
+            if (quietPeriodTimer != null) {
+                quietPeriodTimer.cancel(false);
+                quietPeriodTimer = null;
+            }
+            if (pending != null && !running) {
+                quietPeriodTimer = scheduler.schedule(this::quietPeriodElapsed, quietPeriodNanos, TimeUnit.NANOSECONDS);
+            }
+            return superseded;
+        }
+
+        private boolean isIdle() {
+            return pending == null && !running;
+        }
+
+        private void quietPeriodElapsed() {
+            final PendingCommand next;
+            synchronized (this) {
+                if (running || pending == null) {
+                    return;
+                }
+                quietPeriodTimer = null;
+                next = takePending();
+            }
+            submit(next);
+        }
+
+        /**
+         * Submits the given command for execution. If the executor rejects it, the command's future is completed
+         * exceptionally and the key is no longer regarded as running.
+         */
+        private void submit(final PendingCommand next) {
+            try {
+                executor.execute(() -> execute(next));
+            } catch (final RejectedExecutionException e) {
+                LOG.warn("submit() - Executor rejected action command {} for key {}", next.command, key, e);
+                next.configurer.releaseUriActionCommand();
+                next.future.completeExceptionally(e);
+                commandCompleted();
+            }
+        }
+
+        private PendingCommand takePending() {
+            final PendingCommand next = pending;
+            pending = null;
+            running = true;
+            return next;
+        }
+
+        private void execute(final PendingCommand pendingCommand) {
+            try {
+                LOG.debug("execute() - Running action command {} for key {}", pendingCommand.command, key);
+                pendingCommand.future.complete(new Result(Status.EXECUTED, UriActionMapperTree.runActionCommand(pendingCommand.configurer)));
+            } catch (final RuntimeException | Error e) {
+                LOG.warn("execute() - Action command {} threw an exception", pendingCommand.command, e);
+                pendingCommand.future.completeExceptionally(e);
+            } finally {
+                commandCompleted();
+            }
+        }
+
+        private void commandCompleted() {
+            final PendingCommand next;
+            synchronized (this) {
+                running = false;
+                if (pending == null) {
+                    next = null;
+                } else {
+                    if (quietPeriodTimer != null) {
+                        quietPeriodTimer.cancel(false);
+                        quietPeriodTimer = null;
+                    }
+                    next = takePending();
+                }
+            }
+
+            if (next == null) {
+                keyStates.computeIfPresent(key, (k, state) -> {
+                    synchronized (state) {
+                        return state == this && isIdle() ? null : state;
+                    }
+                });
+            } else {
+                submit(next);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.roklib.urifragmentrouting;
+
+import org.roklib.urifragmentrouting.mapper.AbstractUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.DispatchingUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.UriPathSegmentActionMapper;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bloom filter over the literal path segments of the sub-mappers of a root mapper. A prefilter can only be created for
+ * root mappers whose sub-mappers are all responsible for exactly their own path segment name and its aliases, i. e.
+ * which neither have a catch-all nor a tail mapper nor any sub-mapper which is not a {@link
+ * AbstractUriPathSegmentActionMapper#isLiteralSegmentMapper() literal segment mapper}. For such a root mapper, a URI fragment whose first
+ * non-empty URI token is neither the name of a sub-mapper nor one of the path segments or aliases in the {@link
+ * DispatchingUriPathSegmentActionMapper#getLiteralSegmentIndex() literal segment index} cannot be resolved to any
+ * action mapper. The Bloom filter answers this question without false negatives and with a false
+ * positive rate of well below one percent.
+ * <p>
+ * A prefilter is a snapshot of the root mapper at the time of its creation and has to be recreated whenever
+ * sub-mappers or path segment aliases are added to the root mapper.
+ */
+final class FirstSegmentPrefilter {
+    private static final int BITS_PER_SEGMENT = 16;
+    private static final int HASH_FUNCTIONS = 4;
+
+    private final long[] bits;
+    private final int mask;
+
+    private FirstSegmentPrefilter(final int segmentCount) {
+        int bitCount = Long.SIZE;
+        while (bitCount < segmentCount * BITS_PER_SEGMENT) {
+            bitCount <<= 1;
+        }
+        bits = new long[bitCount / Long.SIZE];
+        mask = bitCount - 1;
+    }
+
+    /**
+     * Creates a prefilter for the given root mapper.
+     *
+     * @param rootMapper the root mapper of an action mapper tree
+     *
+     * @return the prefilter for this root mapper or {@code null} if the sub-mappers of the root mapper are not purely
+     * literal
+     */
+    static FirstSegmentPrefilter forRootMapper(final DispatchingUriPathSegmentActionMapper rootMapper) {
+        if (rootMapper.getCatchAllMapper() != null || rootMapper.getTailMapper() != null) {
+            return null;
+        }
+        for (final UriPathSegmentActionMapper subMapper : rootMapper.getSubMapperMap().values()) {
+            if (!(subMapper instanceof AbstractUriPathSegmentActionMapper)
+                    || !((AbstractUriPathSegmentActionMapper) subMapper).isLiteralSegmentMapper()) {
+                return null;
+            }
+        }
+        final Map<String, UriPathSegmentActionMapper> literalSegmentIndex = rootMapper.getLiteralSegmentIndex();
+        final FirstSegmentPrefilter prefilter = new FirstSegmentPrefilter(
+                rootMapper.getSubMapperMap().size() + literalSegmentIndex.size());
+        rootMapper.getSubMapperMap().keySet().forEach(prefilter::add);
+        literalSegmentIndex.keySet().forEach(prefilter::add);
+        return prefilter;
+    }
+
+    /**
+     * Returns {@code false} if the given URI tokens definitely cannot be resolved by the root mapper of this
+     * prefilter. Returns {@code true} for URI tokens without any non-empty token, since these resolve to the root
+     * mapper itself.
+     *
+     * @param uriTokens the URI tokens of a URI fragment
+     *
+     * @return {@code false} if the URI tokens cannot be routed, {@code true} if they might be routable
+     */
+    boolean mightBeRoutable(final List<String> uriTokens) {
+        for (final String uriToken : uriTokens) {
+            if (!uriToken.isEmpty()) {
+                return mightContain(uriToken);
+            }
+        }
+        return true;
+    }
+
+    private void add(final String segment) {
+        final int hash = segment.hashCode();
+        final int increment = secondHash(hash);
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            final int bit = (hash + i * increment) & mask;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private boolean mightContain(final String segment) {
+        final int hash = segment.hashCode();
+        final int increment = secondHash(hash);
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            final int bit = (hash + i * increment) & mask;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int secondHash(final int hash) {
+        final int mixed = hash * 0x9E3779B9;
+        return (mixed ^ (mixed >>> 16)) | 1;
+    }
+}
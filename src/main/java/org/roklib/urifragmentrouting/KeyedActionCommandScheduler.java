@@ -0,0 +1,248 @@
+package org.roklib.urifragmentrouting;
+
+import org.roklib.urifragmentrouting.helper.ActionCommandConfigurer;
+import org.roklib.urifragmentrouting.helper.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Scheduler which executes the {@link UriActionCommand}s resolved by a {@link UriActionMapperTree} sequentially per
+ * key and in parallel across different keys. A typical key is the ID of the current user session: all URI fragments
+ * visited in the same session are executed one after the other in the order in which they were scheduled, while the
+ * URI fragments of different sessions are executed concurrently on a shared {@link Executor}. By that, it is no longer
+ * necessary to synchronize on the user session in order to keep the action commands of one session in order.
+ * <p>
+ * The URI fragment is interpreted and the action command object is configured synchronously on the calling thread (see
+ * {@link UriActionMapperTree#interpretFragment(String, Object, boolean)}). Only the execution of the command is
+ * deferred. For this, every key has its own lightweight mailbox consisting of a lock-free queue and a drain flag. When
+ * a command is added to an idle mailbox, a drain task is submitted to the executor which runs the queued commands one
+ * after another. A drain task processes at most a fixed number of commands at a time before it resubmits itself, so
+ * that a busy key cannot starve other keys on the shared executor. Idle mailboxes are discarded automatically, so no
+ * clean up is necessary when a user session ends.
+ * <p>
+ * An exception thrown by an action command completes the future returned for this command exceptionally. It does not
+ * affect the execution of the commands scheduled after it.
+ * <p>
+ * Action command objects obtained from an action mapper with the {@link ActionCommandLifecycle#POOLED} lifecycle are
+ * returned to their pool after they have been executed or rejected. As with {@link
+ * UriActionMapperTree#interpretFragmentAsync(String, Object, java.util.concurrent.Executor)}, the futures for such
+ * command objects are completed with a {@link ReleasedActionCommand} placeholder instead of the pooled command object.
+ *
+ * @param <K> type of the key which determines the commands that have to be executed sequentially
+ */
+public class KeyedActionCommandScheduler<K> {
+    private static final Logger LOG = LoggerFactory.getLogger(KeyedActionCommandScheduler.class);
+    private static final int MAX_COMMANDS_PER_DRAIN = 16;
+
+    private final UriActionMapperTree uriActionMapperTree;
+    private final Executor executor;
+    private final ConcurrentMap<K, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new scheduler for the given URI action mapper tree which executes the action commands on the common
+     * {@link ForkJoinPool}.
+     *
+     * @param uriActionMapperTree the mapper tree which interprets the scheduled URI fragments. Must not be {@code
+     *                            null}.
+     */
+    public KeyedActionCommandScheduler(final UriActionMapperTree uriActionMapperTree) {
+        this(uriActionMapperTree, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new scheduler for the given URI action mapper tree which executes the action commands with the given
+     * {@link Executor}.
+     *
+     * @param uriActionMapperTree the mapper tree which interprets the scheduled URI fragments. Must not be {@code
+     *                            null}.
+     * @param executor            the executor shared by all keys for running the action commands. Must not be {@code
+     *                            null}.
+     */
+    public KeyedActionCommandScheduler(final UriActionMapperTree uriActionMapperTree, final Executor executor) {
+        Preconditions.checkNotNull(uriActionMapperTree);
+        Preconditions.checkNotNull(executor);
+        this.uriActionMapperTree = uriActionMapperTree;
+        this.executor = executor;
+    }
+
+    /**
+     * Interprets the given URI fragment with the specified context object and schedules the resulting action command
+     * for execution. The command will be executed after all commands previously scheduled for the same key have
+     * finished.
+     *
+     * @param key         the key for which the commands are executed sequentially, e. g. a session ID. Must not be
+     *                    {@code null}.
+     * @param uriFragment the URI fragment to be interpreted
+     * @param context     a custom defined context object which is passed to the action command object via a method
+     *                    annotated with {@link org.roklib.urifragmentrouting.annotation.RoutingContext
+     *                    RoutingContext}.
+     * @param <C>         type of the context object
+     *
+     * @return a future which is completed with the command object after it has been executed, or which is completed
+     * with {@code null} right away if the fragment could not be resolved to any command factory
+     */
+    public <C> CompletableFuture<UriActionCommand> interpretFragment(final K key, final String uriFragment, final C context) {
+        return interpretFragment(key, uriFragment, context, null);
+    }
+
+    /**
+     * Interprets the given URI fragment with the specified context object and the action command factories of the
+     * given session bindings (see {@link UriActionMapperTree#interpretFragment(String, Object, ActionCommandBindings,
+     * boolean)}) and schedules the resulting action command for execution. The command will be executed after all
+     * commands previously scheduled for the same key have finished.
+     *
+     * @param key         the key for which the commands are executed sequentially, e. g. a session ID. Must not be
+     *                    {@code null}.
+     * @param uriFragment the URI fragment to be interpreted
+     * @param context     a custom defined context object which is passed to the action command object via a method
+     *                    annotated with {@link org.roklib.urifragmentrouting.annotation.RoutingContext
+     *                    RoutingContext}.
+     * @param bindings    the action command factories of the session. May be {@code null}, in which case only the
+     *                    action command factories of the action mappers are used.
+     * @param <C>         type of the context object
+     *
+     * @return a future which is completed with the command object after it has been executed, or which is completed
+     * with {@code null} right away if the fragment could not be resolved to any command factory
+     */
+    public <C> CompletableFuture<UriActionCommand> interpretFragment(final K key, final String uriFragment, final C context,
+                                                                     final ActionCommandBindings bindings) {
+        Preconditions.checkNotNull(key);
+        final ActionCommandConfigurer configurer = uriActionMapperTree.interpretFragmentForDeferredExecution(uriFragment, context, bindings);
+        if (configurer == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return schedule(key, new ScheduledCommand(configurer.getConfiguredUriActionCommand(), configurer));
+    }
+
+    /**
+     * Schedules the given action command for execution. The command will be executed after all commands previously
+     * scheduled for the same key have finished.
+     *
+     * @param key     the key for which the commands are executed sequentially, e. g. a session ID. Must not be {@code
+     *                null}.
+     * @param command the action command to be executed. Must not be {@code null}.
+     *
+     * @return a future which is completed with the given command object after it has been executed. If the executor
+     * rejects the execution, the command is not executed and the future is completed exceptionally with the {@link
+     * RejectedExecutionException}. The same applies to all other commands which are waiting for the same key at that
+     * time.
+     */
+    public CompletableFuture<UriActionCommand> schedule(final K key, final UriActionCommand command) {
+        Preconditions.checkNotNull(key);
+        Preconditions.checkNotNull(command);
+        return schedule(key, new ScheduledCommand(command, null));
+    }
+
+    private CompletableFuture<UriActionCommand> schedule(final K key, final ScheduledCommand scheduledCommand) {
+        final Mailbox mailbox = mailboxes.compute(key, (k, existingMailbox) -> {
+            final Mailbox result = existingMailbox == null ? new Mailbox(k) : existingMailbox;
+            result.queue.offer(scheduledCommand);
+            return result;
+        });
+        mailbox.scheduleDrain();
+        return scheduledCommand.future;
+    }
+
+    /**
+     * Returns the number of keys which currently have pending or running action commands.
+     *
+     * @return the number of keys with active mailboxes
+     */
+    public int getActiveKeyCount() {
+        return mailboxes.size();
+    }
+
+    /**
+     * A command waiting in a mailbox. Commands which have been interpreted by the scheduler itself keep their
+     * configurer, so that they are released to their action command factory after they have been executed or
+     * rejected. Commands passed in by the caller with {@link #schedule(Object, UriActionCommand)} have no configurer.
+     */
+    private static final class ScheduledCommand {
+        private final UriActionCommand command;
+        private final ActionCommandConfigurer configurer;
+        private final CompletableFuture<UriActionCommand> future = new CompletableFuture<>();
+
+        private ScheduledCommand(final UriActionCommand command, final ActionCommandConfigurer configurer) {
+            this.command = command;
+            this.configurer = configurer;
+        }
+
+        private void execute() {
+            if (configurer != null) {
+                try {
+                    future.complete(UriActionMapperTree.runActionCommand(configurer));
+                } catch (final RuntimeException | Error e) {
+                    LOG.warn("execute() - Action command {} threw an exception", command, e);
+                    future.completeExceptionally(e);
+                }
+                return;
+            }
+            try {
+                command.run();
+                future.complete(command);
+            } catch (final RuntimeException | Error e) {
+                LOG.warn("execute() - Action command {} threw an exception", command, e);
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void reject(final RejectedExecutionException e) {
+            if (configurer != null) {
+                configurer.releaseUriActionCommand();
+            }
+            future.completeExceptionally(e);
+        }
+    }
+
+    private final class Mailbox implements Runnable {
+        private final K key;
+        private final Queue<ScheduledCommand> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Mailbox(final K key) {
+            this.key = key;
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (final RejectedExecutionException e) {
+                    LOG.warn("scheduleDrain() - Executor rejected the action commands for key {}", key, e);
+                    draining.set(false);
+                    ScheduledCommand rejected;
+                    while ((rejected = queue.poll()) != null) {
+                        rejected.reject(e);
+                    }
+                    removeIfIdle();
+                }
+            }
+        }
+
+        private void removeIfIdle() {
+            mailboxes.computeIfPresent(key, (k, mailbox) ->
+                    mailbox == this && queue.isEmpty() && !draining.get() ? null : mailbox);
+        }
+
+        @Override
+        public void run() {
+            ScheduledCommand next;
+            int processed = 0;
+            while (processed < MAX_COMMANDS_PER_DRAIN && (next = queue.poll()) != null) {
+                next.execute();
+                processed++;
+            }
+            draining.set(false);
+
+            if (queue.isEmpty()) {
+                removeIfIdle();
+            } else {
+                scheduleDrain();
+            }
+        }
+    }
+}
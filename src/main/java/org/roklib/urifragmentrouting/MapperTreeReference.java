@@ -0,0 +1,42 @@
+package org.roklib.urifragmentrouting;
+
+import java.io.*;
+
+/**
+ * Serialized form of a {@link UriActionMapperTree} which is registered in the {@link MapperTreeRegistry}. Only the
+ * registration name and version of the tree are written to the object stream. On deserialization, the reference is
+ * resolved to the tree registered under the same name in the {@link MapperTreeRegistry} of the receiving JVM.
+ */
+final class MapperTreeReference implements Externalizable {
+    private static final long serialVersionUID = -4436512206734095331L;
+
+    private String name;
+    private int version;
+
+    /**
+     * Constructor required for deserialization.
+     */
+    public MapperTreeReference() {
+    }
+
+    MapperTreeReference(final MapperTreeRegistry.Registration registration) {
+        name = registration.getName();
+        version = registration.getVersion();
+    }
+
+    @Override
+    public void writeExternal(final ObjectOutput out) throws IOException {
+        out.writeUTF(name);
+        out.writeInt(version);
+    }
+
+    @Override
+    public void readExternal(final ObjectInput in) throws IOException {
+        name = in.readUTF();
+        version = in.readInt();
+    }
+
+    private Object readResolve() throws ObjectStreamException {
+        return MapperTreeRegistry.resolve(name, version).getTree();
+    }
+}
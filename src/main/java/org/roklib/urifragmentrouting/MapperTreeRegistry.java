@@ -0,0 +1,232 @@
+package org.roklib.urifragmentrouting;
+
+import org.roklib.urifragmentrouting.helper.Preconditions;
+import org.roklib.urifragmentrouting.mapper.UriPathSegmentActionMapper;
+
+import java.io.InvalidObjectException;
+import java.util.*;
+
+/**
+ * JVM-wide registry of named {@link UriActionMapperTree}s. Registering a mapper tree makes the tree and its action
+ * mappers cheap to serialize. This is relevant for applications running in a servlet container which replicates HTTP
+ * sessions: a session which references the mapper tree or one of its action mappers, for example through an action
+ * command whose {@link org.roklib.urifragmentrouting.annotation.CurrentActionMapper @CurrentActionMapper} method
+ * received an {@link org.roklib.urifragmentrouting.mapper.ImmutableActionMapperWrapper}, would otherwise drag the
+ * complete object graph of the mapper tree through Java serialization, if the tree could be serialized at all.
+ * <p>
+ * A registered mapper tree is written to an object stream as its registration name and version. An action mapper of a
+ * registered tree is written as the registration name and version of its tree plus its mapper name. On
+ * deserialization, these references are resolved against this registry, i. e. they are resolved to the tree which is
+ * registered under the same name in the receiving JVM. Every JVM of a cluster therefore has to build its mapper tree
+ * and register it under the same name and version before replicated sessions are deserialized:
+ * <pre>
+ * UriActionMapperTree tree = UriActionMapperTree.create().buildMapperTree()
+ *         ...
+ *         .build();
+ * MapperTreeRegistry.register("main", 3, tree);
+ * </pre>
+ * The version identifies the structure of the tree. It should be changed whenever the route structure of an
+ * application changes, so that references written by a JVM with a different route structure are rejected with an
+ * {@link java.io.InvalidObjectException} instead of being resolved to the wrong action mappers.
+ * <p>
+ * Only registered mapper trees have a compact serialized form. Mapper trees which are not registered cannot be
+ * serialized, and neither can their action mappers, since these reference their tree through their parent mappers.
+ * Only action mappers which do not belong to any mapper tree are serialized with their complete object graph.
+ * <p>
+ * This class is thread-safe. Mapper trees have to be completely built before they are registered.
+ */
+public final class MapperTreeRegistry {
+    private static final Map<String, Registration> REGISTRATIONS_BY_NAME = new HashMap<>();
+    private static final Map<UriPathSegmentActionMapper, Registration> REGISTRATIONS_BY_ROOT_MAPPER = new IdentityHashMap<>();
+
+    private MapperTreeRegistry() {
+    }
+
+    /**
+     * Registers the given mapper tree under the given name with version 1 or, if another tree is already registered
+     * under this name, with the version of the other tree incremented by one. The other tree is unregistered. If the
+     * given tree is already registered under this name, its registration is returned unchanged.
+     *
+     * @param name the name of the mapper tree. Must not be {@code null}.
+     * @param tree the completely built mapper tree. Must not be {@code null}.
+     *
+     * @return the registration of the tree
+     * @throws IllegalArgumentException if the tree is already registered under another name
+     */
+    public static synchronized Registration register(final String name, final UriActionMapperTree tree) {
+        Preconditions.checkNotNull(name);
+        final Registration previous = REGISTRATIONS_BY_NAME.get(name);
+        if (previous != null && previous.tree == tree) {
+            return previous;
+        }
+        return register(name, previous == null ? 1 : previous.version + 1, tree);
+    }
+
+    /**
+     * Registers the given mapper tree under the given name and version. A tree previously registered under this name is
+     * unregistered.
+     *
+     * @param name    the name of the mapper tree. Must not be {@code null}.
+     * @param version the version of the tree's structure
+     * @param tree    the completely built mapper tree. Must not be {@code null}.
+     *
+     * @return the registration of the tree
+     * @throws IllegalArgumentException if the tree is already registered under another name
+     */
+    public static synchronized Registration register(final String name, final int version, final UriActionMapperTree tree) {
+        Preconditions.checkNotNull(name);
+        Preconditions.checkNotNull(tree);
+        final Registration existing = REGISTRATIONS_BY_ROOT_MAPPER.get(tree.getRootActionMapper());
+        if (existing != null && !existing.name.equals(name)) {
+            throw new IllegalArgumentException("The mapper tree is already registered under name '" + existing.name + "'");
+        }
+        unregister(name);
+        final Registration registration = new Registration(name, version, tree);
+        REGISTRATIONS_BY_NAME.put(name, registration);
+        REGISTRATIONS_BY_ROOT_MAPPER.put(tree.getRootActionMapper(), registration);
+        return registration;
+    }
+
+    /**
+     * Removes the mapper tree registered under the given name from this registry.
+     *
+     * @param name the name of a mapper tree
+     *
+     * @return {@code true} if a mapper tree was registered under this name
+     */
+    public static synchronized boolean unregister(final String name) {
+        final Registration registration = REGISTRATIONS_BY_NAME.remove(name);
+        if (registration == null) {
+            return false;
+        }
+        REGISTRATIONS_BY_ROOT_MAPPER.remove(registration.tree.getRootActionMapper());
+        return true;
+    }
+
+    /**
+     * Returns the registration of the mapper tree registered under the given name.
+     *
+     * @param name the name of a mapper tree
+     *
+     * @return the registration or {@code null} if no mapper tree is registered under this name
+     */
+    public static synchronized Registration lookup(final String name) {
+        return REGISTRATIONS_BY_NAME.get(name);
+    }
+
+    /**
+     * Resolves a registration name and version which have been read from an object stream to the current registration
+     * with this name.
+     *
+     * @param name    the registration name of a mapper tree
+     * @param version the registration version of a mapper tree
+     *
+     * @return the registration
+     * @throws InvalidObjectException if no mapper tree is registered under this name or if the registered tree has a
+     *                                different version
+     */
+    public static Registration resolve(final String name, final int version) throws InvalidObjectException {
+        final Registration registration = lookup(name);
+        if (registration == null) {
+            throw new InvalidObjectException("No mapper tree is registered under name '" + name + "'");
+        }
+        if (registration.version != version) {
+            throw new InvalidObjectException("Mapper tree '" + name + "' is registered with version "
+                    + registration.version + " but version " + version + " was requested");
+        }
+        return registration;
+    }
+
+    /**
+     * Returns the registration of the given mapper tree.
+     *
+     * @param tree a mapper tree
+     *
+     * @return the registration or {@code null} if the tree is not registered
+     */
+    public static synchronized Registration getRegistration(final UriActionMapperTree tree) {
+        Preconditions.checkNotNull(tree);
+        return REGISTRATIONS_BY_ROOT_MAPPER.get(tree.getRootActionMapper());
+    }
+
+    /**
+     * Returns the registration of the mapper tree which contains the given action mapper. The tree is found by
+     * following the parent mappers of the action mapper up to the tree's root action mapper.
+     *
+     * @param mapper an action mapper. Must not be {@code null}.
+     *
+     * @return the registration or {@code null} if the action mapper does not belong to a registered tree
+     */
+    public static Registration getRegistration(final UriPathSegmentActionMapper mapper) {
+        Preconditions.checkNotNull(mapper);
+        UriPathSegmentActionMapper current = mapper;
+        while (current != null && !UriActionMapperTree.ROOT_MAPPER.equals(current.getMapperName())) {
+            current = current.getParentMapper();
+        }
+        if (current == null) {
+            return null;
+        }
+        synchronized (MapperTreeRegistry.class) {
+            return REGISTRATIONS_BY_ROOT_MAPPER.get(current);
+        }
+    }
+
+    /**
+     * The registration of a mapper tree under a name and version.
+     */
+    public static final class Registration {
+        private final String name;
+        private final int version;
+        private final UriActionMapperTree tree;
+
+        private Registration(final String name, final int version, final UriActionMapperTree tree) {
+            this.name = name;
+            this.version = version;
+            this.tree = tree;
+        }
+
+        /**
+         * Returns the name under which the mapper tree is registered.
+         *
+         * @return the registration name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the version under which the mapper tree is registered.
+         *
+         * @return the registration version
+         */
+        public int getVersion() {
+            return version;
+        }
+
+        /**
+         * Returns the registered mapper tree.
+         *
+         * @return the mapper tree
+         */
+        public UriActionMapperTree getTree() {
+            return tree;
+        }
+
+        /**
+         * Returns the action mapper of the registered tree with the given mapper name in constant time. The root action
+         * mapper has the mapper name {@link UriActionMapperTree#ROOT_MAPPER}.
+         *
+         * @param mapperName the name of an action mapper
+         *
+         * @return the action mapper or {@code null} if the tree has no action mapper with this name
+         */
+        public UriPathSegmentActionMapper getMapper(final String mapperName) {
+            return tree.findMapper(mapperName);
+        }
+
+        @Override
+        public String toString() {
+            return "Registration{name='" + name + "', version=" + version + '}';
+        }
+    }
+}
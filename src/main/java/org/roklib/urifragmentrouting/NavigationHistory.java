@@ -0,0 +1,295 @@
+package org.roklib.urifragmentrouting;
+
+import org.roklib.urifragmentrouting.helper.Preconditions;
+import org.roklib.urifragmentrouting.mapper.UriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValuesSnapshot;
+
+import java.io.Serializable;
+
+/**
+ * Bounded back and forward history of the URI fragments visited in a user session. Each entry of the history consists
+ * of a URI fragment, the name of the action mapper which the fragment resolved to, and an immutable snapshot of the
+ * parameter values captured from the fragment. A navigation history can be used to implement undo functionality or to
+ * restore the views of a session.
+ * <p>
+ * The captured parameter values of an entry are stored as a {@link ParameterValuesSnapshot} which shares all unchanged
+ * action mappers and parameter values with the snapshot of the previous entry. Since consecutive URI fragments usually
+ * differ in only a few parameter values, the memory needed by the history grows with the number of changed parameter
+ * values and not with the total number of captured parameter values.
+ * <p>
+ * The history behaves like the history of a web browser: recording a new entry while the current entry is not the
+ * latest one discards all entries after the current one. Moving back and forward in the history and recording a new
+ * entry take constant time. The history is bounded by a maximum number of entries and by a maximum estimated size in
+ * bytes of the entries' snapshots as reported by {@link ParameterValuesSnapshot#getOwnSizeInBytes()}. When one of these
+ * bounds is exceeded, the oldest entries are evicted. The size estimate attributes shared parts of a snapshot to the
+ * entry which created them, so it is an approximation of the actual memory footprint.
+ * <p>
+ * A navigation history is typically stored in the user session. It is thread-safe and serializable, provided that the
+ * captured parameter values are serializable as described for {@link
+ * org.roklib.urifragmentrouting.parameter.value.ParameterValue ParameterValue}.
+ */
+public final class NavigationHistory implements Serializable {
+    private static final long serialVersionUID = -2880939524612412373L;
+
+    private final Entry[] entries;
+    private final long maxSizeInBytes;
+    /**
+     * Index of the oldest entry in {@link #entries}.
+     */
+    private int first;
+    private int size;
+    /**
+     * Position of the current entry relative to the oldest entry, or -1 if the history is empty.
+     */
+    private int current = -1;
+    private long sizeInBytes;
+
+    /**
+     * Creates a new, empty navigation history without a limit for the estimated size of its entries.
+     *
+     * @param maxEntries the maximum number of entries of the history
+     *
+     * @throws IllegalArgumentException if the maximum number of entries is less than one
+     */
+    public NavigationHistory(final int maxEntries) {
+        this(maxEntries, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new, empty navigation history.
+     *
+     * @param maxEntries     the maximum number of entries of the history
+     * @param maxSizeInBytes the maximum estimated size of the entries' parameter value snapshots in bytes. The current
+     *                       entry is never evicted, even if its snapshot alone exceeds this size.
+     *
+     * @throws IllegalArgumentException if the maximum number of entries is less than one or if the maximum size is
+     *                                  negative
+     */
+    public NavigationHistory(final int maxEntries, final long maxSizeInBytes) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The maximum number of entries must be at least one");
+        }
+        if (maxSizeInBytes < 0) {
+            throw new IllegalArgumentException("The maximum size must not be negative");
+        }
+        entries = new Entry[maxEntries];
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    /**
+     * Records the given route match as the new current entry of this history. Route matches which are not {@link
+     * RouteMatch#isFound() found} are recorded, too.
+     *
+     * @param routeMatch the route match to be recorded. Must not be {@code null}.
+     *
+     * @return the new current entry
+     */
+    public Entry record(final RouteMatch routeMatch) {
+        Preconditions.checkNotNull(routeMatch);
+        final UriPathSegmentActionMapper actionMapper = routeMatch.getActionMapper();
+        return record(routeMatch.getUriFragment(),
+                actionMapper == null ? null : actionMapper.getMapperName(),
+                routeMatch.getCapturedParameterValues());
+    }
+
+    /**
+     * Records the given URI fragment with its captured parameter values as the new current entry of this history. All
+     * entries after the current entry are discarded.
+     *
+     * @param uriFragment the URI fragment. Must not be {@code null}.
+     * @param mapperName  the name of the action mapper the URI fragment resolved to, may be {@code null}
+     * @param values      the parameter values captured from the URI fragment. Must not be {@code null}.
+     *
+     * @return the new current entry
+     */
+    public synchronized Entry record(final String uriFragment, final String mapperName, final CapturedParameterValues values) {
+        Preconditions.checkNotNull(uriFragment);
+        Preconditions.checkNotNull(values);
+        while (size > current + 1) {
+            removeLast();
+        }
+        final ParameterValuesSnapshot base = current < 0 ? ParameterValuesSnapshot.EMPTY : entryAt(current).snapshot;
+        final Entry entry = new Entry(uriFragment, mapperName, ParameterValuesSnapshot.of(values, base), base);
+        if (size == entries.length) {
+            removeFirst();
+        }
+        entries[(first + size) % entries.length] = entry;
+        size++;
+        current = size - 1;
+        sizeInBytes += entry.sizeInBytes;
+        while (sizeInBytes > maxSizeInBytes && size > 1) {
+            removeFirst();
+        }
+        return entry;
+    }
+
+    private void removeFirst() {
+        sizeInBytes -= entries[first].sizeInBytes;
+        entries[first] = null;
+        first = (first + 1) % entries.length;
+        size--;
+        current--;
+    }
+
+    private void removeLast() {
+        final int index = (first + size - 1) % entries.length;
+        sizeInBytes -= entries[index].sizeInBytes;
+        entries[index] = null;
+        size--;
+    }
+
+    private Entry entryAt(final int position) {
+        return entries[(first + position) % entries.length];
+    }
+
+    /**
+     * Returns the current entry of this history.
+     *
+     * @return the current entry or {@code null} if the history is empty
+     */
+    public synchronized Entry getCurrent() {
+        return current < 0 ? null : entryAt(current);
+    }
+
+    /**
+     * Moves one entry back in this history.
+     *
+     * @return the new current entry or {@code null} if there is no previous entry, in which case the current entry is
+     * not changed
+     */
+    public synchronized Entry back() {
+        if (current <= 0) {
+            return null;
+        }
+        current--;
+        return entryAt(current);
+    }
+
+    /**
+     * Moves one entry forward in this history.
+     *
+     * @return the new current entry or {@code null} if there is no next entry, in which case the current entry is not
+     * changed
+     */
+    public synchronized Entry forward() {
+        if (current >= size - 1) {
+            return null;
+        }
+        current++;
+        return entryAt(current);
+    }
+
+    /**
+     * Returns {@code true} if there is an entry before the current entry.
+     *
+     * @return {@code true} if {@link #back()} is possible
+     */
+    public synchronized boolean canGoBack() {
+        return current > 0;
+    }
+
+    /**
+     * Returns {@code true} if there is an entry after the current entry.
+     *
+     * @return {@code true} if {@link #forward()} is possible
+     */
+    public synchronized boolean canGoForward() {
+        return current < size - 1;
+    }
+
+    /**
+     * Returns the number of entries of this history.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the estimated size in bytes of the parameter value snapshots of all entries of this history.
+     *
+     * @return the estimated size in bytes
+     */
+    public synchronized long getEstimatedSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * Removes all entries from this history.
+     */
+    public synchronized void clear() {
+        while (size > 0) {
+            removeLast();
+        }
+        first = 0;
+        current = -1;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "NavigationHistory{size=" + size + ", current=" + current + ", estimatedBytes=" + sizeInBytes + '}';
+    }
+
+    /**
+     * Immutable entry of a {@link NavigationHistory}.
+     */
+    public static final class Entry implements Serializable {
+        private static final long serialVersionUID = 4216512609386740419L;
+
+        private final String uriFragment;
+        private final String mapperName;
+        private final ParameterValuesSnapshot snapshot;
+        private final long sizeInBytes;
+
+        private Entry(final String uriFragment, final String mapperName, final ParameterValuesSnapshot snapshot,
+                      final ParameterValuesSnapshot base) {
+            this.uriFragment = uriFragment;
+            this.mapperName = mapperName;
+            this.snapshot = snapshot;
+            sizeInBytes = snapshot == base ? 0 : snapshot.getOwnSizeInBytes();
+        }
+
+        /**
+         * Returns the recorded URI fragment.
+         *
+         * @return the URI fragment
+         */
+        public String getUriFragment() {
+            return uriFragment;
+        }
+
+        /**
+         * Returns the name of the action mapper the recorded URI fragment resolved to.
+         *
+         * @return the mapper name or {@code null} if the URI fragment did not resolve to an action mapper
+         */
+        public String getMapperName() {
+            return mapperName;
+        }
+
+        /**
+         * Returns the immutable snapshot of the parameter values captured from the recorded URI fragment.
+         *
+         * @return the parameter values snapshot
+         */
+        public ParameterValuesSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        /**
+         * Returns a new, mutable copy of the parameter values captured from the recorded URI fragment.
+         *
+         * @return the captured parameter values
+         */
+        public CapturedParameterValues getCapturedParameterValues() {
+            return snapshot.toCapturedParameterValues();
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{uriFragment='" + uriFragment + "', mapperName='" + mapperName + "'}";
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.roklib.urifragmentrouting;
+
+import org.roklib.urifragmentrouting.helper.Preconditions;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of URI fragments which could not be resolved by a {@link UriActionMapperTree}. A negative routing cache
+ * is attached to a mapper tree with {@link UriActionMapperTree#setNegativeRoutingCache(NegativeRoutingCache)}. From then
+ * on, every URI fragment which does not resolve to an action mapper is put into the cache, and interpreting or
+ * resolving the same URI fragment again within the configured time to live immediately yields the default action
+ * command factory of the tree (or no action command factory at all) without passing the fragment through the action
+ * mapper tree.
+ * <p>
+ * This is useful for applications which receive large volumes of unroutable URI fragments, for instance from crawlers
+ * or broken links. The cache holds at most a configurable number of URI fragments. When this limit is exceeded, an
+ * approximately least recently used fragment is evicted: the eviction inspects a small sample of the cached fragments
+ * and removes an expired one or the one which has not been used for the longest time among them.
+ * <p>
+ * Since the cache is consulted for every URI fragment which is routed by the tree, looking up a fragment does not
+ * take any lock. Only adding a fragment and looking up a cached fragment update shared state.
+ * <p>
+ * Note that a cached URI fragment is not passed through the action mapper tree again until its time to live has
+ * elapsed. If the action mapper tree is changed such that previously unroutable fragments become routable, for example
+ * by replacing the index of a {@link org.roklib.urifragmentrouting.mapper.KeyIndexUriPathSegmentActionMapper}, the
+ * cache should be cleared with {@link #clear()}.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class NegativeRoutingCache {
+    /**
+     * The number of cached URI fragments inspected for evicting a single fragment.
+     */
+    private static final int EVICTION_SAMPLE_SIZE = 16;
+
+    private final int maxSize;
+    private final long timeToLiveNanos;
+    private final LongSupplier nanoClock;
+    private final LongAdder hits = new LongAdder();
+    private final AtomicLong accessCounter = new AtomicLong();
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new negative routing cache.
+     *
+     * @param maxSize    the maximum number of URI fragments held by this cache. Must be positive.
+     * @param timeToLive the time for which an unroutable URI fragment is remembered. Must be positive.
+     * @param unit       the time unit of the time to live. Must not be {@code null}.
+     */
+    public NegativeRoutingCache(final int maxSize, final long timeToLive, final TimeUnit unit) {
+        this(maxSize, timeToLive, unit, System::nanoTime);
+    }
+
+    NegativeRoutingCache(final int maxSize, final long timeToLive, final TimeUnit unit, final LongSupplier nanoClock) {
+        Preconditions.checkNotNull(unit);
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("time to live must be positive");
+        }
+        this.maxSize = maxSize;
+        this.timeToLiveNanos = unit.toNanos(timeToLive);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns {@code true} if the given URI fragment is known to be unroutable. Expired entries are removed from the
+     * cache by this method.
+     *
+     * @param uriFragment the URI fragment to look up
+     *
+     * @return {@code true} if the URI fragment has been found to be unroutable within the time to live
+     */
+    boolean contains(final String uriFragment) {
+        final Entry entry = entries.get(uriFragment);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.isExpired(nanoClock.getAsLong())) {
+            entries.remove(uriFragment, entry);
+            return false;
+        }
+        entry.lastAccess = accessCounter.incrementAndGet();
+        hits.increment();
+        return true;
+    }
+
+    /**
+     * Remembers the given URI fragment as unroutable.
+     *
+     * @param uriFragment the unroutable URI fragment
+     */
+    void add(final String uriFragment) {
+        final long now = nanoClock.getAsLong();
+        entries.put(uriFragment, new Entry(now + timeToLiveNanos, accessCounter.incrementAndGet()));
+        while (entries.size() > maxSize) {
+            evict(now);
+        }
+    }
+
+    private void evict(final long now) {
+        String eldestFragment = null;
+        Entry eldestEntry = null;
+        int sampled = 0;
+        for (final Map.Entry<String, Entry> candidate : entries.entrySet()) {
+            final Entry entry = candidate.getValue();
+            if (entry.isExpired(now)) {
+                eldestFragment = candidate.getKey();
+                eldestEntry = entry;
+                break;
+            }
+            if (eldestEntry == null || entry.lastAccess < eldestEntry.lastAccess) {
+                eldestFragment = candidate.getKey();
+                eldestEntry = entry;
+            }
+            if (++sampled == EVICTION_SAMPLE_SIZE) {
+                break;
+            }
+        }
+        if (eldestFragment != null) {
+            entries.remove(eldestFragment, eldestEntry);
+        }
+    }
+
+    /**
+     * Removes all URI fragments from this cache.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of URI fragments currently held by this cache, including expired fragments which have not
+     * been looked up since they expired.
+     *
+     * @return the number of cached URI fragments
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the maximum number of URI fragments held by this cache.
+     *
+     * @return the maximum size of this cache
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of times a URI fragment has been found in this cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "NegativeRoutingCache{size=" + size() + ", maxSize=" + maxSize + ", hits=" + getHitCount() + '}';
+    }
+
+    private static final class Entry {
+        private final long expiryTime;
+        private volatile long lastAccess;
+
+        private Entry(final long expiryTime, final long lastAccess) {
+            this.expiryTime = expiryTime;
+            this.lastAccess = lastAccess;
+        }
+
+        private boolean isExpired(final long now) {
+            return expiryTime - now <= 0;
+        }
+    }
+}
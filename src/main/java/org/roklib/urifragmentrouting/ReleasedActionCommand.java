@@ -0,0 +1,32 @@
+package org.roklib.urifragmentrouting;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Placeholder for a pooled action command object which has already been executed and returned to its pool (see {@link
+ * ActionCommandLifecycle#POOLED}). Futures which are completed after a pooled command object has been executed on
+ * another thread, such as the futures returned by {@link UriActionMapperTree#interpretFragmentAsync(String, Object,
+ * Executor)}, are completed with such a placeholder instead of the command object itself. The command object may
+ * already have been taken from the pool again and configured for another URI fragment at that time, so it must not be
+ * handed out to the caller.
+ * <p>
+ * A placeholder cannot be executed. Its {@link #run()} method always throws an {@link IllegalStateException}.
+ */
+public final class ReleasedActionCommand implements UriActionCommand {
+    private final String commandClassName;
+
+    ReleasedActionCommand(final UriActionCommand command) {
+        this.commandClassName = command.getClass().getName();
+    }
+
+    @Override
+    public void run() {
+        throw new IllegalStateException("Pooled action command object of type " + commandClassName
+                + " has already been executed and returned to its pool.");
+    }
+
+    @Override
+    public String toString() {
+        return "ReleasedActionCommand{" + commandClassName + '}';
+    }
+}
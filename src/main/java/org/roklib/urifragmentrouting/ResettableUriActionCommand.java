@@ -0,0 +1,19 @@
+package org.roklib.urifragmentrouting;
+
+/**
+ * Action command which can be reset to its initial state after it has been executed. Action command objects
+ * implementing this interface can be reused for subsequent URI fragments, which is required for action mappers using
+ * the {@link ActionCommandLifecycle#POOLED} lifecycle.
+ * <p>
+ * Implementations have to clear all data which has been injected through the annotated setter methods (see {@link
+ * UriActionCommand}) in {@link #reset()}, so that no state of a previous URI fragment leaks into the next execution of
+ * the same object.
+ */
+public interface ResettableUriActionCommand extends UriActionCommand {
+
+    /**
+     * Resets this action command to its initial state. This method is called by the framework after the action command
+     * has been executed and before it is returned to its pool.
+     */
+    void reset();
+}
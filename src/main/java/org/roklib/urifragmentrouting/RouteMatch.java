@@ -0,0 +1,237 @@
+package org.roklib.urifragmentrouting;
+
+import org.roklib.urifragmentrouting.helper.Preconditions;
+import org.roklib.urifragmentrouting.mapper.UriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+
+/**
+ * Immutable result of interpreting a URI fragment with a {@link UriActionMapperTree}. A route match contains the
+ * interpreted URI fragment, the routing status, the action mapper which the fragment resolved to, all parameter values
+ * captured from the fragment and the routing context object passed along with the interpretation process. The
+ * captured parameter values are copied when the route match is created and are only accessible through an unmodifiable
+ * view, so that later changes of the parameter values object passed to the constructor do not affect the route match.
+ * The routing context object is passed through as is.
+ * <p>
+ * Route matches are obtained with {@link UriActionMapperTree#resolve(String, Object)}, which does not create any action
+ * command objects, and they are passed to {@link StatelessUriActionCommand#run(RouteMatch)}.
+ */
+public final class RouteMatch {
+
+    /**
+     * The routing status of a {@link RouteMatch}.
+     */
+    public enum Status {
+        /**
+         * The URI fragment resolved to an action mapper which provides an action command factory.
+         */
+        FOUND,
+        /**
+         * The URI fragment could not be resolved to any action mapper, so the default action command factory of the
+         * {@link UriActionMapperTree} is responsible for it.
+         */
+        DEFAULT_FALLBACK,
+        /**
+         * The URI fragment could not be resolved to any action mapper and there is no default action command factory.
+         */
+        NOT_FOUND,
+        /**
+         * The URI fragment exceeds the {@link org.roklib.urifragmentrouting.strategy.UriFragmentLimits
+         * UriFragmentLimits} of the {@link UriActionMapperTree} and has therefore not been interpreted.
+         */
+        REJECTED
+    }
+
+    private final Status status;
+    private final String uriFragment;
+    private final UriPathSegmentActionMapper actionMapper;
+    private final CapturedParameterValues capturedParameterValues;
+    private final Object routingContext;
+    private final UriActionMapperTree tree;
+    private volatile UriFragmentTemplate uriFragmentTemplate;
+
+    /**
+     * Creates a new route match with status {@link Status#FOUND}.
+     *
+     * @param uriFragment             the interpreted URI fragment
+     * @param actionMapper            the action mapper the URI fragment resolved to. May be {@code null} if the URI
+     *                                fragment was handled by the default action command factory.
+     * @param capturedParameterValues the parameter values captured from the URI fragment. These are copied, so that the
+     *                                given object may be changed afterwards without affecting this route match. May be
+     *                                {@code null}.
+     * @param routingContext          the routing context object. May be {@code null}.
+     */
+    public RouteMatch(final String uriFragment,
+                      final UriPathSegmentActionMapper actionMapper,
+                      final CapturedParameterValues capturedParameterValues,
+                      final Object routingContext) {
+        this(Status.FOUND, uriFragment, actionMapper, capturedParameterValues, routingContext);
+    }
+
+    /**
+     * Creates a new route match.
+     *
+     * @param status                  the routing status. Must not be {@code null}.
+     * @param uriFragment             the interpreted URI fragment
+     * @param actionMapper            the action mapper the URI fragment resolved to. May be {@code null} if the URI
+     *                                fragment could not be resolved to an action mapper.
+     * @param capturedParameterValues the parameter values captured from the URI fragment. These are copied, so that the
+     *                                given object may be changed afterwards without affecting this route match. May be
+     *                                {@code null}.
+     * @param routingContext          the routing context object. May be {@code null}.
+     */
+    public RouteMatch(final Status status,
+                      final String uriFragment,
+                      final UriPathSegmentActionMapper actionMapper,
+                      final CapturedParameterValues capturedParameterValues,
+                      final Object routingContext) {
+        this(status, uriFragment, actionMapper,
+                capturedParameterValues == null ? null : CapturedParameterValues.copyOf(capturedParameterValues),
+                routingContext, null);
+    }
+
+    /**
+     * Creates a new route match for the given tree. In contrast to the public constructors, the given parameter values
+     * are not copied. They are owned by the new route match and must not be changed by the caller afterwards. This is
+     * used by the {@link UriActionMapperTree}, which creates a fresh parameter values object for every routing process.
+     */
+    RouteMatch(final Status status,
+               final String uriFragment,
+               final UriPathSegmentActionMapper actionMapper,
+               final CapturedParameterValues capturedParameterValues,
+               final Object routingContext,
+               final UriActionMapperTree tree) {
+        Preconditions.checkNotNull(status);
+        this.status = status;
+        this.uriFragment = uriFragment;
+        this.actionMapper = actionMapper;
+        this.capturedParameterValues = CapturedParameterValues.unmodifiable(
+                capturedParameterValues == null ? new CapturedParameterValues() : capturedParameterValues);
+        this.routingContext = routingContext;
+        this.tree = tree;
+    }
+
+    /**
+     * Returns the routing status of this route match.
+     *
+     * @return the routing status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns {@code true} if the URI fragment resolved to an action mapper, i. e. if the status is {@link
+     * Status#FOUND}.
+     *
+     * @return {@code true} if the URI fragment resolved to an action mapper
+     */
+    public boolean isFound() {
+        return status == Status.FOUND;
+    }
+
+    /**
+     * Returns the interpreted URI fragment.
+     *
+     * @return the interpreted URI fragment
+     */
+    public String getUriFragment() {
+        return uriFragment;
+    }
+
+    /**
+     * Returns the action mapper which the URI fragment has been resolved to. This mapper is wrapped in an {@link
+     * org.roklib.urifragmentrouting.mapper.ImmutableActionMapperWrapper ImmutableActionMapperWrapper}.
+     *
+     * @return the action mapper which the URI fragment has been resolved to or {@code null} if the URI fragment could
+     * not be resolved to an action mapper
+     */
+    public UriPathSegmentActionMapper getActionMapper() {
+        return actionMapper;
+    }
+
+    /**
+     * Returns all parameter values captured from the URI fragment. The returned object is an unmodifiable view, see
+     * {@link CapturedParameterValues#unmodifiable(CapturedParameterValues)}. In order to change parameter values, for
+     * instance to assemble a link with {@link UriActionMapperTree#assembleUriFragment(CapturedParameterValues,
+     * UriPathSegmentActionMapper)}, a copy can be obtained with {@link CapturedParameterValues#copyOf(CapturedParameterValues)}.
+     * For changing a single parameter value, {@link #with(String, String, Object)} is more efficient.
+     *
+     * @return an unmodifiable view of all parameter values captured from the URI fragment
+     */
+    public CapturedParameterValues getCapturedParameterValues() {
+        return capturedParameterValues;
+    }
+
+    /**
+     * Returns the routing context object which was passed along with the URI fragment.
+     *
+     * @param <C> type of the routing context object
+     *
+     * @return the routing context object or {@code null} if no context object was given
+     */
+    @SuppressWarnings("unchecked")
+    public <C> C getRoutingContext() {
+        return (C) routingContext;
+    }
+
+    /**
+     * Derives a URI fragment from the URI fragment of this route match in which only the value of the given parameter
+     * is changed. This is useful for pagination, sorting or filter links which lead to the current view with a single
+     * parameter value changed, such as the current URI fragment with the page number set to 3.
+     * <p>
+     * The result is the same as setting the changed value on a copy of the captured parameter values and assembling the
+     * URI fragment for the matched action mapper with {@link UriActionMapperTree#assembleUriFragment(CapturedParameterValues,
+     * UriPathSegmentActionMapper)}. However, when this method is called for the first time, the URI fragment of this
+     * route match is assembled once in its encoded form and split into one part for each action mapper on the path to
+     * the matched action mapper and one part for each query parameter. Subsequent calls reuse this encoded form and only
+     * assemble and encode the part which contains the changed parameter, so that a large number of derived links can be
+     * created cheaply. In {@link org.roklib.urifragmentrouting.parameter.ParameterMode#QUERY} mode, a query parameter
+     * which is not contained in the URI fragment yet is appended to the end of the query parameter section.
+     * <p>
+     * Only route matches which have been created by a mapper tree, such as the route matches obtained with {@link
+     * UriActionMapperTree#resolve(String, Object)}, and which resolved to an action mapper support deriving URI
+     * fragments.
+     *
+     * @param mapperName  name of the action mapper on which the parameter is registered. This has to be the matched
+     *                    action mapper or one of its parent mappers.
+     * @param parameterId ID of the parameter to be changed
+     * @param value       the new parameter value. If {@code null}, the parameter is removed from the URI fragment.
+     *
+     * @return the derived URI fragment
+     * @throws IllegalArgumentException if the action mapper is not the matched action mapper or one of its parents or if
+     *                                  the parameter is not registered on it
+     * @throws IllegalStateException    if this route match has not been resolved to an action mapper of a mapper tree
+     */
+    public String with(final String mapperName, final String parameterId, final Object value) {
+        Preconditions.checkNotNull(mapperName);
+        Preconditions.checkNotNull(parameterId);
+        return getUriFragmentTemplate().with(mapperName, parameterId, value);
+    }
+
+    private UriFragmentTemplate getUriFragmentTemplate() {
+        UriFragmentTemplate result = uriFragmentTemplate;
+        if (result == null) {
+            if (tree == null || actionMapper == null) {
+                throw new IllegalStateException("URI fragments can only be derived from route matches which have been "
+                        + "resolved to an action mapper by a mapper tree.");
+            }
+            final UriPathSegmentActionMapper[] mapperChain = tree.getMapperChain(actionMapper.getMapperName());
+            if (mapperChain == null) {
+                throw new IllegalStateException("Action mapper " + actionMapper + " does not belong to the mapper tree.");
+            }
+            result = new UriFragmentTemplate(tree, mapperChain, capturedParameterValues);
+            uriFragmentTemplate = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "RouteMatch{" +
+                "status=" + status +
+                ", uriFragment='" + uriFragment + '\'' +
+                ", actionMapper=" + actionMapper +
+                ", capturedParameterValues=" + capturedParameterValues +
+                '}';
+    }
+}
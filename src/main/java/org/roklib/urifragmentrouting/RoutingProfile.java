@@ -0,0 +1,351 @@
+package org.roklib.urifragmentrouting;
+
+import org.roklib.urifragmentrouting.helper.Preconditions;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the routing traffic recorded by a {@link RoutingProfiler}. A routing profile contains the number
+ * of routed URI fragments, the number of misses (URI fragments which could not be resolved to an action mapper), the
+ * number of hits of each action mapper, the shapes of the parameter values captured for each URI parameter, and the
+ * hit counts of the most frequently routed literal URI fragments, i. e. of those fragments which resolved to an action
+ * mapper without capturing any parameter value.
+ * <p>
+ * A routing profile can be written to and read from a file with {@link #save(Path)} and {@link #load(Path)}. This
+ * allows to record a profile from the production traffic of an application and feed it back into the {@link
+ * UriActionMapperTree} of a later run with {@link UriActionMapperTree#applyRoutingProfile(RoutingProfile)}. The file
+ * format is a simple line based text format which is stable across versions of this library: each line consists of a
+ * record type, the record's keys and a count, separated by tab characters.
+ * <p>
+ * Action mappers are identified by their mapper names, which are unique within an action mapper tree. A routing
+ * profile therefore remains applicable to a tree after unrelated parts of this tree have been changed; hit counts of
+ * mappers which no longer exist are simply ignored.
+ */
+public final class RoutingProfile implements Serializable {
+    private static final long serialVersionUID = 2231418412883610553L;
+    private static final String HEADER = "# uri-fragment-routing profile v1";
+    private static final String ROUTED = "routed";
+    private static final String MISSES = "misses";
+    private static final String MAPPER = "mapper";
+    private static final String SHAPE = "shape";
+    private static final String FRAGMENT = "fragment";
+
+    private final long routedFragmentCount;
+    private final long missCount;
+    private final Map<String, Long> mapperHits;
+    private final Map<String, Map<String, Map<String, Long>>> parameterValueShapes;
+    private final Map<String, Long> fragmentHits;
+
+    RoutingProfile(final long routedFragmentCount,
+                   final long missCount,
+                   final Map<String, Long> mapperHits,
+                   final Map<String, Map<String, Map<String, Long>>> parameterValueShapes,
+                   final Map<String, Long> fragmentHits) {
+        this.routedFragmentCount = routedFragmentCount;
+        this.missCount = missCount;
+        this.mapperHits = Collections.unmodifiableMap(new TreeMap<>(mapperHits));
+        final Map<String, Map<String, Map<String, Long>>> shapes = new TreeMap<>();
+        parameterValueShapes.forEach((mapperName, parameters) -> {
+            final Map<String, Map<String, Long>> parameterShapes = new TreeMap<>();
+            parameters.forEach((parameterId, shapeCounts) ->
+                    parameterShapes.put(parameterId, Collections.unmodifiableMap(new TreeMap<>(shapeCounts))));
+            shapes.put(mapperName, Collections.unmodifiableMap(parameterShapes));
+        });
+        this.parameterValueShapes = Collections.unmodifiableMap(shapes);
+        this.fragmentHits = Collections.unmodifiableMap(new TreeMap<>(fragmentHits));
+    }
+
+    /**
+     * Returns the number of URI fragments which have been routed while this profile was recorded.
+     *
+     * @return the number of routed URI fragments
+     */
+    public long getRoutedFragmentCount() {
+        return routedFragmentCount;
+    }
+
+    /**
+     * Returns the number of URI fragments which could not be resolved to an action mapper with an action command
+     * factory.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the ratio of misses to routed URI fragments.
+     *
+     * @return the miss rate between 0 and 1, or 0 if no URI fragment has been routed
+     */
+    public double getMissRate() {
+        return routedFragmentCount == 0 ? 0.0 : (double) missCount / routedFragmentCount;
+    }
+
+    /**
+     * Returns the number of hits of each action mapper, keyed by mapper name. An action mapper is hit whenever a URI
+     * fragment resolves to this mapper or to one of its sub-mappers.
+     *
+     * @return the hit counts of all action mappers which have been hit at least once
+     */
+    public Map<String, Long> getMapperHits() {
+        return mapperHits;
+    }
+
+    /**
+     * Returns the number of hits of the action mapper with the given name.
+     *
+     * @param mapperName the name of an action mapper
+     *
+     * @return the number of hits of this action mapper
+     */
+    public long getMapperHits(final String mapperName) {
+        return mapperHits.getOrDefault(mapperName, 0L);
+    }
+
+    /**
+     * Returns the shapes of the parameter values captured for the URI parameters of each action mapper. The returned
+     * map is keyed by mapper name and parameter id and contains the number of occurrences of each value shape, such as
+     * {@code Integer}, {@code String:digits} or {@code error}. This information can be used to check whether the types
+     * and patterns of the URI parameters fit the actual traffic.
+     *
+     * @return the value shapes of all captured URI parameters
+     */
+    public Map<String, Map<String, Map<String, Long>>> getParameterValueShapes() {
+        return parameterValueShapes;
+    }
+
+    /**
+     * Returns the hit counts of the literal URI fragments recorded in this profile.
+     *
+     * @return the hit counts of literal URI fragments, keyed by URI fragment
+     */
+    public Map<String, Long> getFragmentHits() {
+        return fragmentHits;
+    }
+
+    /**
+     * Returns the most frequently routed literal URI fragments, most frequent first.
+     *
+     * @param limit the maximum number of URI fragments to return
+     *
+     * @return the most frequently routed literal URI fragments
+     */
+    public List<String> getHotFragments(final int limit) {
+        return fragmentHits.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Writes this profile to the given file.
+     *
+     * @param file the target file. An existing file is overwritten.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save(final Path file) throws IOException {
+        Preconditions.checkNotNull(file);
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeTo(writer);
+        }
+    }
+
+    /**
+     * Reads a profile from the given file.
+     *
+     * @param file a file written by {@link #save(Path)}
+     *
+     * @return the profile read from the file
+     * @throws IOException if the file cannot be read or is not a routing profile
+     */
+    public static RoutingProfile load(final Path file) throws IOException {
+        Preconditions.checkNotNull(file);
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return readFrom(reader);
+        }
+    }
+
+    /**
+     * Writes this profile to the given writer. The writer is not closed.
+     *
+     * @param writer the target writer
+     *
+     * @throws IOException if writing fails
+     */
+    public void writeTo(final Writer writer) throws IOException {
+        Preconditions.checkNotNull(writer);
+        writer.write(HEADER);
+        writer.write('\n');
+        writeRecord(writer, routedFragmentCount, ROUTED);
+        writeRecord(writer, missCount, MISSES);
+        for (final Map.Entry<String, Long> entry : mapperHits.entrySet()) {
+            writeRecord(writer, entry.getValue(), MAPPER, entry.getKey());
+        }
+        for (final Map.Entry<String, Map<String, Map<String, Long>>> mapperEntry : parameterValueShapes.entrySet()) {
+            for (final Map.Entry<String, Map<String, Long>> parameterEntry : mapperEntry.getValue().entrySet()) {
+                for (final Map.Entry<String, Long> shapeEntry : parameterEntry.getValue().entrySet()) {
+                    writeRecord(writer, shapeEntry.getValue(), SHAPE, mapperEntry.getKey(), parameterEntry.getKey(), shapeEntry.getKey());
+                }
+            }
+        }
+        for (final Map.Entry<String, Long> entry : fragmentHits.entrySet()) {
+            writeRecord(writer, entry.getValue(), FRAGMENT, entry.getKey());
+        }
+        writer.flush();
+    }
+
+    /**
+     * Reads a profile from the given reader. The reader is not closed.
+     *
+     * @param reader a reader providing a profile written by {@link #writeTo(Writer)}
+     *
+     * @return the profile read from the reader
+     * @throws IOException if reading fails or the input is not a routing profile
+     */
+    public static RoutingProfile readFrom(final Reader reader) throws IOException {
+        Preconditions.checkNotNull(reader);
+        final BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        if (!HEADER.equals(lines.readLine())) {
+            throw new IOException("Input is not a routing profile.");
+        }
+        long routed = 0;
+        long misses = 0;
+        final Map<String, Long> mapperHits = new HashMap<>();
+        final Map<String, Map<String, Map<String, Long>>> shapes = new HashMap<>();
+        final Map<String, Long> fragmentHits = new HashMap<>();
+
+        String line;
+        int lineNumber = 1;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            final String[] fields = line.split("\t", -1);
+            try {
+                final long count = Long.parseLong(fields[fields.length - 1]);
+                switch (fields[0]) {
+                    case ROUTED:
+                        routed = count;
+                        break;
+                    case MISSES:
+                        misses = count;
+                        break;
+                    case MAPPER:
+                        mapperHits.put(unescape(fields[1]), count);
+                        break;
+                    case SHAPE:
+                        shapes.computeIfAbsent(unescape(fields[1]), key -> new HashMap<>())
+                                .computeIfAbsent(unescape(fields[2]), key -> new HashMap<>())
+                                .put(unescape(fields[3]), count);
+                        break;
+                    case FRAGMENT:
+                        fragmentHits.put(unescape(fields[1]), count);
+                        break;
+                    default:
+                        // ignore records written by later versions
+                }
+            } catch (final RuntimeException e) {
+                throw new IOException("Malformed routing profile record in line " + lineNumber + ": " + line, e);
+            }
+        }
+        return new RoutingProfile(routed, misses, mapperHits, shapes, fragmentHits);
+    }
+
+    private static void writeRecord(final Writer writer, final long count, final String type, final String... keys) throws IOException {
+        writer.write(type);
+        for (final String key : keys) {
+            writer.write('\t');
+            writer.write(escape(key));
+        }
+        writer.write('\t');
+        writer.write(Long.toString(count));
+        writer.write('\n');
+    }
+
+    private static String escape(final String value) {
+        final StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    result.append("\\\\");
+                    break;
+                case '\t':
+                    result.append("\\t");
+                    break;
+                case '\n':
+                    result.append("\\n");
+                    break;
+                case '\r':
+                    result.append("\\r");
+                    break;
+                default:
+                    result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static String unescape(final String value) {
+        final StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c != '\\') {
+                result.append(c);
+                continue;
+            }
+            final char escaped = value.charAt(++i);
+            switch (escaped) {
+                case 't':
+                    result.append('\t');
+                    break;
+                case 'n':
+                    result.append('\n');
+                    break;
+                case 'r':
+                    result.append('\r');
+                    break;
+                default:
+                    result.append(escaped);
+            }
+        }
+        return result.toString();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final RoutingProfile that = (RoutingProfile) o;
+        return routedFragmentCount == that.routedFragmentCount
+                && missCount == that.missCount
+                && mapperHits.equals(that.mapperHits)
+                && parameterValueShapes.equals(that.parameterValueShapes)
+                && fragmentHits.equals(that.fragmentHits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(routedFragmentCount, missCount, mapperHits, parameterValueShapes, fragmentHits);
+    }
+
+    @Override
+    public String toString() {
+        return "RoutingProfile{routed=" + routedFragmentCount + ", misses=" + missCount + ", mappers=" + mapperHits.size()
+                + ", fragments=" + fragmentHits.size() + '}';
+    }
+}
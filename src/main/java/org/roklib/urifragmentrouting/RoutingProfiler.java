@@ -0,0 +1,177 @@
+package org.roklib.urifragmentrouting;
+
+import org.roklib.urifragmentrouting.helper.ActionCommandConfigurer;
+import org.roklib.urifragmentrouting.mapper.UriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the routing traffic of a {@link UriActionMapperTree}. A routing profiler is attached to a mapper tree with
+ * {@link UriActionMapperTree#setRoutingProfiler(RoutingProfiler)}. From then on, every URI fragment interpreted or
+ * resolved by the tree is recorded by the profiler. The recorded data can be obtained as an immutable {@link
+ * RoutingProfile} at any time with {@link #snapshot()}.
+ * <p>
+ * The profiler is designed to be left running in production: all counters are {@link LongAdder}s, so that concurrently
+ * routing threads do not contend with each other. The number of distinct literal URI fragments which are recorded is
+ * limited (see {@link #RoutingProfiler(int)}), so that the memory consumption of the profiler stays bounded.
+ * <p>
+ * This class is thread-safe.
+ */
+public class RoutingProfiler {
+    /**
+     * Default maximum number of distinct literal URI fragments recorded by a profiler.
+     */
+    public static final int DEFAULT_MAX_RECORDED_FRAGMENTS = 10_000;
+
+    private final int maxRecordedFragments;
+    private final LongAdder routedFragments = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Map<String, LongAdder> mapperHits = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Map<String, LongAdder>>> parameterValueShapes = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> fragmentHits = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new routing profiler which records at most {@link #DEFAULT_MAX_RECORDED_FRAGMENTS} distinct literal URI
+     * fragments.
+     */
+    public RoutingProfiler() {
+        this(DEFAULT_MAX_RECORDED_FRAGMENTS);
+    }
+
+    /**
+     * Creates a new routing profiler which records at most the given number of distinct literal URI fragments. Once
+     * this limit is reached, hits of already recorded fragments are still counted, but new fragments are ignored.
+     *
+     * @param maxRecordedFragments the maximum number of distinct literal URI fragments to record
+     */
+    public RoutingProfiler(final int maxRecordedFragments) {
+        if (maxRecordedFragments < 0) {
+            throw new IllegalArgumentException("maxRecordedFragments must not be negative");
+        }
+        this.maxRecordedFragments = maxRecordedFragments;
+    }
+
+    /**
+     * Records the result of routing a URI fragment.
+     *
+     * @param uriFragment             the routed URI fragment
+     * @param actionCommandFactory    the action command factory the fragment resolved to or {@code null} for a miss
+     * @param capturedParameterValues the parameter values captured from the fragment
+     */
+    void record(final String uriFragment,
+                final UriActionCommandFactory actionCommandFactory,
+                final CapturedParameterValues capturedParameterValues) {
+        routedFragments.increment();
+        if (actionCommandFactory == null) {
+            misses.increment();
+            return;
+        }
+
+        if (uriFragment != null && capturedParameterValues.isEmpty()) {
+            LongAdder fragmentCounter = fragmentHits.get(uriFragment);
+            if (fragmentCounter == null && fragmentHits.size() < maxRecordedFragments) {
+                fragmentCounter = fragmentHits.computeIfAbsent(uriFragment, key -> new LongAdder());
+            }
+            if (fragmentCounter != null) {
+                fragmentCounter.increment();
+            }
+        }
+
+        for (final String mapperName : capturedParameterValues.getMapperNames()) {
+            for (final String parameterId : capturedParameterValues.getParameterIds(mapperName)) {
+                final ParameterValue<?> value = capturedParameterValues.getValueFor(mapperName, parameterId);
+                parameterValueShapes.computeIfAbsent(mapperName, key -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(parameterId, key -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(shapeOf(value), key -> new LongAdder())
+                        .increment();
+            }
+        }
+
+        if (actionCommandFactory instanceof ActionCommandConfigurer) {
+            UriPathSegmentActionMapper mapper = ((ActionCommandConfigurer) actionCommandFactory).getActionMapper();
+            while (mapper != null && !UriActionMapperTree.ROOT_MAPPER.equals(mapper.getMapperName())) {
+                mapperHits.computeIfAbsent(mapper.getMapperName(), key -> new LongAdder()).increment();
+                mapper = mapper.getParentMapper();
+            }
+        }
+    }
+
+    /**
+     * Classifies a parameter value. The shape of a value is the simple name of its class. For character sequences, the
+     * class of the contained characters is added, e. g. {@code String:digits}; for lists, the number of elements is
+     * added.
+     */
+    static String shapeOf(final ParameterValue<?> value) {
+        if (value.hasError()) {
+            return "error";
+        }
+        if (value.isDefaultValue()) {
+            return "default";
+        }
+        final Object object = value.getValue();
+        if (object == null) {
+            return "null";
+        }
+        if (object instanceof CharSequence) {
+            return object.getClass().getSimpleName() + ":" + characterClassOf((CharSequence) object);
+        }
+        if (object instanceof List) {
+            return object.getClass().getSimpleName() + "[" + ((List<?>) object).size() + "]";
+        }
+        return object.getClass().getSimpleName();
+    }
+
+    private static String characterClassOf(final CharSequence value) {
+        if (value.length() == 0) {
+            return "empty";
+        }
+        boolean digits = false;
+        boolean letters = false;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (Character.isDigit(c)) {
+                digits = true;
+            } else if (Character.isLetter(c)) {
+                letters = true;
+            } else {
+                return "mixed";
+            }
+        }
+        return digits && letters ? "alphanumeric" : digits ? "digits" : "letters";
+    }
+
+    /**
+     * Returns an immutable snapshot of the traffic recorded so far.
+     *
+     * @return the routing profile recorded by this profiler
+     */
+    public RoutingProfile snapshot() {
+        final Map<String, Long> mapperHitCounts = new HashMap<>();
+        mapperHits.forEach((mapperName, counter) -> mapperHitCounts.put(mapperName, counter.sum()));
+        final Map<String, Map<String, Map<String, Long>>> shapes = new HashMap<>();
+        parameterValueShapes.forEach((mapperName, parameters) -> parameters.forEach((parameterId, shapeCounters) ->
+                shapeCounters.forEach((shape, counter) -> shapes.computeIfAbsent(mapperName, key -> new HashMap<>())
+                        .computeIfAbsent(parameterId, key -> new HashMap<>())
+                        .put(shape, counter.sum()))));
+        final Map<String, Long> fragmentHitCounts = new HashMap<>();
+        fragmentHits.forEach((fragment, counter) -> fragmentHitCounts.put(fragment, counter.sum()));
+        return new RoutingProfile(routedFragments.sum(), misses.sum(), mapperHitCounts, shapes, fragmentHitCounts);
+    }
+
+    /**
+     * Discards all traffic recorded so far.
+     */
+    public void reset() {
+        routedFragments.reset();
+        misses.reset();
+        mapperHits.clear();
+        parameterValueShapes.clear();
+        fragmentHits.clear();
+    }
+}
@@ -0,0 +1,34 @@
+package org.roklib.urifragmentrouting;
+
+/**
+ * Action command which does not keep any state of the currently interpreted URI fragment in its fields. Instead of
+ * receiving the captured parameter values, the routing context and so on through annotated setter methods, a stateless
+ * action command gets all this data passed in as a {@link RouteMatch} object when it is executed. Since such an action
+ * command can safely be shared between concurrently interpreted URI fragments, a single instance of it can be used for
+ * an action mapper (see {@link ActionCommandLifecycle#STATELESS_SINGLETON}).
+ * <p>
+ * Annotated setter methods of a stateless action command are ignored. When a URI fragment resolves to a stateless
+ * action command, the {@link UriActionMapperTree} returns a lightweight {@link UriActionCommand} bound to the current
+ * {@link RouteMatch} whose {@link UriActionCommand#run()} method delegates to {@link #run(RouteMatch)}.
+ */
+public interface StatelessUriActionCommand extends UriActionCommand {
+
+    /**
+     * Executes this action command for the given route match.
+     *
+     * @param routeMatch the result of interpreting the current URI fragment
+     */
+    void run(RouteMatch routeMatch);
+
+    /**
+     * Executes this action command without the result of interpreting a URI fragment. This is the case if the command
+     * object is not run through a {@link UriActionMapperTree}, for example when it is passed directly to {@link
+     * KeyedActionCommandScheduler#schedule(Object, UriActionCommand)}. This method delegates to {@link
+     * #run(RouteMatch)} with an empty route match of status {@link RouteMatch.Status#NOT_FOUND} which has no URI
+     * fragment, no action mapper, no parameter values and no routing context.
+     */
+    @Override
+    default void run() {
+        run(new RouteMatch(RouteMatch.Status.NOT_FOUND, null, null, null, null));
+    }
+}
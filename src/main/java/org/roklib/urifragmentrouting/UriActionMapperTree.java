@@ -1,5 +1,7 @@
 package org.roklib.urifragmentrouting;
 
+import org.roklib.urifragmentrouting.codegen.GeneratedRouter;
+import org.roklib.urifragmentrouting.exception.UriFragmentLimitExceededException;
 import org.roklib.urifragmentrouting.helper.ActionCommandConfigurer;
 import org.roklib.urifragmentrouting.helper.Preconditions;
 import org.roklib.urifragmentrouting.mapper.*;
@@ -7,15 +9,26 @@ import org.roklib.urifragmentrouting.parameter.AbstractSingleUriParameter;
 import org.roklib.urifragmentrouting.parameter.ParameterMode;
 import org.roklib.urifragmentrouting.parameter.SingleValuedParameterFactory;
 import org.roklib.urifragmentrouting.parameter.UriParameter;
+import org.roklib.urifragmentrouting.parameter.UriParameterError;
 import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+import org.roklib.urifragmentrouting.rewrite.FragmentRewriteRules;
 import org.roklib.urifragmentrouting.strategy.DirectoryStyleUriTokenExtractionStrategyImpl;
 import org.roklib.urifragmentrouting.strategy.QueryParameterExtractionStrategy;
 import org.roklib.urifragmentrouting.strategy.StandardQueryNotationQueryParameterExtractionStrategyImpl;
+import org.roklib.urifragmentrouting.strategy.UriFragmentLimits;
 import org.roklib.urifragmentrouting.strategy.UriTokenExtractionStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.NotSerializableException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 
 /**
@@ -109,11 +122,38 @@ import java.util.function.Consumer;
  * depth-first approach. That is, you first create one of the root mappers, then add one of its sub-mappers, then in
  * turn add one of the sub-mappers's sub-mapper and so forth until you reach a leaf action mapper. By calling one of the
  * builders' <code>finishMapper()</code> methods, you can move one step up the mapping tree and start building the
- * siblings of the mapper you just finished.
+ * siblings of the mapper you just finished. <h1>Serialization</h1> A mapper tree can only be serialized when it is
+ * registered in the {@link MapperTreeRegistry}. It is then written as a reference consisting of its registration name
+ * and version, and this reference is resolved to the tree registered under the same name when it is deserialized. The
+ * same applies to the action mappers of a registered tree. This keeps the size of replicated HTTP sessions small which
+ * reference the mapper tree or one of its action mappers.
+ * <p>
+ * This class only implements {@link Serializable} for registered trees. There is no compact serialized form for mapper
+ * trees which are not registered: such a tree holds action command factories, strategies and other objects which are
+ * generally not serializable, so writing it to an object stream fails with a {@link NotSerializableException}. Since
+ * every action mapper of a tree references the tree through its parent mappers, the same is true for the action
+ * mappers of an unregistered tree and for {@link ImmutableActionMapperWrapper}s around them. Register the tree in the
+ * {@link MapperTreeRegistry} if it or one of its action mappers may end up in a serialized object graph.
  */
-public class UriActionMapperTree {
+public class UriActionMapperTree implements Serializable {
+    private static final long serialVersionUID = 5710387045167335816L;
 
     private static final Logger LOG = LoggerFactory.getLogger(UriActionMapperTree.class);
+    /**
+     * Sentinel returned by {@link #routeUriFragment(CapturedParameterValues, String)} for URI fragments which are known
+     * to be unroutable without having been passed through the action mapper tree.
+     */
+    private static final UriActionCommandFactory KNOWN_UNROUTABLE = () -> null;
+    /**
+     * Sentinel returned by {@link #routeUriFragment(CapturedParameterValues, String)} for URI fragments which exceed
+     * the configured {@link UriFragmentLimits}.
+     */
+    private static final UriActionCommandFactory REJECTED = () -> null;
+    /**
+     * URI fragments are logged before they are checked against the {@link UriFragmentLimits}. Longer fragments are
+     * truncated to this length in log messages, so that oversized fragments cannot flood the log.
+     */
+    private static final int MAX_LOGGED_FRAGMENT_LENGTH = 256;
     /**
      * Action mapper name for the <em>root action mapper</em>. This is the action mapper at the root of this action
      * mapper tree. This action mapper is always available and is responsible for the root URI fragment '/'. If you want
@@ -141,7 +181,16 @@ public class UriActionMapperTree {
     private ParameterMode parameterMode = ParameterMode.DIRECTORY_WITH_NAMES;
     private QueryParameterExtractionStrategy queryParameterExtractionStrategy;
     private UriTokenExtractionStrategy uriTokenExtractionStrategy;
+    private UriFragmentLimits uriFragmentLimits = UriFragmentLimits.unlimited();
     private UriActionCommandFactory defaultActionCommandFactory;
+    private volatile GeneratedRouter generatedRouter;
+    private volatile RoutingProfiler routingProfiler;
+    private volatile Map<String, UriPathSegmentActionMapper> hotFragments = Collections.emptyMap();
+    private volatile NegativeRoutingCache negativeRoutingCache;
+    private volatile FirstSegmentPrefilter firstSegmentPrefilter;
+    private volatile FragmentRewriteRules fragmentRewriteRules;
+    private volatile Map<String, Integer> bindingSlots;
+    private volatile Map<String, ReverseRoute> reverseRoutes;
 
     /**
      * Base dispatching mapper that contains all root action mappers.
@@ -177,6 +226,11 @@ public class UriActionMapperTree {
                 throw new UnsupportedOperationException();
             }
 
+            @Override
+            public boolean isLiteralSegmentMapper() {
+                return false;
+            }
+
             @Override
             public void getMapperOverview(final String path, final List<String> mapperOverviewList) {
             }
@@ -247,6 +301,11 @@ public class UriActionMapperTree {
      * The context object specified as the second parameter is passed to the action command object via a method
      * annotated with {@link org.roklib.urifragmentrouting.annotation.RoutingContext RoutingContext}. This may be an
      * arbitrary, application-defined object, so no restriction is imposed on this object.
+     * <p>
+     * How the action command object is obtained depends on the {@link ActionCommandLifecycle} of the resolved action
+     * mapper. Note that a pooled action command object which has been executed by this method is already reset and
+     * returned to its pool when this method returns, so it must not be used by the caller any more. Pooled command
+     * objects which are not executed by this method are not returned to their pool.
      *
      * @param uriFragment    the URI fragment to be interpreted
      * @param context        a custom defined context object which is passed to the action command object via a method
@@ -263,50 +322,615 @@ public class UriActionMapperTree {
      * command object will be executed by this method.
      */
     public <C> UriActionCommand interpretFragment(final String uriFragment, final C context, final boolean executeCommand) {
+        return interpretFragment(uriFragment, context, null, executeCommand);
+    }
+
+    /**
+     * Interpret the given fragment using the specified context object and the action command factories of the given
+     * session bindings. The action command object found for the given {@code uriFragment} is executed right away. See
+     * {@link #interpretFragment(String, Object, ActionCommandBindings, boolean)} for details.
+     *
+     * @param uriFragment the URI fragment to be interpreted
+     * @param context     a custom defined context object which is passed to the action command object via a method
+     *                    annotated with {@link org.roklib.urifragmentrouting.annotation.RoutingContext
+     *                    RoutingContext}.
+     * @param bindings    the action command factories of the current session
+     * @param <C>         type of the context object
+     *
+     * @return the executed command object responsible for the given {@code uriFragment} or {@code null} if the fragment
+     * could not be resolved to any command factory
+     */
+    public <C> UriActionCommand interpretFragment(final String uriFragment, final C context, final ActionCommandBindings bindings) {
+        Preconditions.checkNotNull(bindings);
+        return interpretFragment(uriFragment, context, bindings, true);
+    }
+
+    /**
+     * Interpret the given fragment like {@link #interpretFragment(String, Object, boolean)}, except that the action
+     * command object is created by the action command factory which the given bindings assign to the resolved action
+     * mapper. If the bindings contain no action command factory for this action mapper, the action mapper's own action
+     * command factory is used. This allows a single mapper tree to be shared by all sessions of an application while the
+     * action command factories, which often depend on session state, are provided per session. See {@link
+     * ActionCommandBindings} for details.
+     *
+     * @param uriFragment    the URI fragment to be interpreted
+     * @param context        a custom defined context object which is passed to the action command object via a method
+     *                       annotated with {@link org.roklib.urifragmentrouting.annotation.RoutingContext
+     *                       RoutingContext}.
+     * @param bindings       the action command factories of the current session. May be {@code null}, in which case
+     *                       only the action command factories of the action mappers are used.
+     * @param executeCommand if {@code true}, the {@link UriActionCommand} found for the given URI fragment (if any)
+     *                       will be executed right away
+     * @param <C>            type of the context object
+     *
+     * @return the command object responsible for the given {@code uriFragment} or {@code null} if the fragment could
+     * not be resolved to any command factory
+     * @throws IllegalArgumentException if the bindings have been created for another mapper tree
+     */
+    public <C> UriActionCommand interpretFragment(final String uriFragment, final C context,
+                                                  final ActionCommandBindings bindings, final boolean executeCommand) {
+        if (bindings != null && !bindings.isForTree(this)) {
+            throw new IllegalArgumentException("The action command bindings have been created for another mapper tree");
+        }
+        final UUID uuid = UUID.randomUUID();
+        final ActionCommandConfigurer configurer = interpretFragmentWithoutExecution(uriFragment, context, bindings, uuid);
+        if (configurer == null) {
+            return null;
+        }
+        final UriActionCommand actionCommandObject = configurer.getConfiguredUriActionCommand();
+        if (actionCommandObject != null && executeCommand) {
+            LOG.debug("[{}] interpretFragment() - Running action command object {}", uuid, actionCommandObject);
+            runActionCommand(configurer);
+        }
+        return actionCommandObject;
+    }
+
+    /**
+     * Interpret the given fragment using the specified context object and execute the resulting {@link
+     * UriActionCommand} asynchronously on the common {@link ForkJoinPool}. See {@link #interpretFragmentAsync(String,
+     * Object, Executor)} for details.
+     *
+     * @param uriFragment the URI fragment to be interpreted
+     * @param context     a custom defined context object which is passed to the action command object via a method
+     *                    annotated with {@link org.roklib.urifragmentrouting.annotation.RoutingContext
+     *                    RoutingContext}.
+     * @param <C>         type of the context object
+     *
+     * @return a future which is completed with the executed command object or with {@code null} if the fragment could
+     * not be resolved to any command factory
+     * @see #interpretFragmentAsync(String, Object, Executor)
+     */
+    public <C> CompletableFuture<UriActionCommand> interpretFragmentAsync(final String uriFragment, final C context) {
+        return interpretFragmentAsync(uriFragment, context, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Interpret the given fragment using the specified context object and execute the resulting {@link
+     * UriActionCommand} asynchronously with the given {@link Executor}. The interpretation of the URI fragment and the
+     * configuration of the action command object (i. e. passing the captured parameter values, the routing context and
+     * so on to the command's annotated methods) is done synchronously on the calling thread just like with {@link
+     * #interpretFragment(String, Object, boolean)}. Only the command's {@link UriActionCommand#run()} method is
+     * invoked by the executor. By that, action commands which perform blocking I/O do not block the thread which
+     * interprets the URI fragment.
+     * <p>
+     * Any {@link Executor} can be used for executing the action commands, such as a {@link ForkJoinPool} or a fixed
+     * thread pool. On Java 21 or later, a virtual-thread-per-task executor is a good choice for commands which mainly
+     * wait for I/O.
+     * <p>
+     * Exceptions thrown while interpreting the URI fragment are thrown directly by this method. Exceptions thrown by
+     * the action command's {@link UriActionCommand#run()} method complete the returned future exceptionally.
+     * <p>
+     * For action mappers with the {@link ActionCommandLifecycle#POOLED} lifecycle, the command object is reset and
+     * returned to its pool on the executor's thread right after it has been executed. Since it may be taken from the
+     * pool and configured for another URI fragment by a different thread at any time afterwards, the returned future is
+     * not completed with the pooled command object but with a {@link ReleasedActionCommand} placeholder. If the executor
+     * rejects the command, the pooled command object is released and the {@link RejectedExecutionException} is thrown
+     * by this method.
+     *
+     * @param uriFragment the URI fragment to be interpreted
+     * @param context     a custom defined context object which is passed to the action command object via a method
+     *                    annotated with {@link org.roklib.urifragmentrouting.annotation.RoutingContext
+     *                    RoutingContext}.
+     * @param executor    the executor which runs the action command object. Must not be {@code null}.
+     * @param <C>         type of the context object
+     *
+     * @return a future which is completed with the command object (or its placeholder in the case of a pooled command
+     * object) after it has been executed, or which is completed with {@code null} right away if the fragment could not
+     * be resolved to any command factory
+     * @throws NullPointerException if the executor is {@code null}
+     */
+    public <C> CompletableFuture<UriActionCommand> interpretFragmentAsync(final String uriFragment, final C context, final Executor executor) {
+        return interpretFragmentAsync(uriFragment, context, null, executor);
+    }
+
+    /**
+     * Interpret the given fragment like {@link #interpretFragmentAsync(String, Object, Executor)}, except that the
+     * action command object is created by the action command factory which the given session bindings assign to the
+     * resolved action mapper. See {@link #interpretFragment(String, Object, ActionCommandBindings, boolean)} for details
+     * on the bindings.
+     *
+     * @param uriFragment the URI fragment to be interpreted
+     * @param context     a custom defined context object which is passed to the action command object via a method
+     *                    annotated with {@link org.roklib.urifragmentrouting.annotation.RoutingContext
+     *                    RoutingContext}.
+     * @param bindings    the action command factories of the current session. May be {@code null}, in which case only
+     *                    the action command factories of the action mappers are used.
+     * @param executor    the executor which runs the action command object. Must not be {@code null}.
+     * @param <C>         type of the context object
+     *
+     * @return a future which is completed with the command object (or its placeholder in the case of a pooled command
+     * object, see {@link #interpretFragmentAsync(String, Object, Executor)}) after it has been executed, or which is
+     * completed with {@code null} right away if the fragment could not be resolved to any command factory
+     * @throws NullPointerException     if the executor is {@code null}
+     * @throws IllegalArgumentException if the bindings have been created for another mapper tree
+     */
+    public <C> CompletableFuture<UriActionCommand> interpretFragmentAsync(final String uriFragment, final C context,
+                                                                          final ActionCommandBindings bindings,
+                                                                          final Executor executor) {
+        Preconditions.checkNotNull(executor);
+        if (bindings != null && !bindings.isForTree(this)) {
+            throw new IllegalArgumentException("The action command bindings have been created for another mapper tree");
+        }
         final UUID uuid = UUID.randomUUID();
-        LOG.info("[{}] interpretFragment() - INTERPRET - [ {} ] - CONTEXT={}", uuid, uriFragment, context == null ? "[]" : context);
-        LOG.debug("[{}] interpreting fragment [ {} ] - PARAMETER_MODE={}", uuid, uriFragment, parameterMode);
+        final ActionCommandConfigurer configurer = interpretFragmentWithoutExecution(uriFragment, context, bindings, uuid);
+        final UriActionCommand actionCommandObject = configurer == null ? null : configurer.getConfiguredUriActionCommand();
+        if (actionCommandObject == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        LOG.debug("[{}] interpretFragmentAsync() - Scheduling action command object {} for execution", uuid, actionCommandObject);
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                LOG.debug("[{}] interpretFragmentAsync() - Running action command object {}", uuid, actionCommandObject);
+                return runActionCommand(configurer);
+            }, executor);
+        } catch (final RejectedExecutionException e) {
+            configurer.releaseUriActionCommand();
+            throw e;
+        }
+    }
+
+    /**
+     * Interprets the given URI fragment like {@link #interpretFragment(String, Object, ActionCommandBindings, boolean)}
+     * without executing the resulting action command object. In contrast to the public method, the configurer of the
+     * command object is returned, so that the command object can be executed and released later with {@link
+     * #runActionCommand(ActionCommandConfigurer)} or {@link #releaseActionCommand(ActionCommandConfigurer)}.
+     *
+     * @return the configurer of the configured command object or {@code null} if the fragment could not be resolved to
+     * any command object
+     * @throws IllegalArgumentException if the bindings have been created for another mapper tree
+     */
+    <C> ActionCommandConfigurer interpretFragmentForDeferredExecution(final String uriFragment, final C context,
+                                                                      final ActionCommandBindings bindings) {
+        if (bindings != null && !bindings.isForTree(this)) {
+            throw new IllegalArgumentException("The action command bindings have been created for another mapper tree");
+        }
+        final ActionCommandConfigurer configurer = interpretFragmentWithoutExecution(uriFragment, context, bindings, UUID.randomUUID());
+        return configurer == null || configurer.getConfiguredUriActionCommand() == null ? null : configurer;
+    }
+
+    private <C> ActionCommandConfigurer interpretFragmentWithoutExecution(final String originalUriFragment,
+                                                                          final C context,
+                                                                          final ActionCommandBindings bindings,
+                                                                          final UUID uuid) {
+        LOG.debug("[{}] interpretFragment() - INTERPRET - [ {} ] - CONTEXT={}", uuid, abbreviateForLog(originalUriFragment),
+                context == null ? "[]" : context);
+        final String uriFragment = rewriteUriFragment(originalUriFragment);
+        LOG.debug("[{}] interpreting fragment [ {} ] - PARAMETER_MODE={}", uuid, abbreviateForLog(uriFragment), parameterMode);
         final CapturedParameterValues capturedParameterValues = new CapturedParameterValues();
-        final UriActionCommandFactory actionCommandFactory =
-                getActionCommandFactoryForUriFragment(capturedParameterValues,
-                        uriFragment,
-                        uriTokenExtractionStrategy.extractUriTokens(queryParameterExtractionStrategy.stripQueryParametersFromUriFragment(uriFragment)),
-                        queryParameterExtractionStrategy.extractQueryParameters(uriFragment),
-                        parameterMode,
-                        uuid);
+        final UriActionCommandFactory routedCommandFactory = routeUriFragment(capturedParameterValues, uriFragment);
+        UriActionCommandFactory actionCommandFactory = getActionCommandFactoryForUriFragment(routedCommandFactory, uriFragment, uuid);
+        if (bindings != null && actionCommandFactory instanceof ActionCommandConfigurer) {
+            final UriPathSegmentActionMapper actionMapper = ((ActionCommandConfigurer) actionCommandFactory).getActionMapper();
+            final UriActionCommandFactory boundFactory = actionMapper == null ? null : bindings.getBinding(actionMapper.getMapperName());
+            if (boundFactory != null) {
+                LOG.debug("[{}] interpretFragment() - Using session bound action command factory for {}", uuid, actionMapper);
+                final UriPathSegmentActionMapper boundMapper = findMapper(actionMapper.getMapperName());
+                actionCommandFactory = new ActionCommandConfigurer(boundFactory, boundMapper == null ? actionMapper : boundMapper);
+            }
+        }
 
         if (actionCommandFactory != null) {
-            final UriActionCommand actionCommandObject = createAndConfigureUriActionCommand(uriFragment, context, capturedParameterValues, actionCommandFactory);
-            if (executeCommand) {
-                LOG.debug("[{}] interpretFragment() - Running action command object {}", uuid, actionCommandObject);
-                actionCommandObject.run();
-            }
-            return actionCommandObject;
+            final ActionCommandConfigurer configurer = actionCommandFactory instanceof ActionCommandConfigurer ?
+                    (ActionCommandConfigurer) actionCommandFactory :
+                    new ActionCommandConfigurer(actionCommandFactory);
+            configurer.configure(new RouteMatch(getRouteStatus(routedCommandFactory), uriFragment,
+                    configurer.getActionMapper(), capturedParameterValues, context, this));
+            return configurer;
         }
-        LOG.debug("[{}] interpretFragment() - No action command class found for fragment '{}'", uuid, uriFragment);
+        LOG.debug("[{}] interpretFragment() - No action command class found for fragment '{}'", uuid, abbreviateForLog(uriFragment));
         return null;
     }
 
-    private <C> UriActionCommand createAndConfigureUriActionCommand(final String currentUriFragment,
-                                                                    final C routingContext,
-                                                                    final CapturedParameterValues capturedParameterValues,
-                                                                    final UriActionCommandFactory uriActionCommandFactory) {
-        ActionCommandConfigurer configurer = uriActionCommandFactory instanceof ActionCommandConfigurer ?
-                (ActionCommandConfigurer) uriActionCommandFactory :
-                new ActionCommandConfigurer(uriActionCommandFactory);
+    /**
+     * Resolves the given URI fragment without creating an action command object. See {@link #resolve(String, Object)}
+     * for details.
+     *
+     * @param uriFragment the URI fragment to be resolved
+     *
+     * @return the routing result for the given URI fragment
+     * @see #resolve(String, Object)
+     */
+    public RouteMatch resolve(final String uriFragment) {
+        return resolve(uriFragment, null);
+    }
+
+    /**
+     * Resolves the given URI fragment to the action mapper responsible for it and captures all URI parameter values
+     * from the fragment, just like {@link #interpretFragment(String, Object, boolean)} does. In contrast to
+     * interpreting the URI fragment, no action command object is created and configured and nothing is executed. By
+     * that, this method is considerably cheaper than {@link #interpretFragment(String, Object, boolean)} and is suited
+     * for cases where only the routing result is of interest, such as link checkers, prefetchers, analytics or
+     * authorization checks.
+     * <p>
+     * The returned {@link RouteMatch} has one of the following states: {@link RouteMatch.Status#FOUND} if the fragment
+     * resolved to an action mapper with an action command factory, {@link RouteMatch.Status#DEFAULT_FALLBACK} if the
+     * fragment could not be resolved but the default action command factory would be used for it (see {@link
+     * #setDefaultActionCommandFactory(UriActionCommandFactory)}), {@link RouteMatch.Status#REJECTED} if the fragment
+     * exceeds the {@link UriFragmentLimits} configured for this tree, or {@link RouteMatch.Status#NOT_FOUND} otherwise.
+     *
+     * @param uriFragment the URI fragment to be resolved
+     * @param context     a custom defined context object which is made available through the returned {@link
+     *                    RouteMatch}. May be {@code null}.
+     * @param <C>         type of the context object
+     *
+     * @return the routing result for the given URI fragment
+     */
+    public <C> RouteMatch resolve(final String uriFragment, final C context) {
+        LOG.debug("resolve() - Resolving fragment [ {} ] - PARAMETER_MODE={}", abbreviateForLog(uriFragment), parameterMode);
+        final String rewrittenUriFragment = rewriteUriFragment(uriFragment);
+        final CapturedParameterValues capturedParameterValues = new CapturedParameterValues();
+        final UriActionCommandFactory commandFactory = routeUriFragment(capturedParameterValues, rewrittenUriFragment);
+
+        final RouteMatch.Status status = getRouteStatus(commandFactory);
+        final UriPathSegmentActionMapper actionMapper = status == RouteMatch.Status.FOUND && commandFactory instanceof ActionCommandConfigurer ?
+                ((ActionCommandConfigurer) commandFactory).getActionMapper() : null;
+        LOG.debug("resolve() - {} - Fragment [ {} ] resolved to {}", status, abbreviateForLog(rewrittenUriFragment), actionMapper);
+        return new RouteMatch(status, rewrittenUriFragment, actionMapper, capturedParameterValues, context, this);
+    }
 
-        configurer.passUriPathSegmentActionMapper();
-        if (routingContext != null) {
-            configurer.passRoutingContext(routingContext);
+    /**
+     * Returns the canonical form of the given URI fragment. All URI fragments which resolve to the same action mapper
+     * with the same parameter values have the same canonical form, so that it can be used as a key for caching the
+     * results of a URI fragment, for instance rendered views or the responses of a backend call. The canonical form is
+     * obtained by routing the URI fragment through the action mapper tree and assembling the URI fragment for the
+     * resolved action mapper and the captured parameter values anew. By that, the canonical form
+     * <ul>
+     * <li>contains no empty URI tokens which are skipped when the URI fragment is routed, such as a leading or doubled
+     * '/',</li>
+     * <li>uses upper case hexadecimal digits for all percent-encoded characters and does not percent-encode
+     * characters which need no encoding,</li>
+     * <li>lists the query parameters in {@link ParameterMode#QUERY} mode in the order in which their URI parameters
+     * have been declared, starting with the root action mapper's parameters, and</li>
+     * <li>omits the parameters which only have their default value in {@link ParameterMode#QUERY} and {@link
+     * ParameterMode#DIRECTORY_WITH_NAMES} mode. In {@link ParameterMode#DIRECTORY} mode, default values are kept, since
+     * the position of a URI token determines its parameter in this mode.</li>
+     * </ul>
+     * <p>
+     * URI fragments which cannot be resolved to an action mapper, and URI fragments for which a parameter value could
+     * not be converted, are only normalized with respect to their encoding and the order of their query parameters.
+     * URI fragments which exceed the {@link UriFragmentLimits} of this tree are returned unchanged.
+     * <p>
+     * Canonicalizing a URI fragment is not cheap: it costs about as much as {@link #resolve(String)} plus {@link
+     * #assembleUriFragment(CapturedParameterValues, UriPathSegmentActionMapper)}. In contrast to resolving the URI
+     * fragment, the routing is neither recorded by the {@link RoutingProfiler} nor does it use or fill the {@link
+     * NegativeRoutingCache}, so that canonicalizing URI fragments does not distort the statistics and caches of the
+     * actual navigation. The canonical form is therefore best computed only once for each incoming URI fragment and then
+     * used for all lookups.
+     *
+     * @param uriFragment the URI fragment to be canonicalized
+     *
+     * @return the canonical form of the URI fragment
+     */
+    public String canonicalize(final String uriFragment) {
+        Preconditions.checkNotNull(uriFragment);
+        if (uriFragment.length() > uriFragmentLimits.getMaxFragmentLength()) {
+            return uriFragment;
         }
-        if (capturedParameterValues != null) {
-            configurer.passAllCapturedParameters(capturedParameterValues);
-            configurer.passCapturedParameters(capturedParameterValues);
+        final String rewrittenUriFragment = rewriteUriFragment(uriFragment);
+        final CapturedParameterValues capturedParameterValues = new CapturedParameterValues();
+        final UriActionCommandFactory commandFactory = routeUriFragmentThroughTree(capturedParameterValues, rewrittenUriFragment);
+        if (commandFactory == REJECTED) {
+            return uriFragment;
         }
-        if (currentUriFragment != null) {
-            configurer.passUriFragment(currentUriFragment);
+        if (commandFactory instanceof ActionCommandConfigurer) {
+            final UriPathSegmentActionMapper actionMapper = ((ActionCommandConfigurer) commandFactory).getActionMapper();
+            final UriPathSegmentActionMapper[] mapperChain = actionMapper == null ? null : getMapperChain(actionMapper.getMapperName());
+            final CapturedParameterValues values = getCanonicalParameterValues(capturedParameterValues);
+            if (mapperChain != null && values != null) {
+                return assembleUriFragment(values, mapperChain, null);
+            }
         }
-        return configurer.createUriActionCommand();
+        return normalizeUriFragment(rewrittenUriFragment);
+    }
+
+    /**
+     * Returns the parameter values which are needed to assemble the canonical form of a URI fragment or {@code null}
+     * if a conversion error has been captured for one of the parameters. Such a URI fragment cannot be assembled
+     * anew, since the erroneous value would be lost.
+     */
+    private CapturedParameterValues getCanonicalParameterValues(final CapturedParameterValues capturedParameterValues) {
+        final CapturedParameterValues result = new CapturedParameterValues();
+        for (final String mapperName : capturedParameterValues.getMapperNames()) {
+            for (final String parameterId : capturedParameterValues.getParameterIds(mapperName)) {
+                final ParameterValue<?> value = capturedParameterValues.getValueFor(mapperName, parameterId);
+                if (value.getError() == UriParameterError.CONVERSION_ERROR) {
+                    return null;
+                }
+                if (value.hasValue() && (parameterMode == ParameterMode.DIRECTORY || !value.isDefaultValue())) {
+                    result.setValueFor(mapperName, parameterId, value);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Normalizes the encoding of the given URI fragment by extracting its URI tokens and query parameters and
+     * assembling them anew with this tree's strategies. The query parameters are sorted by their names. URI fragments
+     * exceeding the configured {@link UriFragmentLimits} are returned unchanged.
+     */
+    private String normalizeUriFragment(final String uriFragment) {
+        final boolean limited = uriFragmentLimits != UriFragmentLimits.unlimited();
+        try {
+            final String path = parameterMode == ParameterMode.QUERY
+                    ? queryParameterExtractionStrategy.stripQueryParametersFromUriFragment(uriFragment)
+                    : uriFragment;
+            final String result = uriTokenExtractionStrategy.assembleUriFragmentFromTokens(limited
+                    ? uriTokenExtractionStrategy.extractUriTokens(path, uriFragmentLimits)
+                    : uriTokenExtractionStrategy.extractUriTokens(path));
+            if (parameterMode != ParameterMode.QUERY) {
+                return result;
+            }
+            final Map<String, String> queryParameters = limited
+                    ? queryParameterExtractionStrategy.extractQueryParameters(uriFragment, uriFragmentLimits)
+                    : queryParameterExtractionStrategy.extractQueryParameters(uriFragment);
+            return queryParameters.isEmpty() ? result
+                    : result + queryParameterExtractionStrategy.assembleQueryParameterSectionForUriFragment(new TreeMap<>(queryParameters));
+        } catch (final UriFragmentLimitExceededException e) {
+            return uriFragment;
+        }
+    }
+
+    /**
+     * Runs the action command object configured by the given configurer. Afterwards, the command object is released to
+     * its action command factory, so that pooled command objects (see {@link ActionCommandLifecycle#POOLED}) can be
+     * reused. Returns the object to be reported to the caller, see {@link #releaseActionCommand(ActionCommandConfigurer)}.
+     */
+    static UriActionCommand runActionCommand(final ActionCommandConfigurer configurer) {
+        try {
+            configurer.getConfiguredUriActionCommand().run();
+        } catch (final RuntimeException | Error e) {
+            configurer.releaseUriActionCommand();
+            throw e;
+        }
+        return releaseActionCommand(configurer);
+    }
+
+    /**
+     * Releases the action command object configured by the given configurer to its action command factory. Returns the
+     * command object itself or, if it has been returned to a pool, a {@link ReleasedActionCommand} placeholder, since
+     * the command object may be reused for another URI fragment right away.
+     */
+    static UriActionCommand releaseActionCommand(final ActionCommandConfigurer configurer) {
+        final UriActionCommand command = configurer.getConfiguredUriActionCommand();
+        return configurer.releaseUriActionCommand() ? new ReleasedActionCommand(command) : command;
+    }
+
+    /**
+     * Installs a generated router which replaces the interpretation of URI fragments by the action mappers of this
+     * tree. A generated router is a class specialized for exactly this tree which has been created with {@link
+     * org.roklib.urifragmentrouting.codegen.RouterSourceGenerator RouterSourceGenerator} or {@link
+     * org.roklib.urifragmentrouting.codegen.RouterCompiler RouterCompiler}. It resolves URI fragments to the same
+     * action command factories and captures the same parameter values as the interpreted action mappers, but it does
+     * so with straight-line code instead of walking the mapper objects.
+     * <p>
+     * Since the generated code reflects the structure of the tree at the time of generation, a generated router must
+     * only be installed after the tree has been completely built. Pass {@code null} to switch back to the interpreted
+     * mode.
+     *
+     * @param generatedRouter the generated router to be used by this tree or {@code null} to use the action mappers
+     *                        directly
+     */
+    public void setGeneratedRouter(final GeneratedRouter generatedRouter) {
+        this.generatedRouter = generatedRouter;
+    }
+
+    /**
+     * Returns the generated router currently installed on this tree.
+     *
+     * @return the generated router used by this tree or {@code null} if URI fragments are interpreted by the action
+     * mappers directly
+     */
+    public GeneratedRouter getGeneratedRouter() {
+        return generatedRouter;
+    }
+
+    /**
+     * Attaches a {@link RoutingProfiler} to this tree which records every URI fragment subsequently interpreted or
+     * resolved by this tree. The recorded {@link RoutingProfile} can later be fed back into a tree with {@link
+     * #applyRoutingProfile(RoutingProfile)}.
+     *
+     * @param routingProfiler the routing profiler to attach or {@code null} to stop recording
+     */
+    public void setRoutingProfiler(final RoutingProfiler routingProfiler) {
+        this.routingProfiler = routingProfiler;
+    }
+
+    /**
+     * Returns the routing profiler currently attached to this tree.
+     *
+     * @return the routing profiler of this tree or {@code null} if no traffic is recorded
+     */
+    public RoutingProfiler getRoutingProfiler() {
+        return routingProfiler;
+    }
+
+    /**
+     * Installs a set of rewrite rules which is applied to every URI fragment before it is interpreted or resolved by
+     * this tree. The rewritten URI fragment is routed instead of the original one, and it is the URI fragment passed to
+     * the action command object and contained in the {@link RouteMatch}. This allows to keep legacy URI fragments and
+     * aliases alive without adding action mappers for them.
+     *
+     * @param fragmentRewriteRules the rewrite rules to be applied or {@code null} to route URI fragments unchanged
+     * @see FragmentRewriteRules
+     */
+    public void setFragmentRewriteRules(final FragmentRewriteRules fragmentRewriteRules) {
+        this.fragmentRewriteRules = fragmentRewriteRules;
+    }
+
+    /**
+     * Returns the rewrite rules currently installed on this tree.
+     *
+     * @return the rewrite rules of this tree or {@code null} if URI fragments are routed unchanged
+     */
+    public FragmentRewriteRules getFragmentRewriteRules() {
+        return fragmentRewriteRules;
+    }
+
+    /**
+     * Attaches a {@link NegativeRoutingCache} to this tree. Every URI fragment which subsequently cannot be resolved to
+     * an action mapper is put into this cache. As long as the fragment is contained in the cache, interpreting or
+     * resolving it again yields the default action command factory (or {@link RouteMatch.Status#DEFAULT_FALLBACK}
+     * respectively {@link RouteMatch.Status#NOT_FOUND}) without passing the fragment through the action mapper tree.
+     * Such cache hits are only logged on debug level. Note that a {@link RouteMatch} for a cache hit does not contain
+     * any of the parameter values which might have been captured from the fragment before the interpretation failed.
+     *
+     * @param negativeRoutingCache the negative routing cache to attach or {@code null} to disable caching of unroutable
+     *                             URI fragments
+     */
+    public void setNegativeRoutingCache(final NegativeRoutingCache negativeRoutingCache) {
+        this.negativeRoutingCache = negativeRoutingCache;
+    }
+
+    /**
+     * Returns the negative routing cache currently attached to this tree.
+     *
+     * @return the negative routing cache of this tree or {@code null} if unroutable URI fragments are not cached
+     */
+    public NegativeRoutingCache getNegativeRoutingCache() {
+        return negativeRoutingCache;
+    }
+
+    /**
+     * Enables a Bloom filter over the path segments of the root action mapper's sub-mappers. With this filter enabled,
+     * URI fragments whose first non-empty path segment cannot be handled by any of the root mapper's sub-mappers are
+     * rejected right after they have been split into URI tokens, without dispatching them through the action mapper
+     * tree.
+     * <p>
+     * The filter can only be enabled if all sub-mappers of the root mapper are responsible for exactly their own path
+     * segment and its aliases, which is the case for all mappers added with {@link MapperTreeBuilder#map(String)} and {@link
+     * MapperTreeBuilder#mapSubtree(String)}. If the root mapper has a catch-all mapper, a tail mapper or a sub-mapper
+     * which decides on its responsibility by itself, such as a {@link org.roklib.urifragmentrouting.mapper.RegexUriPathSegmentActionMapper},
+     * the filter is not enabled and this method returns {@code false}.
+     * <p>
+     * The filter is a snapshot of the root mapper's sub-mappers. Like a generated router, it must only be enabled after
+     * the tree has been completely built, and it has to be enabled again if sub-mappers or path segment aliases are
+     * added to the root mapper afterwards.
+     *
+     * @return {@code true} if the filter has been enabled, {@code false} if the sub-mappers of the root mapper do not
+     * allow for filtering URI fragments by their first path segment
+     */
+    public boolean enableFirstSegmentPrefilter() {
+        final FirstSegmentPrefilter prefilter = FirstSegmentPrefilter.forRootMapper(rootMapper);
+        firstSegmentPrefilter = prefilter;
+        LOG.debug("enableFirstSegmentPrefilter() - First segment prefilter {}", prefilter == null ? "not applicable" : "enabled");
+        return prefilter != null;
+    }
+
+    /**
+     * Disables the first segment prefilter enabled with {@link #enableFirstSegmentPrefilter()}.
+     */
+    public void disableFirstSegmentPrefilter() {
+        firstSegmentPrefilter = null;
+    }
+
+    /**
+     * Specializes this tree for the traffic recorded in the given {@link RoutingProfile}. Up to 1000 of the most
+     * frequently routed literal URI fragments are put into a lookup table. See {@link
+     * #applyRoutingProfile(RoutingProfile, int)} for details.
+     *
+     * @param profile the routing profile to apply
+     */
+    public void applyRoutingProfile(final RoutingProfile profile) {
+        applyRoutingProfile(profile, 1000);
+    }
+
+    /**
+     * Specializes this tree for the traffic recorded in the given {@link RoutingProfile}. This has two effects:
+     * <ul>
+     * <li>The most frequently routed literal URI fragments of the profile are resolved once and put into a lookup
+     * table. Routing one of these fragments afterwards is a single hash lookup which does not pass the fragment through
+     * the action mapper tree. Only fragments which still resolve to an action mapper without capturing any parameter
+     * value are put into this table, so that the routing result is exactly the same as before.</li>
+     * <li>The hit counts of the profile are preset on all {@link DispatchingUriPathSegmentActionMapper}s (see {@link
+     * DispatchingUriPathSegmentActionMapper#presetSubMapperHits(Map)}). For dispatching mappers with an adaptive
+     * sub-mapper order, the sub-mappers start out in the order of their hit frequency observed in the profile.</li>
+     * </ul>
+     * Like a generated router, a routing profile must only be applied after the tree has been completely built. Applying
+     * another profile replaces the effects of the previous one.
+     *
+     * @param profile         the routing profile to apply
+     * @param maxHotFragments the maximum number of literal URI fragments to put into the lookup table
+     */
+    public void applyRoutingProfile(final RoutingProfile profile, final int maxHotFragments) {
+        Preconditions.checkNotNull(profile);
+        presetSubMapperHits(rootMapper, profile);
+
+        // the action mappers are stored instead of their action command factories, since the configurers returned
+        // by the action mappers hold the command object created for a single routing
+        final Map<String, UriPathSegmentActionMapper> table = new HashMap<>();
+        for (final String uriFragment : profile.getHotFragments(maxHotFragments)) {
+            final CapturedParameterValues capturedParameterValues = new CapturedParameterValues();
+            final UriActionCommandFactory commandFactory = routeUriFragmentThroughTree(capturedParameterValues, uriFragment);
+            if (commandFactory instanceof ActionCommandConfigurer && capturedParameterValues.isEmpty()) {
+                final UriPathSegmentActionMapper actionMapper = ((ActionCommandConfigurer) commandFactory).getActionMapper();
+                if (actionMapper != null) {
+                    table.put(uriFragment, actionMapper);
+                }
+            }
+        }
+        LOG.debug("applyRoutingProfile() - {} hot URI fragments put into lookup table", table.size());
+        hotFragments = table.isEmpty() ? Collections.emptyMap() : table;
+    }
+
+    private static void presetSubMapperHits(final DispatchingUriPathSegmentActionMapper mapper, final RoutingProfile profile) {
+        final Map<String, Long> hits = new HashMap<>();
+        for (final String subMapperName : mapper.getSubMapperMap().keySet()) {
+            hits.put(subMapperName, profile.getMapperHits(subMapperName));
+        }
+        mapper.presetSubMapperHits(hits);
+        for (final UriPathSegmentActionMapper subMapper : mapper.getSubMapperMap().values()) {
+            if (subMapper instanceof DispatchingUriPathSegmentActionMapper) {
+                presetSubMapperHits((DispatchingUriPathSegmentActionMapper) subMapper, profile);
+            }
+        }
+        if (mapper.getCatchAllMapper() instanceof DispatchingUriPathSegmentActionMapper) {
+            presetSubMapperHits((DispatchingUriPathSegmentActionMapper) mapper.getCatchAllMapper(), profile);
+        }
+    }
+
+    /**
+     * Returns the limits for the complexity of URI fragments interpreted by this tree.
+     *
+     * @return the URI fragment limits of this tree
+     */
+    public UriFragmentLimits getUriFragmentLimits() {
+        return uriFragmentLimits;
+    }
+
+    private void setUriFragmentLimits(final UriFragmentLimits uriFragmentLimits) {
+        Preconditions.checkNotNull(uriFragmentLimits);
+        this.uriFragmentLimits = uriFragmentLimits;
+    }
+
+    /**
+     * Returns the parameter mode used for interpreting and assembling URI fragments.
+     *
+     * @return the parameter mode of this action mapper tree
+     */
+    public ParameterMode getParameterMode() {
+        return parameterMode;
     }
 
     /**
@@ -329,6 +953,26 @@ public class UriActionMapperTree {
         this.uriTokenExtractionStrategy = uriTokenExtractionStrategy;
     }
 
+    /**
+     * Returns the strategy used for extracting the query parameters from and assembling the query parameter section of
+     * URI fragments.
+     *
+     * @return the query parameter extraction strategy of this action mapper tree
+     */
+    public QueryParameterExtractionStrategy getQueryParameterExtractionStrategy() {
+        return queryParameterExtractionStrategy;
+    }
+
+    /**
+     * Returns the strategy used for splitting URI fragments into URI tokens and for assembling URI fragments from URI
+     * tokens.
+     *
+     * @return the URI token extraction strategy of this action mapper tree
+     */
+    public UriTokenExtractionStrategy getUriTokenExtractionStrategy() {
+        return uriTokenExtractionStrategy;
+    }
+
     /**
      * Creates a new {@link UriActionMapperTreeBuilder} which can be used to construct a complete URI action mapper
      * tree. The returned builder provides a fluent API which simplifies the building process for the user a lot since
@@ -401,23 +1045,288 @@ public class UriActionMapperTree {
      * @return the parameterized URI fragment for the given action mapper
      */
     public String assembleUriFragment(final CapturedParameterValues capturedParameterValues, final UriPathSegmentActionMapper forMapper) {
+        return assembleUriFragment(capturedParameterValues, forMapper, null);
+    }
+
+    /**
+     * Assembles a URI fragment for the given action mapper and the given locale. This works like {@link
+     * #assembleUriFragment(CapturedParameterValues, UriPathSegmentActionMapper)}, except that for each action mapper
+     * on the path to the given mapper which has a path segment alias for the locale (see {@link
+     * AbstractUriPathSegmentActionMapper#addPathSegmentAlias(Locale, String)}), this alias is used instead of the
+     * mapper's path segment name. For instance, a mapper for the path segment <tt>products</tt> with the German alias
+     * <tt>produkte</tt> yields the URI fragment {@code /produkte} for {@link Locale#GERMANY}.
+     * <p>
+     * The mapper tree does not know about the locale of the current user, so the locale has to be passed in by the
+     * caller, typically taken from the routing context of the current request.
+     *
+     * @param capturedParameterValues parameter values to be used for the registered URI parameters of the given action
+     *                                mapper and all its parent mappers
+     * @param forMapper               action mapper for which an interpretable URI fragment is desired
+     * @param locale                  the locale for which the path segment aliases are chosen. If {@code null}, the
+     *                                path segment names are used.
+     *
+     * @return the parameterized and localized URI fragment for the given action mapper
+     */
+    public String assembleUriFragment(final CapturedParameterValues capturedParameterValues,
+                                      final UriPathSegmentActionMapper forMapper,
+                                      final Locale locale) {
         Preconditions.checkNotNull(forMapper);
         final Stack<UriPathSegmentActionMapper> mapperStack = buildMapperStack(forMapper);
+        final UriPathSegmentActionMapper[] mapperChain = new UriPathSegmentActionMapper[mapperStack.size()];
+        for (int i = 0; i < mapperChain.length; i++) {
+            mapperChain[i] = mapperStack.pop();
+        }
+        return assembleUriFragment(capturedParameterValues, mapperChain, locale);
+    }
 
-        final List<String> uriTokens = new LinkedList<>();
-        while (!mapperStack.isEmpty()) {
-            final UriPathSegmentActionMapper mapper = mapperStack.pop();
-            mapper.assembleUriFragmentTokens(capturedParameterValues, uriTokens, parameterMode);
+    /**
+     * Assembles a URI fragment for the action mapper with the given name. This works like {@link
+     * #assembleUriFragment(CapturedParameterValues, UriPathSegmentActionMapper)}, but it does not need a reference to
+     * the action mapper. Link generating code therefore does not have to capture the action mappers of the tree with
+     * {@link SimpleMapperParameterBuilder#finishMapper(Consumer)} callbacks.
+     * <p>
+     * The action mapper is looked up in an index which maps each mapper name to the chain of action mappers from the
+     * root action mapper down to this action mapper. This index is built the first time it is needed and rebuilt when
+     * action mappers are added to the tree. For action mappers whose chain consists only of mappers with a literal path
+     * segment and without URI parameters, the index also contains the complete URI fragment, which is then returned
+     * without any further work.
+     *
+     * @param mapperName              the name of an action mapper of this tree. The root action mapper has the name
+     *                                {@link #ROOT_MAPPER}.
+     * @param capturedParameterValues parameter values to be used for the registered URI parameters of the action mapper
+     *                                and all its parent mappers. May be {@code null} if there are no parameter values.
+     *
+     * @return the parameterized URI fragment for the action mapper
+     * @throws IllegalArgumentException if this tree has no action mapper with the given name
+     */
+    public String assembleUriFragment(final String mapperName, final CapturedParameterValues capturedParameterValues) {
+        return assembleUriFragment(mapperName, capturedParameterValues, null);
+    }
+
+    /**
+     * Assembles a localized URI fragment for the action mapper with the given name. See {@link
+     * #assembleUriFragment(String, CapturedParameterValues)} and {@link #assembleUriFragment(CapturedParameterValues,
+     * UriPathSegmentActionMapper, Locale)}.
+     *
+     * @param mapperName              the name of an action mapper of this tree
+     * @param capturedParameterValues parameter values to be used for the registered URI parameters of the action mapper
+     *                                and all its parent mappers. May be {@code null} if there are no parameter values.
+     * @param locale                  the locale for which the path segment aliases are chosen. If {@code null}, the
+     *                                path segment names are used.
+     *
+     * @return the parameterized and localized URI fragment for the action mapper
+     * @throws IllegalArgumentException if this tree has no action mapper with the given name
+     */
+    public String assembleUriFragment(final String mapperName,
+                                      final CapturedParameterValues capturedParameterValues,
+                                      final Locale locale) {
+        Preconditions.checkNotNull(mapperName);
+        final ReverseRoute route = getReverseRoutes().get(mapperName);
+        if (route == null) {
+            throw new IllegalArgumentException("The mapper tree has no action mapper named '" + mapperName + "'");
+        }
+        final boolean noValues = capturedParameterValues == null || capturedParameterValues.isEmpty();
+        if (route.staticUriFragment != null && locale == null && (noValues || parameterMode != ParameterMode.QUERY)) {
+            return route.staticUriFragment;
+        }
+        return assembleUriFragment(noValues ? new CapturedParameterValues() : capturedParameterValues, route.mapperChain, locale);
+    }
+
+    private String assembleUriFragment(final CapturedParameterValues capturedParameterValues,
+                                       final UriPathSegmentActionMapper[] mapperChain,
+                                       final Locale locale) {
+        final List<String> uriTokens = new ArrayList<>(mapperChain.length * 3);
+        for (final UriPathSegmentActionMapper mapper : mapperChain) {
+            if (locale == null) {
+                mapper.assembleUriFragmentTokens(capturedParameterValues, uriTokens, parameterMode);
+            } else {
+                mapper.assembleUriFragmentTokens(capturedParameterValues, uriTokens, parameterMode, locale);
+            }
         }
 
         String queryParamSection = "";
         if (parameterMode == ParameterMode.QUERY) {
-            queryParamSection = queryParameterExtractionStrategy.assembleQueryParameterSectionForUriFragment(capturedParameterValues.asQueryParameterMap());
+            queryParamSection = queryParameterExtractionStrategy.assembleQueryParameterSectionForUriFragment(
+                    toOrderedQueryParameters(capturedParameterValues, mapperChain));
         }
 
         return uriTokenExtractionStrategy.assembleUriFragmentFromTokens(uriTokens) + queryParamSection;
     }
 
+    /**
+     * Transforms the given parameter values into an ordered map of query parameters, so that equal parameter values
+     * are always assembled into the same query parameter section. The parameters of the action mappers on the given
+     * mapper chain come first, starting with the root action mapper and following the registration order of the
+     * parameters on each action mapper. If several action mappers on the chain have a parameter with the same name, the
+     * value of the action mapper closest to the root action mapper is used. All remaining parameters, such as the
+     * parameters of a {@link CatchAllUriPathSegmentActionMapper}, follow sorted by their action mapper's position on the
+     * mapper chain and then by mapper name and parameter name.
+     * <p>
+     * Parameter values which do not carry a value, such as values for which a conversion error has been captured, are
+     * left out. In contrast to {@link CapturedParameterValues#asQueryParameterMap()}, the result of this method does
+     * therefore not depend on the iteration order of the given parameter values.
+     *
+     * @param capturedParameterValues the parameter values to be transformed
+     * @param mapperChain             the chain of action mappers from the root action mapper down to the action mapper
+     *                                for which the URI fragment is assembled
+     *
+     * @return the ordered query parameters
+     */
+    static Map<String, String> toOrderedQueryParameters(final CapturedParameterValues capturedParameterValues,
+                                                        final UriPathSegmentActionMapper[] mapperChain) {
+        if (capturedParameterValues.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> result = new LinkedHashMap<>();
+        final Set<String> remainingMapperNames = new LinkedHashSet<>();
+        for (final UriPathSegmentActionMapper mapper : mapperChain) {
+            if (mapper instanceof AbstractUriPathSegmentActionMapper) {
+                for (final String parameterId : ((AbstractUriPathSegmentActionMapper) mapper).getRegisteredUriParameters().keySet()) {
+                    putQueryParameter(result, capturedParameterValues, mapper.getMapperName(), parameterId);
+                }
+            }
+            remainingMapperNames.add(mapper.getMapperName());
+        }
+        remainingMapperNames.addAll(new TreeSet<>(capturedParameterValues.getMapperNames()));
+        for (final String mapperName : remainingMapperNames) {
+            for (final String parameterId : new TreeSet<>(capturedParameterValues.getParameterIds(mapperName))) {
+                putQueryParameter(result, capturedParameterValues, mapperName, parameterId);
+            }
+        }
+        return result;
+    }
+
+    private static void putQueryParameter(final Map<String, String> target,
+                                          final CapturedParameterValues capturedParameterValues,
+                                          final String mapperName,
+                                          final String parameterId) {
+        if (target.containsKey(parameterId)) {
+            return;
+        }
+        final ParameterValue<?> value = capturedParameterValues.getValueFor(mapperName, parameterId);
+        if (value != null && value.hasValue()) {
+            target.put(parameterId, value.getValue().toString());
+        }
+    }
+
+    /**
+     * Orders the given query parameters by the order in which their URI parameters have been declared, so that equal
+     * parameter values are always assembled into the same query parameter section. The parameters of the action
+     * mappers on the given mapper chain come first, starting with the root action mapper and following the registration
+     * order of the parameters on each action mapper. All remaining parameters, such as the parameters of a {@link
+     * CatchAllUriPathSegmentActionMapper}, follow in the order of the given map.
+     *
+     * @param queryParameters the query parameters as key-value pairs
+     * @param mapperChain     the chain of action mappers from the root action mapper down to the action mapper for
+     *                        which the URI fragment is assembled
+     *
+     * @return the ordered query parameters
+     */
+    static Map<String, String> orderQueryParameters(final Map<String, String> queryParameters,
+                                                    final UriPathSegmentActionMapper[] mapperChain) {
+        if (queryParameters.size() < 2) {
+            return queryParameters;
+        }
+        final Map<String, String> result = new LinkedHashMap<>();
+        for (final UriPathSegmentActionMapper mapper : mapperChain) {
+            if (mapper instanceof AbstractUriPathSegmentActionMapper) {
+                for (final String parameterId : ((AbstractUriPathSegmentActionMapper) mapper).getRegisteredUriParameters().keySet()) {
+                    final String value = queryParameters.get(parameterId);
+                    if (value != null) {
+                        result.putIfAbsent(parameterId, value);
+                    }
+                }
+            }
+        }
+        queryParameters.forEach(result::putIfAbsent);
+        return result;
+    }
+
+    /**
+     * Returns the action mapper of this tree with the given name.
+     *
+     * @param mapperName the name of an action mapper
+     *
+     * @return the action mapper or {@code null} if this tree has no action mapper with this name
+     */
+    UriPathSegmentActionMapper findMapper(final String mapperName) {
+        final ReverseRoute route = getReverseRoutes().get(mapperName);
+        return route == null ? null : route.mapperChain[route.mapperChain.length - 1];
+    }
+
+    /**
+     * Returns the chain of action mappers from the root action mapper down to the action mapper with the given name.
+     *
+     * @param mapperName the name of an action mapper
+     *
+     * @return the action mapper chain, which must not be modified, or {@code null} if this tree has no action mapper
+     * with this name
+     */
+    UriPathSegmentActionMapper[] getMapperChain(final String mapperName) {
+        final ReverseRoute route = getReverseRoutes().get(mapperName);
+        return route == null ? null : route.mapperChain;
+    }
+
+    private Map<String, ReverseRoute> getReverseRoutes() {
+        Map<String, ReverseRoute> result = reverseRoutes;
+        if (result == null) {
+            synchronized (this) {
+                result = reverseRoutes;
+                if (result == null) {
+                    final Map<String, ReverseRoute> routes = new HashMap<>();
+                    collectReverseRoutes(getRootActionMapper(), new UriPathSegmentActionMapper[0], routes);
+                    result = Collections.unmodifiableMap(routes);
+                    reverseRoutes = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void collectReverseRoutes(final UriPathSegmentActionMapper mapper,
+                                      final UriPathSegmentActionMapper[] parentChain,
+                                      final Map<String, ReverseRoute> routes) {
+        final UriPathSegmentActionMapper[] chain = Arrays.copyOf(parentChain, parentChain.length + 1);
+        chain[parentChain.length] = mapper;
+        boolean isStatic = true;
+        for (final UriPathSegmentActionMapper chainMapper : chain) {
+            if (!(chainMapper instanceof AbstractUriPathSegmentActionMapper)
+                    || !((AbstractUriPathSegmentActionMapper) chainMapper).isLiteralSegmentMapper()
+                    || !((AbstractUriPathSegmentActionMapper) chainMapper).getRegisteredUriParameters().isEmpty()) {
+                isStatic = false;
+                break;
+            }
+        }
+        routes.put(mapper.getMapperName(), new ReverseRoute(chain,
+                isStatic ? assembleUriFragment(new CapturedParameterValues(), chain, null) : null));
+        if (mapper instanceof DispatchingUriPathSegmentActionMapper) {
+            final DispatchingUriPathSegmentActionMapper dispatchingMapper = (DispatchingUriPathSegmentActionMapper) mapper;
+            for (final UriPathSegmentActionMapper subMapper : dispatchingMapper.getSubMapperMap().values()) {
+                collectReverseRoutes(subMapper, chain, routes);
+            }
+            if (dispatchingMapper.getCatchAllMapper() != null) {
+                collectReverseRoutes(dispatchingMapper.getCatchAllMapper(), chain, routes);
+            }
+            if (dispatchingMapper.getTailMapper() != null) {
+                collectReverseRoutes(dispatchingMapper.getTailMapper(), chain, routes);
+            }
+        }
+    }
+
+    /**
+     * Entry of the reverse routing index: the chain of action mappers from the root action mapper down to an action
+     * mapper, and the URI fragment of this action mapper if the chain does not depend on any parameter values.
+     */
+    private static final class ReverseRoute {
+        private final UriPathSegmentActionMapper[] mapperChain;
+        private final String staticUriFragment;
+
+        private ReverseRoute(final UriPathSegmentActionMapper[] mapperChain, final String staticUriFragment) {
+            this.mapperChain = mapperChain;
+            this.staticUriFragment = staticUriFragment;
+        }
+    }
+
     /**
      * Constructs a stack of action mappers where the first element on the stack is the specified action mapper itself,
      * with all its parent action mappers stacked upon it. The specified mapper's parent action mapper which is furthest
@@ -469,23 +1378,22 @@ public class UriActionMapperTree {
         this.defaultActionCommandFactory = defaultActionCommandFactory;
     }
 
-    private UriActionCommandFactory getActionCommandFactoryForUriFragment(final CapturedParameterValues capturedParameterValues,
+    private UriActionCommandFactory getActionCommandFactoryForUriFragment(final UriActionCommandFactory commandFactory,
                                                                           final String uriFragment,
-                                                                          final List<String> uriTokens,
-                                                                          final Map<String, String> extractedQueryParameters,
-                                                                          final ParameterMode parameterMode,
                                                                           final UUID uuid) {
-
-        final UriActionCommandFactory commandFactory = rootMapper.interpretTokens(capturedParameterValues, null, uriTokens, extractedQueryParameters, parameterMode);
-
+        if (commandFactory == REJECTED) {
+            LOG.debug("[{}] getActionCommandFactoryForUriFragment() - REJECTED - Fragment exceeds the configured limits", uuid);
+            return null;
+        }
+        if (commandFactory == KNOWN_UNROUTABLE) {
+            LOG.debug("[{}] getActionCommandFactoryForUriFragment() - NOT_FOUND - Fragment is known to be unroutable: {}", uuid, uriFragment);
+            return defaultActionCommandFactory;
+        }
         if (commandFactory == null) {
             LOG.info("[{}] getActionCommandFactoryForUriFragment() - NOT_FOUND - No registered URI action mapper found or action factory for fragment: {}", uuid, uriFragment);
             if (defaultActionCommandFactory != null) {
-                if (LOG.isInfoEnabled()) {
-                    UriActionCommand command = defaultActionCommandFactory.createUriActionCommand();
-                    LOG.info("[{}] getActionCommandFactoryForUriFragment() - NOT_FOUND - Using default action command: {}",
-                            uuid, command == null ? "null" : command.getClass().getName());
-                }
+                LOG.info("[{}] getActionCommandFactoryForUriFragment() - NOT_FOUND - Using default action command factory: {}",
+                        uuid, defaultActionCommandFactory);
                 return defaultActionCommandFactory;
             } else {
                 return null;
@@ -494,12 +1402,139 @@ public class UriActionMapperTree {
         return commandFactory;
     }
 
+    /**
+     * Returns the routing status for the given result of {@link #routeUriFragment(CapturedParameterValues, String)}.
+     */
+    private RouteMatch.Status getRouteStatus(final UriActionCommandFactory commandFactory) {
+        if (commandFactory == REJECTED) {
+            return RouteMatch.Status.REJECTED;
+        }
+        if (commandFactory != null && commandFactory != KNOWN_UNROUTABLE) {
+            return RouteMatch.Status.FOUND;
+        }
+        return defaultActionCommandFactory != null ? RouteMatch.Status.DEFAULT_FALLBACK : RouteMatch.Status.NOT_FOUND;
+    }
+
+    /**
+     * Applies the installed rewrite rules to the given URI fragment. URI fragments exceeding the configured maximum
+     * fragment length are not rewritten, since they are rejected anyway.
+     */
+    private String rewriteUriFragment(final String uriFragment) {
+        final FragmentRewriteRules rules = fragmentRewriteRules;
+        if (rules == null || uriFragment == null || uriFragment.length() > uriFragmentLimits.getMaxFragmentLength()) {
+            return uriFragment;
+        }
+        final String rewrittenUriFragment = rules.rewrite(uriFragment);
+        if (LOG.isDebugEnabled() && !rewrittenUriFragment.equals(uriFragment)) {
+            LOG.debug("rewriteUriFragment() - Rewrote fragment [ {} ] to [ {} ]", abbreviateForLog(uriFragment), abbreviateForLog(rewrittenUriFragment));
+        }
+        return rewrittenUriFragment;
+    }
+
+    private static String abbreviateForLog(final String uriFragment) {
+        if (uriFragment == null || uriFragment.length() <= MAX_LOGGED_FRAGMENT_LENGTH) {
+            return uriFragment;
+        }
+        return uriFragment.substring(0, MAX_LOGGED_FRAGMENT_LENGTH) + "... (" + uriFragment.length() + " characters)";
+    }
+
+    /**
+     * Passes the URI tokens and query parameters of the given URI fragment through the action mapper tree and returns
+     * the action command factory of the action mapper the fragment resolved to. The default action command factory is
+     * not taken into account by this method. Literal URI fragments from the lookup table of an applied routing profile
+     * are not passed through the tree. Neither are URI fragments which are contained in the negative routing cache or
+     * which are rejected by the first segment prefilter; for these, {@link #KNOWN_UNROUTABLE} is returned. For URI
+     * fragments exceeding the configured {@link UriFragmentLimits}, {@link #REJECTED} is returned. The routing result is
+     * recorded by the attached routing profiler, if any.
+     */
+    private UriActionCommandFactory routeUriFragment(final CapturedParameterValues capturedParameterValues, final String uriFragment) {
+        UriActionCommandFactory commandFactory;
+        if (uriFragment != null && uriFragment.length() > uriFragmentLimits.getMaxFragmentLength()) {
+            LOG.debug("routeUriFragment() - Rejecting fragment of length {}", uriFragment.length());
+            commandFactory = REJECTED;
+        } else {
+            final UriPathSegmentActionMapper hotMapper = hotFragments.get(uriFragment);
+            commandFactory = hotMapper == null ? null : hotMapper.getActionCommandFactory();
+        }
+        if (commandFactory == null) {
+            // the negative routing cache cannot hold null, so a null fragment is always passed through the tree
+            final NegativeRoutingCache cache = uriFragment == null ? null : negativeRoutingCache;
+            if (cache != null && cache.contains(uriFragment)) {
+                commandFactory = KNOWN_UNROUTABLE;
+            } else {
+                commandFactory = routeUriFragmentThroughTree(capturedParameterValues, uriFragment);
+                if (commandFactory == null && cache != null) {
+                    cache.add(uriFragment);
+                }
+            }
+        }
+        final RoutingProfiler profiler = routingProfiler;
+        if (profiler != null) {
+            profiler.record(uriFragment, commandFactory == KNOWN_UNROUTABLE || commandFactory == REJECTED ? null : commandFactory,
+                    capturedParameterValues);
+        }
+        return commandFactory;
+    }
+
+    private UriActionCommandFactory routeUriFragmentThroughTree(final CapturedParameterValues capturedParameterValues, final String uriFragment) {
+        final List<String> uriTokens;
+        final Map<String, String> queryParameters;
+        final boolean limited = uriFragmentLimits != UriFragmentLimits.unlimited();
+        try {
+            final String uriPath = queryParameterExtractionStrategy.stripQueryParametersFromUriFragment(uriFragment);
+            uriTokens = limited ? uriTokenExtractionStrategy.extractUriTokens(uriPath, uriFragmentLimits)
+                    : uriTokenExtractionStrategy.extractUriTokens(uriPath);
+            final FirstSegmentPrefilter prefilter = firstSegmentPrefilter;
+            if (prefilter != null && !prefilter.mightBeRoutable(uriTokens)) {
+                LOG.debug("routeUriFragmentThroughTree() - First URI token of fragment [ {} ] rejected by prefilter", uriFragment);
+                return KNOWN_UNROUTABLE;
+            }
+            queryParameters = limited ? queryParameterExtractionStrategy.extractQueryParameters(uriFragment, uriFragmentLimits)
+                    : queryParameterExtractionStrategy.extractQueryParameters(uriFragment);
+        } catch (final UriFragmentLimitExceededException e) {
+            LOG.debug("routeUriFragmentThroughTree() - Rejecting fragment: {}", e.getMessage());
+            return REJECTED;
+        }
+        final GeneratedRouter router = generatedRouter;
+        if (router != null) {
+            return router.interpretTokens(capturedParameterValues, uriTokens, queryParameters);
+        }
+        return rootMapper.interpretTokens(capturedParameterValues, null, uriTokens, queryParameters, parameterMode);
+    }
+
     private boolean isMapperNameInUse(final String mapperName) {
         return mapperNamesInUse.contains(mapperName);
     }
 
     private void addUsedMapperName(final String mapperName) {
         mapperNamesInUse.add(mapperName);
+        bindingSlots = null;
+        reverseRoutes = null;
+    }
+
+    /**
+     * Returns the slot numbers of all mapper names of this tree, including the name of the root action mapper. The
+     * slots are used to store the {@link ActionCommandBindings} of a session in a single array.
+     *
+     * @return an immutable map of all mapper names onto consecutive slot numbers starting at zero
+     */
+    Map<String, Integer> getBindingSlots() {
+        Map<String, Integer> result = bindingSlots;
+        if (result == null) {
+            synchronized (this) {
+                result = bindingSlots;
+                if (result == null) {
+                    final Map<String, Integer> slots = new HashMap<>();
+                    slots.put(ROOT_MAPPER, 0);
+                    for (final String mapperName : new TreeSet<>(mapperNamesInUse)) {
+                        slots.put(mapperName, slots.size());
+                    }
+                    result = Collections.unmodifiableMap(slots);
+                    bindingSlots = result;
+                }
+            }
+        }
+        return result;
     }
 
     /**
@@ -530,6 +1565,22 @@ public class UriActionMapperTree {
         return result;
     }
 
+    /**
+     * Replaces this tree with a reference to its registration in the {@link MapperTreeRegistry} when it is serialized.
+     * Trees which are not registered have no serialized form.
+     *
+     * @return the serialized form of this tree
+     * @throws NotSerializableException if this tree is not registered in the {@link MapperTreeRegistry}
+     */
+    private Object writeReplace() throws ObjectStreamException {
+        final MapperTreeRegistry.Registration registration = MapperTreeRegistry.getRegistration(this);
+        if (registration == null) {
+            throw new NotSerializableException(getClass().getName()
+                    + " (only mapper trees registered in the MapperTreeRegistry can be serialized)");
+        }
+        return new MapperTreeReference(registration);
+    }
+
     public static class UriActionMapperTreeBuilder {
         final UriActionMapperTree uriActionMapperTree;
 
@@ -575,6 +1626,86 @@ public class UriActionMapperTree {
             return this;
         }
 
+        /**
+         * Specify the limits for the complexity of URI fragments interpreted by the constructed URI action mapper
+         * tree. URI fragments exceeding one of these limits are rejected before they are completely split into URI
+         * tokens: interpreting them yields no action command at all (not even the default action command), and
+         * resolving them yields a {@link RouteMatch} with status {@link RouteMatch.Status#REJECTED}. This bounds the
+         * work done for abusive input. By default, URI fragments are not limited.
+         *
+         * @param uriFragmentLimits the limits to be enforced. Must not be {@code null}.
+         *
+         * @return this builder object
+         * @see UriFragmentLimits
+         */
+        public UriActionMapperTreeBuilder useUriFragmentLimits(final UriFragmentLimits uriFragmentLimits) {
+            uriActionMapperTree.setUriFragmentLimits(uriFragmentLimits);
+            return this;
+        }
+
+        /**
+         * Limits the length of URI fragments interpreted by the constructed URI action mapper tree.
+         *
+         * @param maxFragmentLength the maximum number of characters of a URI fragment
+         *
+         * @return this builder object
+         * @see #useUriFragmentLimits(UriFragmentLimits)
+         */
+        public UriActionMapperTreeBuilder limitFragmentLength(final int maxFragmentLength) {
+            return useUriFragmentLimits(uriActionMapperTree.getUriFragmentLimits().withMaxFragmentLength(maxFragmentLength));
+        }
+
+        /**
+         * Limits the number of URI tokens of URI fragments interpreted by the constructed URI action mapper tree.
+         *
+         * @param maxUriTokenCount the maximum number of URI tokens of a URI fragment
+         *
+         * @return this builder object
+         * @see #useUriFragmentLimits(UriFragmentLimits)
+         */
+        public UriActionMapperTreeBuilder limitUriTokenCount(final int maxUriTokenCount) {
+            return useUriFragmentLimits(uriActionMapperTree.getUriFragmentLimits().withMaxUriTokenCount(maxUriTokenCount));
+        }
+
+        /**
+         * Limits the number of query parameters of URI fragments interpreted by the constructed URI action mapper tree.
+         *
+         * @param maxQueryParameterCount the maximum number of query parameters of a URI fragment
+         *
+         * @return this builder object
+         * @see #useUriFragmentLimits(UriFragmentLimits)
+         */
+        public UriActionMapperTreeBuilder limitQueryParameterCount(final int maxQueryParameterCount) {
+            return useUriFragmentLimits(uriActionMapperTree.getUriFragmentLimits().withMaxQueryParameterCount(maxQueryParameterCount));
+        }
+
+        /**
+         * Limits the length of single URI tokens and query parameters of URI fragments interpreted by the constructed
+         * URI action mapper tree.
+         *
+         * @param maxUriTokenLength the maximum number of characters of a single URI token or query parameter
+         *
+         * @return this builder object
+         * @see #useUriFragmentLimits(UriFragmentLimits)
+         */
+        public UriActionMapperTreeBuilder limitUriTokenLength(final int maxUriTokenLength) {
+            return useUriFragmentLimits(uriActionMapperTree.getUriFragmentLimits().withMaxUriTokenLength(maxUriTokenLength));
+        }
+
+        /**
+         * Specify the rewrite rules which the constructed URI action mapper tree applies to every URI fragment before
+         * routing it.
+         *
+         * @param fragmentRewriteRules the rewrite rules to be applied
+         *
+         * @return this builder object
+         * @see #setFragmentRewriteRules(FragmentRewriteRules)
+         */
+        public UriActionMapperTreeBuilder useFragmentRewriteRules(final FragmentRewriteRules fragmentRewriteRules) {
+            uriActionMapperTree.setFragmentRewriteRules(fragmentRewriteRules);
+            return this;
+        }
+
         /**
          * Specify the {@link ParameterMode} to be employed by the constructed URI action mapper tree.
          *
@@ -650,14 +1781,34 @@ public class UriActionMapperTree {
         }
 
         /**
-         * Finalize and build the URI action mapper tree.
+         * Finalize and build the URI action mapper tree. The internal data structures of all action mappers of the
+         * tree, including catch-all and tail mappers, are trimmed to their final size.
          *
          * @return the fully constructed {@link UriActionMapperTree} ready to be used
          */
         public UriActionMapperTree build() {
+            trimToSize(uriActionMapperTree.getRootActionMapper());
             return uriActionMapperTree;
         }
 
+        private static void trimToSize(final UriPathSegmentActionMapper mapper) {
+            if (mapper instanceof AbstractUriPathSegmentActionMapper) {
+                ((AbstractUriPathSegmentActionMapper) mapper).trimToSize();
+            }
+            if (mapper instanceof DispatchingUriPathSegmentActionMapper) {
+                final DispatchingUriPathSegmentActionMapper dispatchingMapper = (DispatchingUriPathSegmentActionMapper) mapper;
+                for (final UriPathSegmentActionMapper subMapper : dispatchingMapper.getSubMapperMap().values()) {
+                    trimToSize(subMapper);
+                }
+                if (dispatchingMapper.getCatchAllMapper() != null) {
+                    trimToSize(dispatchingMapper.getCatchAllMapper());
+                }
+                if (dispatchingMapper.getTailMapper() != null) {
+                    trimToSize(dispatchingMapper.getTailMapper());
+                }
+            }
+        }
+
         /**
          * Finishes the construction of the currently built URI action mapper. After calling this method, a sibling
          * action mapper can be constructed for the action mapper which has just been completed. For each action mapper
@@ -864,6 +2015,7 @@ public class UriActionMapperTree {
         private final DispatchingUriPathSegmentActionMapper dispatchingMapper;
         private final String mapperName;
         private String pathSegment;
+        private Map<Locale, String> pathSegmentAliases;
 
         private MapperBuilder(final MapperTreeBuilder parentMapperTreeBuilder,
                               final DispatchingUriPathSegmentActionMapper dispatchingMapper,
@@ -894,6 +2046,9 @@ public class UriActionMapperTree {
                 LOG.debug("onAction() - Adding mapper with name '{}' using path segment '{}' on action factory {}", mapperName, pathSegment, actionCommandFactory);
             }
             final SimpleUriPathSegmentActionMapper mapper = new SimpleUriPathSegmentActionMapper(mapperName, pathSegment, actionCommandFactory);
+            if (pathSegmentAliases != null) {
+                pathSegmentAliases.forEach(mapper::addPathSegmentAlias);
+            }
             return new SimpleMapperParameterBuilder(parentMapperTreeBuilder, dispatchingMapper, mapper);
         }
 
@@ -911,6 +2066,27 @@ public class UriActionMapperTree {
             this.pathSegment = pathSegment;
             return this;
         }
+
+        /**
+         * Define a localized alias for the path segment name of the currently constructed {@link
+         * SimpleUriPathSegmentActionMapper}. The mapper is responsible for each of its aliases in addition to its path
+         * segment name.
+         *
+         * @param locale the locale of the alias
+         * @param alias  the alias of the path segment name for this locale
+         *
+         * @return this builder object
+         * @see AbstractUriPathSegmentActionMapper#addPathSegmentAlias(Locale, String)
+         */
+        public MapperBuilder withPathSegmentAlias(final Locale locale, final String alias) {
+            Preconditions.checkNotNull(locale);
+            Preconditions.checkNotNull(alias);
+            if (pathSegmentAliases == null) {
+                pathSegmentAliases = new LinkedHashMap<>();
+            }
+            pathSegmentAliases.put(locale, alias);
+            return this;
+        }
     }
 
     public static class SimpleMapperParameterBuilder {
@@ -959,6 +2135,32 @@ public class UriActionMapperTree {
             return this;
         }
 
+        /**
+         * Define the lifecycle of the action command objects for the {@link SimpleUriPathSegmentActionMapper} currently
+         * under construction by this builder (see {@link AbstractUriPathSegmentActionMapper#setActionCommandLifecycle(ActionCommandLifecycle)}).
+         *
+         * @param lifecycle the lifecycle of the action command objects
+         *
+         * @return this builder object
+         */
+        public SimpleMapperParameterBuilder withActionCommandLifecycle(final ActionCommandLifecycle lifecycle) {
+            targetMapper.setActionCommandLifecycle(lifecycle);
+            return this;
+        }
+
+        /**
+         * Use a bounded pool of reusable action command objects for the {@link SimpleUriPathSegmentActionMapper}
+         * currently under construction by this builder (see {@link ActionCommandLifecycle#POOLED}).
+         *
+         * @param maxPoolSize the maximum number of idle action command objects kept in the pool
+         *
+         * @return this builder object
+         */
+        public SimpleMapperParameterBuilder withPooledActionCommands(final int maxPoolSize) {
+            targetMapper.setActionCommandLifecycle(ActionCommandLifecycle.POOLED, maxPoolSize);
+            return this;
+        }
+
         /**
          * Completes the construction and configuration of the currently built {@link SimpleUriPathSegmentActionMapper}.
          * This method will add the {@link SimpleUriPathSegmentActionMapper} to its parent sub-tree mapper and return
@@ -1131,6 +2333,19 @@ public class UriActionMapperTree {
             return this;
         }
 
+        /**
+         * Define the lifecycle of the action command objects for the {@link DispatchingUriPathSegmentActionMapper}
+         * currently under construction by this builder (see {@link AbstractUriPathSegmentActionMapper#setActionCommandLifecycle(ActionCommandLifecycle)}).
+         *
+         * @param lifecycle the lifecycle of the action command objects
+         *
+         * @return this builder object for building sub-tree mappers
+         */
+        public SubtreeMapperBuilder withActionCommandLifecycle(final ActionCommandLifecycle lifecycle) {
+            dispatchingMapper.setActionCommandLifecycle(lifecycle);
+            return this;
+        }
+
         /**
          * Start configuring the sub-tree.
          *
@@ -0,0 +1,234 @@
+package org.roklib.urifragmentrouting;
+
+import org.roklib.urifragmentrouting.mapper.AbstractUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.UriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.parameter.ParameterMode;
+import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+import org.roklib.urifragmentrouting.strategy.DirectoryStyleUriTokenExtractionStrategyImpl;
+import org.roklib.urifragmentrouting.strategy.QueryParameterExtractionStrategy;
+import org.roklib.urifragmentrouting.strategy.StandardQueryNotationQueryParameterExtractionStrategyImpl;
+import org.roklib.urifragmentrouting.strategy.UriTokenExtractionStrategy;
+
+import java.util.*;
+
+/**
+ * The encoded URI fragment of a {@link RouteMatch}, split into one slot for each action mapper on the path from the root
+ * mapper to the matched action mapper and one slot for each query parameter. A template is used to derive URI fragments
+ * which differ from the route match's URI fragment in a single parameter value. Only the slot of the action mapper
+ * which the changed parameter is registered on is assembled anew and spliced into the encoded URI fragment, while the
+ * encoded form of all other action mappers and query parameters is reused as it is.
+ * <p>
+ * The derived URI fragments are equal to the URI fragments assembled by {@link
+ * UriActionMapperTree#assembleUriFragment(CapturedParameterValues, UriPathSegmentActionMapper)} for the changed
+ * parameter values. Splicing relies on the encoding done by the default URI token and query parameter extraction
+ * strategies. For mapper trees with other strategies, the
+ * complete URI fragment is assembled anew for every change.
+ */
+final class UriFragmentTemplate {
+    private final UriActionMapperTree tree;
+    private final UriPathSegmentActionMapper[] mapperChain;
+    private final CapturedParameterValues values;
+    private final ParameterMode parameterMode;
+    private final UriTokenExtractionStrategy uriTokenExtractionStrategy;
+    private final QueryParameterExtractionStrategy queryParameterExtractionStrategy;
+    private final boolean spliceable;
+    /**
+     * The encoded path of the URI fragment without the query parameter section.
+     */
+    private final String path;
+    /**
+     * Start and end offsets of each action mapper's slot in {@link #path}. The slot of an action mapper which does not
+     * contribute any URI tokens is empty and positioned at the end of the preceding non-empty slot.
+     */
+    private final int[] slotStarts;
+    private final int[] slotEnds;
+    /**
+     * The query parameter values, keyed by the parameter ID and ordered like the tree orders its query parameters.
+     */
+    private final Map<String, String> queryValues;
+    /**
+     * The encoded query parameters in the form {@code key=value}, keyed by the parameter ID.
+     */
+    private final Map<String, String> queryParameters;
+    /**
+     * The parameters for which values have been captured in the form {@code mapperName/parameterId}. These include
+     * parameters which are not registered on an action mapper, such as the parameter of a {@link
+     * org.roklib.urifragmentrouting.mapper.CatchAllUriPathSegmentActionMapper CatchAllUriPathSegmentActionMapper}.
+     */
+    private final Set<String> parameterIds = new HashSet<>();
+
+    UriFragmentTemplate(final UriActionMapperTree tree,
+                        final UriPathSegmentActionMapper[] mapperChain,
+                        final CapturedParameterValues values) {
+        this.tree = tree;
+        this.mapperChain = mapperChain;
+        this.values = copy(values);
+        values.getMapperNames().forEach(mapperName ->
+                values.getParameterIds(mapperName).forEach(parameterId -> parameterIds.add(mapperName + '/' + parameterId)));
+        parameterMode = tree.getParameterMode();
+        uriTokenExtractionStrategy = tree.getUriTokenExtractionStrategy();
+        queryParameterExtractionStrategy = tree.getQueryParameterExtractionStrategy();
+        spliceable = uriTokenExtractionStrategy.getClass() == DirectoryStyleUriTokenExtractionStrategyImpl.class
+                && queryParameterExtractionStrategy.getClass() == StandardQueryNotationQueryParameterExtractionStrategyImpl.class;
+
+        // action mappers may consume parameter values while assembling their URI tokens, so a copy is used
+        final CapturedParameterValues remainingValues = copy(this.values);
+        final StringBuilder pathBuilder = new StringBuilder();
+        slotStarts = new int[mapperChain.length];
+        slotEnds = new int[mapperChain.length];
+        for (int i = 0; i < mapperChain.length; i++) {
+            final String slot = assembleSlot(mapperChain[i], remainingValues);
+            if (!slot.isEmpty() && pathBuilder.length() > 0) {
+                pathBuilder.append('/');
+            }
+            slotStarts[i] = pathBuilder.length();
+            pathBuilder.append(slot);
+            slotEnds[i] = pathBuilder.length();
+        }
+        path = pathBuilder.toString();
+
+        queryParameters = new HashMap<>();
+        if (parameterMode == ParameterMode.QUERY) {
+            queryValues = UriActionMapperTree.toOrderedQueryParameters(remainingValues, mapperChain);
+            queryValues.forEach((parameterId, value) -> queryParameters.put(parameterId, encodeQueryParameter(parameterId, value)));
+        } else {
+            queryValues = Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Returns the URI fragment which differs from the URI fragment of this template only in the value of the given
+     * parameter.
+     *
+     * @param mapperName  name of an action mapper on the path to the matched action mapper
+     * @param parameterId ID of a parameter registered on this action mapper
+     * @param value       the new value of the parameter or {@code null} if the parameter is to be removed
+     *
+     * @return the derived URI fragment
+     * @throws IllegalArgumentException if the action mapper is not on the path to the matched action mapper or if the
+     *                                  parameter is not registered on it
+     */
+    String with(final String mapperName, final String parameterId, final Object value) {
+        final int index = indexOf(mapperName);
+        final UriPathSegmentActionMapper mapper = mapperChain[index];
+        if (mapper instanceof AbstractUriPathSegmentActionMapper
+                && !((AbstractUriPathSegmentActionMapper) mapper).getRegisteredUriParameters().containsKey(parameterId)
+                && !parameterIds.contains(mapperName + '/' + parameterId)) {
+            throw new IllegalArgumentException("Action mapper '" + mapperName + "' has no parameter with ID '" + parameterId + "'");
+        }
+
+        if (!spliceable) {
+            final CapturedParameterValues changedValues = copy(values);
+            setValue(changedValues, mapperName, parameterId, value);
+            return tree.assembleUriFragment(changedValues, mapper);
+        }
+
+        // only the values of the changed action mapper are needed to assemble its slot
+        final CapturedParameterValues mapperValues = new CapturedParameterValues();
+        for (final String id : values.getParameterIds(mapperName)) {
+            mapperValues.setValueFor(mapperName, id, values.getValueFor(mapperName, id));
+        }
+        setValue(mapperValues, mapperName, parameterId, value);
+        final String slot = assembleSlot(mapper, mapperValues);
+
+        final StringBuilder result = new StringBuilder(path.length() + slot.length() + 16);
+        final int start = slotStarts[index];
+        final int end = slotEnds[index];
+        if (start == end) {
+            result.append(path, 0, start);
+            if (!slot.isEmpty()) {
+                if (start > 0) {
+                    result.append('/').append(slot);
+                } else {
+                    result.append(slot);
+                    if (!path.isEmpty()) {
+                        result.append('/');
+                    }
+                }
+            }
+            result.append(path, start, path.length());
+        } else if (slot.isEmpty()) {
+            // remove the separator between the removed slot and its neighbour
+            if (start > 0) {
+                result.append(path, 0, start - 1).append(path, end, path.length());
+            } else {
+                result.append(path, Math.min(end + 1, path.length()), path.length());
+            }
+        } else {
+            result.append(path, 0, start).append(slot).append(path, end, path.length());
+        }
+
+        if (parameterMode == ParameterMode.QUERY) {
+            final ParameterValue<?> queryValue = mapperValues.getValueFor(mapperName, parameterId);
+            appendQueryParameters(result, parameterId, queryValue == null ? null : queryValue.getValue());
+        }
+        return result.toString();
+    }
+
+    private void appendQueryParameters(final StringBuilder target, final String changedParameterId, final Object changedValue) {
+        Map<String, String> orderedValues = queryValues;
+        if (changedValue != null && !queryValues.containsKey(changedParameterId)) {
+            // a new query parameter has to be put at its declared position
+            final Map<String, String> changedValues = new TreeMap<>(queryValues);
+            changedValues.put(changedParameterId, changedValue.toString());
+            orderedValues = UriActionMapperTree.orderQueryParameters(changedValues, mapperChain);
+        }
+        final int queryStart = target.length();
+        orderedValues.keySet().forEach(parameterId -> {
+            final String parameter = parameterId.equals(changedParameterId)
+                    ? changedValue == null ? null : encodeQueryParameter(parameterId, changedValue.toString())
+                    : queryParameters.get(parameterId);
+            if (parameter != null) {
+                target.append(target.length() > queryStart ? '&' : '?').append(parameter);
+            }
+        });
+    }
+
+    private String assembleSlot(final UriPathSegmentActionMapper mapper, final CapturedParameterValues slotValues) {
+        final List<String> tokens = new ArrayList<>(4);
+        mapper.assembleUriFragmentTokens(slotValues, tokens, parameterMode);
+        return tokens.isEmpty() ? "" : uriTokenExtractionStrategy.assembleUriFragmentFromTokens(tokens);
+    }
+
+    private String encodeQueryParameter(final String parameterId, final String value) {
+        // strip the leading '?' of the query parameter section
+        return queryParameterExtractionStrategy.assembleQueryParameterSectionForUriFragment(
+                Collections.singletonMap(parameterId, value)).substring(1);
+    }
+
+    private int indexOf(final String mapperName) {
+        for (int i = 0; i < mapperChain.length; i++) {
+            if (mapperChain[i].getMapperName().equals(mapperName)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Action mapper '" + mapperName + "' is not on the path of the matched action mapper");
+    }
+
+    private static void setValue(final CapturedParameterValues target, final String mapperName,
+                                 final String parameterId, final Object value) {
+        if (value == null) {
+            target.removeValueFor(mapperName, parameterId);
+        } else {
+            target.setValueFor(mapperName, parameterId, ParameterValue.forValue(value));
+        }
+    }
+
+    /**
+     * Copies the given parameter values without the erroneous values, which are not part of an assembled URI fragment
+     * anyway.
+     */
+    private static CapturedParameterValues copy(final CapturedParameterValues values) {
+        final CapturedParameterValues result = new CapturedParameterValues();
+        for (final String mapperName : values.getMapperNames()) {
+            for (final String parameterId : values.getParameterIds(mapperName)) {
+                final ParameterValue<?> value = values.getValueFor(mapperName, parameterId);
+                if (value.hasValue()) {
+                    result.setValueFor(mapperName, parameterId, value);
+                }
+            }
+        }
+        return result;
+    }
+}
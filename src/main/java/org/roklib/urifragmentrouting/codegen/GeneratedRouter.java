@@ -0,0 +1,38 @@
+package org.roklib.urifragmentrouting.codegen;
+
+import org.roklib.urifragmentrouting.UriActionCommandFactory;
+import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interface implemented by the router classes generated by {@link RouterSourceGenerator}. A generated router resolves
+ * the URI tokens of a URI fragment to an action command factory exactly like the root action mapper of the {@link
+ * org.roklib.urifragmentrouting.UriActionMapperTree UriActionMapperTree} it has been generated for, i. e. it yields the
+ * same action command factory and captures the same parameter values. It can be installed on its mapper tree with
+ * {@link org.roklib.urifragmentrouting.UriActionMapperTree#setGeneratedRouter(GeneratedRouter)
+ * setGeneratedRouter()}.
+ */
+public interface GeneratedRouter {
+
+    /**
+     * Interprets the given URI tokens and query parameters. This method has the same semantics as {@link
+     * org.roklib.urifragmentrouting.mapper.UriPathSegmentActionMapper#interpretTokens(CapturedParameterValues, String,
+     * List, Map, org.roklib.urifragmentrouting.parameter.ParameterMode) interpretTokens()} invoked on the root action
+     * mapper of the router's mapper tree.
+     *
+     * @param capturedParameterValues the object which receives the parameter values captured from the URI tokens and
+     *                                query parameters
+     * @param uriTokens               the list of URI tokens to be interpreted. Interpreted tokens are removed from this
+     *                                list.
+     * @param queryParameters         map of parameter values which were appended to the URI fragment in query
+     *                                parameter mode. May be empty.
+     *
+     * @return the action command factory responsible for the URI tokens or {@code null} if no such factory could be
+     * found
+     */
+    UriActionCommandFactory interpretTokens(CapturedParameterValues capturedParameterValues,
+                                            List<String> uriTokens,
+                                            Map<String, String> queryParameters);
+}
@@ -0,0 +1,266 @@
+package org.roklib.urifragmentrouting.codegen;
+
+import org.roklib.urifragmentrouting.UriActionMapperTree;
+import org.roklib.urifragmentrouting.exception.ParameterValueConversionException;
+import org.roklib.urifragmentrouting.mapper.AbstractUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.CatchAllUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.DispatchingUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.TailUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.UriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.parameter.AbstractSingleUriParameter;
+import org.roklib.urifragmentrouting.parameter.UriParameter;
+import org.roklib.urifragmentrouting.parameter.UriParameterError;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+import org.roklib.urifragmentrouting.strategy.DirectoryStyleUriTokenExtractionStrategyImpl;
+import org.roklib.urifragmentrouting.strategy.QueryParameterExtractionStrategy;
+import org.roklib.urifragmentrouting.strategy.StandardQueryNotationQueryParameterExtractionStrategyImpl;
+import org.roklib.urifragmentrouting.strategy.UriTokenExtractionStrategy;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+
+/**
+ * Runtime support methods for the router classes generated by {@link RouterSourceGenerator} and the link builder
+ * classes generated by {@link LinkBuilderSourceGenerator}. These methods are public since generated classes may reside
+ * in arbitrary packages. They are not intended to be used by application code.
+ */
+public final class GeneratedRouterSupport {
+    private static final UriTokenExtractionStrategy URI_TOKEN_STRATEGY = new DirectoryStyleUriTokenExtractionStrategyImpl();
+    private static final QueryParameterExtractionStrategy QUERY_PARAMETER_STRATEGY = new StandardQueryNotationQueryParameterExtractionStrategyImpl();
+
+    private GeneratedRouterSupport() {
+    }
+
+    /**
+     * Looks up an action mapper in the given mapper tree by the mapper names on the path from the root mapper to the
+     * requested mapper.
+     *
+     * @param tree        the mapper tree
+     * @param mapperNames the mapper names of all action mappers on the path from the root mapper (exclusive) to the
+     *                    requested mapper (inclusive)
+     *
+     * @return the requested action mapper
+     * @throws IllegalStateException if there is no such action mapper
+     */
+    public static UriPathSegmentActionMapper mapper(final UriActionMapperTree tree, final String... mapperNames) {
+        UriPathSegmentActionMapper current = tree.getRootActionMapper();
+        for (final String mapperName : mapperNames) {
+            if (!(current instanceof DispatchingUriPathSegmentActionMapper)) {
+                throw new IllegalStateException("Action mapper " + current + " does not have any sub-mappers.");
+            }
+            final DispatchingUriPathSegmentActionMapper dispatchingMapper = (DispatchingUriPathSegmentActionMapper) current;
+            current = dispatchingMapper.getSubMapperMap().get(mapperName);
+            if (current == null) {
+                final CatchAllUriPathSegmentActionMapper<?> catchAllMapper = dispatchingMapper.getCatchAllMapper();
+                final TailUriPathSegmentActionMapper tailMapper = dispatchingMapper.getTailMapper();
+                if (catchAllMapper != null && catchAllMapper.getMapperName().equals(mapperName)) {
+                    current = catchAllMapper;
+                } else if (tailMapper != null && tailMapper.getMapperName().equals(mapperName)) {
+                    current = tailMapper;
+                } else {
+                    throw new IllegalStateException("Action mapper " + dispatchingMapper + " has no sub-mapper named '" + mapperName + "'.");
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Returns the single-valued URI parameter with the given ID registered on the given action mapper.
+     *
+     * @param mapper      the action mapper
+     * @param parameterId the ID of the requested parameter
+     *
+     * @return the requested URI parameter
+     * @throws IllegalStateException if there is no such single-valued URI parameter
+     */
+    public static AbstractSingleUriParameter<?> parameter(final UriPathSegmentActionMapper mapper, final String parameterId) {
+        if (mapper instanceof AbstractUriPathSegmentActionMapper) {
+            final UriParameter<?> parameter = ((AbstractUriPathSegmentActionMapper) mapper).getRegisteredUriParameters().get(parameterId);
+            if (parameter instanceof AbstractSingleUriParameter) {
+                return (AbstractSingleUriParameter<?>) parameter;
+            }
+        }
+        throw new IllegalStateException("Action mapper " + mapper + " has no single-valued parameter with ID '" + parameterId + "'.");
+    }
+
+    /**
+     * Returns the parameter value to be used if no value was found for the given URI parameter in the current URI
+     * fragment. This is the parameter's default value if it is optional or an error value otherwise.
+     *
+     * @param parameter the URI parameter
+     *
+     * @return the value for a missing parameter value
+     */
+    public static ParameterValue<?> missingValue(final UriParameter<?> parameter) {
+        if (parameter.isOptional() && parameter.getDefaultValue() != null) {
+            return ParameterValue.forDefaultValue(parameter.getDefaultValue());
+        }
+        return ParameterValue.forError(UriParameterError.PARAMETER_NOT_FOUND);
+    }
+
+    /**
+     * Converts the given String value with the converter of the given URI parameter.
+     *
+     * @param parameter the URI parameter
+     * @param value     the value to be converted. Must not be {@code null}.
+     * @param <V>       type of the parameter value
+     *
+     * @return the converted parameter value or an error value if the value could not be converted
+     */
+    public static <V> ParameterValue<?> convert(final AbstractSingleUriParameter<V> parameter, final String value) {
+        try {
+            return ParameterValue.forValue(parameter.getConverter().convertToValue(value));
+        } catch (final ParameterValueConversionException e) {
+            return ParameterValue.forError(UriParameterError.CONVERSION_ERROR);
+        }
+    }
+
+    /**
+     * Verifies that the structure of the given mapper tree matches the structure the generated router was created for.
+     *
+     * @param tree                the mapper tree
+     * @param expectedFingerprint the structural fingerprint of the mapper tree the router was generated for
+     *
+     * @throws IllegalStateException if the fingerprints do not match
+     */
+    public static void checkFingerprint(final UriActionMapperTree tree, final String expectedFingerprint) {
+        final String actualFingerprint = fingerprint(tree);
+        if (!actualFingerprint.equals(expectedFingerprint)) {
+            throw new IllegalStateException("The generated router does not match the given mapper tree. Expected fingerprint "
+                    + expectedFingerprint + " but was " + actualFingerprint + ". Regenerate the router for this tree.");
+        }
+    }
+
+    /**
+     * Calculates a structural fingerprint of the given mapper tree. The fingerprint covers the parameter mode and, for
+     * all action mappers, their types, mapper names, path segments, URI parameters and sub-mapper priority groups.
+     *
+     * @param tree the mapper tree
+     *
+     * @return a hex-encoded SHA-256 hash of the tree structure
+     */
+    public static String fingerprint(final UriActionMapperTree tree) {
+        final StringBuilder description = new StringBuilder();
+        description.append(tree.getParameterMode()).append('\n');
+        describe(tree.getRootActionMapper(), description, 0);
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-256").digest(description.toString().getBytes(StandardCharsets.UTF_8));
+            final StringBuilder result = new StringBuilder(hash.length * 2);
+            for (final byte b : hash) {
+                result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return result.toString();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void describe(final UriPathSegmentActionMapper mapper, final StringBuilder description, final int depth) {
+        for (int i = 0; i < depth; i++) {
+            description.append(' ');
+        }
+        description.append(mapper.getClass().getName()).append(' ').append(mapper.getMapperName());
+        if (mapper instanceof AbstractUriPathSegmentActionMapper) {
+            final AbstractUriPathSegmentActionMapper abstractMapper = (AbstractUriPathSegmentActionMapper) mapper;
+            description.append(" segment=").append(abstractMapper.getPathSegment());
+            abstractMapper.getPathSegmentAliases().forEach((locale, alias) ->
+                    description.append(" alias=").append(locale).append(':').append(alias));
+            abstractMapper.getRegisteredUriParameters().values().forEach(parameter ->
+                    description.append(" param=").append(parameter.getClass().getName()).append(':').append(parameter.getId())
+                            .append(':').append(parameter.getConverter() == null ? "" : parameter.getConverter().getClass().getName()));
+        }
+        if (mapper instanceof DispatchingUriPathSegmentActionMapper) {
+            final DispatchingUriPathSegmentActionMapper dispatchingMapper = (DispatchingUriPathSegmentActionMapper) mapper;
+            dispatchingMapper.getSubMapperMap().keySet().forEach(subMapperName -> {
+                final int priorityGroup = dispatchingMapper.getSubMapperPriorityGroup(subMapperName);
+                if (priorityGroup != 0) {
+                    description.append(" group=").append(subMapperName).append(':').append(priorityGroup);
+                }
+            });
+        }
+        description.append('\n');
+        if (mapper instanceof DispatchingUriPathSegmentActionMapper) {
+            final DispatchingUriPathSegmentActionMapper dispatchingMapper = (DispatchingUriPathSegmentActionMapper) mapper;
+            dispatchingMapper.getSubMapperMap().values().forEach(subMapper -> describe(subMapper, description, depth + 1));
+            if (dispatchingMapper.getCatchAllMapper() != null) {
+                describe(dispatchingMapper.getCatchAllMapper(), description, depth + 1);
+            }
+            if (dispatchingMapper.getTailMapper() != null) {
+                describe(dispatchingMapper.getTailMapper(), description, depth + 1);
+            }
+        }
+    }
+
+    /**
+     * Verifies that the given mapper tree uses the default URI token and query parameter extraction strategies, which
+     * the encoding done by the generated link builders is based on.
+     *
+     * @param tree the mapper tree
+     *
+     * @throws IllegalStateException if the mapper tree uses a different strategy
+     */
+    public static void checkDefaultStrategies(final UriActionMapperTree tree) {
+        if (!usesDefaultStrategies(tree)) {
+            throw new IllegalStateException("Generated link builders can only be used for mapper trees with the default "
+                    + "URI token and query parameter extraction strategies.");
+        }
+    }
+
+    static boolean usesDefaultStrategies(final UriActionMapperTree tree) {
+        return tree.getUriTokenExtractionStrategy().getClass() == DirectoryStyleUriTokenExtractionStrategyImpl.class
+                && tree.getQueryParameterExtractionStrategy().getClass() == StandardQueryNotationQueryParameterExtractionStrategyImpl.class;
+    }
+
+    /**
+     * Appends the given URI token to a URI fragment in the same encoding as the {@link
+     * DirectoryStyleUriTokenExtractionStrategyImpl} does. Tokens which consist only of ASCII letters, digits and the
+     * characters {@code -._} are appended as they are.
+     *
+     * @param target the URI fragment to append the token to
+     * @param token  the URI token
+     *
+     * @return the target
+     */
+    public static StringBuilder appendPathToken(final StringBuilder target, final String token) {
+        if (isPlain(token)) {
+            return target.append(token);
+        }
+        return target.append(encodePathToken(token));
+    }
+
+    /**
+     * Appends the given query parameter value to a URI fragment in the same encoding as the {@link
+     * StandardQueryNotationQueryParameterExtractionStrategyImpl} does. Values which consist only of ASCII letters,
+     * digits and the characters {@code -._} are appended as they are.
+     *
+     * @param target the URI fragment to append the value to
+     * @param value  the query parameter value
+     *
+     * @return the target
+     */
+    public static StringBuilder appendQueryValue(final StringBuilder target, final String value) {
+        if (isPlain(value)) {
+            return target.append(value);
+        }
+        // the strategy encodes the complete query parameter section, which is "?=" followed by the value for an empty key
+        final String section = QUERY_PARAMETER_STRATEGY.assembleQueryParameterSectionForUriFragment(Collections.singletonMap("", value));
+        return target.append(section, 2, section.length());
+    }
+
+    static String encodePathToken(final String token) {
+        return URI_TOKEN_STRATEGY.assembleUriFragmentFromTokens(Collections.singletonList(token));
+    }
+
+    private static boolean isPlain(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '-' || c == '.' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,437 @@
+package org.roklib.urifragmentrouting.codegen;
+
+import org.roklib.urifragmentrouting.UriActionMapperTree;
+import org.roklib.urifragmentrouting.helper.Preconditions;
+import org.roklib.urifragmentrouting.helper.UriEncoderDecoder;
+import org.roklib.urifragmentrouting.mapper.AbstractUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.DispatchingUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.SimpleUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.UriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.parameter.AbstractSingleUriParameter;
+import org.roklib.urifragmentrouting.parameter.ParameterMode;
+import org.roklib.urifragmentrouting.parameter.UriParameter;
+import org.roklib.urifragmentrouting.parameter.converter.*;
+
+import javax.lang.model.SourceVersion;
+import java.util.*;
+
+/**
+ * Generates the Java source code of a type-safe link builder class for a fully built {@link UriActionMapperTree}. For
+ * each action mapper of the tree, the generated class has a method which assembles the URI fragment for this action
+ * mapper from typed arguments, one for each URI parameter registered on the action mapper or on one of its parent
+ * mappers. For example, for an action mapper {@code product} with a {@code Long} parameter {@code id} and a {@code
+ * LocalDate} parameter {@code from}, the following methods are generated:
+ * <pre>
+ * public String productLink(final long id, final java.time.LocalDate from)
+ * public StringBuilder appendProductLink(final StringBuilder link, final long id, final java.time.LocalDate from)
+ * </pre>
+ * The second variant appends the URI fragment to the given {@link StringBuilder}. The generated methods write the path
+ * segments of the action mappers, which have been encoded when the source code was generated, and the converted
+ * parameter values straight into the {@link StringBuilder}. They thereby produce the same URI fragments as {@link
+ * UriActionMapperTree#assembleUriFragment(String, org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues)}
+ * without collecting the parameter values in a {@link org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues
+ * CapturedParameterValues} object and without building a list of URI tokens first. Parameter values are converted like
+ * their parameter's {@link ParameterValueConverter} does, also in {@link ParameterMode#QUERY} mode. In this mode, the
+ * query parameters are written in the order of the action mappers from the root mapper downwards and, for each action
+ * mapper, in the order in which the parameters have been registered.
+ * <p>
+ * Arguments for optional URI parameters have the wrapper type of the parameter's value type. If {@code null} is passed
+ * for them, the parameter is omitted from the URI fragment. Arguments for mandatory URI parameters must not be {@code
+ * null}. The path segment names are used for the URI fragments, path segment aliases are not taken into account.
+ * <p>
+ * Link methods are only generated for action mappers which are instances of {@link DispatchingUriPathSegmentActionMapper}
+ * or {@link SimpleUriPathSegmentActionMapper} and whose parent mappers are all of these types, and only if all their URI
+ * parameters are single-valued parameters using one of the converters for {@code String}, {@code Integer}, {@code Long},
+ * {@code Double}, {@code Float}, {@code Boolean}, {@link java.time.LocalDate} or {@link java.util.Date} provided by this
+ * library. For all other action mappers, such as catch-all mappers and their sub-trees, the URI fragments have to be
+ * assembled with {@link UriActionMapperTree#assembleUriFragment(String,
+ * org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues)}. The method names are derived from the mapper
+ * names and the argument names from the parameter IDs.
+ * <p>
+ * Like the router classes generated by {@link RouterSourceGenerator}, the generated class has a public constructor with
+ * a single argument of type {@link UriActionMapperTree} which verifies that the given tree has the same structure as
+ * the tree the class has been generated for. The source code is therefore typically generated at build time and compiled
+ * together with the application.
+ */
+public class LinkBuilderSourceGenerator {
+
+    private final UriActionMapperTree tree;
+    private final ParameterMode parameterMode;
+    private final Set<String> methodNames = new HashSet<>();
+    private final StringBuilder methods = new StringBuilder();
+
+    /**
+     * Creates a new source generator for the given mapper tree.
+     *
+     * @param tree the fully built mapper tree for which a link builder class is to be generated. Must not be {@code
+     *             null}.
+     *
+     * @throws IllegalArgumentException if the mapper tree does not use the default URI token and query parameter
+     *                                  extraction strategies
+     */
+    public LinkBuilderSourceGenerator(final UriActionMapperTree tree) {
+        Preconditions.checkNotNull(tree);
+        if (!GeneratedRouterSupport.usesDefaultStrategies(tree)) {
+            throw new IllegalArgumentException("Link builders can only be generated for mapper trees with the default "
+                    + "URI token and query parameter extraction strategies.");
+        }
+        this.tree = tree;
+        this.parameterMode = tree.getParameterMode();
+    }
+
+    /**
+     * Generates the source code of a link builder class with the given package and class name.
+     *
+     * @param packageName the package of the generated class. May be empty for the default package.
+     * @param className   the simple name of the generated class. Must not be {@code null}.
+     *
+     * @return the Java source code of the generated link builder class
+     */
+    public String generateSource(final String packageName, final String className) {
+        Preconditions.checkNotNull(className);
+        methodNames.clear();
+        methods.setLength(0);
+
+        final AbstractUriPathSegmentActionMapper rootMapper = (AbstractUriPathSegmentActionMapper) tree.getRootActionMapper();
+        if (canBeLinked(rootMapper)) {
+            for (final UriPathSegmentActionMapper subMapper : ((DispatchingUriPathSegmentActionMapper) rootMapper).getSubMapperMap().values()) {
+                generateMethods(subMapper, Collections.singletonList(rootMapper));
+            }
+        }
+
+        final StringBuilder source = new StringBuilder();
+        if (packageName != null && !packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import org.roklib.urifragmentrouting.UriActionMapperTree;\n")
+                .append("import org.roklib.urifragmentrouting.codegen.GeneratedRouterSupport;\n\n")
+                .append("/**\n * Link builder generated by ").append(LinkBuilderSourceGenerator.class.getName()).append(". Do not edit.\n */\n")
+                .append("public final class ").append(className).append(" {\n\n")
+                .append("    public ").append(className).append("(final UriActionMapperTree tree) {\n")
+                .append("        GeneratedRouterSupport.checkFingerprint(tree, ").append(RouterSourceGenerator.literal(GeneratedRouterSupport.fingerprint(tree))).append(");\n")
+                .append("        GeneratedRouterSupport.checkDefaultStrategies(tree);\n")
+                .append("    }\n")
+                .append(methods)
+                .append("}\n");
+        return source.toString();
+    }
+
+    private void generateMethods(final UriPathSegmentActionMapper mapper, final List<AbstractUriPathSegmentActionMapper> parentChain) {
+        if (!canBeLinked(mapper)) {
+            return;
+        }
+        final List<AbstractUriPathSegmentActionMapper> chain = new ArrayList<>(parentChain.size() + 1);
+        chain.addAll(parentChain);
+        chain.add((AbstractUriPathSegmentActionMapper) mapper);
+        generateMethod(chain);
+
+        if (mapper instanceof DispatchingUriPathSegmentActionMapper) {
+            for (final UriPathSegmentActionMapper subMapper : ((DispatchingUriPathSegmentActionMapper) mapper).getSubMapperMap().values()) {
+                generateMethods(subMapper, chain);
+            }
+        }
+    }
+
+    private void generateMethod(final List<AbstractUriPathSegmentActionMapper> chain) {
+        final AbstractUriPathSegmentActionMapper mapper = chain.get(chain.size() - 1);
+        final String name = uniqueName(identifier(mapper.getMapperName()), methodNames);
+        final String methodName = name + "Link";
+        final String appendMethodName = "append" + Character.toUpperCase(name.charAt(0)) + name.substring(1) + "Link";
+
+        final Set<String> argumentNames = new HashSet<>(Arrays.asList("link", "start", "queryStart"));
+        final List<Argument> arguments = new ArrayList<>();
+        for (final AbstractUriPathSegmentActionMapper chainMapper : chain) {
+            for (final UriParameter<?> parameter : chainMapper.getRegisteredUriParameters().values()) {
+                arguments.add(new Argument((AbstractSingleUriParameter<?>) parameter, uniqueName(identifier(parameter.getId()), argumentNames)));
+            }
+        }
+
+        final MethodBody body = new MethodBody();
+        int argumentIndex = 0;
+        for (final AbstractUriPathSegmentActionMapper chainMapper : chain) {
+            if (!chainMapper.getPathSegment().isEmpty()) {
+                body.appendStaticToken(GeneratedRouterSupport.encodePathToken(chainMapper.getPathSegment()), chainMapper.getPathSegment());
+            }
+            for (int i = 0; i < chainMapper.getRegisteredUriParameters().size(); i++) {
+                if (parameterMode != ParameterMode.QUERY) {
+                    body.appendPathParameter(arguments.get(argumentIndex), parameterMode == ParameterMode.DIRECTORY_WITH_NAMES);
+                }
+                argumentIndex++;
+            }
+        }
+        if (parameterMode == ParameterMode.QUERY) {
+            body.startQuery();
+            arguments.forEach(body::appendQueryParameter);
+        }
+        final String statements = body.finish();
+
+        final StringJoiner parameterList = new StringJoiner(", ");
+        final StringJoiner argumentList = new StringJoiner(", ");
+        for (final Argument argument : arguments) {
+            parameterList.add("final " + (argument.isOptional() ? argument.type.optionalType : argument.type.requiredType) + " " + argument.name);
+            argumentList.add(argument.name);
+        }
+
+        methods.append("\n    // ").append(RouterSourceGenerator.comment(mapper.getMapperName() + ": " + body.template)).append('\n')
+                .append("    public String ").append(methodName).append("(").append(parameterList).append(") {\n")
+                .append("        return ").append(appendMethodName).append("(new StringBuilder(").append(body.staticLength + 16 * arguments.size())
+                .append(")").append(arguments.isEmpty() ? "" : ", ").append(argumentList).append(").toString();\n")
+                .append("    }\n\n")
+                .append("    public StringBuilder ").append(appendMethodName).append("(final StringBuilder link")
+                .append(arguments.isEmpty() ? "" : ", ").append(parameterList).append(") {\n");
+        for (final Argument argument : arguments) {
+            if (!argument.isOptional() && !argument.type.isPrimitive()) {
+                methods.append("        java.util.Objects.requireNonNull(").append(argument.name).append(", ")
+                        .append(RouterSourceGenerator.literal(argument.name)).append(");\n");
+            }
+        }
+        if (body.usesStart) {
+            methods.append("        final int start = link.length();\n");
+        }
+        methods.append(statements)
+                .append("        return link;\n")
+                .append("    }\n");
+    }
+
+    private boolean canBeLinked(final UriPathSegmentActionMapper mapper) {
+        final boolean knownMapperType = mapper == tree.getRootActionMapper()
+                || mapper.getClass() == DispatchingUriPathSegmentActionMapper.class
+                || mapper.getClass() == SimpleUriPathSegmentActionMapper.class;
+        if (!knownMapperType) {
+            return false;
+        }
+        return ((AbstractUriPathSegmentActionMapper) mapper).getRegisteredUriParameters().values().stream()
+                .allMatch(parameter -> parameter instanceof AbstractSingleUriParameter && ValueType.of(parameter.getConverter()) != null);
+    }
+
+    /**
+     * Turns the given mapper name or parameter ID into a Java identifier which starts with a lower-case letter. All
+     * characters other than ASCII letters and digits are removed, and the character following them is converted to upper
+     * case.
+     */
+    private static String identifier(final String value) {
+        final StringBuilder result = new StringBuilder(value.length());
+        boolean upperCase = false;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9') {
+                result.append(upperCase ? Character.toUpperCase(c) : result.length() == 0 ? Character.toLowerCase(c) : c);
+                upperCase = false;
+            } else {
+                upperCase = result.length() > 0;
+            }
+        }
+        if (result.length() == 0 || Character.isDigit(result.charAt(0))) {
+            result.insert(0, "mapper");
+        }
+        return result.toString();
+    }
+
+    private static String uniqueName(final String name, final Set<String> usedNames) {
+        String result = name;
+        for (int i = 2; !SourceVersion.isName(result) || !usedNames.add(result); i++) {
+            result = name + i;
+        }
+        return result;
+    }
+
+    /**
+     * The Java types of a URI parameter's argument and the conversion of the argument into a URI token, for each of the
+     * supported converters. Only the conversions of {@code String}, {@link java.time.LocalDate} and {@link
+     * java.util.Date} values need to be encoded, since the String representations of all other supported values
+     * consist of letters, digits, {@code '.'} and {@code '-'} only.
+     */
+    private enum ValueType {
+        STRING(StringParameterValueConverter.INSTANCE, "String", "String", "%s", true),
+        INTEGER(IntegerParameterValueConverter.INSTANCE, "int", "Integer", "%s", false),
+        LONG(LongParameterValueConverter.INSTANCE, "long", "Long", "%s", false),
+        DOUBLE(DoubleParameterValueConverter.INSTANCE, "double", "Double", "%s", false),
+        FLOAT(FloatParameterValueConverter.INSTANCE, "float", "Float", "%s", false),
+        BOOLEAN(BooleanParameterValueConverter.INSTANCE, "boolean", "Boolean", "%s", false),
+        LOCAL_DATE(ISO8601ToLocalDateParameterValueConverter.INSTANCE, "java.time.LocalDate", "java.time.LocalDate", "%s.toString()", true),
+        DATE(LongToDateParameterValueConverter.INSTANCE, "java.util.Date", "java.util.Date", "%s.getTime()", false);
+
+        private final ParameterValueConverter<?> converter;
+        private final String requiredType;
+        private final String optionalType;
+        private final String conversion;
+        private final boolean needsEncoding;
+
+        ValueType(final ParameterValueConverter<?> converter, final String requiredType, final String optionalType,
+                  final String conversion, final boolean needsEncoding) {
+            this.converter = converter;
+            this.requiredType = requiredType;
+            this.optionalType = optionalType;
+            this.conversion = conversion;
+            this.needsEncoding = needsEncoding;
+        }
+
+        static ValueType of(final ParameterValueConverter<?> converter) {
+            for (final ValueType type : values()) {
+                if (type.converter == converter) {
+                    return type;
+                }
+            }
+            return null;
+        }
+
+        boolean isPrimitive() {
+            return !requiredType.equals(optionalType);
+        }
+
+        String appendStatement(final String variable, final boolean queryValue) {
+            final String value = String.format(conversion, variable);
+            if (!needsEncoding) {
+                return "link.append(" + value + ");";
+            }
+            return "GeneratedRouterSupport." + (queryValue ? "appendQueryValue" : "appendPathToken") + "(link, " + value + ");";
+        }
+    }
+
+    private static final class Argument {
+        private final AbstractSingleUriParameter<?> parameter;
+        private final ValueType type;
+        private final String name;
+
+        private Argument(final AbstractSingleUriParameter<?> parameter, final String name) {
+            this.parameter = parameter;
+            this.type = ValueType.of(parameter.getConverter());
+            this.name = name;
+        }
+
+        private boolean isOptional() {
+            return parameter.isOptional();
+        }
+    }
+
+    /**
+     * Writes the statements of a link method. Consecutive static parts of the URI fragment are merged into a single
+     * String literal. Whether a separator has to be written before a URI token is decided at generation time where
+     * possible. Only if a URI token is preceded by optional parameters alone, the decision is deferred to runtime.
+     */
+    private static final class MethodBody {
+        private final StringBuilder code = new StringBuilder();
+        private final StringBuilder pending = new StringBuilder();
+        private final StringBuilder template = new StringBuilder();
+        private String indent = "        ";
+        private int staticLength;
+        private boolean usesStart;
+        private int queryStartPosition = -1;
+        private String queryStartIndent;
+        private boolean usesQueryStart;
+        /**
+         * {@code TRUE} if something has definitely been written before the current position, {@code FALSE} if nothing
+         * has been written, and {@code null} if this depends on optional parameters.
+         */
+        private Boolean written = Boolean.FALSE;
+
+        void appendStaticToken(final String encodedToken, final String token) {
+            appendPathSeparator();
+            pending.append(encodedToken);
+            template.append(token);
+            written = Boolean.TRUE;
+        }
+
+        void appendPathParameter(final Argument argument, final boolean withName) {
+            if (argument.isOptional()) {
+                flush();
+                template.append('[');
+                code.append(indent).append("if (").append(argument.name).append(" != null) {\n");
+                final Boolean writtenBefore = written;
+                indent += "    ";
+                appendPathParameterTokens(argument, withName);
+                flush();
+                indent = indent.substring(4);
+                code.append(indent).append("}\n");
+                template.append(']');
+                written = writtenBefore == Boolean.TRUE ? Boolean.TRUE : null;
+            } else {
+                appendPathParameterTokens(argument, withName);
+            }
+        }
+
+        private void appendPathParameterTokens(final Argument argument, final boolean withName) {
+            if (withName) {
+                appendStaticToken(GeneratedRouterSupport.encodePathToken(argument.parameter.getId()), argument.parameter.getId());
+            }
+            appendPathSeparator();
+            flush();
+            code.append(indent).append(argument.type.appendStatement(argument.name, false)).append('\n');
+            template.append('{').append(argument.name).append('}');
+            written = Boolean.TRUE;
+        }
+
+        private void appendPathSeparator() {
+            if (written == Boolean.TRUE) {
+                pending.append('/');
+                template.append('/');
+            } else if (written == null) {
+                flush();
+                usesStart = true;
+                code.append(indent).append("if (link.length() > start) {\n")
+                        .append(indent).append("    link.append('/');\n")
+                        .append(indent).append("}\n");
+                template.append('/');
+            }
+        }
+
+        void startQuery() {
+            written = Boolean.FALSE;
+        }
+
+        void appendQueryParameter(final Argument argument) {
+            final String key = UriEncoderDecoder.encodeUriFragment(argument.parameter.getId()) + "=";
+            if (argument.isOptional()) {
+                flush();
+                if (written != Boolean.TRUE && queryStartPosition < 0) {
+                    queryStartPosition = code.length();
+                    queryStartIndent = indent;
+                }
+                code.append(indent).append("if (").append(argument.name).append(" != null) {\n");
+                final Boolean writtenBefore = written;
+                indent += "    ";
+                appendQueryParameterValue(argument, key);
+                flush();
+                indent = indent.substring(4);
+                code.append(indent).append("}\n");
+                written = writtenBefore == Boolean.TRUE ? Boolean.TRUE : null;
+            } else {
+                appendQueryParameterValue(argument, key);
+            }
+        }
+
+        private void appendQueryParameterValue(final Argument argument, final String key) {
+            if (written == null) {
+                flush();
+                usesQueryStart = true;
+                code.append(indent).append("link.append(link.length() > queryStart ? '&' : '?');\n");
+            } else {
+                pending.append(written ? '&' : '?');
+            }
+            pending.append(key);
+            template.append(written == Boolean.FALSE ? '?' : '&').append(argument.parameter.getId()).append("={").append(argument.name).append('}');
+            flush();
+            code.append(indent).append(argument.type.appendStatement(argument.name, true)).append('\n');
+            written = Boolean.TRUE;
+        }
+
+        /**
+         * Writes the pending static parts and returns the statements of the method body.
+         */
+        String finish() {
+            flush();
+            if (usesQueryStart) {
+                code.insert(queryStartPosition, queryStartIndent + "final int queryStart = link.length();\n");
+            }
+            return code.toString();
+        }
+
+        void flush() {
+            if (pending.length() > 0) {
+                code.append(indent).append("link.append(").append(RouterSourceGenerator.literal(pending.toString())).append(");\n");
+                staticLength += pending.length();
+                pending.setLength(0);
+            }
+        }
+    }
+}
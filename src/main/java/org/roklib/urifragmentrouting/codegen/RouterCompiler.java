@@ -0,0 +1,194 @@
+package org.roklib.urifragmentrouting.codegen;
+
+import org.roklib.urifragmentrouting.UriActionMapperTree;
+import org.roklib.urifragmentrouting.helper.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.tools.*;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates, compiles and loads a {@link GeneratedRouter} class for a {@link UriActionMapperTree} at runtime. The
+ * source code is produced by {@link RouterSourceGenerator} and compiled in memory with the system Java compiler. The
+ * resulting class is defined by a dedicated class loader whose parent is the class loader of this library. Hence, this
+ * class can only be used when the application runs on a JDK. If no Java compiler is available, generate the router
+ * source at build time with {@link RouterSourceGenerator} instead.
+ * <p>
+ * Example:
+ * <pre>
+ * UriActionMapperTree tree = UriActionMapperTree.create().buildMapperTree()
+ *         ...
+ *         .build();
+ * RouterCompiler.compileAndInstall(tree);
+ * </pre>
+ */
+public final class RouterCompiler {
+    private static final Logger LOG = LoggerFactory.getLogger(RouterCompiler.class);
+
+    /**
+     * Package of the router classes generated at runtime.
+     */
+    public static final String GENERATED_PACKAGE = "org.roklib.urifragmentrouting.codegen.generated";
+
+    private static final AtomicInteger CLASS_COUNTER = new AtomicInteger();
+
+    private RouterCompiler() {
+    }
+
+    /**
+     * Generates and compiles a router class for the given mapper tree and installs an instance of it on the tree with
+     * {@link UriActionMapperTree#setGeneratedRouter(GeneratedRouter)}.
+     *
+     * @param tree the fully built mapper tree. Must not be {@code null}.
+     *
+     * @return the installed router
+     * @throws IllegalStateException if no Java compiler is available or if the generated source could not be compiled
+     */
+    public static GeneratedRouter compileAndInstall(final UriActionMapperTree tree) {
+        final GeneratedRouter router = compile(tree);
+        tree.setGeneratedRouter(router);
+        return router;
+    }
+
+    /**
+     * Generates and compiles a router class for the given mapper tree and returns an instance of it. The router is not
+     * installed on the tree.
+     *
+     * @param tree the fully built mapper tree. Must not be {@code null}.
+     *
+     * @return a new router instance for the given tree
+     * @throws IllegalStateException if no Java compiler is available or if the generated source could not be compiled
+     */
+    public static GeneratedRouter compile(final UriActionMapperTree tree) {
+        Preconditions.checkNotNull(tree);
+        final String className = "GeneratedRouter" + CLASS_COUNTER.incrementAndGet();
+        final String qualifiedClassName = GENERATED_PACKAGE + "." + className;
+        final String source = new RouterSourceGenerator(tree).generateSource(GENERATED_PACKAGE, className);
+        return (GeneratedRouter) compile(tree, qualifiedClassName, source);
+    }
+
+    /**
+     * Compiles the given generated source code and creates an instance of the compiled class with its constructor which
+     * takes the mapper tree as its only argument.
+     *
+     * @param tree               the mapper tree for which the source code has been generated
+     * @param qualifiedClassName the fully qualified name of the generated class
+     * @param source             the generated source code
+     *
+     * @return a new instance of the compiled class
+     * @throws IllegalStateException if no Java compiler is available or if the source could not be compiled
+     */
+    static Object compile(final UriActionMapperTree tree, final String qualifiedClassName, final String source) {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("No Java compiler available. Generated classes can only be compiled at runtime on a JDK.");
+        }
+        LOG.debug("compile() - Compiling generated class {}:\n{}", qualifiedClassName, source);
+
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final InMemoryFileManager fileManager =
+                new InMemoryFileManager(compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8));
+        final List<String> options = Arrays.asList("-classpath", classPath(), "-proc:none");
+        final boolean success = compiler.getTask(null, fileManager, diagnostics, options, null,
+                Collections.singletonList(new SourceFile(qualifiedClassName, source))).call();
+        if (!success) {
+            throw new IllegalStateException("Unable to compile generated class " + qualifiedClassName + ": " + diagnostics.getDiagnostics());
+        }
+
+        try {
+            final ClassLoader classLoader = new GeneratedClassLoader(RouterCompiler.class.getClassLoader(), fileManager.classFiles);
+            final Class<?> generatedClass = classLoader.loadClass(qualifiedClassName);
+            return generatedClass.getConstructor(UriActionMapperTree.class).newInstance(tree);
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to instantiate generated class " + qualifiedClassName, e);
+        }
+    }
+
+    private static String classPath() {
+        final StringJoiner classPath = new StringJoiner(File.pathSeparator);
+        final CodeSource codeSource = UriActionMapperTree.class.getProtectionDomain().getCodeSource();
+        if (codeSource != null) {
+            final URL location = codeSource.getLocation();
+            try {
+                classPath.add(Paths.get(location.toURI()).toString());
+            } catch (final URISyntaxException | IllegalArgumentException e) {
+                LOG.debug("classPath() - Unable to determine class path entry for location {}", location, e);
+            }
+        }
+        classPath.add(System.getProperty("java.class.path", ""));
+        return classPath.toString();
+    }
+
+    private static final class SourceFile extends SimpleJavaFileObject {
+        private final String source;
+
+        private SourceFile(final String qualifiedClassName, final String source) {
+            super(URI.create("string:///" + qualifiedClassName.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    private static final class ClassFile extends SimpleJavaFileObject {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private ClassFile(final String qualifiedClassName) {
+            super(URI.create("bytes:///" + qualifiedClassName.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return bytes;
+        }
+    }
+
+    private static final class InMemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+        private final Map<String, ClassFile> classFiles = new HashMap<>();
+
+        private InMemoryFileManager(final JavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(final Location location, final String className,
+                                                   final JavaFileObject.Kind kind, final FileObject sibling) {
+            final ClassFile classFile = new ClassFile(className);
+            classFiles.put(className, classFile);
+            return classFile;
+        }
+    }
+
+    private static final class GeneratedClassLoader extends ClassLoader {
+        private final Map<String, ClassFile> classFiles;
+
+        private GeneratedClassLoader(final ClassLoader parent, final Map<String, ClassFile> classFiles) {
+            super(parent);
+            this.classFiles = classFiles;
+        }
+
+        @Override
+        protected Class<?> findClass(final String name) throws ClassNotFoundException {
+            final ClassFile classFile = classFiles.get(name);
+            if (classFile == null) {
+                return super.findClass(name);
+            }
+            final byte[] bytes = classFile.bytes.toByteArray();
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
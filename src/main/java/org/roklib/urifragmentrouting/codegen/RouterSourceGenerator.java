@@ -0,0 +1,410 @@
+package org.roklib.urifragmentrouting.codegen;
+
+import org.roklib.urifragmentrouting.UriActionMapperTree;
+import org.roklib.urifragmentrouting.helper.Preconditions;
+import org.roklib.urifragmentrouting.mapper.AbstractUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.DispatchingUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.SimpleUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.UriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.parameter.AbstractSingleUriParameter;
+import org.roklib.urifragmentrouting.parameter.ParameterMode;
+import org.roklib.urifragmentrouting.parameter.UriParameter;
+import org.roklib.urifragmentrouting.parameter.converter.*;
+
+import java.util.*;
+
+/**
+ * Generates the Java source code of a {@link GeneratedRouter} class for a fully built {@link UriActionMapperTree}. The
+ * generated class replaces the generic dispatching through the action mapper objects with specialized code: every
+ * {@link DispatchingUriPathSegmentActionMapper} and {@link SimpleUriPathSegmentActionMapper} of the tree is translated
+ * into a method of its own which dispatches on the next URI token with a {@code switch} statement on String literals,
+ * parses the values of its single-valued URI parameters inline and directly returns the action command factory of its
+ * action mapper.
+ * <p>
+ * The generated code reproduces the interpreted dispatching exactly. In particular, a sub-mapper is first looked up by
+ * its mapper name, then by its literal path segment name or one of its path segment aliases, then all remaining
+ * sub-mappers are asked in their evaluation order whether they are responsible for the URI token, and finally the
+ * catch-all sub-mapper is used. All action mappers which cannot be translated, such as
+ * {@link org.roklib.urifragmentrouting.mapper.RegexUriPathSegmentActionMapper RegexUriPathSegmentActionMapper}s, custom
+ * action mapper classes or action mappers with multi-valued URI parameters, are invoked through their regular {@link
+ * UriPathSegmentActionMapper#interpretTokens(org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues,
+ * String, List, Map, ParameterMode) interpretTokens()} method, i. e. their sub-trees are interpreted as usual.
+ * <p>
+ * The generated class has a public constructor with a single argument of type {@link UriActionMapperTree} through which
+ * it obtains the action mapper and URI parameter objects it refers to. The constructor verifies that the given tree has
+ * the same structure as the tree the class has been generated for. By that, the source code can also be generated at
+ * build time and be compiled together with the application, as long as the application builds the same mapper tree at
+ * runtime. For generating and loading a router class at runtime, use {@link RouterCompiler}.
+ * <p>
+ * The action mapper tree must not be changed after the router class has been generated.
+ */
+public class RouterSourceGenerator {
+
+    private final UriActionMapperTree tree;
+    private final ParameterMode parameterMode;
+    private final Map<UriPathSegmentActionMapper, Integer> mapperIndexes = new IdentityHashMap<>();
+    private final Set<UriPathSegmentActionMapper> generatedMethods = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final StringBuilder fields = new StringBuilder();
+    private final StringBuilder initializers = new StringBuilder();
+    private final StringBuilder methods = new StringBuilder();
+
+    /**
+     * Creates a new source generator for the given mapper tree.
+     *
+     * @param tree the fully built mapper tree for which a router class is to be generated. Must not be {@code null}.
+     */
+    public RouterSourceGenerator(final UriActionMapperTree tree) {
+        Preconditions.checkNotNull(tree);
+        this.tree = tree;
+        this.parameterMode = tree.getParameterMode();
+    }
+
+    /**
+     * Generates the source code of a router class with the given package and class name.
+     *
+     * @param packageName the package of the generated class. May be empty for the default package.
+     * @param className   the simple name of the generated class. Must not be {@code null}.
+     *
+     * @return the Java source code of the generated router class
+     */
+    public String generateSource(final String packageName, final String className) {
+        Preconditions.checkNotNull(className);
+        mapperIndexes.clear();
+        generatedMethods.clear();
+        fields.setLength(0);
+        initializers.setLength(0);
+        methods.setLength(0);
+
+        final String rootMethod = routeTo(tree.getRootActionMapper(), Collections.emptyList(), "null");
+
+        final StringBuilder source = new StringBuilder();
+        if (packageName != null && !packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import org.roklib.urifragmentrouting.UriActionCommandFactory;\n")
+                .append("import org.roklib.urifragmentrouting.UriActionMapperTree;\n")
+                .append("import org.roklib.urifragmentrouting.codegen.GeneratedRouter;\n")
+                .append("import org.roklib.urifragmentrouting.codegen.GeneratedRouterSupport;\n")
+                .append("import org.roklib.urifragmentrouting.mapper.UriPathSegmentActionMapper;\n")
+                .append("import org.roklib.urifragmentrouting.parameter.AbstractSingleUriParameter;\n")
+                .append("import org.roklib.urifragmentrouting.parameter.ParameterMode;\n")
+                .append("import org.roklib.urifragmentrouting.parameter.UriParameterError;\n")
+                .append("import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;\n")
+                .append("import org.roklib.urifragmentrouting.parameter.value.ParameterValue;\n\n")
+                .append("import java.util.List;\n")
+                .append("import java.util.Map;\n\n")
+                .append("/**\n * Router generated by ").append(RouterSourceGenerator.class.getName()).append(". Do not edit.\n */\n")
+                .append("public final class ").append(className).append(" implements GeneratedRouter {\n")
+                .append(fields)
+                .append("\n    public ").append(className).append("(final UriActionMapperTree tree) {\n")
+                .append("        GeneratedRouterSupport.checkFingerprint(tree, ").append(literal(GeneratedRouterSupport.fingerprint(tree))).append(");\n")
+                .append(initializers)
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public UriActionCommandFactory interpretTokens(final CapturedParameterValues values, final List<String> tokens, final Map<String, String> query) {\n")
+                .append("        return ").append(rootMethod).append(";\n")
+                .append("    }\n")
+                .append(methods)
+                .append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * Returns the Java expression which interprets the remaining URI tokens with the given action mapper. For action
+     * mappers which can be translated, this is the invocation of a generated method. For all other action mappers, this
+     * is the invocation of their {@code interpretTokens()} method.
+     */
+    private String routeTo(final UriPathSegmentActionMapper mapper, final List<String> path, final String currentTokenExpression) {
+        final String mapperField = mapperField(mapper, path);
+        if (!canBeTranslated(mapper)) {
+            return mapperField + ".interpretTokens(values, " + currentTokenExpression + ", tokens, query, ParameterMode." + parameterMode.name() + ")";
+        }
+        final String methodName = "route" + mapperIndexes.get(mapper);
+        if (generatedMethods.add(mapper)) {
+            generateMethod((AbstractUriPathSegmentActionMapper) mapper, path, mapperField, methodName);
+        }
+        return methodName + "(values, tokens, query)";
+    }
+
+    private void generateMethod(final AbstractUriPathSegmentActionMapper mapper, final List<String> path,
+                                final String mapperField, final String methodName) {
+        final StringBuilder method = new StringBuilder();
+        method.append("\n    // ").append(comment(mapper.toString())).append('\n')
+                .append("    private UriActionCommandFactory ").append(methodName)
+                .append("(final CapturedParameterValues values, final List<String> tokens, final Map<String, String> query) {\n");
+        generateParameterInterpretation(mapper, mapperField, method);
+
+        if (!(mapper instanceof DispatchingUriPathSegmentActionMapper)) {
+            method.append("        return ").append(mapperField).append(".getActionCommandFactory();\n    }\n");
+            methods.append(method);
+            return;
+        }
+
+        final DispatchingUriPathSegmentActionMapper dispatchingMapper = (DispatchingUriPathSegmentActionMapper) mapper;
+        method.append("        String next = \"\";\n")
+                .append("        while (\"\".equals(next) && !tokens.isEmpty()) {\n")
+                .append("            next = tokens.remove(0);\n")
+                .append("        }\n")
+                .append("        if (tokens.isEmpty() && \"\".equals(next)) {\n")
+                .append("            return ").append(mapperField).append(".getActionCommandFactory();\n")
+                .append("        }\n");
+
+        final Collection<UriPathSegmentActionMapper> subMappers = dispatchingMapper.getSubMapperEvaluationOrder();
+        if (!subMappers.isEmpty()) {
+            method.append("        switch (next) {\n");
+            for (final UriPathSegmentActionMapper subMapper : subMappers) {
+                method.append("            case ").append(literal(subMapper.getMapperName())).append(":\n")
+                        .append("                return ").append(routeTo(subMapper, append(path, subMapper.getMapperName()), "next")).append(";\n");
+            }
+            method.append("        }\n");
+        }
+
+        // All other sub-mappers are evaluated in their evaluation order. Consecutive literal sub-mappers are looked up
+        // by the path segments and path segment aliases from the literal segment index, all other sub-mappers are asked
+        // whether they are responsible for the token.
+        final Map<String, UriPathSegmentActionMapper> literalSegmentIndex = dispatchingMapper.getLiteralSegmentIndex();
+        final Set<UriPathSegmentActionMapper> literalSubMappers = new HashSet<>();
+        for (final UriPathSegmentActionMapper subMapper : subMappers) {
+            if (isLiteralSegmentMapper(subMapper)) {
+                literalSubMappers.add(subMapper);
+            } else {
+                generateLiteralSegmentSwitch(literalSegmentIndex, literalSubMappers, path, method);
+                method.append("        if (").append(mapperField(subMapper, append(path, subMapper.getMapperName()))).append(".isResponsibleForToken(next)) {\n")
+                        .append("            return ").append(routeTo(subMapper, append(path, subMapper.getMapperName()), "next")).append(";\n")
+                        .append("        }\n");
+            }
+        }
+        generateLiteralSegmentSwitch(literalSegmentIndex, literalSubMappers, path, method);
+
+        UriPathSegmentActionMapper fallbackMapper = dispatchingMapper.getCatchAllMapper();
+        if (fallbackMapper == null) {
+            fallbackMapper = dispatchingMapper.getTailMapper();
+        }
+        if (fallbackMapper == null) {
+            method.append("        return null;\n");
+        } else {
+            method.append("        return ").append(routeTo(fallbackMapper, append(path, fallbackMapper.getMapperName()), "next")).append(";\n");
+        }
+        method.append("    }\n");
+        methods.append(method);
+    }
+
+    private void generateLiteralSegmentSwitch(final Map<String, UriPathSegmentActionMapper> literalSegmentIndex,
+                                              final Set<UriPathSegmentActionMapper> literalSubMappers,
+                                              final List<String> path,
+                                              final StringBuilder method) {
+        final Map<String, UriPathSegmentActionMapper> literalSegments = new TreeMap<>();
+        literalSegmentIndex.forEach((segment, subMapper) -> {
+            if (literalSubMappers.contains(subMapper)) {
+                literalSegments.put(segment, subMapper);
+            }
+        });
+        literalSubMappers.clear();
+        if (!literalSegments.isEmpty()) {
+            method.append("        switch (next) {\n");
+            literalSegments.forEach((segment, subMapper) ->
+                    method.append("            case ").append(literal(segment)).append(":\n")
+                            .append("                return ").append(routeTo(subMapper, append(path, subMapper.getMapperName()), "next")).append(";\n"));
+            method.append("        }\n");
+        }
+    }
+
+    private static boolean isLiteralSegmentMapper(final UriPathSegmentActionMapper mapper) {
+        return mapper instanceof AbstractUriPathSegmentActionMapper
+                && ((AbstractUriPathSegmentActionMapper) mapper).isLiteralSegmentMapper();
+    }
+
+    private void generateParameterInterpretation(final AbstractUriPathSegmentActionMapper mapper, final String mapperField,
+                                                 final StringBuilder method) {
+        final List<AbstractSingleUriParameter<?>> parameters = new ArrayList<>();
+        for (final UriParameter<?> parameter : mapper.getRegisteredUriParameters().values()) {
+            parameters.add((AbstractSingleUriParameter<?>) parameter);
+        }
+        if (parameters.isEmpty()) {
+            return;
+        }
+
+        for (int i = 0; i < parameters.size(); i++) {
+            method.append("        String value").append(i).append(" = null;\n");
+        }
+        switch (parameterMode) {
+            case QUERY:
+                for (int i = 0; i < parameters.size(); i++) {
+                    method.append("        value").append(i).append(" = query.remove(").append(literal(parameters.get(i).getId())).append(");\n");
+                }
+                break;
+            case DIRECTORY:
+                method.append("        parameters:\n        {\n");
+                for (int i = 0; i < parameters.size(); i++) {
+                    method.append("            value").append(i).append(" = tokens.remove(0);\n")
+                            .append("            if (tokens.isEmpty()) {\n")
+                            .append("                break parameters;\n")
+                            .append("            }\n");
+                }
+                method.append("        }\n");
+                break;
+            default:
+                method.append("        while (!tokens.isEmpty()) {\n")
+                        .append("            final int index;\n")
+                        .append("            switch (tokens.get(0)) {\n");
+                for (int i = 0; i < parameters.size(); i++) {
+                    method.append("                case ").append(literal(parameters.get(i).getId())).append(":\n")
+                            .append("                    index = ").append(i).append(";\n")
+                            .append("                    break;\n");
+                }
+                method.append("                default:\n")
+                        .append("                    index = -1;\n")
+                        .append("            }\n")
+                        .append("            if (index < 0) {\n")
+                        .append("                break;\n")
+                        .append("            }\n")
+                        .append("            tokens.remove(0);\n")
+                        .append("            if (!tokens.isEmpty()) {\n")
+                        .append("                final String value = tokens.remove(0);\n")
+                        .append("                switch (index) {\n");
+                for (int i = 0; i < parameters.size(); i++) {
+                    method.append("                    case ").append(i).append(":\n")
+                            .append("                        value").append(i).append(" = value;\n")
+                            .append("                        break;\n");
+                }
+                method.append("                }\n")
+                        .append("            }\n")
+                        .append("        }\n");
+        }
+
+        final String mapperName = literal(mapper.getMapperName());
+        for (int i = 0; i < parameters.size(); i++) {
+            final AbstractSingleUriParameter<?> parameter = parameters.get(i);
+            final String parameterField = parameterField(mapper, mapperField, parameter);
+            final String parameterId = literal(parameter.getId());
+            final String value = "value" + i;
+            method.append("        if (").append(value).append(" == null) {\n")
+                    .append("            values.setValueFor(").append(mapperName).append(", ").append(parameterId)
+                    .append(", GeneratedRouterSupport.missingValue(").append(parameterField).append("));\n")
+                    .append("        } else {\n");
+            final String parseExpression = inlineParseExpression(parameter.getConverter(), value);
+            if (parseExpression == null) {
+                method.append("            values.setValueFor(").append(mapperName).append(", ").append(parameterId)
+                        .append(", GeneratedRouterSupport.convert(").append(parameterField).append(", ").append(value).append("));\n");
+            } else if (parameter.getConverter() == StringParameterValueConverter.INSTANCE) {
+                method.append("            values.setValueFor(").append(mapperName).append(", ").append(parameterId)
+                        .append(", ParameterValue.forValue(").append(parseExpression).append("));\n");
+            } else {
+                method.append("            ParameterValue<?> parameterValue;\n")
+                        .append("            try {\n")
+                        .append("                parameterValue = ParameterValue.forValue(").append(parseExpression).append(");\n")
+                        .append("            } catch (final NumberFormatException e) {\n")
+                        .append("                parameterValue = ParameterValue.forError(UriParameterError.CONVERSION_ERROR);\n")
+                        .append("            }\n")
+                        .append("            values.setValueFor(").append(mapperName).append(", ").append(parameterId).append(", parameterValue);\n");
+            }
+            method.append("        }\n");
+        }
+    }
+
+    /**
+     * Returns a Java expression which converts the given String variable in the same way as the given converter does,
+     * or {@code null} if the converter's logic cannot be inlined. The numeric expressions throw a {@link
+     * NumberFormatException} if the value cannot be converted.
+     */
+    private static String inlineParseExpression(final ParameterValueConverter<?> converter, final String variable) {
+        if (converter == StringParameterValueConverter.INSTANCE) {
+            return variable;
+        } else if (converter == IntegerParameterValueConverter.INSTANCE) {
+            return "Integer.valueOf(" + variable + ")";
+        } else if (converter == LongParameterValueConverter.INSTANCE) {
+            return "Long.valueOf(" + variable + ")";
+        } else if (converter == DoubleParameterValueConverter.INSTANCE) {
+            return "Double.valueOf(" + variable + ")";
+        } else if (converter == FloatParameterValueConverter.INSTANCE) {
+            return "Float.valueOf(" + variable + ")";
+        }
+        return null;
+    }
+
+    private boolean canBeTranslated(final UriPathSegmentActionMapper mapper) {
+        // dispatching mappers with an adaptive sub-mapper order are left to the interpreter so that they keep adapting
+        // to the observed traffic; the root mapper is translated with the sub-mapper order current at generation time
+        final boolean knownMapperType = mapper == tree.getRootActionMapper()
+                || mapper.getClass() == DispatchingUriPathSegmentActionMapper.class
+                && !((DispatchingUriPathSegmentActionMapper) mapper).isAdaptiveSubMapperOrder()
+                || mapper.getClass() == SimpleUriPathSegmentActionMapper.class;
+        if (!knownMapperType) {
+            return false;
+        }
+        return ((AbstractUriPathSegmentActionMapper) mapper).getRegisteredUriParameters().values().stream()
+                .allMatch(parameter -> parameter instanceof AbstractSingleUriParameter);
+    }
+
+    private String mapperField(final UriPathSegmentActionMapper mapper, final List<String> path) {
+        Integer index = mapperIndexes.get(mapper);
+        if (index == null) {
+            index = mapperIndexes.size();
+            mapperIndexes.put(mapper, index);
+            fields.append("    private final UriPathSegmentActionMapper mapper").append(index).append(";\n");
+            initializers.append("        mapper").append(index).append(" = GeneratedRouterSupport.mapper(tree");
+            path.forEach(mapperName -> initializers.append(", ").append(literal(mapperName)));
+            initializers.append(");\n");
+        }
+        return "mapper" + index;
+    }
+
+    private String parameterField(final UriPathSegmentActionMapper mapper, final String mapperField,
+                                  final UriParameter<?> parameter) {
+        final List<String> parameterIds = new ArrayList<>(((AbstractUriPathSegmentActionMapper) mapper).getRegisteredUriParameters().keySet());
+        final String fieldName = mapperField + "Parameter" + parameterIds.indexOf(parameter.getId());
+        if (fields.indexOf(" " + fieldName + ";") < 0) {
+            fields.append("    private final AbstractSingleUriParameter<?> ").append(fieldName).append(";\n");
+            initializers.append("        ").append(fieldName).append(" = GeneratedRouterSupport.parameter(")
+                    .append(mapperField).append(", ").append(literal(parameter.getId())).append(");\n");
+        }
+        return fieldName;
+    }
+
+    private static List<String> append(final List<String> path, final String mapperName) {
+        final List<String> result = new ArrayList<>(path.size() + 1);
+        result.addAll(path);
+        result.add(mapperName);
+        return result;
+    }
+
+    /**
+     * Removes all characters from the given String which could break a single-line comment, including backslashes
+     * which could start a Unicode escape sequence.
+     */
+    static String comment(final String value) {
+        final StringBuilder result = new StringBuilder(value.length());
+        value.chars()
+                .filter(c -> c >= 0x20 && c <= 0x7E && c != '\\')
+                .forEach(c -> result.append((char) c));
+        return result.toString();
+    }
+
+    /**
+     * Returns the given String as a Java String literal.
+     */
+    static String literal(final String value) {
+        final StringBuilder result = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    result.append("\\\"");
+                    break;
+                case '\\':
+                    result.append("\\\\");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        // unicode escapes of line terminators would be translated before the literal is parsed
+                        result.append(String.format("\\%03o", (int) c));
+                    } else if (c > 0x7E) {
+                        result.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        result.append(c);
+                    }
+            }
+        }
+        return result.append('"').toString();
+    }
+}
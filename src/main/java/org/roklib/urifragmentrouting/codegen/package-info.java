@@ -0,0 +1,7 @@
+/**
+ * Generation of specialized router classes for a fully built {@link org.roklib.urifragmentrouting.UriActionMapperTree
+ * UriActionMapperTree}. A generated router replaces the generic, interpreted dispatching through the action mapper
+ * objects with plain Java code which the JIT compiler can inline completely. Likewise, a generated link builder
+ * assembles the URI fragments of the tree's action mappers from typed arguments.
+ */
+package org.roklib.urifragmentrouting.codegen;
@@ -0,0 +1,34 @@
+package org.roklib.urifragmentrouting.exception;
+
+import org.roklib.urifragmentrouting.strategy.UriFragmentLimits;
+
+/**
+ * Exception which is thrown when a URI fragment exceeds one of the limits defined by a {@link UriFragmentLimits}
+ * object. Since this exception is raised for abusive input which may arrive in large volumes, it does not record a
+ * stack trace.
+ */
+public class UriFragmentLimitExceededException extends RuntimeException {
+    private static final long serialVersionUID = 6474245016286640317L;
+
+    private final UriFragmentLimits.Limit limit;
+
+    /**
+     * Constructs a new exception object for the given limit.
+     *
+     * @param limit      the limit which has been exceeded
+     * @param limitValue the configured value of this limit
+     */
+    public UriFragmentLimitExceededException(final UriFragmentLimits.Limit limit, final int limitValue) {
+        super("URI fragment exceeds limit " + limit + " of " + limitValue, null, false, false);
+        this.limit = limit;
+    }
+
+    /**
+     * Returns the limit which has been exceeded.
+     *
+     * @return the exceeded limit
+     */
+    public UriFragmentLimits.Limit getLimit() {
+        return limit;
+    }
+}
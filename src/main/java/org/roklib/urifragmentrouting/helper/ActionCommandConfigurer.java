@@ -1,5 +1,7 @@
 package org.roklib.urifragmentrouting.helper;
 
+import org.roklib.urifragmentrouting.RouteMatch;
+import org.roklib.urifragmentrouting.StatelessUriActionCommand;
 import org.roklib.urifragmentrouting.UriActionCommand;
 import org.roklib.urifragmentrouting.UriActionCommandFactory;
 import org.roklib.urifragmentrouting.annotation.*;
@@ -26,10 +28,14 @@ import java.util.stream.Collectors;
  * can request data from the currently interpreted URI fragment using the following annotations: <ul> <li>{@link
  * CurrentUriFragment}</li> <li>{@link CapturedParameter}</li> <li>{@link RoutingContext}</li> <li>{@link
  * AllCapturedParameters}</li> </ul>
+ * <p>
+ * Action command objects implementing {@link StatelessUriActionCommand} are not configured through annotated setter
+ * methods. Instead, {@link #configure(RouteMatch)} binds them to the {@link RouteMatch} of the current interpretation.
  */
 public class ActionCommandConfigurer implements UriActionCommandFactory {
 
     private UriActionCommand uriActionCommand;
+    private UriActionCommand configuredUriActionCommand;
     private UriActionCommandFactory uriActionCommandFactory;
     private UriPathSegmentActionMapper actionMapper;
 
@@ -45,7 +51,7 @@ public class ActionCommandConfigurer implements UriActionCommandFactory {
 
     public ActionCommandConfigurer(UriActionCommandFactory uriActionCommandFactory, UriPathSegmentActionMapper actionMapper) {
         this.uriActionCommandFactory = uriActionCommandFactory;
-        this.actionMapper = new ImmutableActionMapperWrapper(actionMapper);
+        this.actionMapper = actionMapper instanceof ImmutableActionMapperWrapper ? actionMapper : new ImmutableActionMapperWrapper(actionMapper);
     }
 
     @Override
@@ -56,6 +62,85 @@ public class ActionCommandConfigurer implements UriActionCommandFactory {
         return uriActionCommand;
     }
 
+    /**
+     * Passes all data of the currently interpreted URI fragment to the action command object created by the action
+     * command factory and returns the command object ready for execution. For a regular action command, all annotated
+     * setter methods are invoked in the order described in {@link UriActionCommand}. If the action command object
+     * implements {@link StatelessUriActionCommand}, no setter methods are invoked. Instead, a lightweight command
+     * object is returned which runs the stateless command with the given route match.
+     *
+     * @param routeMatch the routing result of the currently interpreted URI fragment as determined by the mapper tree.
+     *                   Must not be {@code null}.
+     *
+     * @return the configured action command object which is to be executed or {@code null} if the action command
+     * factory did not create a command object
+     */
+    public UriActionCommand configure(final RouteMatch routeMatch) {
+        Preconditions.checkNotNull(routeMatch);
+        final UriActionCommand command = createUriActionCommand();
+        if (command == null) {
+            return null;
+        }
+        if (command instanceof StatelessUriActionCommand) {
+            configuredUriActionCommand = new RouteMatchBoundActionCommand((StatelessUriActionCommand) command, routeMatch);
+            return configuredUriActionCommand;
+        }
+
+        final String uriFragment = routeMatch.getUriFragment();
+        final Object routingContext = routeMatch.getRoutingContext();
+        final CapturedParameterValues capturedParameterValues = routeMatch.getCapturedParameterValues();
+
+        passUriPathSegmentActionMapper();
+        if (routingContext != null) {
+            passRoutingContext(routingContext);
+        }
+        passAllCapturedParameters(CapturedParameterValues.copyOf(capturedParameterValues));
+        passCapturedParameters(capturedParameterValues);
+        if (uriFragment != null) {
+            passUriFragment(uriFragment);
+        }
+        configuredUriActionCommand = command;
+        return command;
+    }
+
+    /**
+     * Returns the action command object which has been returned by the last invocation of {@link
+     * #configure(RouteMatch)}.
+     *
+     * @return the configured action command object or {@code null} if {@link #configure(RouteMatch)} has not been
+     * invoked yet
+     */
+    public UriActionCommand getConfiguredUriActionCommand() {
+        return configuredUriActionCommand;
+    }
+
+    /**
+     * Returns the action command object created by this configurer to its action command factory after it has been
+     * executed. This only has an effect for action mappers using the {@link org.roklib.urifragmentrouting.ActionCommandLifecycle#POOLED
+     * POOLED} lifecycle, where the command object is reset and put back into the pool. The command object must not be
+     * used any more after it has been released. Calling this method more than once has no further effect.
+     *
+     * @return {@code true} if the command object has been returned to a pool by this invocation
+     */
+    public boolean releaseUriActionCommand() {
+        if (uriActionCommand != null && uriActionCommandFactory instanceof PooledActionCommandFactory) {
+            ((PooledActionCommandFactory) uriActionCommandFactory).release(uriActionCommand);
+            uriActionCommand = null;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the action mapper which is passed to the action command object by this configurer.
+     *
+     * @return the action mapper wrapped in an {@link ImmutableActionMapperWrapper} or {@code null} if no action mapper
+     * was given through the constructor
+     */
+    public UriPathSegmentActionMapper getActionMapper() {
+        return actionMapper;
+    }
+
     private Class<? extends UriActionCommand> getCommandClass() {
         return createUriActionCommand().getClass();
     }
@@ -242,4 +327,27 @@ public class ActionCommandConfigurer implements UriActionCommandFactory {
     private boolean hasExactlyOneParameter(final Method method) {
         return method.getParameterCount() == 1;
     }
+
+    /**
+     * Action command which runs a stateless action command with a fixed {@link RouteMatch}.
+     */
+    private static final class RouteMatchBoundActionCommand implements UriActionCommand {
+        private final StatelessUriActionCommand command;
+        private final RouteMatch routeMatch;
+
+        private RouteMatchBoundActionCommand(final StatelessUriActionCommand command, final RouteMatch routeMatch) {
+            this.command = command;
+            this.routeMatch = routeMatch;
+        }
+
+        @Override
+        public void run() {
+            command.run(routeMatch);
+        }
+
+        @Override
+        public String toString() {
+            return command + " with " + routeMatch;
+        }
+    }
 }
@@ -0,0 +1,92 @@
+package org.roklib.urifragmentrouting.helper;
+
+import org.roklib.urifragmentrouting.ResettableUriActionCommand;
+import org.roklib.urifragmentrouting.UriActionCommand;
+import org.roklib.urifragmentrouting.UriActionCommandFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Action command factory which keeps a bounded pool of {@link ResettableUriActionCommand} objects created by a
+ * delegate factory. This class is used internally for action mappers with the {@link
+ * org.roklib.urifragmentrouting.ActionCommandLifecycle#POOLED POOLED} lifecycle.
+ * <p>
+ * {@link #createUriActionCommand()} takes an idle command object from the pool. Only if the pool is empty, a new
+ * command object is created by the delegate factory. Executed command objects are reset and put back into the pool
+ * with {@link #release(UriActionCommand)}. If the pool is already full at that time, the command object is dropped.
+ * Command objects which are never released are simply garbage collected.
+ */
+public class PooledActionCommandFactory implements UriActionCommandFactory {
+
+    private final UriActionCommandFactory delegate;
+    private final BlockingQueue<ResettableUriActionCommand> pool;
+
+    /**
+     * Creates a new pooling action command factory.
+     *
+     * @param delegate    the factory which creates new action command objects if the pool is empty. The command
+     *                    objects created by this factory have to implement {@link ResettableUriActionCommand}. Must
+     *                    not be {@code null}.
+     * @param maxPoolSize the maximum number of idle command objects kept in the pool. Must be greater than zero.
+     *
+     * @throws IllegalArgumentException if the pool size is not greater than zero
+     */
+    public PooledActionCommandFactory(final UriActionCommandFactory delegate, final int maxPoolSize) {
+        Preconditions.checkNotNull(delegate);
+        if (maxPoolSize < 1) {
+            throw new IllegalArgumentException("maximum pool size must be greater than zero");
+        }
+        this.delegate = delegate;
+        this.pool = new ArrayBlockingQueue<>(maxPoolSize);
+    }
+
+    /**
+     * Returns an idle command object from the pool or a new command object if the pool is empty.
+     *
+     * @return a command object which is ready to be configured
+     * @throws IllegalStateException if the delegate factory creates a command object which does not implement {@link
+     *                               ResettableUriActionCommand}
+     */
+    @Override
+    public UriActionCommand createUriActionCommand() {
+        final ResettableUriActionCommand pooledCommand = pool.poll();
+        if (pooledCommand != null) {
+            return pooledCommand;
+        }
+        final UriActionCommand command = delegate.createUriActionCommand();
+        if (command != null && !(command instanceof ResettableUriActionCommand)) {
+            throw new IllegalStateException("Action command class " + command.getClass().getName()
+                    + " must implement " + ResettableUriActionCommand.class.getName() + " in order to be pooled.");
+        }
+        return command;
+    }
+
+    /**
+     * Resets the given command object and returns it to the pool. If the pool is full or if the command object is not
+     * resettable, it is dropped.
+     *
+     * @param command the executed command object
+     */
+    public void release(final UriActionCommand command) {
+        if (command instanceof ResettableUriActionCommand) {
+            final ResettableUriActionCommand resettableCommand = (ResettableUriActionCommand) command;
+            resettableCommand.reset();
+            pool.offer(resettableCommand);
+        }
+    }
+
+    /**
+     * Returns the number of idle command objects currently kept in the pool.
+     *
+     * @return the number of idle command objects in the pool
+     */
+    public int getIdleCount() {
+        return pool.size();
+    }
+
+    @Override
+    public String toString() {
+        return "PooledActionCommandFactory{" + delegate + ", idle=" + pool.size() + '}';
+    }
+}
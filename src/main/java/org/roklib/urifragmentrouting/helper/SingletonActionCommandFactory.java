@@ -0,0 +1,63 @@
+package org.roklib.urifragmentrouting.helper;
+
+import org.roklib.urifragmentrouting.StatelessUriActionCommand;
+import org.roklib.urifragmentrouting.UriActionCommand;
+import org.roklib.urifragmentrouting.UriActionCommandFactory;
+
+/**
+ * Action command factory which lazily creates one single {@link StatelessUriActionCommand} object with a delegate
+ * factory and returns this object for every subsequent invocation of {@link #createUriActionCommand()}. This class is
+ * used internally for action mappers with the {@link org.roklib.urifragmentrouting.ActionCommandLifecycle#STATELESS_SINGLETON
+ * STATELESS_SINGLETON} lifecycle.
+ */
+public class SingletonActionCommandFactory implements UriActionCommandFactory {
+
+    private final UriActionCommandFactory delegate;
+    private volatile StatelessUriActionCommand instance;
+
+    /**
+     * Creates a new singleton action command factory.
+     *
+     * @param delegate the factory which creates the single command object. The command object created by this factory
+     *                 has to implement {@link StatelessUriActionCommand}. Must not be {@code null}.
+     */
+    public SingletonActionCommandFactory(final UriActionCommandFactory delegate) {
+        Preconditions.checkNotNull(delegate);
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns the single command object of this factory. The object is created on the first invocation.
+     *
+     * @return the single command object of this factory
+     * @throws IllegalStateException if the delegate factory creates a command object which does not implement {@link
+     *                               StatelessUriActionCommand}
+     */
+    @Override
+    public UriActionCommand createUriActionCommand() {
+        StatelessUriActionCommand result = instance;
+        if (result == null) {
+            synchronized (this) {
+                result = instance;
+                if (result == null) {
+                    final UriActionCommand command = delegate.createUriActionCommand();
+                    if (command == null) {
+                        return null;
+                    }
+                    if (!(command instanceof StatelessUriActionCommand)) {
+                        throw new IllegalStateException("Action command class " + command.getClass().getName()
+                                + " must implement " + StatelessUriActionCommand.class.getName() + " in order to be used as a singleton.");
+                    }
+                    result = (StatelessUriActionCommand) command;
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "SingletonActionCommandFactory{" + delegate + '}';
+    }
+}
@@ -0,0 +1,411 @@
+package org.roklib.urifragmentrouting.index;
+
+import org.roklib.urifragmentrouting.helper.Preconditions;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Compact, immutable index of a large set of String keys, each of which is associated with a numeric id. A sorted key
+ * index is used by the {@link org.roklib.urifragmentrouting.mapper.KeyIndexUriPathSegmentActionMapper
+ * KeyIndexUriPathSegmentActionMapper} to resolve URI tokens such as article or product slugs to the ids of the
+ * corresponding articles or products without having to register an action mapper for each individual slug.
+ * <p>
+ * All data of the index is kept in one contiguous block of memory: the UTF-8 encoded keys in ascending order, the
+ * offset of each key in this sequence, the id of each key and the positions of the keys ordered by id. Apart from the
+ * encoded key itself, the index needs 16 bytes per key. A key is looked up by binary search over the encoded keys, an
+ * id by binary search over the positions ordered by id, so that both lookups take logarithmic time and do not allocate
+ * any memory apart from encoding the searched key.
+ * <p>
+ * The memory block of an index can be written to a file with {@link #save(Path)}. Such a file can be read back into the
+ * heap with {@link #load(Path)}, or it can be mapped into memory with {@link #map(Path)}. A memory-mapped index does not
+ * occupy any heap memory for its keys; the operating system pages the data in as needed.
+ * <p>
+ * Indexes are never modified. To change the keys of an index, a new index is built with {@link #toBuilder()} and
+ * swapped in place of the old one, for example with {@link org.roklib.urifragmentrouting.mapper.KeyIndexUriPathSegmentActionMapper#setIndex(SortedKeyIndex)
+ * KeyIndexUriPathSegmentActionMapper.setIndex()}. This way, a batch of updates becomes visible atomically.
+ * <p>
+ * Instances of this class are thread-safe.
+ */
+public final class SortedKeyIndex implements Serializable {
+    private static final long serialVersionUID = -6237514190874615436L;
+    private static final int MAGIC = 0x55524B49;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    private transient ByteBuffer data;
+    private transient int size;
+    private transient int idsStart;
+    private transient int offsetsStart;
+    private transient int idOrderStart;
+    private transient int keysStart;
+
+    private SortedKeyIndex(final ByteBuffer data) throws IOException {
+        initialize(data);
+    }
+
+    private void initialize(final ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Data is not a sorted key index.");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported sorted key index version " + buffer.getInt(4));
+        }
+        data = buffer;
+        size = buffer.getInt(8);
+        idsStart = HEADER_SIZE;
+        offsetsStart = idsStart + 8 * size;
+        idOrderStart = offsetsStart + 4 * (size + 1);
+        keysStart = idOrderStart + 4 * size;
+        if (size < 0 || keysStart > buffer.capacity() || keysStart + buffer.getInt(offsetsStart + 4 * size) != buffer.capacity()) {
+            throw new IOException("Sorted key index is truncated or corrupt.");
+        }
+    }
+
+    /**
+     * Creates a new builder for an empty index.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a new builder which contains all keys and ids of this index.
+     *
+     * @return a new builder initialized with the content of this index
+     */
+    public Builder toBuilder() {
+        return new Builder().putAll(this);
+    }
+
+    /**
+     * Returns the number of keys in this index.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes occupied by the data of this index.
+     *
+     * @return the size of this index in bytes
+     */
+    public int getSizeInBytes() {
+        return data.capacity();
+    }
+
+    /**
+     * Returns the position of the given key in the sorted sequence of keys.
+     *
+     * @param key the key to look up. Must not be {@code null}.
+     *
+     * @return the position of the key or -1 if the key is not contained in this index
+     */
+    public int indexOf(final String key) {
+        Preconditions.checkNotNull(key);
+        final byte[] encodedKey = key.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int comparison = compareKeyAt(middle, encodedKey);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns {@code true} if the given key is contained in this index.
+     *
+     * @param key the key to look up. Must not be {@code null}.
+     *
+     * @return {@code true} if the key is contained in this index
+     */
+    public boolean containsKey(final String key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Returns the key at the given position.
+     *
+     * @param position a position between 0 (inclusive) and {@link #size()} (exclusive)
+     *
+     * @return the key at the given position
+     */
+    public String getKey(final int position) {
+        checkPosition(position);
+        final int start = keyOffset(position);
+        final byte[] bytes = new byte[keyOffset(position + 1) - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = data.get(keysStart + start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the id of the key at the given position.
+     *
+     * @param position a position between 0 (inclusive) and {@link #size()} (exclusive)
+     *
+     * @return the id of the key at the given position
+     */
+    public long getId(final int position) {
+        checkPosition(position);
+        return data.getLong(idsStart + 8 * position);
+    }
+
+    /**
+     * Returns the position of a key with the given id. If several keys have the same id, the position of the first of
+     * these keys in sort order is returned.
+     *
+     * @param id the id to look up
+     *
+     * @return the position of a key with this id or -1 if no key has this id
+     */
+    public int positionOfId(final long id) {
+        int low = 0;
+        int high = size - 1;
+        int result = -1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final long middleId = getId(positionInIdOrder(middle));
+            if (middleId < id) {
+                low = middle + 1;
+            } else {
+                if (middleId == id) {
+                    result = positionInIdOrder(middle);
+                }
+                high = middle - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes this index to the given file. The file can be read back with {@link #load(Path)} or {@link #map(Path)}.
+     *
+     * @param file the target file. An existing file is overwritten.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save(final Path file) throws IOException {
+        Preconditions.checkNotNull(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer content = data.duplicate();
+            content.clear();
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+        }
+    }
+
+    /**
+     * Reads an index from the given file into the heap.
+     *
+     * @param file a file written by {@link #save(Path)}
+     *
+     * @return the index read from the file
+     * @throws IOException if the file cannot be read or does not contain a sorted key index
+     */
+    public static SortedKeyIndex load(final Path file) throws IOException {
+        Preconditions.checkNotNull(file);
+        return new SortedKeyIndex(ByteBuffer.wrap(Files.readAllBytes(file)));
+    }
+
+    /**
+     * Maps the given file into memory. The file must not be modified while the returned index is in use.
+     *
+     * @param file a file written by {@link #save(Path)}
+     *
+     * @return the memory-mapped index
+     * @throws IOException if the file cannot be mapped or does not contain a sorted key index
+     */
+    public static SortedKeyIndex map(final Path file) throws IOException {
+        Preconditions.checkNotNull(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new SortedKeyIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private int compareKeyAt(final int position, final byte[] key) {
+        final int start = keysStart + keyOffset(position);
+        final int length = keysStart + keyOffset(position + 1) - start;
+        final int commonLength = Math.min(length, key.length);
+        for (int i = 0; i < commonLength; i++) {
+            final int comparison = (data.get(start + i) & 0xff) - (key[i] & 0xff);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return length - key.length;
+    }
+
+    private int keyOffset(final int position) {
+        return data.getInt(offsetsStart + 4 * position);
+    }
+
+    private int positionInIdOrder(final int rank) {
+        return data.getInt(idOrderStart + 4 * rank);
+    }
+
+    private void checkPosition(final int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " is out of range for index of size " + size);
+        }
+    }
+
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        final byte[] bytes = new byte[data.capacity()];
+        final ByteBuffer content = data.duplicate();
+        content.clear();
+        content.get(bytes);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        initialize(ByteBuffer.wrap(bytes));
+    }
+
+    @Override
+    public String toString() {
+        return "SortedKeyIndex{size=" + size + ", bytes=" + getSizeInBytes() + '}';
+    }
+
+    /**
+     * Collects keys and ids for a new {@link SortedKeyIndex}. A builder is not thread-safe.
+     */
+    public static final class Builder {
+        private final Map<String, Long> entries = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds the given key with the given id. If the key has already been added, its id is replaced.
+         *
+         * @param key the key. Must not be {@code null}.
+         * @param id  the id of the key
+         *
+         * @return this builder
+         */
+        public Builder put(final String key, final long id) {
+            Preconditions.checkNotNull(key);
+            entries.put(key, id);
+            return this;
+        }
+
+        /**
+         * Adds all keys and ids of the given index.
+         *
+         * @param index the index whose keys are to be added
+         *
+         * @return this builder
+         */
+        public Builder putAll(final SortedKeyIndex index) {
+            Preconditions.checkNotNull(index);
+            for (int position = 0; position < index.size(); position++) {
+                entries.put(index.getKey(position), index.getId(position));
+            }
+            return this;
+        }
+
+        /**
+         * Removes the given key.
+         *
+         * @param key the key to remove
+         *
+         * @return this builder
+         */
+        public Builder remove(final String key) {
+            entries.remove(key);
+            return this;
+        }
+
+        /**
+         * Builds a new index from the keys and ids added so far.
+         *
+         * @return the new index
+         */
+        public SortedKeyIndex build() {
+            final int size = entries.size();
+            final byte[][] keys = new byte[size][];
+            final Map<byte[], Long> idsByKey = new IdentityHashMap<>(size);
+            int index = 0;
+            long keyBytes = 0;
+            for (final Map.Entry<String, Long> entry : entries.entrySet()) {
+                keys[index] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                idsByKey.put(keys[index], entry.getValue());
+                keyBytes += keys[index].length;
+                index++;
+            }
+            Arrays.sort(keys, Builder::compareUnsigned);
+
+            final long totalSize = HEADER_SIZE + 16L * size + 4 + keyBytes;
+            if (totalSize > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Sorted key index would exceed 2 GB.");
+            }
+            final ByteBuffer buffer = ByteBuffer.allocate((int) totalSize);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(0);
+            final long[] ids = new long[size];
+            for (int position = 0; position < size; position++) {
+                ids[position] = idsByKey.get(keys[position]);
+                buffer.putLong(ids[position]);
+            }
+            int offset = 0;
+            for (int position = 0; position < size; position++) {
+                buffer.putInt(offset);
+                offset += keys[position].length;
+            }
+            buffer.putInt(offset);
+            final Integer[] idOrder = new Integer[size];
+            for (int position = 0; position < size; position++) {
+                idOrder[position] = position;
+            }
+            Arrays.sort(idOrder, Comparator.<Integer>comparingLong(position -> ids[position]).thenComparingInt(position -> position));
+            for (final Integer position : idOrder) {
+                buffer.putInt(position);
+            }
+            for (final byte[] key : keys) {
+                buffer.put(key);
+            }
+            try {
+                return new SortedKeyIndex(buffer);
+            } catch (final IOException e) {
+                throw new AssertionError("Built index is invalid.", e);
+            }
+        }
+
+        private static int compareUnsigned(final byte[] first, final byte[] second) {
+            final int commonLength = Math.min(first.length, second.length);
+            for (int i = 0; i < commonLength; i++) {
+                final int comparison = (first[i] & 0xff) - (second[i] & 0xff);
+                if (comparison != 0) {
+                    return comparison;
+                }
+            }
+            return first.length - second.length;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Compact in-memory and memory-mapped indexes for large key sets. Used by {@link
+ * org.roklib.urifragmentrouting.mapper.KeyIndexUriPathSegmentActionMapper KeyIndexUriPathSegmentActionMapper} to
+ * resolve URI tokens against millions of keys such as article or product slugs.
+ */
+package org.roklib.urifragmentrouting.index;
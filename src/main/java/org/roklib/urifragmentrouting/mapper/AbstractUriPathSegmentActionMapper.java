@@ -1,9 +1,12 @@
 package org.roklib.urifragmentrouting.mapper;
 
+import org.roklib.urifragmentrouting.ActionCommandLifecycle;
 import org.roklib.urifragmentrouting.UriActionCommand;
 import org.roklib.urifragmentrouting.UriActionCommandFactory;
 import org.roklib.urifragmentrouting.helper.ActionCommandConfigurer;
+import org.roklib.urifragmentrouting.helper.PooledActionCommandFactory;
 import org.roklib.urifragmentrouting.helper.Preconditions;
+import org.roklib.urifragmentrouting.helper.SingletonActionCommandFactory;
 import org.roklib.urifragmentrouting.parameter.ParameterMode;
 import org.roklib.urifragmentrouting.parameter.UriParameter;
 import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
@@ -11,6 +14,7 @@ import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.util.*;
 
@@ -19,13 +23,21 @@ import java.util.*;
  */
 public abstract class AbstractUriPathSegmentActionMapper implements UriPathSegmentActionMapper {
     private static final Logger LOG = LoggerFactory.getLogger(AbstractUriPathSegmentActionMapper.class);
+    /**
+     * Default maximum number of idle action command objects kept per action mapper with the {@link
+     * ActionCommandLifecycle#POOLED} lifecycle.
+     */
+    public static final int DEFAULT_ACTION_COMMAND_POOL_SIZE = 16;
 
-    private Map<String, UriParameter<?>> registeredUriParameters;
-    private Set<String> registeredUriParameterNames;
+    private UriParameterTable registeredUriParameters = UriParameterTable.EMPTY;
     private UriPathSegmentActionMapper parentMapper;
     private UriActionCommandFactory commandFactory;
+    private UriActionCommandFactory lifecycleCommandFactory;
+    private ActionCommandLifecycle actionCommandLifecycle = ActionCommandLifecycle.PROTOTYPE;
+    private int actionCommandPoolSize = DEFAULT_ACTION_COMMAND_POOL_SIZE;
     private final String mapperName;
     private final String pathSegment;
+    private Map<Locale, String> pathSegmentAliases;
 
     /**
      * Creates a new action mapper for the given mapper name. The mapper name must not be {@code null}. This name is
@@ -75,6 +87,83 @@ public abstract class AbstractUriPathSegmentActionMapper implements UriPathSegme
         return mapperName;
     }
 
+    /**
+     * Returns the name of the path segment this action mapper is responsible for.
+     *
+     * @return the path segment name of this action mapper
+     */
+    public final String getPathSegment() {
+        return pathSegment;
+    }
+
+    /**
+     * Adds a localized alias for the path segment of this action mapper. An action mapper with aliases is responsible
+     * for its path segment name as well as for each of its aliases. If this mapper is the sub-mapper of a {@link
+     * DispatchingUriPathSegmentActionMapper}, the aliases are resolved by the dispatching mapper with a single hash
+     * lookup, just as the path segment name itself. This allows a URI such as <tt>/products</tt> to be reached as
+     * <tt>/produkte</tt> or <tt>/produits</tt> without having to resort to a regex based action mapper with an
+     * alternation of all translations.
+     * <p>
+     * When a URI fragment is assembled for a specific locale with {@link
+     * org.roklib.urifragmentrouting.UriActionMapperTree#assembleUriFragment(CapturedParameterValues,
+     * UriPathSegmentActionMapper, Locale) UriActionMapperTree.assembleUriFragment()}, the alias for this locale is used
+     * instead of the path segment name. If an alias is added for a locale which already has an alias, the previous alias
+     * is replaced.
+     *
+     * @param locale the locale of the alias
+     * @param alias  the alias of the path segment name for the given locale
+     *
+     * @throws IllegalArgumentException if the alias is empty
+     */
+    public final void addPathSegmentAlias(final Locale locale, final String alias) {
+        Preconditions.checkNotNull(locale);
+        Preconditions.checkNotNull(alias);
+        if (alias.isEmpty()) {
+            throw new IllegalArgumentException("Path segment alias must not be empty");
+        }
+        if (pathSegmentAliases == null) {
+            pathSegmentAliases = new LinkedHashMap<>();
+        } else if (!(pathSegmentAliases instanceof LinkedHashMap)) {
+            pathSegmentAliases = new LinkedHashMap<>(pathSegmentAliases);
+        }
+        pathSegmentAliases.put(locale, alias);
+        if (parentMapper instanceof DispatchingUriPathSegmentActionMapper) {
+            ((DispatchingUriPathSegmentActionMapper) parentMapper).invalidateLiteralSegmentIndex();
+        }
+    }
+
+    /**
+     * Returns the localized aliases of the path segment of this action mapper.
+     *
+     * @return an unmodifiable map of the path segment aliases keyed by their locales
+     * @see #addPathSegmentAlias(Locale, String)
+     */
+    public final Map<Locale, String> getPathSegmentAliases() {
+        return pathSegmentAliases == null
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(pathSegmentAliases);
+    }
+
+    /**
+     * Returns the path segment name of this action mapper for the given locale. If there is no alias for the locale
+     * itself, the alias for the language of the locale is used. If there is no such alias either, the path segment name
+     * of this mapper is returned.
+     *
+     * @param locale the locale for which the path segment name is requested. May be {@code null}.
+     *
+     * @return the localized path segment name of this action mapper
+     */
+    public final String getPathSegment(final Locale locale) {
+        if (locale == null || pathSegmentAliases == null) {
+            return pathSegment;
+        }
+        String alias = pathSegmentAliases.get(locale);
+        if (alias == null && !locale.getCountry().isEmpty()) {
+            alias = pathSegmentAliases.get(new Locale(locale.getLanguage()));
+        }
+        return alias == null ? pathSegment : alias;
+    }
+
     @Override
     public String getSegmentInfo() {
         if (mapperName.equals(pathSegment)) {
@@ -87,35 +176,105 @@ public abstract class AbstractUriPathSegmentActionMapper implements UriPathSegme
     @Override
     public void setActionCommandFactory(UriActionCommandFactory commandFactory) {
         this.commandFactory = commandFactory;
+        updateLifecycleCommandFactory();
     }
 
     @Override
     public final UriActionCommandFactory getActionCommandFactory() {
-        return commandFactory == null ? null : new ActionCommandConfigurer(commandFactory, this);
+        return lifecycleCommandFactory == null ? null : new ActionCommandConfigurer(lifecycleCommandFactory, this);
     }
 
-    @Override
-    public final void registerURIParameter(final UriParameter<?> parameter) {
-        Preconditions.checkNotNull(parameter);
+    /**
+     * Sets the lifecycle of the action command objects created by this action mapper's action command factory. By
+     * default, {@link ActionCommandLifecycle#PROTOTYPE} is used, i. e. a new action command object is created for each
+     * URI fragment resolved to this action mapper. If {@link ActionCommandLifecycle#POOLED} is given, at most {@link
+     * #DEFAULT_ACTION_COMMAND_POOL_SIZE} idle command objects are kept in the pool.
+     *
+     * @param lifecycle the lifecycle for this action mapper's action command objects. Must not be {@code null}.
+     *
+     * @see #setActionCommandLifecycle(ActionCommandLifecycle, int)
+     */
+    public void setActionCommandLifecycle(final ActionCommandLifecycle lifecycle) {
+        setActionCommandLifecycle(lifecycle, DEFAULT_ACTION_COMMAND_POOL_SIZE);
+    }
 
-        if (registeredUriParameters == null) {
-            registeredUriParameters = new LinkedHashMap<>();
-            registeredUriParameterNames = new HashSet<>();
+    /**
+     * Sets the lifecycle of the action command objects created by this action mapper's action command factory. See
+     * {@link ActionCommandLifecycle} for the requirements each lifecycle imposes on the action command classes.
+     *
+     * @param lifecycle   the lifecycle for this action mapper's action command objects. Must not be {@code null}.
+     * @param maxPoolSize the maximum number of idle command objects kept in the pool if the lifecycle is {@link
+     *                    ActionCommandLifecycle#POOLED}. Ignored for all other lifecycles.
+     *
+     * @throws IllegalArgumentException if the lifecycle is {@link ActionCommandLifecycle#POOLED} and the pool size is
+     *                                  not greater than zero
+     */
+    public void setActionCommandLifecycle(final ActionCommandLifecycle lifecycle, final int maxPoolSize) {
+        Preconditions.checkNotNull(lifecycle);
+        if (lifecycle == ActionCommandLifecycle.POOLED && maxPoolSize < 1) {
+            throw new IllegalArgumentException("maximum pool size must be greater than zero");
         }
+        actionCommandLifecycle = lifecycle;
+        actionCommandPoolSize = maxPoolSize;
+        updateLifecycleCommandFactory();
+    }
+
+    /**
+     * Returns the lifecycle of the action command objects created by this action mapper's action command factory.
+     *
+     * @return the lifecycle of this action mapper's action command objects
+     */
+    public ActionCommandLifecycle getActionCommandLifecycle() {
+        return actionCommandLifecycle;
+    }
 
-        if (registeredUriParameters.containsKey(parameter.getId())) {
-            throw new IllegalArgumentException("Another parameter with the same id is already registered on this mapper.");
+    /**
+     * Applies this action mapper's action command lifecycle to the given action command factory. For the {@link
+     * ActionCommandLifecycle#POOLED} and {@link ActionCommandLifecycle#STATELESS_SINGLETON} lifecycles, the returned
+     * factory has its own pool or singleton command object, respectively, which is independent of this action
+     * mapper's own action command factory. This is used for the action command factories bound to this action mapper
+     * with {@link org.roklib.urifragmentrouting.ActionCommandBindings ActionCommandBindings}.
+     *
+     * @param factory the action command factory to which the lifecycle is applied. Must not be {@code null}.
+     *
+     * @return an action command factory which creates the command objects according to this action mapper's lifecycle
+     */
+    public UriActionCommandFactory applyActionCommandLifecycle(final UriActionCommandFactory factory) {
+        Preconditions.checkNotNull(factory);
+        switch (actionCommandLifecycle) {
+            case POOLED:
+                return new PooledActionCommandFactory(factory, actionCommandPoolSize);
+            case STATELESS_SINGLETON:
+                return new SingletonActionCommandFactory(factory);
+            default:
+                return factory;
         }
+    }
 
-        parameter.getParameterNames().forEach(parameterName -> {
-            if (registeredUriParameterNames.contains(parameterName)) {
-                throw new IllegalArgumentException("Cannot register parameter " + parameter +
-                        ". Another parameter with parameter name '" + parameterName +
-                        "' is already registered on this mapper.");
-            }
-            registeredUriParameters.put(parameter.getId(), parameter);
-            registeredUriParameterNames.add(parameterName);
-        });
+    private void updateLifecycleCommandFactory() {
+        lifecycleCommandFactory = commandFactory == null ? null : applyActionCommandLifecycle(commandFactory);
+    }
+
+    @Override
+    public final void registerURIParameter(final UriParameter<?> parameter) {
+        Preconditions.checkNotNull(parameter);
+        registeredUriParameters = registeredUriParameters.with(parameter);
+    }
+
+    /**
+     * Shrinks the internal data structures of this action mapper, i. e. its registered URI parameters and its path
+     * segment aliases, to their current size. This reduces the memory footprint of large mapper trees and is done for
+     * all action mappers of a tree when it is built with the {@link org.roklib.urifragmentrouting.UriActionMapperTree.MapperTreeBuilder
+     * MapperTreeBuilder}. Registering URI parameters and adding path segment aliases afterwards is still possible.
+     */
+    public void trimToSize() {
+        registeredUriParameters = registeredUriParameters.trimToSize();
+        if (pathSegmentAliases != null && pathSegmentAliases.size() == 1) {
+            final Map.Entry<Locale, String> alias = pathSegmentAliases.entrySet().iterator().next();
+            pathSegmentAliases = Collections.singletonMap(alias.getKey(), alias.getValue());
+        } else if (pathSegmentAliases instanceof LinkedHashMap) {
+            pathSegmentAliases = new LinkedHashMap<>(pathSegmentAliases);
+        }
     }
 
     /**
@@ -125,7 +284,17 @@ public abstract class AbstractUriPathSegmentActionMapper implements UriPathSegme
      * @return the set of URI parameters which have been registered with this action mapper.
      */
     protected final Map<String, UriParameter<?>> getUriParameters() {
-        return registeredUriParameters == null ? Collections.emptyMap() : registeredUriParameters;
+        return registeredUriParameters;
+    }
+
+    /**
+     * Returns an unmodifiable view on the URI parameters which have been registered with this action mapper. The
+     * parameters are mapped by their parameter IDs and are ordered by the time of their registration.
+     *
+     * @return an unmodifiable view on the URI parameters registered with this action mapper
+     */
+    public final Map<String, UriParameter<?>> getRegisteredUriParameters() {
+        return registeredUriParameters;
     }
 
     /**
@@ -139,7 +308,7 @@ public abstract class AbstractUriPathSegmentActionMapper implements UriPathSegme
      * @return the combined set of all parameter names from all URI parameters registered with this action mapper.
      */
     protected final Set<String> getUriParameterNames() {
-        return registeredUriParameterNames == null ? Collections.emptySet() : registeredUriParameterNames;
+        return registeredUriParameters.parameterNames();
     }
 
     @Override
@@ -148,6 +317,21 @@ public abstract class AbstractUriPathSegmentActionMapper implements UriPathSegme
                                                          final List<String> uriTokens,
                                                          final Map<String, String> queryParameters,
                                                          final ParameterMode parameterMode) {
+        interpretUriParameters(capturedParameterValues, currentUriToken, uriTokens, queryParameters, parameterMode);
+        return interpretTokensImpl(capturedParameterValues, currentUriToken, uriTokens, queryParameters, parameterMode);
+    }
+
+    /**
+     * Extracts the values of all URI parameters registered with this action mapper from the given URI tokens or query
+     * parameters, depending on the parameter mode. This is the first step of {@link
+     * #interpretTokens(CapturedParameterValues, String, List, Map, ParameterMode)}, which is followed by {@link
+     * #interpretTokensImpl(CapturedParameterValues, String, List, Map, ParameterMode)}.
+     */
+    final void interpretUriParameters(final CapturedParameterValues capturedParameterValues,
+                                      final String currentUriToken,
+                                      final List<String> uriTokens,
+                                      final Map<String, String> queryParameters,
+                                      final ParameterMode parameterMode) {
         LOG.debug("interpretTokens() - Current token: {}, remaining tokens: {}{}",
                 currentUriToken == null ? "<UNDEFINED>" : currentUriToken,
                 uriTokens, queryParameters.isEmpty() ? "" : ", query parameters: " + queryParameters);
@@ -167,8 +351,6 @@ public abstract class AbstractUriPathSegmentActionMapper implements UriPathSegme
                 }
             }
         }
-
-        return interpretTokensImpl(capturedParameterValues, currentUriToken, uriTokens, queryParameters, parameterMode);
     }
 
     /**
@@ -212,7 +394,27 @@ public abstract class AbstractUriPathSegmentActionMapper implements UriPathSegme
 
     @Override
     public boolean isResponsibleForToken(final String uriToken) {
-        return pathSegment.equals(uriToken);
+        return pathSegment.equals(uriToken)
+                || pathSegmentAliases != null && pathSegmentAliases.containsValue(uriToken);
+    }
+
+    /**
+     * Returns {@code true} if this action mapper is responsible for exactly its path segment name and its path segment
+     * aliases as checked by {@link #isResponsibleForToken(String)}. A {@link DispatchingUriPathSegmentActionMapper}
+     * finds such a literal sub-mapper with a single lookup in its literal segment index instead of asking it whether it
+     * is responsible for a URI token. This is also used to generate specialized routers and to pre-assemble static URI
+     * fragments.
+     * <p>
+     * By default, this method returns {@code true}. Subclasses which override {@link #isResponsibleForToken(String)}
+     * so that they are responsible for other URI tokens than their path segment name and aliases have to override this
+     * method as well and return {@code false}. Otherwise, {@link #isResponsibleForToken(String)} will not be called by
+     * the parent mapper.
+     *
+     * @return {@code true} if the responsibility of this action mapper is completely described by its path segment
+     * name and aliases
+     */
+    public boolean isLiteralSegmentMapper() {
+        return true;
     }
 
     @Override
@@ -253,6 +455,19 @@ public abstract class AbstractUriPathSegmentActionMapper implements UriPathSegme
         }
     }
 
+    @Override
+    public void assembleUriFragmentTokens(final CapturedParameterValues parameterValues,
+                                          final List<String> uriTokens,
+                                          final ParameterMode parameterMode,
+                                          final Locale locale) {
+        final int firstToken = uriTokens.size();
+        assembleUriFragmentTokens(parameterValues, uriTokens, parameterMode);
+        if (locale != null && pathSegmentAliases != null && uriTokens.size() > firstToken
+                && pathSegment.equals(uriTokens.get(firstToken))) {
+            uriTokens.set(firstToken, getPathSegment(locale));
+        }
+    }
+
     /**
      * Provides the path segment name for this action mapper. By default, this is the value provided through the
      * constructor {@link #AbstractUriPathSegmentActionMapper(String, String)} (or implicitly the mapper name when
@@ -269,6 +484,19 @@ public abstract class AbstractUriPathSegmentActionMapper implements UriPathSegme
         return pathSegment;
     }
 
+    /**
+     * Replaces this action mapper with a reference to it when it is serialized and it belongs to a mapper tree which is
+     * registered in the {@link org.roklib.urifragmentrouting.MapperTreeRegistry MapperTreeRegistry}. This avoids
+     * serializing the complete mapper tree together with this action mapper. Action mappers of a mapper tree which is
+     * not registered cannot be serialized.
+     *
+     * @return the serialized form of this action mapper
+     * @throws ObjectStreamException never thrown
+     */
+    protected Object writeReplace() throws ObjectStreamException {
+        return MapperReference.forMapper(this);
+    }
+
     @Override
     public String toString() {
         return String.format("[%s name='%s', segment='%s']", getClass().getSimpleName(), mapperName, pathSegment);
@@ -298,8 +526,8 @@ public abstract class AbstractUriPathSegmentActionMapper implements UriPathSegme
      * action mapper or {@code null} if no factory is defined or if the factory returns a {@code null} action command.
      */
     protected String actionInfo() {
-        if (getActionCommandFactory() != null) {
-            UriActionCommand uriActionCommand = getActionCommandFactory().createUriActionCommand();
+        if (commandFactory != null) {
+            UriActionCommand uriActionCommand = commandFactory.createUriActionCommand();
             if (uriActionCommand != null) {
                 return uriActionCommand.getClass().getName();
             }
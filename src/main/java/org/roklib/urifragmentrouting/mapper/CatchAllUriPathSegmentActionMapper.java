@@ -1,16 +1,14 @@
 package org.roklib.urifragmentrouting.mapper;
 
-import org.roklib.urifragmentrouting.UriActionCommandFactory;
 import org.roklib.urifragmentrouting.exception.ParameterValueConversionException;
 import org.roklib.urifragmentrouting.parameter.AbstractSingleUriParameter;
-import org.roklib.urifragmentrouting.parameter.ParameterMode;
 import org.roklib.urifragmentrouting.parameter.UriParameterError;
 import org.roklib.urifragmentrouting.parameter.converter.AbstractRegexToStringListParameterValueConverter;
 import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
 import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
 
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 /**
  * This action mapper will handle all URI tokens which are passed to it during the URI fragment interpretation process.
@@ -54,29 +52,11 @@ public class CatchAllUriPathSegmentActionMapper<V> extends RegexUriPathSegmentAc
         internalParameterId = parameter.getId() + $INTERN;
     }
 
-    /**
-     * <p> {@inheritDoc} </p> <p> Invariably returns {@code true} for this {@link
-     * CatchAllUriPathSegmentActionMapper}.
-     *
-     * @return {@code true} for all URI tokens
-     */
     @Override
-    public boolean isResponsibleForToken(final String uriToken) {
-        return true;
-    }
-
-    @Override
-    protected UriActionCommandFactory interpretTokensImpl(final CapturedParameterValues capturedParameterValues,
-                                                          final String currentUriToken,
-                                                          final List<String> uriTokens,
-                                                          final Map<String, String> queryParameters,
-                                                          final ParameterMode parameterMode) {
-        final UriActionCommandFactory actionCommandFactory =
-                super.interpretTokensImpl(capturedParameterValues,
-                        currentUriToken,
-                        uriTokens,
-                        queryParameters,
-                        parameterMode);
+    protected void captureTokenValue(final CapturedParameterValues capturedParameterValues,
+                                     final String currentUriToken,
+                                     final List<String> capturedGroups) {
+        super.captureTokenValue(capturedParameterValues, currentUriToken, capturedGroups);
 
         ParameterValue<V> parameterValue = null;
         if (capturedParameterValues.hasValueFor(getMapperName(), internalParameterId)) {
@@ -97,8 +77,6 @@ public class CatchAllUriPathSegmentActionMapper<V> extends RegexUriPathSegmentAc
         if (parameterValue != null) {
             capturedParameterValues.setValueFor(getMapperName(), parameter.getId(), parameterValue);
         }
-
-        return actionCommandFactory;
     }
 
     @SuppressWarnings("unchecked")
@@ -109,14 +87,24 @@ public class CatchAllUriPathSegmentActionMapper<V> extends RegexUriPathSegmentAc
 
     /**
      * Converter class which converts the whole input String into a singleton list and in turn converts a list of
-     * Strings into a single String by using the unaltered first list element as result. It uses the following regex:
-     * {@code (.*)}.
+     * Strings into a single String by using the unaltered first list element as result. It is equivalent to the
+     * following regex: {@code (.*)}. Since every input is accepted, no regular expression is actually matched.
      */
     private static class CatchAllConverter extends AbstractRegexToStringListParameterValueConverter {
         CatchAllConverter() {
             super("(.*)");
         }
 
+        @Override
+        public boolean matches(final String value) {
+            return true;
+        }
+
+        @Override
+        public List<String> match(final String value) {
+            return Collections.singletonList(value);
+        }
+
         @Override
         public String convertToString(final List<String> value) {
             if (value == null || value.isEmpty()) {
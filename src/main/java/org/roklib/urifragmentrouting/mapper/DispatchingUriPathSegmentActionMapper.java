@@ -7,9 +7,9 @@ import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Action mapper that forwards the URI fragment interpretation process to a set of sub-mappers. By this, this class is
@@ -26,14 +26,45 @@ import java.util.TreeMap;
  *     /admin/users
  *     /admin/groups
  * </pre>
+ * <h1>Adaptive sub-mapper order</h1>
+ * A URI token which is not the name of any sub-mapper is offered to the sub-mappers one after another in the order of
+ * their mapper names, until one of them declares itself responsible for the token. For dispatching mappers with many
+ * regex based sub-mappers, this order has nothing to do with how often the individual sub-mappers are actually hit. With
+ * {@link #setAdaptiveSubMapperOrder(boolean)}, a dispatching mapper can be configured to count the hits of its
+ * sub-mappers and to periodically reorder them so that the most frequently hit sub-mapper is asked first.
+ * <p>
+ * Reordering sub-mappers is only safe if the sets of tokens they are responsible for do not overlap. Sub-mappers with
+ * overlapping responsibilities have to be put into different priority groups with {@link
+ * #setSubMapperPriorityGroup(String, int)}. Priority groups are always asked in ascending order; only the sub-mappers
+ * within the same priority group are reordered. All sub-mappers are in priority group 0 by default.
+ * <h1>Literal segment index</h1>
+ * Sub-mappers which are responsible for exactly their path segment name and its localized aliases (see {@link
+ * AbstractUriPathSegmentActionMapper#addPathSegmentAlias(java.util.Locale, String)} and {@link
+ * AbstractUriPathSegmentActionMapper#isLiteralSegmentMapper()}) are not asked whether they are responsible for a URI
+ * token. Instead, their path segment names and aliases are collected in a hash index, so that such a sub-mapper is found
+ * with a single lookup regardless of the number of its translations. The index does not change the order in which the
+ * sub-mappers are evaluated: a sub-mapper which decides on its own which URI tokens it is responsible for, such as a
+ * regex based mapper, still takes precedence over a literal sub-mapper if it comes first in the order described above.
+ * If more than one literal sub-mapper claims the same path segment or alias, the one which comes first in priority
+ * group and name order wins.
  */
 public class DispatchingUriPathSegmentActionMapper extends AbstractUriPathSegmentActionMapper {
     private static final long serialVersionUID = -777810072366030611L;
     private static final Logger LOG = LoggerFactory.getLogger(DispatchingUriPathSegmentActionMapper.class);
+    /**
+     * The sub-mapper order is republished on average every {@code REORDER_SAMPLE_MASK + 1} hits.
+     */
+    private static final int REORDER_SAMPLE_MASK = 1023;
+    private static final UriActionCommandFactory NOT_RESPONSIBLE = () -> null;
 
-
-    private Map<String, UriPathSegmentActionMapper> subMappers;
+    private SortedSubMapperMap subMappers;
     private CatchAllUriPathSegmentActionMapper catchAllMapper;
+    private TailUriPathSegmentActionMapper tailMapper;
+    private boolean adaptiveSubMapperOrder;
+    private Map<String, Integer> subMapperPriorityGroups;
+    private Map<String, Long> presetSubMapperHits;
+    private transient volatile SubMapperStatistics[] subMapperEvaluationOrder;
+    private transient volatile Map<String, UriPathSegmentActionMapper> literalSegmentIndex;
 
     /**
      * Create a dispatching action mapper with the provided mapper name. This mapper name is the part of the URI that is
@@ -86,8 +117,15 @@ public class DispatchingUriPathSegmentActionMapper extends AbstractUriPathSegmen
         subMapper.setParentMapper(this);
         if (subMapper instanceof CatchAllUriPathSegmentActionMapper) {
             catchAllMapper = (CatchAllUriPathSegmentActionMapper) subMapper;
+        } else if (subMapper instanceof TailUriPathSegmentActionMapper) {
+            tailMapper = (TailUriPathSegmentActionMapper) subMapper;
         } else {
-            getSubMapperMap().put(subMapper.getMapperName(), subMapper);
+            if (subMappers == null) {
+                subMappers = new SortedSubMapperMap();
+            }
+            subMappers.put(subMapper.getMapperName(), subMapper);
+            subMapperEvaluationOrder = null;
+            literalSegmentIndex = null;
         }
         registerSubMapperName(subMapper.getMapperName());
     }
@@ -121,7 +159,11 @@ public class DispatchingUriPathSegmentActionMapper extends AbstractUriPathSegmen
 
     /**
      * Tries to forward the interpretation process of the remaining URI fragment tokens to the specific sub-mapper which
-     * is responsible for the specified URI fragment token which is next in line.
+     * is responsible for the specified URI fragment token which is next in line. A sub-mapper whose name equals the
+     * token is preferred. Otherwise, the sub-mappers are asked in the order of their priority groups and names (or
+     * their hit frequency if the adaptive sub-mapper order is enabled), followed by the catch-all mapper and finally
+     * the tail mapper. Regex based sub-mappers match the token only once: the values captured while checking their
+     * responsibility are handed over to them directly.
      *
      * @param capturedParameterValues map of URI parameter values that have been found in the currently interpreted URI
      *                                fragment so far
@@ -141,57 +183,374 @@ public class DispatchingUriPathSegmentActionMapper extends AbstractUriPathSegmen
                                                         final List<String> uriTokens,
                                                         final Map<String, String> parameters,
                                                         final ParameterMode parameterMode) {
-        final UriPathSegmentActionMapper subMapper = getResponsibleSubMapperForMapperName(nextUriToken);
-        if (subMapper == null) {
-            LOG.debug("{}.forwardToSubHandler() - No sub mapper found for URI token '{}': Returning no action command class.", toString(), nextUriToken);
-            return null;
+        final UriPathSegmentActionMapper subMapperForName = subMapperMap().get(nextUriToken);
+        if (subMapperForName != null) {
+            return forwardTo(subMapperForName, capturedParameterValues, nextUriToken, uriTokens, parameters, parameterMode);
+        }
+
+        final UriPathSegmentActionMapper subMapperForSegment = getLiteralSegmentIndexSnapshot().get(nextUriToken);
+        for (final SubMapperStatistics statistics : getSubMapperEvaluationOrderSnapshot()) {
+            final UriActionCommandFactory result;
+            if (statistics.literal) {
+                // literal sub-mappers are not asked: the literal segment index already knows which one is responsible
+                if (statistics.subMapper != subMapperForSegment) {
+                    continue;
+                }
+                result = forwardTo(subMapperForSegment, capturedParameterValues, nextUriToken, uriTokens, parameters, parameterMode);
+            } else {
+                result = forwardIfResponsible(statistics.subMapper, capturedParameterValues, nextUriToken, uriTokens, parameters, parameterMode);
+            }
+            if (result != NOT_RESPONSIBLE) {
+                if (adaptiveSubMapperOrder) {
+                    statistics.hits.increment();
+                    if ((ThreadLocalRandom.current().nextInt() & REORDER_SAMPLE_MASK) == 0) {
+                        republishSubMapperEvaluationOrder();
+                    }
+                }
+                return result;
+            }
+        }
+
+        if (catchAllMapper != null) {
+            if (catchAllMapper.isSingleMatchDispatch()) {
+                LOG.debug("{}.forwardToSubHandler() - Forwarding to sub handler {}", toString(), catchAllMapper);
+                return catchAllMapper.interpretMatchedTokens(capturedParameterValues, nextUriToken,
+                        catchAllMapper.matchTokenForDispatch(nextUriToken), uriTokens, parameters, parameterMode);
+            }
+            return forwardTo(catchAllMapper, capturedParameterValues, nextUriToken, uriTokens, parameters, parameterMode);
         }
 
+        if (tailMapper != null) {
+            return forwardTo(tailMapper, capturedParameterValues, nextUriToken, uriTokens, parameters, parameterMode);
+        }
+
+        LOG.debug("{}.forwardToSubHandler() - No sub mapper found for URI token '{}': Returning no action command class.", toString(), nextUriToken);
+        return null;
+    }
+
+    /**
+     * Forwards the interpretation process to the given sub-mapper if it is responsible for the given URI token.
+     *
+     * @return the result of the sub-mapper or {@link #NOT_RESPONSIBLE} if the sub-mapper is not responsible for the
+     * token
+     */
+    private UriActionCommandFactory forwardIfResponsible(final UriPathSegmentActionMapper subMapper,
+                                                         final CapturedParameterValues capturedParameterValues,
+                                                         final String nextUriToken,
+                                                         final List<String> uriTokens,
+                                                         final Map<String, String> parameters,
+                                                         final ParameterMode parameterMode) {
+        if (subMapper instanceof RegexUriPathSegmentActionMapper && ((RegexUriPathSegmentActionMapper) subMapper).isSingleMatchDispatch()) {
+            // match the token only once and hand the captured values over to the regex mapper
+            final RegexUriPathSegmentActionMapper regexMapper = (RegexUriPathSegmentActionMapper) subMapper;
+            final List<String> capturedGroups = regexMapper.matchTokenForDispatch(nextUriToken);
+            if (capturedGroups != null) {
+                LOG.debug("{}.forwardToSubHandler() - Forwarding to sub handler {}", toString(), regexMapper);
+                return regexMapper.interpretMatchedTokens(capturedParameterValues, nextUriToken, capturedGroups, uriTokens, parameters, parameterMode);
+            }
+        } else if (subMapper.isResponsibleForToken(nextUriToken)) {
+            return forwardTo(subMapper, capturedParameterValues, nextUriToken, uriTokens, parameters, parameterMode);
+        }
+        return NOT_RESPONSIBLE;
+    }
+
+    private UriActionCommandFactory forwardTo(final UriPathSegmentActionMapper subMapper,
+                                              final CapturedParameterValues capturedParameterValues,
+                                              final String nextUriToken,
+                                              final List<String> uriTokens,
+                                              final Map<String, String> parameters,
+                                              final ParameterMode parameterMode) {
         LOG.debug("{}.forwardToSubHandler() - Forwarding to sub handler {}", toString(), subMapper);
         return subMapper.interpretTokens(capturedParameterValues, nextUriToken, uriTokens, parameters, parameterMode);
     }
 
     /**
-     * Tries to find the next path segment action mapper in line which is responsible for handling the given URI token.
-     * If such a mapper is found, the responsibility for interpreting the current URI is passed to this mapper.
+     * Returns the sub-mappers of this dispatching mapper keyed by their mapper names and sorted by mapper name. The
+     * catch-all and the tail sub-mapper are not contained in this map. The returned map is read-only; sub-mappers are
+     * added with {@link #addSubMapper(UriPathSegmentActionMapper)}.
+     *
+     * @return the sub-mappers of this dispatching mapper
+     */
+    public Map<String, UriPathSegmentActionMapper> getSubMapperMap() {
+        return subMappers == null ? Collections.emptyMap() : Collections.unmodifiableMap(subMappers);
+    }
+
+    private Map<String, UriPathSegmentActionMapper> subMapperMap() {
+        return subMappers == null ? Collections.<String, UriPathSegmentActionMapper>emptyMap() : subMappers;
+    }
+
+    /**
+     * Shrinks the internal data structures of this dispatching mapper to the number of its sub-mappers in addition to
+     * the data structures trimmed by {@link AbstractUriPathSegmentActionMapper#trimToSize()}. The sub-mappers
+     * themselves are not trimmed. Adding sub-mappers afterwards is still possible.
+     */
+    @Override
+    public void trimToSize() {
+        super.trimToSize();
+        if (subMappers != null) {
+            subMappers.trimToSize();
+        }
+    }
+
+    /**
+     * Returns the {@link CatchAllUriPathSegmentActionMapper} which has been added to this action mapper as a sub-mapper
+     * or {@code null} if there is no such sub-mapper.
+     *
+     * @return the catch-all sub-mapper of this action mapper or {@code null}
+     */
+    public CatchAllUriPathSegmentActionMapper<?> getCatchAllMapper() {
+        return catchAllMapper;
+    }
+
+    /**
+     * Enables or disables the adaptive order in which the sub-mappers of this dispatching mapper are asked whether they
+     * are responsible for a URI token that is not the name of one of them. If enabled, the hits of each sub-mapper are
+     * counted and the sub-mappers are periodically reordered within their priority groups so that the most frequently
+     * hit sub-mappers are asked first. If disabled, which is the default, the sub-mappers are asked in the order of
+     * their mapper names.
+     * <p>
+     * Only enable the adaptive order if the sub-mappers of each priority group are not responsible for the same URI
+     * tokens. Otherwise, the outcome of the URI fragment interpretation could depend on the traffic seen so far. See
+     * {@link #setSubMapperPriorityGroup(String, int)}.
+     *
+     * @param adaptiveSubMapperOrder {@code true} if the sub-mappers are to be reordered by their hit frequency
+     */
+    public void setAdaptiveSubMapperOrder(final boolean adaptiveSubMapperOrder) {
+        this.adaptiveSubMapperOrder = adaptiveSubMapperOrder;
+        subMapperEvaluationOrder = null;
+    }
+
+    /**
+     * Returns {@code true} if the sub-mappers of this dispatching mapper are reordered by their hit frequency.
+     *
+     * @return {@code true} if the adaptive sub-mapper order is enabled
+     * @see #setAdaptiveSubMapperOrder(boolean)
+     */
+    public boolean isAdaptiveSubMapperOrder() {
+        return adaptiveSubMapperOrder;
+    }
+
+    /**
+     * Puts the sub-mapper with the given mapper name into the given priority group. Priority groups are asked in
+     * ascending order, and sub-mappers are never moved out of their priority group when the adaptive sub-mapper order
+     * is enabled. Within a priority group, the sub-mappers are asked in the order of their mapper names unless the
+     * adaptive sub-mapper order is enabled. All sub-mappers are in priority group 0 by default.
+     * <p>
+     * For example, if a regex based sub-mapper for the pattern {@code (\d+)} and another one for the pattern {@code
+     * (\w+)} are added to the same dispatching mapper, the first mapper has to be put into a lower priority group than
+     * the second one, since the second mapper would otherwise steal numeric tokens from the first one as soon as it is
+     * hit more often.
+     *
+     * @param mapperName    the name of a sub-mapper of this dispatching mapper
+     * @param priorityGroup the priority group of this sub-mapper
+     *
+     * @throws IllegalArgumentException if this dispatching mapper has no sub-mapper with the given name
+     */
+    public void setSubMapperPriorityGroup(final String mapperName, final int priorityGroup) {
+        Preconditions.checkNotNull(mapperName);
+        if (!subMapperMap().containsKey(mapperName)) {
+            throw new IllegalArgumentException("Action mapper '" + getMapperName() + "' has no sub-mapper named '" + mapperName + "'");
+        }
+        if (subMapperPriorityGroups == null) {
+            subMapperPriorityGroups = new HashMap<>();
+        }
+        subMapperPriorityGroups.put(mapperName, priorityGroup);
+        subMapperEvaluationOrder = null;
+        literalSegmentIndex = null;
+    }
+
+    /**
+     * Returns the priority group of the sub-mapper with the given mapper name.
      *
-     * @param nextUriToken the currently interpreted URI token
+     * @param mapperName the name of a sub-mapper of this dispatching mapper
+     *
+     * @return the priority group of the sub-mapper, 0 by default
+     * @see #setSubMapperPriorityGroup(String, int)
+     */
+    public int getSubMapperPriorityGroup(final String mapperName) {
+        return subMapperPriorityGroups == null ? 0 : subMapperPriorityGroups.getOrDefault(mapperName, 0);
+    }
+
+    /**
+     * Presets the hit counts of the sub-mappers of this dispatching mapper, for example from a {@link
+     * org.roklib.urifragmentrouting.RoutingProfile RoutingProfile} recorded earlier. If the adaptive sub-mapper order is
+     * enabled, the sub-mappers start out in the order given by these hit counts instead of in the order of their names,
+     * and the hit counts are used as the initial scores which are subsequently adjusted to the observed traffic. The
+     * preset hit counts have no effect if the adaptive sub-mapper order is disabled.
+     *
+     * @param hits hit counts for the sub-mappers, keyed by mapper name. Sub-mappers without a hit count are assumed to
+     *             have no hits. Must not be {@code null}.
+     */
+    public void presetSubMapperHits(final Map<String, Long> hits) {
+        Preconditions.checkNotNull(hits);
+        presetSubMapperHits = new HashMap<>(hits);
+        subMapperEvaluationOrder = null;
+    }
+
+    /**
+     * Returns the sub-mappers of this dispatching mapper in the order in which they are currently asked whether they
+     * are responsible for a URI token that is not the name of one of them.
      *
-     * @return the {@link UriPathSegmentActionMapper} that is responsible for handling the next URI token in line or
-     * {@code null} if no such mapper could be found.
+     * @return the current evaluation order of the sub-mappers
      */
-    private UriPathSegmentActionMapper getResponsibleSubMapperForMapperName(final String nextUriToken) {
-        final UriPathSegmentActionMapper responsibleSubMapper = getSubMapperMap().get(nextUriToken);
-        if (responsibleSubMapper != null) {
-            return responsibleSubMapper;
+    public List<UriPathSegmentActionMapper> getSubMapperEvaluationOrder() {
+        final List<UriPathSegmentActionMapper> result = new ArrayList<>();
+        for (final SubMapperStatistics statistics : getSubMapperEvaluationOrderSnapshot()) {
+            result.add(statistics.subMapper);
+        }
+        return result;
+    }
+
+    private SubMapperStatistics[] getSubMapperEvaluationOrderSnapshot() {
+        SubMapperStatistics[] result = subMapperEvaluationOrder;
+        if (result == null || result.length != subMapperMap().size()) {
+            result = createSubMapperEvaluationOrder();
         }
+        return result;
+    }
 
-        for (final UriPathSegmentActionMapper subMapper : getSubMapperMap().values()) {
-            if (subMapper.isResponsibleForToken(nextUriToken)) {
-                return subMapper;
+    private synchronized SubMapperStatistics[] createSubMapperEvaluationOrder() {
+        final SubMapperStatistics[] result = new SubMapperStatistics[subMapperMap().size()];
+        int position = 0;
+        for (final UriPathSegmentActionMapper subMapper : subMapperMap().values()) {
+            result[position] = new SubMapperStatistics(subMapper, getSubMapperPriorityGroup(subMapper.getMapperName()), position);
+            if (adaptiveSubMapperOrder && presetSubMapperHits != null) {
+                result[position].score = presetSubMapperHits.getOrDefault(subMapper.getMapperName(), 0L);
             }
+            position++;
         }
-        return catchAllMapper;
+        Arrays.sort(result, SubMapperStatistics.EVALUATION_ORDER);
+        subMapperEvaluationOrder = result;
+        return result;
     }
 
-    public Map<String, UriPathSegmentActionMapper> getSubMapperMap() {
-        if (subMappers == null) {
-            subMappers = new TreeMap<>();
+    /**
+     * Collects the hits counted since the last reordering and publishes a new evaluation order of the sub-mappers. The
+     * hits of earlier periods are taken into account with exponentially decreasing weight, so that the order follows
+     * changing traffic patterns. Threads which are currently dispatching URI tokens keep using the previous order.
+     */
+    synchronized void republishSubMapperEvaluationOrder() {
+        final SubMapperStatistics[] current = getSubMapperEvaluationOrderSnapshot();
+        final SubMapperStatistics[] result = current.clone();
+        for (final SubMapperStatistics statistics : result) {
+            statistics.score = statistics.score / 2 + statistics.hits.sumThenReset();
+        }
+        Arrays.sort(result, SubMapperStatistics.EVALUATION_ORDER);
+        subMapperEvaluationOrder = result;
+    }
+
+    /**
+     * Returns the index of the literal path segments of the sub-mappers of this dispatching mapper. The index maps the
+     * path segment name and all path segment aliases of each literal sub-mapper onto this sub-mapper. A sub-mapper is
+     * literal if it is responsible for exactly these tokens, see {@link AbstractUriPathSegmentActionMapper#isLiteralSegmentMapper()}.
+     * Path segments and aliases which coincide with the mapper name of a sub-mapper are not contained in the index,
+     * since such URI tokens are always dispatched by mapper name.
+     *
+     * @return an unmodifiable map of the literal path segments and aliases onto their sub-mappers
+     */
+    public Map<String, UriPathSegmentActionMapper> getLiteralSegmentIndex() {
+        return Collections.unmodifiableMap(getLiteralSegmentIndexSnapshot());
+    }
+
+    private static boolean isLiteral(final UriPathSegmentActionMapper mapper) {
+        return mapper instanceof AbstractUriPathSegmentActionMapper
+                && ((AbstractUriPathSegmentActionMapper) mapper).isLiteralSegmentMapper();
+    }
+
+    /**
+     * Discards the literal segment index so that it is rebuilt on next use. Called by a sub-mapper when one of its path
+     * segment aliases has changed.
+     */
+    void invalidateLiteralSegmentIndex() {
+        literalSegmentIndex = null;
+    }
+
+    private Map<String, UriPathSegmentActionMapper> getLiteralSegmentIndexSnapshot() {
+        final Map<String, UriPathSegmentActionMapper> result = literalSegmentIndex;
+        return result == null ? createLiteralSegmentIndex() : result;
+    }
+
+    private synchronized Map<String, UriPathSegmentActionMapper> createLiteralSegmentIndex() {
+        final List<UriPathSegmentActionMapper> literalSubMappers = new ArrayList<>();
+        for (final UriPathSegmentActionMapper subMapper : subMapperMap().values()) {
+            if (isLiteral(subMapper)) {
+                literalSubMappers.add(subMapper);
+            }
+        }
+        // stable sort: within a priority group, the sub-mappers stay in the order of their names
+        literalSubMappers.sort(Comparator.comparingInt(subMapper -> getSubMapperPriorityGroup(subMapper.getMapperName())));
+
+        // path segments equal to the mapper name, which is the common case, need no entry of their own
+        final Map<String, UriPathSegmentActionMapper> result = new HashMap<>();
+        for (final UriPathSegmentActionMapper subMapper : literalSubMappers) {
+            final AbstractUriPathSegmentActionMapper literalSubMapper = (AbstractUriPathSegmentActionMapper) subMapper;
+            addToLiteralSegmentIndex(result, literalSubMapper.getPathSegment(), literalSubMapper);
+            for (final String alias : literalSubMapper.getPathSegmentAliases().values()) {
+                addToLiteralSegmentIndex(result, alias, literalSubMapper);
+            }
+        }
+        final Map<String, UriPathSegmentActionMapper> index = result.isEmpty() ? Collections.emptyMap() : result;
+        literalSegmentIndex = index;
+        return index;
+    }
+
+    private void addToLiteralSegmentIndex(final Map<String, UriPathSegmentActionMapper> index, final String segment,
+                                          final UriPathSegmentActionMapper subMapper) {
+        if (!subMapperMap().containsKey(segment)) {
+            index.putIfAbsent(segment, subMapper);
         }
-        return subMappers;
+    }
+
+    /**
+     * Returns the {@link TailUriPathSegmentActionMapper} which has been added to this action mapper as a sub-mapper or
+     * {@code null} if there is no such sub-mapper.
+     *
+     * @return the tail sub-mapper of this action mapper or {@code null}
+     */
+    public TailUriPathSegmentActionMapper getTailMapper() {
+        return tailMapper;
     }
 
     @Override
     public void getMapperOverview(final String path, final List<String> mapperOverviewList) {
         final String myPath = path + "/" + getSegmentInfo() + getParameterListAsString();
-        if (getSubMapperMap().isEmpty() || getActionCommandFactory() != null) {
+        if (subMapperMap().isEmpty() || getActionCommandFactory() != null) {
             mapperOverviewList.add(myPath + (actionInfo() == null ? "" : " -> " + actionInfo()));
         }
-        getSubMapperMap()
+        subMapperMap()
                 .values()
                 .forEach(mapper -> mapper.getMapperOverview(myPath, mapperOverviewList));
         if (catchAllMapper != null) {
             catchAllMapper.getMapperOverview(myPath, mapperOverviewList);
         }
+        if (tailMapper != null) {
+            tailMapper.getMapperOverview(myPath, mapperOverviewList);
+        }
+    }
+
+    /**
+     * Hit statistics of a sub-mapper. The hits are counted with a {@link LongAdder} so that concurrently dispatching
+     * threads do not contend on a single counter. The score is only modified while the evaluation order is being
+     * republished.
+     */
+    private static final class SubMapperStatistics {
+        private static final Comparator<SubMapperStatistics> EVALUATION_ORDER = Comparator
+                .comparingInt((SubMapperStatistics statistics) -> statistics.priorityGroup)
+                .thenComparing(Comparator.comparingLong((SubMapperStatistics statistics) -> statistics.score).reversed())
+                .thenComparingInt(statistics -> statistics.position);
+
+        private final UriPathSegmentActionMapper subMapper;
+        private final int priorityGroup;
+        private final int position;
+        private final boolean literal;
+        private final LongAdder hits = new LongAdder();
+        private long score;
+
+        private SubMapperStatistics(final UriPathSegmentActionMapper subMapper, final int priorityGroup, final int position) {
+            this.subMapper = subMapper;
+            this.literal = isLiteral(subMapper);
+            this.priorityGroup = priorityGroup;
+            this.position = position;
+        }
     }
 }
@@ -6,7 +6,9 @@ import org.roklib.urifragmentrouting.parameter.ParameterMode;
 import org.roklib.urifragmentrouting.parameter.UriParameter;
 import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
 
+import java.io.ObjectStreamException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 
@@ -22,6 +24,11 @@ import java.util.Objects;
  * <p>
  * <h1>Equality</h1> Regarding the equality contract, an {@link ImmutableActionMapperWrapper} is equal to the {@link
  * UriPathSegmentActionMapper} it wraps and vice versa.
+ * <p>
+ * <h1>Serialization</h1> If the wrapped action mapper belongs to a mapper tree which is registered in the {@link
+ * org.roklib.urifragmentrouting.MapperTreeRegistry MapperTreeRegistry}, a wrapper is serialized as a compact reference
+ * consisting of the registration name and version of the tree and the wrapped action mapper's name. Otherwise, the
+ * wrapped action mapper is serialized together with the wrapper.
  */
 public class ImmutableActionMapperWrapper implements UriPathSegmentActionMapper {
 
@@ -111,6 +118,11 @@ public class ImmutableActionMapperWrapper implements UriPathSegmentActionMapper
         delegate.assembleUriFragmentTokens(parameterValues, uriTokens, parameterMode);
     }
 
+    @Override
+    public void assembleUriFragmentTokens(CapturedParameterValues parameterValues, List<String> uriTokens, ParameterMode parameterMode, Locale locale) {
+        delegate.assembleUriFragmentTokens(parameterValues, uriTokens, parameterMode, locale);
+    }
+
     @Override
     public boolean isResponsibleForToken(String uriToken) {
         return delegate.isResponsibleForToken(uriToken);
@@ -131,6 +143,10 @@ public class ImmutableActionMapperWrapper implements UriPathSegmentActionMapper
         return delegate.pathFromRoot();
     }
 
+    private Object writeReplace() throws ObjectStreamException {
+        return MapperReference.forWrapper(delegate);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,194 @@
+package org.roklib.urifragmentrouting.mapper;
+
+import org.roklib.urifragmentrouting.UriActionCommandFactory;
+import org.roklib.urifragmentrouting.helper.Preconditions;
+import org.roklib.urifragmentrouting.index.SortedKeyIndex;
+import org.roklib.urifragmentrouting.parameter.ParameterMode;
+import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Action mapper which is responsible for all path segments contained in a {@link SortedKeyIndex}. This mapper is
+ * intended for applications which address a large number of resources by name, such as the articles of a CMS or the
+ * products of a shop:
+ * <pre>
+ *     /articles/how-to-route-uri-fragments
+ *     /products/blue-suede-shoes
+ * </pre>
+ * Registering a {@link SimpleUriPathSegmentActionMapper} for each of possibly millions of slugs is not feasible, as
+ * each action mapper object occupies far more memory than the slug itself. Instead, all slugs are put into one {@link
+ * SortedKeyIndex} together with the ids of the resources they identify. A {@link KeyIndexUriPathSegmentActionMapper}
+ * added to the dispatching mapper for <tt>articles</tt> is then responsible for every path segment contained in this
+ * index. When it interprets such a path segment, it captures the id associated with the path segment as a {@link
+ * Long} parameter value under its mapper name and the parameter id passed to the constructor.
+ * <p>
+ * Like a {@link SimpleUriPathSegmentActionMapper}, this action mapper is a leaf of the URI action mapper tree. It is
+ * asked by its parent mapper along with all other sub-mappers which are not found by their mapper name, so the keys of
+ * its index should not overlap with the path segments of its sibling mappers.
+ * <p>
+ * The index can be replaced at any time with {@link #setIndex(SortedKeyIndex)}, for example after a batch of articles
+ * has been published. The new index becomes visible to all subsequently interpreted URI fragments at once.
+ * <p>
+ * This action mapper is reversible: when a URI fragment is assembled with {@link org.roklib.urifragmentrouting.UriActionMapperTree#assembleUriFragment(CapturedParameterValues,
+ * UriPathSegmentActionMapper) UriActionMapperTree.assembleUriFragment()}, the key associated with the captured id is
+ * used as path segment name.
+ */
+public class KeyIndexUriPathSegmentActionMapper extends AbstractUriPathSegmentActionMapper {
+    private static final long serialVersionUID = -2640419871839460155L;
+    private static final Logger LOG = LoggerFactory.getLogger(KeyIndexUriPathSegmentActionMapper.class);
+
+    private final String parameterId;
+    private volatile SortedKeyIndex index;
+
+    /**
+     * Creates a new {@link KeyIndexUriPathSegmentActionMapper} for the given index.
+     *
+     * @param mapperName  name of this action mapper
+     * @param parameterId parameter id under which the id of the interpreted path segment is captured
+     * @param index       the index of all path segments this action mapper is responsible for
+     */
+    public KeyIndexUriPathSegmentActionMapper(final String mapperName, final String parameterId, final SortedKeyIndex index) {
+        super(mapperName);
+        Preconditions.checkNotNull(parameterId);
+        Preconditions.checkNotNull(index);
+        this.parameterId = parameterId;
+        this.index = index;
+    }
+
+    /**
+     * Creates a new {@link KeyIndexUriPathSegmentActionMapper} for the given index and action command factory.
+     *
+     * @param mapperName     name of this action mapper
+     * @param parameterId    parameter id under which the id of the interpreted path segment is captured
+     * @param index          the index of all path segments this action mapper is responsible for
+     * @param commandFactory the action command factory for this action mapper
+     */
+    public KeyIndexUriPathSegmentActionMapper(final String mapperName, final String parameterId, final SortedKeyIndex index,
+                                              final UriActionCommandFactory commandFactory) {
+        this(mapperName, parameterId, index);
+        setActionCommandFactory(commandFactory);
+    }
+
+    /**
+     * Returns the parameter id under which the id of the interpreted path segment is captured.
+     *
+     * @return the parameter id
+     */
+    public String getParameterId() {
+        return parameterId;
+    }
+
+    /**
+     * Returns the index currently used by this action mapper.
+     *
+     * @return the current index
+     */
+    public SortedKeyIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Replaces the index used by this action mapper. URI fragments which are interpreted while the index is replaced
+     * are resolved either completely with the old or completely with the new index.
+     *
+     * @param index the new index. Must not be {@code null}.
+     */
+    public void setIndex(final SortedKeyIndex index) {
+        Preconditions.checkNotNull(index);
+        this.index = index;
+    }
+
+    /**
+     * Returns {@code true} if the given URI token is contained in the index of this action mapper.
+     *
+     * @param uriToken the URI token to look up
+     *
+     * @return {@code true} if this mapper is responsible for the token
+     */
+    @Override
+    public boolean isResponsibleForToken(final String uriToken) {
+        return uriToken != null && index.containsKey(uriToken);
+    }
+
+    /**
+     * Returns {@code false} since this action mapper decides on its own which URI tokens it is responsible for.
+     *
+     * @return always {@code false}
+     */
+    @Override
+    public boolean isLiteralSegmentMapper() {
+        return false;
+    }
+
+    /**
+     * Captures the id of the current URI token and returns the action command factory of this mapper. Returns {@code
+     * null} if the current URI token is not contained in the index.
+     */
+    @Override
+    protected UriActionCommandFactory interpretTokensImpl(final CapturedParameterValues capturedParameterValues,
+                                                          final String currentUriToken,
+                                                          final List<String> uriTokens,
+                                                          final Map<String, String> queryParameters,
+                                                          final ParameterMode parameterMode) {
+        final SortedKeyIndex currentIndex = index;
+        final int position = currentUriToken == null ? -1 : currentIndex.indexOf(currentUriToken);
+        if (position < 0) {
+            LOG.debug("interpretTokensImpl() - URI token '{}' is not contained in index {}", currentUriToken, currentIndex);
+            return null;
+        }
+        capturedParameterValues.setValueFor(getMapperName(), parameterId, ParameterValue.forValue(currentIndex.getId(position)));
+        LOG.debug("interpretTokensImpl() - Returning action command factory {} for current URI token '{}'", getActionCommandFactory(), currentUriToken);
+        return getActionCommandFactory();
+    }
+
+    /**
+     * Adds the key associated with the id contained in the given parameter values as path segment to the list of URI
+     * tokens. The id is removed from the parameter values so that it does not additionally end up in the query
+     * parameter section of the assembled URI fragment.
+     *
+     * @throws IllegalArgumentException if the given parameter values do not contain an id for this mapper or if the id
+     *                                  is not contained in the index
+     */
+    @Override
+    public void assembleUriFragmentTokens(final CapturedParameterValues parameterValues, final List<String> uriTokens, final ParameterMode parameterMode) {
+        if (!parameterValues.hasValueFor(getMapperName(), parameterId)) {
+            throw new IllegalArgumentException("Parameter values do not contain an id for mapper '" + getMapperName()
+                    + "' and parameter '" + parameterId + "'");
+        }
+        final SortedKeyIndex currentIndex = index;
+        final ParameterValue<Long> value = parameterValues.removeValueFor(getMapperName(), parameterId);
+        final int position = currentIndex.positionOfId(value.getValue());
+        if (position < 0) {
+            throw new IllegalArgumentException("Id " + value.getValue() + " is not contained in the index of mapper '" + getMapperName() + "'");
+        }
+        uriTokens.add(currentIndex.getKey(position));
+        super.assembleUriFragmentTokens(parameterValues, uriTokens, parameterMode);
+    }
+
+    /**
+     * Action mappers of this type do not have a fixed path segment name.
+     */
+    @Override
+    protected String getPathSegmentNameForAssemblingUriFragment(final CapturedParameterValues capturedParameterValues) {
+        return null;
+    }
+
+    @Override
+    public String getSegmentInfo() {
+        return String.format("<%s[index: %d keys]>", getMapperName(), index.size());
+    }
+
+    @Override
+    public void getMapperOverview(final String path, final List<String> mapperOverviewList) {
+        mapperOverviewList.add(String.format("%s/%s%s -> %s",
+                path,
+                getSegmentInfo(),
+                getParameterListAsString(),
+                actionInfo()));
+    }
+}
@@ -0,0 +1,114 @@
+package org.roklib.urifragmentrouting.mapper;
+
+import org.roklib.urifragmentrouting.MapperTreeRegistry;
+
+import java.io.*;
+
+/**
+ * Compact serialized form of action mappers and {@link ImmutableActionMapperWrapper}s. An action mapper which belongs
+ * to a mapper tree registered in the {@link MapperTreeRegistry} is written as the registration name and version of its
+ * tree plus its mapper name. On deserialization, this reference is resolved to the action mapper with the same name in
+ * the tree registered under the same name in the receiving JVM. An {@link ImmutableActionMapperWrapper} for an action
+ * mapper which does not belong to a registered tree is written as its wrapped action mapper.
+ * <p>
+ * There is no compact form for action mappers which do not belong to a registered tree. They are written with default
+ * serialization, which fails for action mappers of an unregistered mapper tree (see {@link
+ * org.roklib.urifragmentrouting.UriActionMapperTree UriActionMapperTree}).
+ */
+final class MapperReference implements Externalizable {
+    private static final long serialVersionUID = 7529107937262466532L;
+
+    private static final byte MAPPER = 1;
+    private static final byte WRAPPED_MAPPER = 2;
+    private static final byte WRAPPED_DELEGATE = 3;
+
+    private byte kind;
+    private String treeName;
+    private int treeVersion;
+    private String mapperName;
+    private UriPathSegmentActionMapper delegate;
+
+    /**
+     * Constructor required for deserialization.
+     */
+    public MapperReference() {
+    }
+
+    private MapperReference(final byte kind, final MapperTreeRegistry.Registration registration, final String mapperName) {
+        this.kind = kind;
+        treeName = registration.getName();
+        treeVersion = registration.getVersion();
+        this.mapperName = mapperName;
+    }
+
+    /**
+     * Returns the serialized form of an action mapper which is a reference to this mapper if it belongs to a registered
+     * mapper tree, or the action mapper itself otherwise, in which case it is written with default serialization.
+     *
+     * @param mapper the action mapper to be serialized
+     *
+     * @return the object to be written instead of the action mapper
+     */
+    static Object forMapper(final UriPathSegmentActionMapper mapper) {
+        final MapperTreeRegistry.Registration registration = MapperTreeRegistry.getRegistration(mapper);
+        if (registration == null || registration.getMapper(mapper.getMapperName()) != mapper) {
+            return mapper;
+        }
+        return new MapperReference(MAPPER, registration, mapper.getMapperName());
+    }
+
+    /**
+     * Returns the serialized form of an {@link ImmutableActionMapperWrapper}.
+     *
+     * @param delegate the action mapper wrapped by the wrapper to be serialized
+     *
+     * @return the object to be written instead of the wrapper
+     */
+    static MapperReference forWrapper(final UriPathSegmentActionMapper delegate) {
+        final MapperTreeRegistry.Registration registration = MapperTreeRegistry.getRegistration(delegate);
+        if (registration == null || registration.getMapper(delegate.getMapperName()) != delegate) {
+            final MapperReference reference = new MapperReference();
+            reference.kind = WRAPPED_DELEGATE;
+            reference.delegate = delegate;
+            return reference;
+        }
+        return new MapperReference(WRAPPED_MAPPER, registration, delegate.getMapperName());
+    }
+
+    @Override
+    public void writeExternal(final ObjectOutput out) throws IOException {
+        out.writeByte(kind);
+        if (kind == WRAPPED_DELEGATE) {
+            out.writeObject(delegate);
+        } else {
+            out.writeUTF(treeName);
+            out.writeInt(treeVersion);
+            out.writeUTF(mapperName);
+        }
+    }
+
+    @Override
+    public void readExternal(final ObjectInput in) throws IOException, ClassNotFoundException {
+        kind = in.readByte();
+        if (kind == WRAPPED_DELEGATE) {
+            delegate = (UriPathSegmentActionMapper) in.readObject();
+        } else if (kind == MAPPER || kind == WRAPPED_MAPPER) {
+            treeName = in.readUTF();
+            treeVersion = in.readInt();
+            mapperName = in.readUTF();
+        } else {
+            throw new InvalidObjectException("Unknown action mapper reference kind " + kind);
+        }
+    }
+
+    private Object readResolve() throws ObjectStreamException {
+        if (kind == WRAPPED_DELEGATE) {
+            return new ImmutableActionMapperWrapper(delegate);
+        }
+        final UriPathSegmentActionMapper mapper = MapperTreeRegistry.resolve(treeName, treeVersion).getMapper(mapperName);
+        if (mapper == null) {
+            throw new InvalidObjectException("Mapper tree '" + treeName + "' has no action mapper named '" + mapperName + "'");
+        }
+        return kind == WRAPPED_MAPPER ? new ImmutableActionMapperWrapper(mapper) : mapper;
+    }
+}
@@ -9,7 +9,9 @@ import org.roklib.urifragmentrouting.parameter.converter.AbstractRegexToStringLi
 import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
 import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
 
+import java.lang.reflect.Method;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -24,10 +26,10 @@ import java.util.regex.Matcher;
  * which the responsibility for interpreting the remaining URI tokens can be passed. <h1>Capturing groups</h1> The
  * regular expression for this action handler may contain capturing groups in order to capture parts or all of the
  * currently interpreted path segment. The captured values for these capturing groups can be obtained through a {@link
- * StringListUriParameter} whose parameter ID is specified as a constructor parameter. The set of matched token
- * fragments is updated after each call to {@link #isResponsibleForToken(String)} by the parent handler. This usually
- * happens while in the process of interpreting the current URI fragment by the {@link
- * org.roklib.urifragmentrouting.UriActionMapperTree UriActionMapperTree}. Note that the first capturing group of a
+ * StringListUriParameter} whose parameter ID is specified as a constructor parameter. The URI token is matched only
+ * once while the current URI fragment is interpreted by the {@link org.roklib.urifragmentrouting.UriActionMapperTree
+ * UriActionMapperTree}: the parent dispatching mapper selects this action mapper by matching the token against the
+ * regular expression and hands the captured values over to this mapper. Note that the first capturing group of a
  * {@link Matcher} for the current URI token will not be contained in the {@link StringListUriParameter}, since this
  * contains the entire match which corresponds to the matched URI token itself. <h1>Generating parameterized URI
  * fragments</h1> When you are generating parameterized URI fragments with {@link org.roklib.urifragmentrouting.UriActionMapperTree#assembleUriFragment(CapturedParameterValues,
@@ -37,13 +39,18 @@ import java.util.regex.Matcher;
  * handled by this action mapper, is defined by the {@link AbstractRegexToStringListParameterValueConverter} that is
  * passed to the constructor of this class. A subclass of this converter has to be provided when constructing a {@link
  * RegexUriPathSegmentActionMapper}. This converter specifies the regular expression to be used for this action mapper
- * and the algorithm to assemble a URI token from a list of Strings which will later match the regex.
+ * and the algorithm to assemble a URI token from a list of Strings which will later match the regex. <h1>Linear-time
+ * matching</h1> Every URI token tested by this action mapper can be controlled by the user. Regular expressions which
+ * are prone to catastrophic backtracking should therefore be matched in linear time by passing {@link
+ * org.roklib.urifragmentrouting.regex.RegexEngine#LINEAR_TIME} to the constructor of the {@link
+ * AbstractRegexToStringListParameterValueConverter}.
  */
 public class RegexUriPathSegmentActionMapper extends DispatchingUriPathSegmentActionMapper {
     private static final long serialVersionUID = 4435578380164414638L;
 
     private final String parameterId;
     private final AbstractRegexToStringListParameterValueConverter valueListConverter;
+    private final boolean singleMatchDispatch;
 
     /**
      * Creates a new {@link RegexUriPathSegmentActionMapper}. The regex to be applied for this action mapper is defined
@@ -67,6 +74,7 @@ public class RegexUriPathSegmentActionMapper extends DispatchingUriPathSegmentAc
         registerURIParameter(parameter);
         this.parameterId = parameter.getId();
         this.valueListConverter = valueListConverter;
+        singleMatchDispatch = !overridesDispatchBehavior();
     }
 
     @Override
@@ -75,14 +83,71 @@ public class RegexUriPathSegmentActionMapper extends DispatchingUriPathSegmentAc
                                                           final List<String> uriTokens,
                                                           final Map<String, String> queryParameters,
                                                           final ParameterMode parameterMode) {
-        final Map<String, String> capturedValues = new HashMap<>();
-        capturedValues.put(parameterId, currentUriToken);
-        final ParameterInterpreter interpreter = new ParameterInterpreter(getMapperName());
-        interpreter.interpretParameters(getUriParameters(), capturedParameterValues, capturedValues);
+        captureTokenValue(capturedParameterValues, currentUriToken, valueListConverter.match(currentUriToken));
+        return super.interpretTokensImpl(capturedParameterValues, currentUriToken, uriTokens, queryParameters, parameterMode);
+    }
 
+    /**
+     * Interprets the given URI tokens like {@link #interpretTokens(CapturedParameterValues, String, List, Map,
+     * ParameterMode)} with the difference that the current URI token has already been matched against this mapper's
+     * regular expression by the parent dispatching mapper. The given capturing group values are the result of this
+     * match, so that the token does not need to be matched a second time.
+     */
+    UriActionCommandFactory interpretMatchedTokens(final CapturedParameterValues capturedParameterValues,
+                                                   final String currentUriToken,
+                                                   final List<String> capturedGroups,
+                                                   final List<String> uriTokens,
+                                                   final Map<String, String> queryParameters,
+                                                   final ParameterMode parameterMode) {
+        interpretUriParameters(capturedParameterValues, currentUriToken, uriTokens, queryParameters, parameterMode);
+        captureTokenValue(capturedParameterValues, currentUriToken, capturedGroups);
         return super.interpretTokensImpl(capturedParameterValues, currentUriToken, uriTokens, queryParameters, parameterMode);
     }
 
+    /**
+     * Stores the values captured from the current URI token by the regular expression's capturing groups in the
+     * {@link StringListUriParameter} of this mapper.
+     *
+     * @param capturedParameterValues the parameter values captured so far from the currently interpreted URI fragment
+     * @param currentUriToken         the URI token handled by this mapper
+     * @param capturedGroups          the values of the capturing groups or {@code null} if the current URI token does
+     *                                not match the regular expression of this mapper. This happens if this mapper has
+     *                                been selected by its name instead of by its regular expression. The captured
+     *                                parameter value is a modifiable copy of this list.
+     */
+    protected void captureTokenValue(final CapturedParameterValues capturedParameterValues,
+                                     final String currentUriToken,
+                                     final List<String> capturedGroups) {
+        if (getUriParameters().size() == 1) {
+            capturedParameterValues.setValueFor(getMapperName(), parameterId,
+                    ParameterValue.forValue(capturedGroups == null ? new LinkedList<>() : new LinkedList<>(capturedGroups)));
+        } else {
+            // additional parameters have been registered: these are consumed from the same parameter map
+            final Map<String, String> capturedValues = new HashMap<>();
+            capturedValues.put(parameterId, currentUriToken);
+            final ParameterInterpreter interpreter = new ParameterInterpreter(getMapperName());
+            interpreter.interpretParameters(getUriParameters(), capturedParameterValues, capturedValues);
+        }
+    }
+
+    /**
+     * Matches the given URI token against the regular expression of this mapper on behalf of a parent dispatching
+     * mapper. If a subclass changes how responsibility for a URI token is determined or how a token is interpreted,
+     * the parent mapper falls back to {@link #isResponsibleForToken(String)} and {@link
+     * #interpretTokens(CapturedParameterValues, String, List, Map, ParameterMode)}, and this method returns {@code
+     * null}.
+     *
+     * @return the values of the capturing groups or {@code null} if the token does not match or if the single match
+     * dispatch is not available for this mapper
+     */
+    List<String> matchTokenForDispatch(final String uriToken) {
+        return singleMatchDispatch ? valueListConverter.match(uriToken) : null;
+    }
+
+    boolean isSingleMatchDispatch() {
+        return singleMatchDispatch;
+    }
+
     /**
      * Checks if this {@link RegexUriPathSegmentActionMapper} is responsible for handling the given URI token. It does
      * so by checking whether the token matches the assigned regular expression. If that is the case {@code true}
@@ -97,6 +162,27 @@ public class RegexUriPathSegmentActionMapper extends DispatchingUriPathSegmentAc
         return valueListConverter.matches(uriToken);
     }
 
+    /**
+     * Returns {@code false} since this action mapper decides on its own which URI tokens it is responsible for.
+     *
+     * @return always {@code false}
+     */
+    @Override
+    public boolean isLiteralSegmentMapper() {
+        return false;
+    }
+
+    private boolean overridesDispatchBehavior() {
+        for (Class<?> type = getClass(); type != RegexUriPathSegmentActionMapper.class; type = type.getSuperclass()) {
+            for (final Method method : type.getDeclaredMethods()) {
+                if ("isResponsibleForToken".equals(method.getName()) || "interpretTokensImpl".equals(method.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
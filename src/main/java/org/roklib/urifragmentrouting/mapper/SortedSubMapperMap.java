@@ -0,0 +1,179 @@
+package org.roklib.urifragmentrouting.mapper;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Map of the sub-mappers of a {@link DispatchingUriPathSegmentActionMapper} keyed by their mapper names. The mapper
+ * names and sub-mappers are kept in two parallel arrays sorted by mapper name, and sub-mappers are looked up by binary
+ * search. Iteration order is the natural order of the mapper names, just like with a {@link TreeMap}, but without a
+ * tree node object per entry. This matters for large mapper trees where the sub-mapper maps of all dispatching mappers
+ * make up a considerable part of the tree's memory footprint.
+ * <p>
+ * The arrays grow by half of their length when they are full and can be trimmed to the number of entries with {@link
+ * #trimToSize()}. Entries can only be added, not removed. Like {@link TreeMap}, this class is not thread-safe; sub-mappers
+ * are expected to be added while the mapper tree is being built.
+ */
+final class SortedSubMapperMap extends AbstractMap<String, UriPathSegmentActionMapper> implements Serializable {
+    private static final long serialVersionUID = 3406478186211263658L;
+    private static final String[] NO_NAMES = new String[0];
+    private static final UriPathSegmentActionMapper[] NO_MAPPERS = new UriPathSegmentActionMapper[0];
+
+    private String[] names = NO_NAMES;
+    private UriPathSegmentActionMapper[] mappers = NO_MAPPERS;
+    private int size;
+
+    @Override
+    public UriPathSegmentActionMapper get(final Object name) {
+        if (!(name instanceof String) || size == 0) {
+            return null;
+        }
+        final int index = Arrays.binarySearch(names, 0, size, name);
+        return index >= 0 ? mappers[index] : null;
+    }
+
+    @Override
+    public boolean containsKey(final Object name) {
+        return get(name) != null;
+    }
+
+    @Override
+    public UriPathSegmentActionMapper put(final String name, final UriPathSegmentActionMapper mapper) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(mapper);
+        int index = Arrays.binarySearch(names, 0, size, name);
+        if (index >= 0) {
+            final UriPathSegmentActionMapper previous = mappers[index];
+            mappers[index] = mapper;
+            return previous;
+        }
+        index = -index - 1;
+        if (size == names.length) {
+            final int capacity = Math.max(4, size + (size >> 1));
+            names = Arrays.copyOf(names, capacity);
+            mappers = Arrays.copyOf(mappers, capacity);
+        }
+        System.arraycopy(names, index, names, index + 1, size - index);
+        System.arraycopy(mappers, index, mappers, index + 1, size - index);
+        names[index] = name;
+        mappers[index] = mapper;
+        size++;
+        return null;
+    }
+
+    /**
+     * Shrinks the internal arrays to the number of entries of this map.
+     */
+    void trimToSize() {
+        if (size == 0) {
+            names = NO_NAMES;
+            mappers = NO_MAPPERS;
+        } else if (size < names.length) {
+            names = Arrays.copyOf(names, size);
+            mappers = Arrays.copyOf(mappers, size);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+            @Override
+            public boolean contains(final Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public Iterator<String> iterator() {
+                return new ArrayIterator<>(names, size);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Collection<UriPathSegmentActionMapper> values() {
+        return new AbstractCollection<UriPathSegmentActionMapper>() {
+            @Override
+            public Iterator<UriPathSegmentActionMapper> iterator() {
+                return new ArrayIterator<>(mappers, size);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<String, UriPathSegmentActionMapper>> entrySet() {
+        return new AbstractSet<Entry<String, UriPathSegmentActionMapper>>() {
+            @Override
+            public Iterator<Entry<String, UriPathSegmentActionMapper>> iterator() {
+                return new Iterator<Entry<String, UriPathSegmentActionMapper>>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < size;
+                    }
+
+                    @Override
+                    public Entry<String, UriPathSegmentActionMapper> next() {
+                        if (index >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        final int current = index++;
+                        return new SimpleImmutableEntry<>(names[current], mappers[current]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Read-only iterator over the first elements of an array.
+     */
+    private static final class ArrayIterator<E> implements Iterator<E> {
+        private final E[] elements;
+        private final int size;
+        private int index;
+
+        private ArrayIterator(final E[] elements, final int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public E next() {
+            if (index >= size) {
+                throw new NoSuchElementException();
+            }
+            return elements[index++];
+        }
+    }
+}
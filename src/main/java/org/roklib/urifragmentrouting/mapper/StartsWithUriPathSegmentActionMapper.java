@@ -2,6 +2,7 @@ package org.roklib.urifragmentrouting.mapper;
 
 import org.roklib.urifragmentrouting.parameter.converter.AbstractRegexToStringListParameterValueConverter;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -50,7 +51,8 @@ public class StartsWithUriPathSegmentActionMapper extends RegexUriPathSegmentAct
     /**
      * Regex parameter value converter which uses the following regex: <tt>prefix(.*)</tt>. If the prefix contains any
      * characters which have a special meaning in regular expression, then these characters will be escaped
-     * automatically.
+     * automatically. The regex is only kept for describing this converter. URI tokens are matched with a plain prefix
+     * comparison.
      */
     private static class StartsWithConverter extends AbstractRegexToStringListParameterValueConverter {
         private final String prefix;
@@ -60,6 +62,16 @@ public class StartsWithUriPathSegmentActionMapper extends RegexUriPathSegmentAct
             this.prefix = prefix;
         }
 
+        @Override
+        public boolean matches(final String value) {
+            return value.startsWith(prefix);
+        }
+
+        @Override
+        public List<String> match(final String value) {
+            return value.startsWith(prefix) ? Collections.singletonList(value.substring(prefix.length())) : null;
+        }
+
         private static String escapeSpecialChars(String prefix) {
             String[] cache = new String[]{prefix};
             Stream.of("\\", ".", "^", "$", "|", "?", "*", "+", "(", ")", "{", "[")
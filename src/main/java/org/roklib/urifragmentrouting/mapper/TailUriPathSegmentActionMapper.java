@@ -0,0 +1,162 @@
+package org.roklib.urifragmentrouting.mapper;
+
+import org.roklib.urifragmentrouting.UriActionCommandFactory;
+import org.roklib.urifragmentrouting.helper.Preconditions;
+import org.roklib.urifragmentrouting.parameter.ParameterMode;
+import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+import org.roklib.urifragmentrouting.parameter.value.UriPathTail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Action mapper which handles the remainder of a URI fragment as a whole. While a {@link
+ * CatchAllUriPathSegmentActionMapper} only captures the single URI token it is responsible for, a {@link
+ * TailUriPathSegmentActionMapper} captures the URI token it is asked to interpret together with all URI tokens that
+ * follow this token. The captured tokens are provided as a {@link UriPathTail} parameter value.
+ * <p>
+ * A typical use case for this mapper is a file browser. Consider the following URI fragments:
+ * <pre>
+ *     /files/readme.txt
+ *     /files/documents/2017/report.txt
+ * </pre>
+ * If a {@link TailUriPathSegmentActionMapper} has been added as sub-mapper to the {@link
+ * DispatchingUriPathSegmentActionMapper} for <tt>files</tt>, it will capture the path tails <tt>readme.txt</tt> and
+ * <tt>documents/2017/report.txt</tt>, respectively. The path tail can be obtained in the action command with a {@link
+ * org.roklib.urifragmentrouting.annotation.CapturedParameter CapturedParameter} of type {@link UriPathTail} using the
+ * mapper name and parameter id of this action mapper. Since this action mapper consumes all remaining URI tokens, it
+ * is always a leaf of the URI action mapper tree.
+ * <p>
+ * During the process of interpreting a URI fragment, a {@link TailUriPathSegmentActionMapper} is asked last by its
+ * parent mapper, i. e. even after a {@link CatchAllUriPathSegmentActionMapper} that has been added to the same parent
+ * mapper. A dispatching mapper can therefore have at most one effective tail mapper, and adding both a catch-all and a
+ * tail mapper to the same parent mapper renders the tail mapper unreachable.
+ * <p>
+ * The path tail is reversible: when a URI fragment is assembled with {@link org.roklib.urifragmentrouting.UriActionMapperTree#assembleUriFragment(CapturedParameterValues,
+ * UriPathSegmentActionMapper) UriActionMapperTree.assembleUriFragment()}, each path segment of the {@link UriPathTail}
+ * found in the given parameter values is added as a separate path segment. Path segments containing the separator
+ * character {@code /} are encoded by the URI token extraction strategy, so that such a URI fragment is interpreted to
+ * the same path tail again.
+ */
+public class TailUriPathSegmentActionMapper extends AbstractUriPathSegmentActionMapper {
+    private static final long serialVersionUID = 4386193025873418012L;
+    private static final Logger LOG = LoggerFactory.getLogger(TailUriPathSegmentActionMapper.class);
+
+    private final String parameterId;
+
+    /**
+     * Creates a new {@link TailUriPathSegmentActionMapper} with the given mapper name. The captured path tail is stored
+     * in the {@link CapturedParameterValues} under this mapper name and the given parameter id.
+     *
+     * @param mapperName  name of this action mapper
+     * @param parameterId parameter id under which the captured {@link UriPathTail} is stored
+     */
+    public TailUriPathSegmentActionMapper(final String mapperName, final String parameterId) {
+        super(mapperName);
+        Preconditions.checkNotNull(parameterId);
+        this.parameterId = parameterId;
+    }
+
+    /**
+     * Creates a new {@link TailUriPathSegmentActionMapper} with the given mapper name and action command factory.
+     *
+     * @param mapperName     name of this action mapper
+     * @param parameterId    parameter id under which the captured {@link UriPathTail} is stored
+     * @param commandFactory the action command factory for this action mapper
+     */
+    public TailUriPathSegmentActionMapper(final String mapperName, final String parameterId, final UriActionCommandFactory commandFactory) {
+        this(mapperName, parameterId);
+        setActionCommandFactory(commandFactory);
+    }
+
+    /**
+     * Returns the parameter id under which the captured {@link UriPathTail} is stored.
+     *
+     * @return the parameter id of the captured path tail
+     */
+    public String getParameterId() {
+        return parameterId;
+    }
+
+    /**
+     * A tail mapper is responsible for every URI token.
+     *
+     * @param uriToken the URI token to test
+     *
+     * @return always {@code true}
+     */
+    @Override
+    public boolean isResponsibleForToken(final String uriToken) {
+        return true;
+    }
+
+    /**
+     * Returns {@code false} since this action mapper decides on its own which URI tokens it is responsible for.
+     *
+     * @return always {@code false}
+     */
+    @Override
+    public boolean isLiteralSegmentMapper() {
+        return false;
+    }
+
+    /**
+     * Captures the current URI token and all remaining URI tokens as a {@link UriPathTail} and returns the action
+     * command factory of this mapper. The list of remaining URI tokens is empty afterwards.
+     */
+    @Override
+    protected UriActionCommandFactory interpretTokensImpl(final CapturedParameterValues capturedParameterValues,
+                                                          final String currentUriToken,
+                                                          final List<String> uriTokens,
+                                                          final Map<String, String> queryParameters,
+                                                          final ParameterMode parameterMode) {
+        final UriPathTail pathTail = UriPathTail.capture(currentUriToken, uriTokens);
+        uriTokens.clear();
+        capturedParameterValues.setValueFor(getMapperName(), parameterId, ParameterValue.forValue(pathTail));
+        LOG.debug("interpretTokensImpl() - Captured path tail '{}', returning action command factory {}", pathTail, getActionCommandFactory());
+        return getActionCommandFactory();
+    }
+
+    /**
+     * Adds each path segment of the {@link UriPathTail} contained in the given parameter values to the list of URI
+     * tokens. The path tail is removed from the parameter values so that it does not additionally end up in the query
+     * parameter section of the assembled URI fragment.
+     *
+     * @throws IllegalArgumentException if the given parameter values do not contain a path tail for this mapper
+     */
+    @Override
+    public void assembleUriFragmentTokens(final CapturedParameterValues parameterValues, final List<String> uriTokens, final ParameterMode parameterMode) {
+        if (!parameterValues.hasValueFor(getMapperName(), parameterId)) {
+            throw new IllegalArgumentException("Parameter values do not contain a path tail for mapper '" + getMapperName()
+                    + "' and parameter '" + parameterId + "'");
+        }
+        final ParameterValue<UriPathTail> value = parameterValues.removeValueFor(getMapperName(), parameterId);
+        uriTokens.addAll(value.getValue().getSegments());
+        super.assembleUriFragmentTokens(parameterValues, uriTokens, parameterMode);
+    }
+
+    /**
+     * Tail mappers do not have a path segment name of their own.
+     */
+    @Override
+    protected String getPathSegmentNameForAssemblingUriFragment(final CapturedParameterValues capturedParameterValues) {
+        return null;
+    }
+
+    @Override
+    public String getSegmentInfo() {
+        return String.format("<%s[tail: '%s']>", getMapperName(), parameterId);
+    }
+
+    @Override
+    public void getMapperOverview(final String path, final List<String> mapperOverviewList) {
+        mapperOverviewList.add(String.format("%s/%s%s -> %s",
+                path,
+                getSegmentInfo(),
+                getParameterListAsString(),
+                actionInfo()));
+    }
+}
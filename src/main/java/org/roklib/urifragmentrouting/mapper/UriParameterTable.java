@@ -0,0 +1,207 @@
+package org.roklib.urifragmentrouting.mapper;
+
+import org.roklib.urifragmentrouting.parameter.UriParameter;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Compact, immutable map of the URI parameters registered on an action mapper, keyed by parameter ID and ordered by the
+ * time of their registration. An action mapper typically has no more than a handful of URI parameters, so the
+ * parameters and their parameter names are kept in two small arrays which are searched linearly. This is both faster
+ * and considerably smaller than a {@link LinkedHashMap} together with a {@link HashSet} of the parameter names. Action
+ * mappers without URI parameters share the {@link #EMPTY} table.
+ * <p>
+ * Registering a parameter creates a new table with {@link #with(UriParameter)}, so that a table can be read
+ * concurrently without synchronization. Since most parameters are single-valued parameters whose only parameter name is
+ * their ID, {@link #trimToSize()} returns a table which does not store the parameter names separately if this is the
+ * case for all of its parameters.
+ */
+final class UriParameterTable extends AbstractMap<String, UriParameter<?>> implements Serializable {
+    private static final long serialVersionUID = -2120617574339045563L;
+
+    static final UriParameterTable EMPTY = new UriParameterTable(new UriParameter<?>[0], new String[0]);
+
+    private final UriParameter<?>[] parameters;
+    /**
+     * The parameter names of all parameters or {@code null} if each parameter has its ID as its only parameter name.
+     */
+    private final String[] parameterNames;
+
+    private UriParameterTable(final UriParameter<?>[] parameters, final String[] parameterNames) {
+        this.parameters = parameters;
+        this.parameterNames = parameterNames;
+    }
+
+    /**
+     * Returns a copy of this table with the given parameter appended.
+     *
+     * @param parameter the parameter to be registered
+     *
+     * @return the new parameter table
+     * @throws IllegalArgumentException if a parameter with the same ID or with one of the same parameter names is
+     *                                  already contained in this table
+     */
+    UriParameterTable with(final UriParameter<?> parameter) {
+        if (containsKey(parameter.getId())) {
+            throw new IllegalArgumentException("Another parameter with the same id is already registered on this mapper.");
+        }
+        final List<String> newNames = parameter.getParameterNames();
+        for (final String parameterName : newNames) {
+            if (containsParameterName(parameterName)) {
+                throw new IllegalArgumentException("Cannot register parameter " + parameter +
+                        ". Another parameter with parameter name '" + parameterName +
+                        "' is already registered on this mapper.");
+            }
+        }
+        final UriParameter<?>[] resultParameters = Arrays.copyOf(parameters, parameters.length + 1);
+        resultParameters[parameters.length] = parameter;
+        final String[] names = names();
+        final String[] resultNames = Arrays.copyOf(names, names.length + newNames.size());
+        for (int i = 0; i < newNames.size(); i++) {
+            resultNames[names.length + i] = newNames.get(i);
+        }
+        return new UriParameterTable(resultParameters, resultNames);
+    }
+
+    /**
+     * Returns a table with the same parameters as this table which does not store the parameter names separately if
+     * each parameter has its ID as its only parameter name. Otherwise, this table is returned.
+     *
+     * @return the trimmed parameter table
+     */
+    UriParameterTable trimToSize() {
+        if (parameters.length == 0) {
+            return EMPTY;
+        }
+        if (parameterNames == null) {
+            return this;
+        }
+        for (final UriParameter<?> parameter : parameters) {
+            final List<String> names = parameter.getParameterNames();
+            if (names.size() != 1 || !names.get(0).equals(parameter.getId())) {
+                return this;
+            }
+        }
+        return new UriParameterTable(parameters, null);
+    }
+
+    private String[] names() {
+        if (parameterNames != null) {
+            return parameterNames;
+        }
+        final String[] names = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            names[i] = parameters[i].getId();
+        }
+        return names;
+    }
+
+    /**
+     * Returns {@code true} if one of the parameters of this table has the given parameter name.
+     *
+     * @param parameterName a parameter name
+     *
+     * @return {@code true} if the parameter name is registered
+     */
+    boolean containsParameterName(final Object parameterName) {
+        if (parameterNames == null) {
+            return containsKey(parameterName);
+        }
+        for (final String name : parameterNames) {
+            if (name.equals(parameterName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a read-only view on the combined parameter names of all parameters of this table.
+     *
+     * @return the parameter names
+     */
+    Set<String> parameterNames() {
+        return new AbstractSet<String>() {
+            @Override
+            public boolean contains(final Object o) {
+                return containsParameterName(o);
+            }
+
+            @Override
+            public Iterator<String> iterator() {
+                return Collections.unmodifiableList(Arrays.asList(names())).iterator();
+            }
+
+            @Override
+            public int size() {
+                return parameterNames == null ? parameters.length : parameterNames.length;
+            }
+        };
+    }
+
+    @Override
+    public UriParameter<?> get(final Object id) {
+        for (final UriParameter<?> parameter : parameters) {
+            if (parameter.getId().equals(id)) {
+                return parameter;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(final Object id) {
+        return get(id) != null;
+    }
+
+    @Override
+    public int size() {
+        return parameters.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return parameters.length == 0;
+    }
+
+    @Override
+    public Collection<UriParameter<?>> values() {
+        return Collections.unmodifiableList(Arrays.asList(parameters));
+    }
+
+    @Override
+    public Set<Entry<String, UriParameter<?>>> entrySet() {
+        return new AbstractSet<Entry<String, UriParameter<?>>>() {
+            @Override
+            public Iterator<Entry<String, UriParameter<?>>> iterator() {
+                return new Iterator<Entry<String, UriParameter<?>>>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < parameters.length;
+                    }
+
+                    @Override
+                    public Entry<String, UriParameter<?>> next() {
+                        if (index >= parameters.length) {
+                            throw new NoSuchElementException();
+                        }
+                        final UriParameter<?> parameter = parameters[index++];
+                        return new SimpleImmutableEntry<>(parameter.getId(), parameter);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return parameters.length;
+            }
+        };
+    }
+
+    private Object readResolve() {
+        return parameters.length == 0 ? EMPTY : this;
+    }
+}
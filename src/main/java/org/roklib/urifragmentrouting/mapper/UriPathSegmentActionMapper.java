@@ -9,6 +9,7 @@ import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -215,6 +216,26 @@ public interface UriPathSegmentActionMapper extends Serializable {
      */
     void assembleUriFragmentTokens(CapturedParameterValues parameterValues, List<String> uriTokens, ParameterMode parameterMode);
 
+    /**
+     * Assembles the URI tokens of this action mapper for the given locale. This works like {@link
+     * #assembleUriFragmentTokens(CapturedParameterValues, List, ParameterMode)}, except that action mappers with
+     * localized path segment aliases add the alias for the given locale instead of their path segment name. By default,
+     * the locale is ignored.
+     *
+     * @param parameterValues The parameter values to be added to the generated URI fragment
+     * @param uriTokens       The list of URI tokens to which this action mapper is supposed to add its path segment
+     *                        name and URI parameters
+     * @param parameterMode   The {@link ParameterMode} to be used to append URI parameter values to the generated URI
+     *                        fragment.
+     * @param locale          The locale for which the URI fragment is assembled. May be {@code null}.
+     */
+    default void assembleUriFragmentTokens(final CapturedParameterValues parameterValues,
+                                           final List<String> uriTokens,
+                                           final ParameterMode parameterMode,
+                                           final Locale locale) {
+        assembleUriFragmentTokens(parameterValues, uriTokens, parameterMode);
+    }
+
     /**
      * Check if this action mapper is responsible for the given token from the currently interpreted URI fragment. This
      * token is extracted from the currently interpreted URI fragment using the {@link
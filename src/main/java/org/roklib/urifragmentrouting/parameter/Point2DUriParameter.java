@@ -7,7 +7,7 @@ import org.roklib.urifragmentrouting.parameter.converter.ParameterValueConverter
 import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
 
 import java.awt.geom.Point2D;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -31,7 +31,21 @@ import java.util.Map;
  */
 public class Point2DUriParameter extends AbstractUriParameter<Point2D.Double> {
     private static final long serialVersionUID = -8452255745085323681L;
-    private final List<String> parameterNames;
+    /**
+     * Point parameters are never converted as a whole, so all instances share one converter.
+     */
+    private static final ParameterValueConverter<Point2D.Double> UNSUPPORTED_CONVERTER = new ParameterValueConverter<Point2D.Double>() {
+        @Override
+        public String convertToString(final Point2D.Double value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Point2D.Double convertToValue(final String valueAsString) throws ParameterValueConversionException {
+            throw new UnsupportedOperationException();
+        }
+    };
+
     private final SingleDoubleUriParameter xURIParameter;
     private final SingleDoubleUriParameter yURIParameter;
 
@@ -43,22 +57,9 @@ public class Point2DUriParameter extends AbstractUriParameter<Point2D.Double> {
      * @param yParamName name for the y-coordinate parameter
      */
     public Point2DUriParameter(final String id, final String xParamName, final String yParamName) {
-        super(id, new ParameterValueConverter<Point2D.Double>() {
-            @Override
-            public String convertToString(final Point2D.Double value) {
-                throw new UnsupportedOperationException();
-            }
-
-            @Override
-            public Point2D.Double convertToValue(final String valueAsString) throws ParameterValueConversionException {
-                throw new UnsupportedOperationException();
-            }
-        });
+        super(id, UNSUPPORTED_CONVERTER);
         Preconditions.checkNotNull(xParamName);
         Preconditions.checkNotNull(yParamName);
-        parameterNames = new ArrayList<>(2);
-        parameterNames.add(xParamName);
-        parameterNames.add(yParamName);
         xURIParameter = new SingleDoubleUriParameter(xParamName);
         yURIParameter = new SingleDoubleUriParameter(yParamName);
     }
@@ -95,7 +96,7 @@ public class Point2DUriParameter extends AbstractUriParameter<Point2D.Double> {
 
     @Override
     public List<String> getParameterNames() {
-        return parameterNames;
+        return Arrays.asList(xURIParameter.getId(), yURIParameter.getId());
     }
 
     @SuppressWarnings("unchecked")
@@ -1,6 +1,9 @@
 package org.roklib.urifragmentrouting.parameter.converter;
 
 import org.roklib.urifragmentrouting.exception.ParameterValueConversionException;
+import org.roklib.urifragmentrouting.helper.Preconditions;
+import org.roklib.urifragmentrouting.regex.LinearTimeRegex;
+import org.roklib.urifragmentrouting.regex.RegexEngine;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -14,13 +17,23 @@ import java.util.regex.Pattern;
  * <p>
  * Sub-classes have to implement the process that turns a list of Strings into a single String that matches the given
  * regular expression.
+ * <p>
+ * By default, the regular expression is matched with {@link Pattern}. Since this is a backtracking engine, some
+ * regular expressions need exponential time to match certain inputs. As URI fragments can be freely chosen by a user,
+ * such a regular expression can be abused to render an application unresponsive. To rule this out, a converter can
+ * opt into {@link RegexEngine#LINEAR_TIME} with {@link #AbstractRegexToStringListParameterValueConverter(String,
+ * RegexEngine)}. The regular expression is then matched with a {@link LinearTimeRegex} which guarantees linear
+ * matching time but only supports a subset of the regular expression syntax.
  *
  * @see Pattern
  * @see Matcher
+ * @see LinearTimeRegex
  */
 public abstract class AbstractRegexToStringListParameterValueConverter implements ParameterValueConverter<List<String>> {
 
+    private final RegexEngine regexEngine;
     private final Pattern pattern;
+    private final LinearTimeRegex linearTimeRegex;
 
     /**
      * Creates a new converter for the given regular expression. The regex should contain at least one capturing group
@@ -33,10 +46,35 @@ public abstract class AbstractRegexToStringListParameterValueConverter implement
      *                                                whitespace
      */
     public AbstractRegexToStringListParameterValueConverter(final String regex) {
+        this(regex, RegexEngine.JAVA_UTIL_REGEX);
+    }
+
+    /**
+     * Creates a new converter for the given regular expression which is matched with the given regular expression
+     * engine. The regex should contain at least one capturing group since the converter would be useless otherwise
+     * (i. e. always convert into the empty list).
+     *
+     * @param regex       regular expression which should contain at least one capturing group
+     * @param regexEngine the engine used to match the regular expression. Must not be {@code null}.
+     *
+     * @throws java.util.regex.PatternSyntaxException if the pattern could not be compiled or if it uses a construct
+     *                                                not supported by the given engine
+     * @throws IllegalArgumentException               if the pattern is the empty String or does only contain
+     *                                                whitespace
+     */
+    public AbstractRegexToStringListParameterValueConverter(final String regex, final RegexEngine regexEngine) {
+        Preconditions.checkNotNull(regexEngine);
         if ("".equals(regex.trim())) {
             throw new IllegalArgumentException("regex must not be the empty string or all whitespaces");
         }
-        pattern = Pattern.compile(regex);
+        this.regexEngine = regexEngine;
+        if (regexEngine == RegexEngine.LINEAR_TIME) {
+            pattern = null;
+            linearTimeRegex = LinearTimeRegex.compile(regex);
+        } else {
+            pattern = Pattern.compile(regex);
+            linearTimeRegex = null;
+        }
     }
 
     /**
@@ -47,19 +85,61 @@ public abstract class AbstractRegexToStringListParameterValueConverter implement
      * @return <code>true</code> if the given value matches the regular expression of this converter
      */
     public boolean matches(final String value) {
+        if (linearTimeRegex != null) {
+            return linearTimeRegex.matches(value);
+        }
         return pattern.matcher(value).matches();
     }
 
-    @Override
-    public List<String> convertToValue(final String valueAsString) throws ParameterValueConversionException {
-        final Matcher matcher = pattern.matcher(valueAsString);
-        final List<String> result = new LinkedList<>();
-        if (matcher.matches()) {
-            for (int index = 1; index < matcher.groupCount() + 1; ++index) {
-                result.add(matcher.group(index));
+    /**
+     * Matches the given value against the regular expression of this converter and returns the values of all capturing
+     * groups. In contrast to {@link #convertToValue(String)}, this method distinguishes a failed match from a match
+     * without capturing groups. The value is matched exactly once, so that callers which need to know both whether
+     * the value matches and which values have been captured don't have to match it twice. This is used by a dispatching
+     * action mapper to select a {@link org.roklib.urifragmentrouting.mapper.RegexUriPathSegmentActionMapper
+     * RegexUriPathSegmentActionMapper}; the returned list is not handed out as a parameter value.
+     *
+     * @param value String input to match against the regular expression of this converter
+     *
+     * @return an unmodifiable list with the values of all capturing groups, excluding the group for the entire match,
+     * or {@code null} if the value does not match. Groups which did not participate in the match have a {@code null}
+     * value.
+     */
+    public List<String> match(final String value) {
+        final String[] groups;
+        if (linearTimeRegex != null) {
+            final int[] groupBounds = new int[2 * (linearTimeRegex.groupCount() + 1)];
+            if (!linearTimeRegex.matches(value, groupBounds)) {
+                return null;
+            }
+            groups = new String[linearTimeRegex.groupCount()];
+            for (int index = 0; index < groups.length; ++index) {
+                final int start = groupBounds[2 * index + 2];
+                groups[index] = start == -1 ? null : value.substring(start, groupBounds[2 * index + 3]);
+            }
+        } else {
+            final Matcher matcher = pattern.matcher(value);
+            if (!matcher.matches()) {
+                return null;
+            }
+            groups = new String[matcher.groupCount()];
+            for (int index = 0; index < groups.length; ++index) {
+                groups[index] = matcher.group(index + 1);
             }
         }
-        return result;
+        return new CapturedGroupList(groups);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Returns a new, modifiable list with the values of all capturing groups as determined by {@link #match(String)} or
+     * an empty list if the value does not match the regular expression.
+     */
+    @Override
+    public List<String> convertToValue(final String valueAsString) throws ParameterValueConversionException {
+        final List<String> groups = match(valueAsString);
+        return groups == null ? new LinkedList<>() : new LinkedList<>(groups);
     }
 
     /**
@@ -68,6 +148,15 @@ public abstract class AbstractRegexToStringListParameterValueConverter implement
      * @return the regular expression set for this converter.
      */
     public final String getRegex() {
-        return pattern.pattern();
+        return linearTimeRegex != null ? linearTimeRegex.pattern() : pattern.pattern();
+    }
+
+    /**
+     * Returns the engine used to match the regular expression of this converter.
+     *
+     * @return the regular expression engine of this converter
+     */
+    public final RegexEngine getRegexEngine() {
+        return regexEngine;
     }
 }
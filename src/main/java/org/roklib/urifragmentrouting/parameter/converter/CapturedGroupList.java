@@ -0,0 +1,29 @@
+package org.roklib.urifragmentrouting.parameter.converter;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Unmodifiable list of the values captured by the capturing groups of a regular expression. The list is backed
+ * directly by the array the captured values have been copied into when the regular expression was matched.
+ */
+final class CapturedGroupList extends AbstractList<String> implements RandomAccess, Serializable {
+    private static final long serialVersionUID = 2218440213781539620L;
+
+    private final String[] groups;
+
+    CapturedGroupList(final String... groups) {
+        this.groups = groups;
+    }
+
+    @Override
+    public String get(final int index) {
+        return groups[index];
+    }
+
+    @Override
+    public int size() {
+        return groups.length;
+    }
+}
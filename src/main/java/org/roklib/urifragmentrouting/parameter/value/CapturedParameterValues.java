@@ -5,9 +5,12 @@ import org.roklib.urifragmentrouting.mapper.AbstractUriPathSegmentActionMapper;
 import org.roklib.urifragmentrouting.mapper.UriPathSegmentActionMapper;
 import org.roklib.urifragmentrouting.parameter.UriParameter;
 
+import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * This class manages a set of {@link ParameterValue} objects and offers a number of data access methods which make
@@ -40,10 +43,13 @@ import java.util.Map;
  * In order to read the value for <tt>expand</tt>, the following code is used:
  * <p>
  * <code> ParameterValue&lt;String&gt; value = capturedParameterValues.getValueFor("view", "expand"); </code>
+ * <p>
+ * Objects of this class are serialized in the compact binary form of {@link CapturedParameterValuesCodec}.
  */
-public class CapturedParameterValues {
+public class CapturedParameterValues implements Serializable {
+    private static final long serialVersionUID = -1439920766271339412L;
 
-    private Map<String, Map<String, ParameterValue<?>>> values;
+    private transient Map<String, Map<String, ParameterValue<?>>> values;
 
     /**
      * Constructs a new and empty parameter values object.
@@ -51,6 +57,40 @@ public class CapturedParameterValues {
     public CapturedParameterValues() {
     }
 
+    /**
+     * Creates a modifiable copy of the given parameter values object. The {@link ParameterValue} objects themselves are
+     * immutable and are therefore shared by the copy.
+     *
+     * @param values the parameter values to be copied. Must not be {@code null}.
+     *
+     * @return a new parameter values object containing the same parameter values
+     */
+    public static CapturedParameterValues copyOf(final CapturedParameterValues values) {
+        Preconditions.checkNotNull(values);
+        final CapturedParameterValues result = new CapturedParameterValues();
+        for (final String mapperName : values.getMapperNames()) {
+            for (final String parameterId : values.getParameterIds(mapperName)) {
+                result.setValueFor(mapperName, parameterId, values.getValueFor(mapperName, parameterId));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns an unmodifiable view of the given parameter values object. All methods which change the parameter values,
+     * such as {@link #setValueFor(String, String, ParameterValue)} and {@link #removeValueFor(String, String)}, throw
+     * an {@link UnsupportedOperationException} on the view. Changes of the given parameter values object are visible
+     * through the view.
+     *
+     * @param values the parameter values for which an unmodifiable view is to be returned. Must not be {@code null}.
+     *
+     * @return an unmodifiable view of the given parameter values
+     */
+    public static CapturedParameterValues unmodifiable(final CapturedParameterValues values) {
+        Preconditions.checkNotNull(values);
+        return values instanceof UnmodifiableCapturedParameterValues ? values : new UnmodifiableCapturedParameterValues(values);
+    }
+
     private Map<String, Map<String, ParameterValue<?>>> values() {
         if (values == null) {
             values = new HashMap<>();
@@ -171,6 +211,29 @@ public class CapturedParameterValues {
         return value;
     }
 
+    /**
+     * Returns the names of all action mappers for which this object contains parameter values.
+     *
+     * @return an unmodifiable set of action mapper names
+     */
+    public Set<String> getMapperNames() {
+        return values == null ? Collections.emptySet() : Collections.unmodifiableSet(values.keySet());
+    }
+
+    /**
+     * Returns the IDs of all parameters of the given action mapper for which this object contains parameter values,
+     * including values which carry a conversion error.
+     *
+     * @param mapperName name of an action mapper
+     *
+     * @return an unmodifiable set of parameter IDs, empty if there is no parameter value for this action mapper
+     */
+    public Set<String> getParameterIds(final String mapperName) {
+        Preconditions.checkNotNull(mapperName);
+        final Map<String, ParameterValue<?>> parameterValues = values == null ? null : values.get(mapperName);
+        return parameterValues == null ? Collections.emptySet() : Collections.unmodifiableSet(parameterValues.keySet());
+    }
+
     /**
      * Check if there is a parameter value available for the specified action mapper and parameter.
      *
@@ -192,10 +255,103 @@ public class CapturedParameterValues {
         return parameterValue != null && parameterValue.hasValue();
     }
 
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        final byte[] bytes;
+        try {
+            bytes = CapturedParameterValuesCodec.encode(this);
+        } catch (IllegalArgumentException e) {
+            throw new NotSerializableException(e.getMessage());
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        try {
+            CapturedParameterValuesCodec.readInto(ByteBuffer.wrap(bytes), this);
+        } catch (RuntimeException e) {
+            final InvalidObjectException exception = new InvalidObjectException("Malformed captured parameter values");
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
     @Override
     public String toString() {
         return "CapturedParameterValues{" +
                 "values=" + values +
                 '}';
     }
+
+    /**
+     * Read-only view of a parameter values object as returned by {@link #unmodifiable(CapturedParameterValues)}. The
+     * view is serialized as a modifiable copy of the viewed parameter values.
+     */
+    private static final class UnmodifiableCapturedParameterValues extends CapturedParameterValues {
+        private static final long serialVersionUID = 4620817436018352315L;
+
+        private final transient CapturedParameterValues delegate;
+
+        private UnmodifiableCapturedParameterValues(final CapturedParameterValues delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public <V> ParameterValue<V> getValueFor(final String mapperName, final String parameterId) {
+            return delegate.getValueFor(mapperName, parameterId);
+        }
+
+        @Override
+        public <V> void setValueFor(final String mapperName, final String parameterId, final ParameterValue<?> value) {
+            throw new UnsupportedOperationException("Captured parameter values are read-only");
+        }
+
+        @Override
+        public <V> void setValueFor(final String mapperName, final UriParameter<V> parameter, final ParameterValue<?> value) {
+            throw new UnsupportedOperationException("Captured parameter values are read-only");
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return delegate.isEmpty();
+        }
+
+        @Override
+        public Map<String, String> asQueryParameterMap() {
+            return delegate.asQueryParameterMap();
+        }
+
+        @Override
+        public <V> ParameterValue<V> removeValueFor(final String mapperName, final String parameterId) {
+            throw new UnsupportedOperationException("Captured parameter values are read-only");
+        }
+
+        @Override
+        public Set<String> getMapperNames() {
+            return delegate.getMapperNames();
+        }
+
+        @Override
+        public Set<String> getParameterIds(final String mapperName) {
+            return delegate.getParameterIds(mapperName);
+        }
+
+        @Override
+        public boolean hasValueFor(final String mapperName, final String parameterId) {
+            return delegate.hasValueFor(mapperName, parameterId);
+        }
+
+        private Object writeReplace() {
+            return copyOf(delegate);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
 }
@@ -0,0 +1,490 @@
+package org.roklib.urifragmentrouting.parameter.value;
+
+import org.roklib.urifragmentrouting.helper.Preconditions;
+import org.roklib.urifragmentrouting.parameter.UriParameterError;
+
+import java.awt.geom.Point2D;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Compact binary codec for {@link CapturedParameterValues} and {@link ParameterValue}s. The codec is used for the Java
+ * serialization of these classes, and it can be used directly to write captured parameter values into a {@link
+ * ByteBuffer} and read them back, for example for storing a navigation history off-heap.
+ * <p>
+ * <h1>Encoding</h1> The encoded form of a {@link CapturedParameterValues} object starts with a format version byte
+ * followed by a table of all distinct mapper names and parameter IDs. Every String of this table is written only once.
+ * The parameter values are then written grouped by action mapper, and the action mappers and parameters are referred to
+ * by their index into the String table. All counts, lengths and indexes are written as variable-length integers, so a
+ * typical set of captured values needs one byte for each of them.
+ * <p>
+ * Each parameter value starts with a tag byte which contains the value's type and a flag for default values. Values of
+ * the types produced by the URI parameters of this library have a typed encoding: {@link Integer}s and {@link Long}s
+ * are written as zig-zag encoded variable-length integers, {@link Double}s and {@link Float}s with their IEEE 754 bits,
+ * {@link Boolean}s in the tag byte, {@link LocalDate}s as epoch day, {@link Date}s as epoch milliseconds, {@link
+ * Point2D.Double}s as two IEEE 754 doubles, and Strings, String lists and {@link UriPathTail}s as UTF-8. A {@link
+ * UriParameterError} is written as one byte. Values of other types are written with Java serialization. Since encoded
+ * data may come from an untrusted source, only {@link Serializable} classes of the packages <tt>java.lang</tt>,
+ * <tt>java.math</tt>, <tt>java.time</tt> and <tt>java.util</tt> (without their sub-packages) and the {@link Point2D}
+ * classes are accepted for this, both when encoding and when decoding. Any other class contained in the serialized
+ * form of a value is rejected before it is loaded.
+ * <p>
+ * All counts and lengths read from the encoded data are checked against the number of remaining bytes before any
+ * memory is allocated for them, so that malformed data cannot cause excessive allocations.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class CapturedParameterValuesCodec {
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final int DEFAULT_VALUE_FLAG = 0x80;
+    private static final int TYPE_MASK = 0x7F;
+
+    private static final int ERROR = 0;
+    private static final int STRING = 1;
+    private static final int INTEGER = 2;
+    private static final int LONG = 3;
+    private static final int DOUBLE = 4;
+    private static final int FLOAT = 5;
+    private static final int BOOLEAN_FALSE = 6;
+    private static final int BOOLEAN_TRUE = 7;
+    private static final int LOCAL_DATE = 8;
+    private static final int DATE = 9;
+    private static final int PATH_TAIL = 10;
+    private static final int STRING_LIST = 11;
+    private static final int SERIALIZED = 12;
+    private static final int POINT_2D = 13;
+
+    private static final Set<String> ALLOWED_SERIALIZED_PACKAGES = new HashSet<>(Arrays.asList(
+            "java.lang", "java.math", "java.time", "java.util"));
+    private static final Set<String> ALLOWED_SERIALIZED_CLASSES = new HashSet<>(Arrays.asList(
+            Point2D.class.getName(), Point2D.Double.class.getName(), Point2D.Float.class.getName()));
+
+    private static final UriParameterError[] ERRORS = UriParameterError.values();
+
+    private CapturedParameterValuesCodec() {
+    }
+
+    /**
+     * Encodes the given captured parameter values into a new byte array.
+     *
+     * @param values the captured parameter values. Must not be {@code null}.
+     *
+     * @return the encoded parameter values
+     * @throws IllegalArgumentException if one of the parameter values has a type without typed encoding which is not
+     *                                  {@link Serializable} or which is not accepted for Java serialization
+     */
+    public static byte[] encode(final CapturedParameterValues values) {
+        Preconditions.checkNotNull(values);
+        final Encoder encoder = new Encoder();
+        encoder.writeValues(values);
+        return encoder.toByteArray();
+    }
+
+    /**
+     * Writes the encoded form of the given captured parameter values into the given buffer, starting at the buffer's
+     * current position. The position is advanced by the number of bytes written.
+     *
+     * @param values the captured parameter values. Must not be {@code null}.
+     * @param target the target buffer. Must not be {@code null}.
+     *
+     * @return the number of bytes written
+     * @throws java.nio.BufferOverflowException if the buffer has not enough space remaining
+     * @throws IllegalArgumentException         if one of the parameter values has a type without typed encoding which
+     *                                          is not {@link Serializable} or which is not accepted for Java
+     *                                          serialization
+     */
+    public static int write(final CapturedParameterValues values, final ByteBuffer target) {
+        Preconditions.checkNotNull(target);
+        final byte[] bytes = encode(values);
+        target.put(bytes);
+        return bytes.length;
+    }
+
+    /**
+     * Decodes captured parameter values from the given byte array.
+     *
+     * @param bytes the encoded parameter values as created by {@link #encode(CapturedParameterValues)}. Must not be
+     *              {@code null}.
+     *
+     * @return the decoded parameter values
+     * @throws IllegalArgumentException if the data is malformed or if a serialized value contains a class which is not
+     *                                  accepted
+     */
+    public static CapturedParameterValues decode(final byte[] bytes) {
+        Preconditions.checkNotNull(bytes);
+        return read(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Reads captured parameter values from the given buffer, starting at the buffer's current position. The position is
+     * advanced to the end of the encoded parameter values.
+     *
+     * @param source the source buffer. Must not be {@code null}.
+     *
+     * @return the decoded parameter values
+     * @throws IllegalArgumentException          if the data is malformed, if it declares more elements than the buffer
+     *                                           contains or if a serialized value contains a class which is not
+     *                                           accepted
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the encoded parameter values
+     */
+    public static CapturedParameterValues read(final ByteBuffer source) {
+        Preconditions.checkNotNull(source);
+        final CapturedParameterValues result = new CapturedParameterValues();
+        readInto(source, result);
+        return result;
+    }
+
+    static void readInto(final ByteBuffer source, final CapturedParameterValues target) {
+        final byte version = source.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported format version " + version);
+        }
+        final String[] strings = new String[readLength(source)];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(source);
+        }
+        final int mapperCount = readCount(source);
+        for (int i = 0; i < mapperCount; i++) {
+            final String mapperName = readStringReference(source, strings);
+            final int parameterCount = readCount(source);
+            for (int j = 0; j < parameterCount; j++) {
+                final String parameterId = readStringReference(source, strings);
+                target.setValueFor(mapperName, parameterId, readParameterValue(source));
+            }
+        }
+    }
+
+    static byte[] encodeParameterValue(final ParameterValue<?> value) {
+        final Encoder encoder = new Encoder();
+        encoder.writeParameterValue(value);
+        return encoder.toByteArray();
+    }
+
+    static ParameterValue<?> decodeParameterValue(final byte[] bytes) {
+        return readParameterValue(ByteBuffer.wrap(bytes));
+    }
+
+    private static ParameterValue<?> readParameterValue(final ByteBuffer source) {
+        final int tag = source.get() & 0xFF;
+        final int type = tag & TYPE_MASK;
+        if (type == ERROR) {
+            final int error = source.get();
+            if (error <= 0 || error >= ERRORS.length) {
+                throw new IllegalArgumentException("Invalid parameter error " + error);
+            }
+            return ParameterValue.forError(ERRORS[error]);
+        }
+        final Object value = readValue(type, source);
+        return (tag & DEFAULT_VALUE_FLAG) != 0 ? ParameterValue.forDefaultValue(value) : ParameterValue.forValue(value);
+    }
+
+    private static Object readValue(final int type, final ByteBuffer source) {
+        switch (type) {
+            case STRING:
+                return readString(source);
+            case INTEGER:
+                return (int) readSignedVarLong(source);
+            case LONG:
+                return readSignedVarLong(source);
+            case DOUBLE:
+                return Double.longBitsToDouble(readFixed(source, 8));
+            case FLOAT:
+                return Float.intBitsToFloat((int) readFixed(source, 4));
+            case BOOLEAN_FALSE:
+                return Boolean.FALSE;
+            case BOOLEAN_TRUE:
+                return Boolean.TRUE;
+            case LOCAL_DATE:
+                return LocalDate.ofEpochDay(readSignedVarLong(source));
+            case DATE:
+                return new Date(readSignedVarLong(source));
+            case POINT_2D:
+                return new Point2D.Double(Double.longBitsToDouble(readFixed(source, 8)), Double.longBitsToDouble(readFixed(source, 8)));
+            case PATH_TAIL:
+            case STRING_LIST:
+                final String[] segments = new String[readLength(source)];
+                for (int i = 0; i < segments.length; i++) {
+                    segments[i] = readString(source);
+                }
+                return type == PATH_TAIL ? UriPathTail.of(segments) : new ArrayList<>(Arrays.asList(segments));
+            case SERIALIZED:
+                final byte[] bytes = new byte[readLength(source)];
+                source.get(bytes);
+                try (ObjectInputStream in = new RestrictedObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return in.readObject();
+                } catch (IOException | ClassNotFoundException e) {
+                    throw new IllegalArgumentException("Could not deserialize parameter value", e);
+                }
+            default:
+                throw new IllegalArgumentException("Unknown parameter value type " + type);
+        }
+    }
+
+    private static String readStringReference(final ByteBuffer source, final String[] strings) {
+        final int index = readCount(source);
+        if (index >= strings.length) {
+            throw new IllegalArgumentException("Invalid string reference " + index);
+        }
+        return strings[index];
+    }
+
+    private static String readString(final ByteBuffer source) {
+        final int length = readLength(source);
+        if (source.hasArray()) {
+            final String result = new String(source.array(), source.arrayOffset() + source.position(), length, StandardCharsets.UTF_8);
+            source.position(source.position() + length);
+            return result;
+        }
+        final byte[] bytes = new byte[length];
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readCount(final ByteBuffer source) {
+        final long count = readVarLong(source);
+        if (count < 0 || count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid count " + count);
+        }
+        return (int) count;
+    }
+
+    /**
+     * Reads a count of elements which are stored in the following bytes of the source buffer. Since every element
+     * takes at least one byte, the count must not exceed the number of remaining bytes.
+     */
+    private static int readLength(final ByteBuffer source) {
+        final int length = readCount(source);
+        if (length > source.remaining()) {
+            throw new IllegalArgumentException("Length " + length + " exceeds the " + source.remaining() + " remaining bytes");
+        }
+        return length;
+    }
+
+    /**
+     * Returns {@code true} if the class with the given name may be contained in the Java serialized form of a
+     * parameter value. Array classes are accepted if their component type is accepted.
+     */
+    private static boolean isAllowedSerializedClass(final String className) {
+        String componentName = className;
+        while (componentName.startsWith("[")) {
+            componentName = componentName.substring(1);
+        }
+        if (componentName.length() == 1) {
+            return true;
+        }
+        if (componentName.startsWith("L") && componentName.endsWith(";")) {
+            componentName = componentName.substring(1, componentName.length() - 1);
+        }
+        if (ALLOWED_SERIALIZED_CLASSES.contains(componentName)) {
+            return true;
+        }
+        final int packageEnd = componentName.lastIndexOf('.');
+        return packageEnd > 0 && ALLOWED_SERIALIZED_PACKAGES.contains(componentName.substring(0, packageEnd));
+    }
+
+    private static long readFixed(final ByteBuffer source, final int byteCount) {
+        long result = 0;
+        for (int i = 0; i < byteCount; i++) {
+            result = (result << 8) | (source.get() & 0xFF);
+        }
+        return result;
+    }
+
+    private static long readSignedVarLong(final ByteBuffer source) {
+        final long value = readVarLong(source);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarLong(final ByteBuffer source) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = source.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable-length integer");
+    }
+
+    /**
+     * Object input stream which only resolves the classes accepted by {@link #isAllowedSerializedClass(String)}. Any
+     * other class, including all dynamic proxy classes, is rejected before it is loaded.
+     */
+    private static final class RestrictedObjectInputStream extends ObjectInputStream {
+        private RestrictedObjectInputStream(final InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!isAllowedSerializedClass(desc.getName())) {
+                throw new InvalidClassException(desc.getName(), "Class is not accepted for parameter values");
+            }
+            return super.resolveClass(desc);
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(final String[] interfaces) throws IOException {
+            throw new InvalidClassException("Proxy classes are not accepted for parameter values");
+        }
+    }
+
+    /**
+     * Growable byte array into which the encoded form is written.
+     */
+    private static final class Encoder {
+        private byte[] buffer = new byte[64];
+        private int size;
+
+        void writeValues(final CapturedParameterValues values) {
+            writeByte(FORMAT_VERSION);
+            final Map<String, Integer> stringIndexes = new LinkedHashMap<>();
+            for (final String mapperName : values.getMapperNames()) {
+                stringIndexes.putIfAbsent(mapperName, stringIndexes.size());
+                for (final String parameterId : values.getParameterIds(mapperName)) {
+                    stringIndexes.putIfAbsent(parameterId, stringIndexes.size());
+                }
+            }
+            writeVarLong(stringIndexes.size());
+            stringIndexes.keySet().forEach(this::writeString);
+            writeVarLong(values.getMapperNames().size());
+            for (final String mapperName : values.getMapperNames()) {
+                final Set<String> parameterIds = values.getParameterIds(mapperName);
+                writeVarLong(stringIndexes.get(mapperName));
+                writeVarLong(parameterIds.size());
+                for (final String parameterId : parameterIds) {
+                    writeVarLong(stringIndexes.get(parameterId));
+                    writeParameterValue(values.getValueFor(mapperName, parameterId));
+                }
+            }
+        }
+
+        void writeParameterValue(final ParameterValue<?> parameterValue) {
+            if (parameterValue.hasError()) {
+                writeByte(ERROR);
+                writeByte(parameterValue.getError().ordinal());
+                return;
+            }
+            final int flag = parameterValue.isDefaultValue() ? DEFAULT_VALUE_FLAG : 0;
+            final Object value = parameterValue.getValue();
+            if (value instanceof String) {
+                writeByte(STRING | flag);
+                writeString((String) value);
+            } else if (value instanceof Integer) {
+                writeByte(INTEGER | flag);
+                writeSignedVarLong((Integer) value);
+            } else if (value instanceof Long) {
+                writeByte(LONG | flag);
+                writeSignedVarLong((Long) value);
+            } else if (value instanceof Double) {
+                writeByte(DOUBLE | flag);
+                writeLong(Double.doubleToRawLongBits((Double) value), 8);
+            } else if (value instanceof Float) {
+                writeByte(FLOAT | flag);
+                writeLong(Float.floatToRawIntBits((Float) value), 4);
+            } else if (value instanceof Boolean) {
+                writeByte(((Boolean) value ? BOOLEAN_TRUE : BOOLEAN_FALSE) | flag);
+            } else if (value instanceof LocalDate) {
+                writeByte(LOCAL_DATE | flag);
+                writeSignedVarLong(((LocalDate) value).toEpochDay());
+            } else if (value.getClass() == Date.class) {
+                writeByte(DATE | flag);
+                writeSignedVarLong(((Date) value).getTime());
+            } else if (value.getClass() == Point2D.Double.class) {
+                writeByte(POINT_2D | flag);
+                writeLong(Double.doubleToRawLongBits(((Point2D.Double) value).getX()), 8);
+                writeLong(Double.doubleToRawLongBits(((Point2D.Double) value).getY()), 8);
+            } else if (value instanceof UriPathTail) {
+                writeByte(PATH_TAIL | flag);
+                writeStrings(((UriPathTail) value).getSegments());
+            } else if (isStringList(value)) {
+                writeByte(STRING_LIST | flag);
+                writeStrings((List<?>) value);
+            } else if (value instanceof Serializable && isAllowedSerializedClass(value.getClass().getName())) {
+                writeByte(SERIALIZED | flag);
+                writeSerialized(value);
+            } else {
+                throw new IllegalArgumentException("Parameter value of type " + value.getClass().getName()
+                        + " is not serializable or not accepted for serialization");
+            }
+        }
+
+        private static boolean isStringList(final Object value) {
+            if (!(value instanceof List)) {
+                return false;
+            }
+            for (final Object element : (List<?>) value) {
+                if (!(element instanceof String)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void writeStrings(final List<?> strings) {
+            writeVarLong(strings.size());
+            strings.forEach(string -> writeString((String) string));
+        }
+
+        private void writeSerialized(final Object value) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(value);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Could not serialize parameter value of type " + value.getClass().getName(), e);
+            }
+            writeVarLong(bytes.size());
+            writeBytes(bytes.toByteArray());
+        }
+
+        private void writeString(final String string) {
+            final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            writeBytes(bytes);
+        }
+
+        private void writeSignedVarLong(final long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        private void writeLong(final long value, final int byteCount) {
+            for (int shift = (byteCount - 1) * 8; shift >= 0; shift -= 8) {
+                writeByte((int) (value >>> shift));
+            }
+        }
+
+        private void writeBytes(final byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void writeByte(final int b) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) b;
+        }
+
+        private void ensureCapacity(final int additionalBytes) {
+            if (size + additionalBytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additionalBytes));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+}
@@ -4,6 +4,9 @@ import org.roklib.urifragmentrouting.helper.Preconditions;
 import org.roklib.urifragmentrouting.mapper.UriPathSegmentActionMapper;
 import org.roklib.urifragmentrouting.parameter.UriParameterError;
 
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+
 /**
  * This class is a wrapper around a single URI parameter value. It may contain a valid value or, alternatively,
  * information about an error if no value is available. Instances of this class can be created for two purposes. The
@@ -24,10 +27,15 @@ import org.roklib.urifragmentrouting.parameter.UriParameterError;
  * and errors from them, and act accordingly.
  * <p>
  * New instance of {@link ParameterValue} are created with one of the static factory methods of this class.
+ * <p>
+ * Parameter values are serialized in the compact binary form of {@link CapturedParameterValuesCodec}. The contained
+ * value therefore has to be of one of the types supported by this codec or it has to be {@link Serializable}.
  *
  * @param <V> data type of the parameter value
  */
-public class ParameterValue<V> {
+public class ParameterValue<V> implements Serializable {
+    private static final long serialVersionUID = 6033916281926766237L;
+
     private final V value;
     private final UriParameterError error;
     private boolean isDefault;
@@ -147,6 +155,10 @@ public class ParameterValue<V> {
         this.isDefault = true;
     }
 
+    private Object writeReplace() throws ObjectStreamException {
+        return new SerializedParameterValue(this);
+    }
+
     @Override
     public String toString() {
         return "ParameterValue{" +
@@ -0,0 +1,248 @@
+package org.roklib.urifragmentrouting.parameter.value;
+
+import org.roklib.urifragmentrouting.helper.Preconditions;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Immutable snapshot of a {@link CapturedParameterValues} object which shares its unchanged parts with a previous
+ * snapshot. Snapshots are used to keep a history of the parameter values captured for consecutive URI fragments, as
+ * done by {@link org.roklib.urifragmentrouting.NavigationHistory NavigationHistory}. Consecutive URI fragments of a
+ * navigation history typically differ only in a few parameter values, for example in the page number of a paginated
+ * list. Storing each of them as a full copy of the captured parameter values would needlessly duplicate all unchanged
+ * values.
+ * <p>
+ * A snapshot is a two-level structure: an array of the action mapper names sorted by name, and for each action mapper a
+ * node with the sorted IDs and the values of its parameters. When a snapshot is created with {@link
+ * #of(CapturedParameterValues, ParameterValuesSnapshot)} relative to a base snapshot, each mapper node whose parameter
+ * values are all equal to the values of the base snapshot's node for the same action mapper is reused as it is. Within
+ * a changed node, the {@link ParameterValue} objects of unchanged parameters are reused. If nothing has changed at all,
+ * the base snapshot itself is returned. The memory needed for a snapshot therefore grows with the number of changed
+ * parameter values and not with the total number of parameter values. The number of bytes newly allocated for a
+ * snapshot is estimated by {@link #getOwnSizeInBytes()}.
+ * <p>
+ * Two parameter values are considered equal if they have the same error, the same default value flag and equal
+ * values. Parameter values are looked up by binary search.
+ */
+public final class ParameterValuesSnapshot implements Serializable {
+    private static final long serialVersionUID = 3051917370066720925L;
+
+    private static final int OBJECT_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int ARRAY_BYTES = 16;
+    private static final int PARAMETER_VALUE_BYTES = 32;
+
+    /**
+     * The snapshot without any parameter values.
+     */
+    public static final ParameterValuesSnapshot EMPTY = new ParameterValuesSnapshot(new String[0], new MapperNode[0], 0);
+
+    private final String[] mapperNames;
+    private final MapperNode[] mapperNodes;
+    private final long ownSizeInBytes;
+
+    private ParameterValuesSnapshot(final String[] mapperNames, final MapperNode[] mapperNodes, final long ownSizeInBytes) {
+        this.mapperNames = mapperNames;
+        this.mapperNodes = mapperNodes;
+        this.ownSizeInBytes = ownSizeInBytes;
+    }
+
+    /**
+     * Creates a snapshot of the given parameter values without sharing any of them with another snapshot.
+     *
+     * @param values the parameter values. Must not be {@code null}.
+     *
+     * @return the new snapshot
+     */
+    public static ParameterValuesSnapshot of(final CapturedParameterValues values) {
+        return of(values, EMPTY);
+    }
+
+    /**
+     * Creates a snapshot of the given parameter values which shares all unchanged parts with the given base snapshot.
+     *
+     * @param values the parameter values. Must not be {@code null}.
+     * @param base   the snapshot to share unchanged parameter values with. Must not be {@code null}.
+     *
+     * @return the new snapshot, or the base snapshot if the parameter values equal those of the base snapshot
+     */
+    public static ParameterValuesSnapshot of(final CapturedParameterValues values, final ParameterValuesSnapshot base) {
+        Preconditions.checkNotNull(values);
+        Preconditions.checkNotNull(base);
+        final String[] names = values.getMapperNames().stream().sorted().toArray(String[]::new);
+        final MapperNode[] nodes = new MapperNode[names.length];
+        long size = 0;
+        boolean allShared = true;
+        for (int i = 0; i < names.length; i++) {
+            final MapperNode baseNode = base.getMapperNode(names[i]);
+            nodes[i] = MapperNode.of(names[i], values, baseNode);
+            if (nodes[i] != baseNode) {
+                allShared = false;
+                size += nodes[i].sizeInBytes(baseNode);
+            }
+        }
+        final boolean sameNames = Arrays.equals(names, base.mapperNames);
+        if (allShared && sameNames) {
+            return base;
+        }
+        size += OBJECT_BYTES + 2 * REFERENCE_BYTES + Long.BYTES + ARRAY_BYTES + names.length * REFERENCE_BYTES;
+        if (!sameNames) {
+            size += ARRAY_BYTES + names.length * REFERENCE_BYTES;
+        }
+        return new ParameterValuesSnapshot(sameNames ? base.mapperNames : names, nodes, size);
+    }
+
+    private MapperNode getMapperNode(final String mapperName) {
+        final int index = Arrays.binarySearch(mapperNames, mapperName);
+        return index >= 0 ? mapperNodes[index] : null;
+    }
+
+    /**
+     * Returns the parameter value for the given action mapper and parameter.
+     *
+     * @param mapperName  name of an action mapper
+     * @param parameterId ID of a parameter of this action mapper
+     * @param <V>         data type of the parameter value
+     *
+     * @return the parameter value or {@code null} if this snapshot contains no value for this parameter
+     */
+    @SuppressWarnings("unchecked")
+    public <V> ParameterValue<V> getValueFor(final String mapperName, final String parameterId) {
+        Preconditions.checkNotNull(mapperName);
+        Preconditions.checkNotNull(parameterId);
+        final MapperNode node = getMapperNode(mapperName);
+        return node == null ? null : (ParameterValue<V>) node.getValue(parameterId);
+    }
+
+    /**
+     * Returns the names of all action mappers for which this snapshot contains parameter values in their natural order.
+     *
+     * @return an unmodifiable list of action mapper names
+     */
+    public List<String> getMapperNames() {
+        return Collections.unmodifiableList(Arrays.asList(mapperNames));
+    }
+
+    /**
+     * Returns {@code true} if this snapshot does not contain any parameter values.
+     *
+     * @return {@code true} if this snapshot is empty
+     */
+    public boolean isEmpty() {
+        return mapperNames.length == 0;
+    }
+
+    /**
+     * Returns the estimated number of bytes which have been allocated for this snapshot, not counting the parts shared
+     * with the base snapshot it has been created from and not counting the parameter values' contained values.
+     *
+     * @return the estimated size of this snapshot's own parts in bytes
+     */
+    public long getOwnSizeInBytes() {
+        return ownSizeInBytes;
+    }
+
+    /**
+     * Copies the parameter values of this snapshot into a new {@link CapturedParameterValues} object.
+     *
+     * @return a new, mutable {@link CapturedParameterValues} object with the parameter values of this snapshot
+     */
+    public CapturedParameterValues toCapturedParameterValues() {
+        final CapturedParameterValues result = new CapturedParameterValues();
+        for (int i = 0; i < mapperNames.length; i++) {
+            final MapperNode node = mapperNodes[i];
+            for (int j = 0; j < node.parameterIds.length; j++) {
+                result.setValueFor(mapperNames[i], node.parameterIds[j], node.values[j]);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final StringJoiner joiner = new StringJoiner(", ", "ParameterValuesSnapshot{", "}");
+        for (int i = 0; i < mapperNames.length; i++) {
+            joiner.add(mapperNames[i] + "=" + mapperNodes[i]);
+        }
+        return joiner.toString();
+    }
+
+    private Object readResolve() {
+        return mapperNames.length == 0 ? EMPTY : this;
+    }
+
+    private static boolean isEqual(final ParameterValue<?> first, final ParameterValue<?> second) {
+        if (first == second) {
+            return true;
+        }
+        if (first == null || second == null) {
+            return false;
+        }
+        return first.getError() == second.getError()
+                && first.isDefaultValue() == second.isDefaultValue()
+                && (first.hasError() || Objects.equals(first.getValue(), second.getValue()));
+    }
+
+    /**
+     * The parameter values of one action mapper.
+     */
+    private static final class MapperNode implements Serializable {
+        private static final long serialVersionUID = -5316786373414532209L;
+
+        private final String[] parameterIds;
+        private final ParameterValue<?>[] values;
+
+        private MapperNode(final String[] parameterIds, final ParameterValue<?>[] values) {
+            this.parameterIds = parameterIds;
+            this.values = values;
+        }
+
+        static MapperNode of(final String mapperName, final CapturedParameterValues source, final MapperNode base) {
+            final String[] ids = source.getParameterIds(mapperName).stream().sorted().toArray(String[]::new);
+            final ParameterValue<?>[] values = new ParameterValue<?>[ids.length];
+            boolean unchanged = base != null && Arrays.equals(ids, base.parameterIds);
+            for (int i = 0; i < ids.length; i++) {
+                final ParameterValue<?> value = source.getValueFor(mapperName, ids[i]);
+                final ParameterValue<?> baseValue = base == null ? null : base.getValue(ids[i]);
+                if (isEqual(value, baseValue)) {
+                    values[i] = baseValue;
+                } else {
+                    values[i] = value;
+                    unchanged = false;
+                }
+            }
+            if (unchanged) {
+                return base;
+            }
+            return new MapperNode(base != null && Arrays.equals(ids, base.parameterIds) ? base.parameterIds : ids, values);
+        }
+
+        ParameterValue<?> getValue(final String parameterId) {
+            final int index = Arrays.binarySearch(parameterIds, parameterId);
+            return index >= 0 ? values[index] : null;
+        }
+
+        long sizeInBytes(final MapperNode base) {
+            long size = OBJECT_BYTES + 2 * REFERENCE_BYTES + ARRAY_BYTES + values.length * REFERENCE_BYTES;
+            if (base == null || parameterIds != base.parameterIds) {
+                size += ARRAY_BYTES + parameterIds.length * REFERENCE_BYTES;
+            }
+            for (int i = 0; i < values.length; i++) {
+                if (base == null || values[i] != base.getValue(parameterIds[i])) {
+                    size += PARAMETER_VALUE_BYTES;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public String toString() {
+            final StringJoiner joiner = new StringJoiner(", ", "{", "}");
+            for (int i = 0; i < parameterIds.length; i++) {
+                joiner.add(parameterIds[i] + "=" + values[i]);
+            }
+            return joiner.toString();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.roklib.urifragmentrouting.parameter.value;
+
+import java.io.*;
+
+/**
+ * Serialized form of a {@link ParameterValue}. The parameter value is written in the binary form of {@link
+ * CapturedParameterValuesCodec}.
+ */
+final class SerializedParameterValue implements Externalizable {
+    private static final long serialVersionUID = -3862452118419780214L;
+
+    private ParameterValue<?> value;
+
+    /**
+     * Constructor required for deserialization.
+     */
+    public SerializedParameterValue() {
+    }
+
+    SerializedParameterValue(final ParameterValue<?> value) {
+        this.value = value;
+    }
+
+    @Override
+    public void writeExternal(final ObjectOutput out) throws IOException {
+        final byte[] bytes;
+        try {
+            bytes = CapturedParameterValuesCodec.encodeParameterValue(value);
+        } catch (IllegalArgumentException e) {
+            throw new NotSerializableException(e.getMessage());
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Override
+    public void readExternal(final ObjectInput in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        try {
+            value = CapturedParameterValuesCodec.decodeParameterValue(bytes);
+        } catch (RuntimeException e) {
+            final InvalidObjectException exception = new InvalidObjectException("Malformed parameter value");
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    private Object readResolve() {
+        return value;
+    }
+}
@@ -0,0 +1,189 @@
+package org.roklib.urifragmentrouting.parameter.value;
+
+import org.roklib.urifragmentrouting.helper.Preconditions;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The remaining path of a URI fragment as captured by a {@link org.roklib.urifragmentrouting.mapper.TailUriPathSegmentActionMapper
+ * TailUriPathSegmentActionMapper}. For the URI fragment {@code /files/documents/2017/report.txt} and a tail mapper
+ * below the path segment {@code files}, the captured path tail consists of the three path segments {@code documents},
+ * {@code 2017}, and {@code report.txt}.
+ * <p>
+ * The path segments are stored exactly once in the array they have been captured into. {@link #getSegments()} is a
+ * read-only view on this array, and the path String returned by {@link #getPath()} is only assembled when it is
+ * requested for the first time. Path segments may contain the separator character {@code /} if it was encoded in the
+ * original URI fragment, so the individual segments obtained from {@link #getSegments()} are the authoritative
+ * representation of a path tail.
+ * <p>
+ * Objects of this class are immutable.
+ */
+public final class UriPathTail implements Serializable {
+    private static final long serialVersionUID = -3185006423954580155L;
+
+    private final String[] segments;
+    private transient String path;
+
+    private UriPathTail(final String[] segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Creates a path tail from the given path segments.
+     *
+     * @param segments the path segments of the path tail. Must not be {@code null} or contain {@code null} elements.
+     *
+     * @return a new path tail
+     */
+    public static UriPathTail of(final String... segments) {
+        Preconditions.checkNotNull(segments);
+        final String[] copy = segments.clone();
+        for (final String segment : copy) {
+            Preconditions.checkNotNull(segment);
+        }
+        return new UriPathTail(copy);
+    }
+
+    /**
+     * Creates a path tail from the given path segments.
+     *
+     * @param segments the path segments of the path tail. Must not be {@code null} or contain {@code null} elements.
+     *
+     * @return a new path tail
+     */
+    public static UriPathTail of(final List<String> segments) {
+        Preconditions.checkNotNull(segments);
+        return of(segments.toArray(new String[segments.size()]));
+    }
+
+    /**
+     * Creates a path tail from the given path by splitting it along the separator character {@code /}. Leading and
+     * trailing separators are ignored.
+     *
+     * @param path a path such as {@code documents/2017/report.txt}. Must not be {@code null}.
+     *
+     * @return a new path tail
+     */
+    public static UriPathTail parse(final String path) {
+        Preconditions.checkNotNull(path);
+        int start = 0;
+        int end = path.length();
+        while (start < end && path.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return start == end ? new UriPathTail(new String[0]) : new UriPathTail(path.substring(start, end).split("/", -1));
+    }
+
+    /**
+     * Captures the current URI token and all URI tokens remaining in the given list as a path tail. The list is not
+     * modified.
+     *
+     * @param currentUriToken    the URI token currently being interpreted which becomes the first path segment
+     * @param remainingUriTokens the URI tokens which have not been interpreted yet
+     *
+     * @return a new path tail
+     */
+    public static UriPathTail capture(final String currentUriToken, final List<String> remainingUriTokens) {
+        final String[] segments = new String[remainingUriTokens.size() + 1];
+        segments[0] = currentUriToken;
+        int index = 1;
+        for (final String token : remainingUriTokens) {
+            segments[index++] = token;
+        }
+        return new UriPathTail(segments);
+    }
+
+    /**
+     * Returns the number of path segments of this path tail.
+     *
+     * @return the number of path segments
+     */
+    public int size() {
+        return segments.length;
+    }
+
+    /**
+     * Returns {@code true} if this path tail has no path segments.
+     *
+     * @return {@code true} if this path tail is empty
+     */
+    public boolean isEmpty() {
+        return segments.length == 0;
+    }
+
+    /**
+     * Returns the path segment with the given index.
+     *
+     * @param index index of the path segment
+     *
+     * @return the path segment with the given index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public String getSegment(final int index) {
+        return segments[index];
+    }
+
+    /**
+     * Returns a read-only list view on the path segments of this path tail.
+     *
+     * @return the path segments of this path tail
+     */
+    public List<String> getSegments() {
+        return new SegmentList();
+    }
+
+    /**
+     * Returns the path segments of this path tail joined by the separator character {@code /}, such as {@code
+     * documents/2017/report.txt}.
+     *
+     * @return the path of this path tail
+     */
+    public String getPath() {
+        String result = path;
+        if (result == null) {
+            result = String.join("/", segments);
+            path = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(segments, ((UriPathTail) o).segments);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(segments);
+    }
+
+    @Override
+    public String toString() {
+        return getPath();
+    }
+
+    private final class SegmentList extends AbstractList<String> implements RandomAccess {
+        @Override
+        public String get(final int index) {
+            return segments[index];
+        }
+
+        @Override
+        public int size() {
+            return segments.length;
+        }
+    }
+}
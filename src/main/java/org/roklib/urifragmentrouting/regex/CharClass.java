@@ -0,0 +1,139 @@
+package org.roklib.urifragmentrouting.regex;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of characters used by {@link LinearTimeRegex} for character classes and the predefined classes like
+ * {@code \d} or {@code .}. ASCII characters are looked up in a bit set, all other characters by a binary search over a
+ * sorted array of disjoint character ranges.
+ */
+final class CharClass {
+    static final CharClass DIGIT = new Builder().addRange('0', '9').build();
+    static final CharClass WORD = new Builder().addRange('a', 'z').addRange('A', 'Z').addRange('0', '9').add('_').build();
+    static final CharClass SPACE = new Builder().add(' ').add('\t').add('\n').add('\u000B').add('\f').add('\r').build();
+    /**
+     * Matches any character except for the line terminators, like the {@code .} of {@link java.util.regex.Pattern}
+     * without the {@code DOTALL} flag.
+     */
+    static final CharClass DOT = new Builder().add('\n').add('\r').add('\u0085').add('\u2028').add('\u2029').build().negate();
+
+    private final long lowBits;
+    private final long highBits;
+    /**
+     * Sorted, disjoint and non-adjacent ranges with alternating inclusive lower and upper bounds.
+     */
+    private final char[] ranges;
+
+    private CharClass(final char[] ranges) {
+        this.ranges = ranges;
+        long low = 0;
+        long high = 0;
+        for (int index = 0; index < ranges.length; index += 2) {
+            for (int c = ranges[index]; c <= ranges[index + 1] && c < 128; c++) {
+                if (c < 64) {
+                    low |= 1L << c;
+                } else {
+                    high |= 1L << (c - 64);
+                }
+            }
+        }
+        lowBits = low;
+        highBits = high;
+    }
+
+    boolean matches(final char c) {
+        if (c < 64) {
+            return (lowBits & (1L << c)) != 0;
+        }
+        if (c < 128) {
+            return (highBits & (1L << (c - 64))) != 0;
+        }
+        int low = 0;
+        int high = ranges.length / 2 - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (c < ranges[2 * middle]) {
+                high = middle - 1;
+            } else if (c > ranges[2 * middle + 1]) {
+                low = middle + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    CharClass negate() {
+        final Builder builder = new Builder();
+        int next = Character.MIN_VALUE;
+        for (int index = 0; index < ranges.length; index += 2) {
+            if (ranges[index] > next) {
+                builder.addRange((char) next, (char) (ranges[index] - 1));
+            }
+            next = ranges[index + 1] + 1;
+        }
+        if (next <= Character.MAX_VALUE) {
+            builder.addRange((char) next, Character.MAX_VALUE);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder("[");
+        for (int index = 0; index < ranges.length; index += 2) {
+            result.append(String.format("\\u%04x-\\u%04x", (int) ranges[index], (int) ranges[index + 1]));
+        }
+        return result.append(']').toString();
+    }
+
+    static final class Builder {
+        private char[] ranges = new char[8];
+        private int size;
+
+        Builder add(final char c) {
+            return addRange(c, c);
+        }
+
+        Builder addRange(final char from, final char to) {
+            if (size == ranges.length) {
+                ranges = Arrays.copyOf(ranges, size * 2);
+            }
+            ranges[size++] = from;
+            ranges[size++] = to;
+            return this;
+        }
+
+        Builder addAll(final CharClass charClass) {
+            for (int index = 0; index < charClass.ranges.length; index += 2) {
+                addRange(charClass.ranges[index], charClass.ranges[index + 1]);
+            }
+            return this;
+        }
+
+        CharClass build() {
+            final int count = size / 2;
+            final long[] sortable = new long[count];
+            for (int index = 0; index < count; index++) {
+                sortable[index] = ((long) ranges[2 * index] << 16) | ranges[2 * index + 1];
+            }
+            Arrays.sort(sortable);
+
+            final char[] merged = new char[size];
+            int mergedSize = 0;
+            for (final long range : sortable) {
+                final char from = (char) (range >>> 16);
+                final char to = (char) range;
+                if (mergedSize > 0 && from <= merged[mergedSize - 1] + 1) {
+                    if (to > merged[mergedSize - 1]) {
+                        merged[mergedSize - 1] = to;
+                    }
+                } else {
+                    merged[mergedSize++] = from;
+                    merged[mergedSize++] = to;
+                }
+            }
+            return new CharClass(Arrays.copyOf(merged, mergedSize));
+        }
+    }
+}
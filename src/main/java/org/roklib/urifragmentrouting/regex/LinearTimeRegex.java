@@ -0,0 +1,273 @@
+package org.roklib.urifragmentrouting.regex;
+
+import org.roklib.urifragmentrouting.helper.Preconditions;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import static org.roklib.urifragmentrouting.regex.RegexCompiler.*;
+
+/**
+ * A regular expression which is matched in time linear to the length of the input. In contrast to {@link
+ * java.util.regex.Pattern}, this class does not use backtracking. Instead, the regular expression is compiled into a
+ * non-deterministic finite automaton which is simulated on all possible paths in parallel (a so-called Pike VM or
+ * tagged NFA). Each character of the input is examined exactly once, and the work per character is bounded by the size
+ * of the compiled expression. Hence, regular expressions like {@code (a+)+b} which make backtracking engines
+ * go catastrophic on inputs like {@code aaaaaaaaaaaaaaaaaaaaaaaaaaaaaa!} are matched as fast as any other expression.
+ * <p>
+ * Capturing groups are supported with the same semantics as {@link java.util.regex.Pattern}: the threads of the
+ * automaton are kept in priority order so that alternatives and greedy or reluctant quantifiers yield the same group
+ * values as a backtracking engine would. The only exception are quantified groups which can match the empty string,
+ * such as {@code (a|)+}: a backtracking engine may report an additional empty iteration for them.
+ * <p>
+ * Only a subset of the syntax of {@link java.util.regex.Pattern} is supported: literals, escaped characters, the
+ * predefined classes {@code . \d \D \w \W \s \S}, character classes with ranges and negation, capturing and
+ * non-capturing groups, alternation, the greedy and reluctant quantifiers {@code * + ? {n} {n,} {n,m}} and the
+ * anchors {@code ^ $}. Constructs which cannot be matched in linear time, such as back references
+ * and look-around assertions, are rejected when the expression is compiled.
+ * <p>
+ * Like {@link java.util.regex.Matcher#matches()}, this class only matches entire inputs. Matching does not allocate any
+ * memory: the working state of the automaton is allocated once per thread and reused for all subsequent matches of the
+ * same expression. Instances of this class are immutable and thread-safe.
+ */
+public final class LinearTimeRegex implements Serializable {
+    private static final long serialVersionUID = -1418329407011519371L;
+
+    private final String regex;
+    private final transient int groupCount;
+    private final transient int[] opcodes;
+    private final transient int[] arguments;
+    private final transient int[] secondArguments;
+    private final transient CharClass[] charClasses;
+    private final transient ThreadLocal<MatchState> matchState;
+
+    private LinearTimeRegex(final String regex) {
+        final RegexCompiler compiler = RegexCompiler.compile(regex);
+        this.regex = regex;
+        groupCount = compiler.getGroupCount();
+        opcodes = compiler.getOpcodes();
+        arguments = compiler.getArguments();
+        secondArguments = compiler.getSecondArguments();
+        charClasses = compiler.getCharClasses();
+        matchState = ThreadLocal.withInitial(MatchState::new);
+    }
+
+    /**
+     * Compiles the given regular expression.
+     *
+     * @param regex the regular expression to compile. Must not be {@code null}.
+     *
+     * @return the compiled regular expression
+     * @throws java.util.regex.PatternSyntaxException if the expression is invalid, uses a construct not supported by
+     *                                                this engine, or is too large
+     */
+    public static LinearTimeRegex compile(final String regex) {
+        Preconditions.checkNotNull(regex);
+        return new LinearTimeRegex(regex);
+    }
+
+    /**
+     * Returns the regular expression from which this object was compiled.
+     *
+     * @return the source regular expression
+     */
+    public String pattern() {
+        return regex;
+    }
+
+    /**
+     * Returns the number of capturing groups of this regular expression.
+     *
+     * @return the number of capturing groups
+     */
+    public int groupCount() {
+        return groupCount;
+    }
+
+    /**
+     * Tests if the entire input matches this regular expression.
+     *
+     * @param input the input to match. Must not be {@code null}.
+     *
+     * @return {@code true} if the entire input matches
+     */
+    public boolean matches(final CharSequence input) {
+        Preconditions.checkNotNull(input);
+        return matchState.get().run(input, null);
+    }
+
+    /**
+     * Tests if the entire input matches this regular expression and, if so, writes the boundaries of all capturing
+     * groups into the given array. The start index of group {@code i} is written to {@code groupBounds[2 * i]} and its
+     * end index (exclusive) to {@code groupBounds[2 * i + 1]}, where group 0 is the entire match. Both indices are -1 if
+     * the group did not participate in the match. If the input does not match, the array is left untouched.
+     *
+     * @param input       the input to match. Must not be {@code null}.
+     * @param groupBounds array which receives the group boundaries. Must have a length of at least {@code 2 *
+     *                    (groupCount() + 1)}.
+     *
+     * @return {@code true} if the entire input matches
+     * @throws IllegalArgumentException if the array is too small
+     */
+    public boolean matches(final CharSequence input, final int[] groupBounds) {
+        Preconditions.checkNotNull(input);
+        Preconditions.checkNotNull(groupBounds);
+        if (groupBounds.length < 2 * (groupCount + 1)) {
+            throw new IllegalArgumentException("groupBounds must have a length of at least " + 2 * (groupCount + 1));
+        }
+        return matchState.get().run(input, groupBounds);
+    }
+
+    @Override
+    public String toString() {
+        return regex;
+    }
+
+    private Object readResolve() {
+        return compile(regex);
+    }
+
+    /**
+     * Working state of the automaton for one thread. The two thread lists hold the program counters of all
+     * automaton threads waiting at a character matching instruction, in priority order, together with the capture
+     * group boundaries recorded by each thread.
+     */
+    private final class MatchState {
+        private final int slotCount = 2 * (groupCount + 1);
+        private int[] currentThreads = new int[opcodes.length];
+        private int[] nextThreads = new int[opcodes.length];
+        private int[] currentCaptures = new int[opcodes.length * slotCount];
+        private int[] nextCaptures = new int[opcodes.length * slotCount];
+        private final int[] workingCaptures = new int[slotCount];
+        private final int[] visited = new int[opcodes.length];
+        private final int[] stack = new int[2 * opcodes.length + 2];
+        private final int[] stackValues = new int[2 * opcodes.length + 2];
+        private int generation;
+        private int nextThreadCount;
+        private boolean captures;
+
+        private boolean run(final CharSequence input, final int[] groupBounds) {
+            captures = groupBounds != null;
+            final int length = input.length();
+
+            Arrays.fill(workingCaptures, -1);
+            nextThreadCount = 0;
+            newGeneration();
+            addThread(0, 0, length);
+            swapThreadLists();
+            int currentThreadCount = nextThreadCount;
+
+            for (int position = 0; position < length && currentThreadCount > 0; position++) {
+                final char c = input.charAt(position);
+                nextThreadCount = 0;
+                newGeneration();
+                for (int thread = 0; thread < currentThreadCount; thread++) {
+                    final int pc = currentThreads[thread];
+                    final boolean accepted;
+                    switch (opcodes[pc]) {
+                        case CHAR:
+                            accepted = c == arguments[pc];
+                            break;
+                        case CLASS:
+                            accepted = charClasses[arguments[pc]].matches(c);
+                            break;
+                        default:
+                            // a MATCH instruction before the end of the input is no match of the entire input
+                            accepted = false;
+                    }
+                    if (accepted) {
+                        if (captures) {
+                            System.arraycopy(currentCaptures, thread * slotCount, workingCaptures, 0, slotCount);
+                        }
+                        addThread(pc + 1, position + 1, length);
+                    }
+                }
+                swapThreadLists();
+                currentThreadCount = nextThreadCount;
+            }
+
+            for (int thread = 0; thread < currentThreadCount; thread++) {
+                if (opcodes[currentThreads[thread]] == MATCH) {
+                    if (captures) {
+                        System.arraycopy(currentCaptures, thread * slotCount, groupBounds, 0, slotCount);
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Follows all empty transitions starting at the given instruction and adds the reached character matching
+         * and match instructions to the next thread list. The transitions are followed depth-first with an explicit
+         * stack in priority order, so that the thread list stays sorted by priority. An instruction which has already
+         * been reached for the current input position is not added again, since a thread with a higher priority
+         * already occupies it.
+         */
+        private void addThread(final int startPc, final int position, final int length) {
+            int stackSize = 0;
+            stack[stackSize++] = startPc;
+            while (stackSize > 0) {
+                final int pc = stack[--stackSize];
+                if (pc < 0) {
+                    // restore a capture slot which has been overwritten by a SAVE instruction
+                    workingCaptures[-pc - 1] = stackValues[stackSize];
+                    continue;
+                }
+                if (visited[pc] == generation) {
+                    continue;
+                }
+                visited[pc] = generation;
+                switch (opcodes[pc]) {
+                    case JUMP:
+                        stack[stackSize++] = arguments[pc];
+                        break;
+                    case SPLIT:
+                        stack[stackSize++] = secondArguments[pc];
+                        stack[stackSize++] = arguments[pc];
+                        break;
+                    case SAVE:
+                        if (captures) {
+                            final int slot = arguments[pc];
+                            stackValues[stackSize] = workingCaptures[slot];
+                            stack[stackSize++] = -slot - 1;
+                            workingCaptures[slot] = position;
+                        }
+                        stack[stackSize++] = pc + 1;
+                        break;
+                    case LINE_START:
+                        if (position == 0) {
+                            stack[stackSize++] = pc + 1;
+                        }
+                        break;
+                    case LINE_END:
+                        if (position == length) {
+                            stack[stackSize++] = pc + 1;
+                        }
+                        break;
+                    default:
+                        if (captures) {
+                            System.arraycopy(workingCaptures, 0, nextCaptures, nextThreadCount * slotCount, slotCount);
+                        }
+                        nextThreads[nextThreadCount++] = pc;
+                }
+            }
+        }
+
+        private void swapThreadLists() {
+            final int[] threads = currentThreads;
+            currentThreads = nextThreads;
+            nextThreads = threads;
+            final int[] threadCaptures = currentCaptures;
+            currentCaptures = nextCaptures;
+            nextCaptures = threadCaptures;
+        }
+
+        private void newGeneration() {
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(visited, 0);
+                generation = 1;
+            }
+        }
+    }
+}
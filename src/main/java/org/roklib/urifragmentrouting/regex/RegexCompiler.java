@@ -0,0 +1,548 @@
+package org.roklib.urifragmentrouting.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Parses a regular expression into an abstract syntax tree and compiles this tree into the instruction list executed
+ * by {@link LinearTimeRegex}. The instruction set follows the classic Thompson construction: character matching
+ * instructions, a prioritized split, an unconditional jump, capture group boundary markers and the anchors.
+ * <p>
+ * The supported syntax is a subset of {@link java.util.regex.Pattern}: literals, the escapes {@code \t \n \r \f \a
+ * \e \0ooo \xhh \\uhhhh}, escaped meta characters, the predefined classes {@code . \d \D \w \W \s \S}, character
+ * classes with ranges and negation, capturing groups, non-capturing groups {@code (?:...)}, alternation, the greedy
+ * and reluctant quantifiers {@code * + ? {n} {n,} {n,m}} and the anchors {@code ^ $}. Back references, look-around
+ * assertions, possessive quantifiers, embedded flags, named groups, nested classes and class intersections cannot be
+ * implemented in linear time or are not needed for URI path segments; they are rejected with a {@link
+ * PatternSyntaxException}.
+ */
+final class RegexCompiler {
+    static final int CHAR = 0;
+    static final int CLASS = 1;
+    static final int MATCH = 2;
+    static final int JUMP = 3;
+    static final int SPLIT = 4;
+    static final int SAVE = 5;
+    static final int LINE_START = 6;
+    static final int LINE_END = 7;
+
+    static final int MAX_PROGRAM_SIZE = 10_000;
+    private static final int MAX_REPETITION = 1_000;
+
+    private final String regex;
+    private int position;
+    private int groupCount;
+
+    private int[] opcodes = new int[16];
+    private int[] arguments = new int[16];
+    private int[] secondArguments = new int[16];
+    private int programSize;
+    private final List<CharClass> charClasses = new ArrayList<>();
+
+    private RegexCompiler(final String regex) {
+        this.regex = regex;
+    }
+
+    static RegexCompiler compile(final String regex) {
+        final RegexCompiler compiler = new RegexCompiler(regex);
+        final Node root = compiler.parseAlternation();
+        if (compiler.position < regex.length()) {
+            throw compiler.syntaxError("Unmatched closing ')'");
+        }
+        compiler.emit(SAVE, 0, 0);
+        root.emit(compiler);
+        compiler.emit(SAVE, 1, 0);
+        compiler.emit(MATCH, 0, 0);
+        return compiler;
+    }
+
+    int[] getOpcodes() {
+        return Arrays.copyOf(opcodes, programSize);
+    }
+
+    int[] getArguments() {
+        return Arrays.copyOf(arguments, programSize);
+    }
+
+    int[] getSecondArguments() {
+        return Arrays.copyOf(secondArguments, programSize);
+    }
+
+    CharClass[] getCharClasses() {
+        return charClasses.toArray(new CharClass[charClasses.size()]);
+    }
+
+    int getGroupCount() {
+        return groupCount;
+    }
+
+    // parser
+
+    private Node parseAlternation() {
+        final List<Node> alternatives = new ArrayList<>();
+        alternatives.add(parseSequence());
+        while (accept('|')) {
+            alternatives.add(parseSequence());
+        }
+        return alternatives.size() == 1 ? alternatives.get(0) : new Alternation(alternatives);
+    }
+
+    private Node parseSequence() {
+        final List<Node> elements = new ArrayList<>();
+        while (position < regex.length() && peek() != '|' && peek() != ')') {
+            elements.add(parseQuantified(parseAtom()));
+        }
+        return new Sequence(elements);
+    }
+
+    private Node parseAtom() {
+        final int start = position;
+        final char c = regex.charAt(position++);
+        switch (c) {
+            case '(':
+                final int groupIndex;
+                if (accept('?')) {
+                    if (!accept(':')) {
+                        throw unsupported("Group constructs other than (?:...)", start);
+                    }
+                    groupIndex = -1;
+                } else {
+                    groupIndex = ++groupCount;
+                }
+                final Node content = parseAlternation();
+                if (!accept(')')) {
+                    throw syntaxError("Unclosed group");
+                }
+                return new Group(groupIndex, content);
+            case '[':
+                return new CharacterSet(parseCharClass());
+            case '.':
+                return new CharacterSet(CharClass.DOT);
+            case '^':
+                return new Anchor(LINE_START);
+            case '$':
+                return new Anchor(LINE_END);
+            case '\\':
+                final Object escape = parseEscape();
+                return escape instanceof CharClass ? new CharacterSet((CharClass) escape) : new Literal((Character) escape);
+            case '*':
+            case '+':
+            case '?':
+                position = start;
+                throw syntaxError("Dangling meta character '" + c + "'");
+            case '{':
+                position = start;
+                throw syntaxError("Illegal repetition");
+            default:
+                return new Literal(c);
+        }
+    }
+
+    private Node parseQuantified(final Node atom) {
+        if (position >= regex.length()) {
+            return atom;
+        }
+        final int start = position;
+        final int min;
+        final int max;
+        switch (peek()) {
+            case '*':
+                position++;
+                min = 0;
+                max = -1;
+                break;
+            case '+':
+                position++;
+                min = 1;
+                max = -1;
+                break;
+            case '?':
+                position++;
+                min = 0;
+                max = 1;
+                break;
+            case '{':
+                position++;
+                min = parseNumber();
+                if (accept(',')) {
+                    max = position < regex.length() && peek() == '}' ? -1 : parseNumber();
+                } else {
+                    max = min;
+                }
+                if (!accept('}')) {
+                    position = start;
+                    throw syntaxError("Unclosed counted closure");
+                }
+                if (max != -1 && max < min) {
+                    position = start;
+                    throw syntaxError("Illegal repetition range");
+                }
+                if (Math.max(min, max) > MAX_REPETITION) {
+                    position = start;
+                    throw syntaxError("Repetition count exceeds " + MAX_REPETITION);
+                }
+                break;
+            default:
+                return atom;
+        }
+        boolean greedy = true;
+        if (accept('?')) {
+            greedy = false;
+        } else if (position < regex.length() && peek() == '+') {
+            throw unsupported("Possessive quantifiers", position);
+        }
+        return parseQuantified(new Repetition(atom, min, max, greedy));
+    }
+
+    private int parseNumber() {
+        final int start = position;
+        while (position < regex.length() && Character.isDigit(peek()) && position - start < 5) {
+            position++;
+        }
+        if (start == position) {
+            throw syntaxError("Illegal repetition");
+        }
+        return Integer.parseInt(regex.substring(start, position));
+    }
+
+    private CharClass parseCharClass() {
+        final int start = position - 1;
+        final boolean negated = accept('^');
+        final CharClass.Builder builder = new CharClass.Builder();
+        boolean first = true;
+        while (true) {
+            if (position >= regex.length()) {
+                position = start;
+                throw syntaxError("Unclosed character class");
+            }
+            final char c = peek();
+            if (c == ']' && !first) {
+                position++;
+                break;
+            }
+            if (c == '[') {
+                throw unsupported("Nested character classes", position);
+            }
+            if (c == '&' && position + 1 < regex.length() && regex.charAt(position + 1) == '&') {
+                throw unsupported("Character class intersections", position);
+            }
+            first = false;
+
+            final char from;
+            position++;
+            if (c == '\\') {
+                final Object escape = parseEscape();
+                if (escape instanceof CharClass) {
+                    builder.addAll((CharClass) escape);
+                    continue;
+                }
+                from = (Character) escape;
+            } else {
+                from = c;
+            }
+
+            if (position + 1 < regex.length() && peek() == '-' && regex.charAt(position + 1) != ']') {
+                position++;
+                final char to;
+                if (accept('\\')) {
+                    final Object escape = parseEscape();
+                    if (escape instanceof CharClass) {
+                        throw syntaxError("Illegal character range");
+                    }
+                    to = (Character) escape;
+                } else {
+                    to = regex.charAt(position++);
+                }
+                if (to < from) {
+                    throw syntaxError("Illegal character range");
+                }
+                builder.addRange(from, to);
+            } else {
+                builder.add(from);
+            }
+        }
+        final CharClass charClass = builder.build();
+        return negated ? charClass.negate() : charClass;
+    }
+
+    /**
+     * Parses the escape sequence following a backslash.
+     *
+     * @return either a {@link Character} or a {@link CharClass}
+     */
+    private Object parseEscape() {
+        if (position >= regex.length()) {
+            throw syntaxError("Unexpected internal error");
+        }
+        final int start = position - 1;
+        final char c = regex.charAt(position++);
+        switch (c) {
+            case 'd':
+                return CharClass.DIGIT;
+            case 'D':
+                return CharClass.DIGIT.negate();
+            case 'w':
+                return CharClass.WORD;
+            case 'W':
+                return CharClass.WORD.negate();
+            case 's':
+                return CharClass.SPACE;
+            case 'S':
+                return CharClass.SPACE.negate();
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case 'a':
+                return '\u0007';
+            case 'e':
+                return '\u001B';
+            case '0':
+                return parseOctalEscape();
+            case 'x':
+                return parseHexEscape(2);
+            case 'u':
+                return parseHexEscape(4);
+            default:
+                if (Character.isDigit(c)) {
+                    throw unsupported("Back references", start);
+                }
+                if (Character.isLetter(c)) {
+                    throw unsupported("Escape sequence \\" + c, start);
+                }
+                return c;
+        }
+    }
+
+    private char parseOctalEscape() {
+        int value = 0;
+        int digits = 0;
+        while (digits < 3 && position < regex.length() && peek() >= '0' && peek() <= '7' && value * 8 + (peek() - '0') <= 0377) {
+            value = value * 8 + (regex.charAt(position++) - '0');
+            digits++;
+        }
+        if (digits == 0) {
+            throw syntaxError("Illegal octal escape sequence");
+        }
+        return (char) value;
+    }
+
+    private char parseHexEscape(final int length) {
+        if (position + length > regex.length()) {
+            throw syntaxError("Illegal hexadecimal escape sequence");
+        }
+        try {
+            final char value = (char) Integer.parseInt(regex.substring(position, position + length), 16);
+            position += length;
+            return value;
+        } catch (final NumberFormatException e) {
+            throw syntaxError("Illegal hexadecimal escape sequence");
+        }
+    }
+
+    private char peek() {
+        return regex.charAt(position);
+    }
+
+    private boolean accept(final char c) {
+        if (position < regex.length() && regex.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private PatternSyntaxException syntaxError(final String description) {
+        return new PatternSyntaxException(description, regex, position);
+    }
+
+    private PatternSyntaxException unsupported(final String construct, final int index) {
+        return new PatternSyntaxException(construct + " are not supported by the linear-time regex engine", regex, index);
+    }
+
+    // code generation
+
+    private int emit(final int opcode, final int argument, final int secondArgument) {
+        if (programSize == MAX_PROGRAM_SIZE) {
+            throw new PatternSyntaxException("Regular expression is too large for the linear-time regex engine", regex, -1);
+        }
+        if (programSize == opcodes.length) {
+            opcodes = Arrays.copyOf(opcodes, programSize * 2);
+            arguments = Arrays.copyOf(arguments, programSize * 2);
+            secondArguments = Arrays.copyOf(secondArguments, programSize * 2);
+        }
+        opcodes[programSize] = opcode;
+        arguments[programSize] = argument;
+        secondArguments[programSize] = secondArgument;
+        return programSize++;
+    }
+
+    private void patchSplit(final int instruction, final int preferred, final int alternative) {
+        arguments[instruction] = preferred;
+        secondArguments[instruction] = alternative;
+    }
+
+    private abstract static class Node {
+        abstract void emit(RegexCompiler compiler);
+    }
+
+    private static final class Literal extends Node {
+        private final char c;
+
+        private Literal(final char c) {
+            this.c = c;
+        }
+
+        @Override
+        void emit(final RegexCompiler compiler) {
+            compiler.emit(CHAR, c, 0);
+        }
+    }
+
+    private static final class CharacterSet extends Node {
+        private final CharClass charClass;
+
+        private CharacterSet(final CharClass charClass) {
+            this.charClass = charClass;
+        }
+
+        @Override
+        void emit(final RegexCompiler compiler) {
+            compiler.charClasses.add(charClass);
+            compiler.emit(CLASS, compiler.charClasses.size() - 1, 0);
+        }
+    }
+
+    private static final class Anchor extends Node {
+        private final int opcode;
+
+        private Anchor(final int opcode) {
+            this.opcode = opcode;
+        }
+
+        @Override
+        void emit(final RegexCompiler compiler) {
+            compiler.emit(opcode, 0, 0);
+        }
+    }
+
+    private static final class Group extends Node {
+        private final int index;
+        private final Node content;
+
+        private Group(final int index, final Node content) {
+            this.index = index;
+            this.content = content;
+        }
+
+        @Override
+        void emit(final RegexCompiler compiler) {
+            if (index > 0) {
+                compiler.emit(SAVE, 2 * index, 0);
+            }
+            content.emit(compiler);
+            if (index > 0) {
+                compiler.emit(SAVE, 2 * index + 1, 0);
+            }
+        }
+    }
+
+    private static final class Sequence extends Node {
+        private final List<Node> elements;
+
+        private Sequence(final List<Node> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        void emit(final RegexCompiler compiler) {
+            elements.forEach(element -> element.emit(compiler));
+        }
+    }
+
+    private static final class Alternation extends Node {
+        private final List<Node> alternatives;
+
+        private Alternation(final List<Node> alternatives) {
+            this.alternatives = alternatives;
+        }
+
+        @Override
+        void emit(final RegexCompiler compiler) {
+            final int[] jumps = new int[alternatives.size() - 1];
+            for (int index = 0; index < alternatives.size() - 1; index++) {
+                final int split = compiler.emit(SPLIT, 0, 0);
+                alternatives.get(index).emit(compiler);
+                jumps[index] = compiler.emit(JUMP, 0, 0);
+                compiler.patchSplit(split, split + 1, compiler.programSize);
+            }
+            alternatives.get(alternatives.size() - 1).emit(compiler);
+            for (final int jump : jumps) {
+                compiler.arguments[jump] = compiler.programSize;
+            }
+        }
+    }
+
+    private static final class Repetition extends Node {
+        private final Node content;
+        private final int min;
+        private final int max;
+        private final boolean greedy;
+
+        private Repetition(final Node content, final int min, final int max, final boolean greedy) {
+            this.content = content;
+            this.min = min;
+            this.max = max;
+            this.greedy = greedy;
+        }
+
+        @Override
+        void emit(final RegexCompiler compiler) {
+            if (max == -1) {
+                if (min > 0) {
+                    // x{n,} is compiled to n-1 copies of x followed by x+
+                    for (int count = 0; count < min - 1; count++) {
+                        content.emit(compiler);
+                    }
+                    final int loopStart = compiler.programSize;
+                    content.emit(compiler);
+                    final int split = compiler.emit(SPLIT, 0, 0);
+                    split(compiler, split, loopStart, compiler.programSize);
+                } else {
+                    final int split = compiler.emit(SPLIT, 0, 0);
+                    content.emit(compiler);
+                    compiler.emit(JUMP, split, 0);
+                    split(compiler, split, split + 1, compiler.programSize);
+                }
+                return;
+            }
+
+            for (int count = 0; count < min; count++) {
+                content.emit(compiler);
+            }
+            // x{n,m} continues with m-n nested optional copies of x: (x(x(x)?)?)?
+            final int[] splits = new int[max - min];
+            for (int count = 0; count < max - min; count++) {
+                splits[count] = compiler.emit(SPLIT, 0, 0);
+                content.emit(compiler);
+            }
+            for (final int split : splits) {
+                split(compiler, split, split + 1, compiler.programSize);
+            }
+        }
+
+        private void split(final RegexCompiler compiler, final int split, final int repeat, final int exit) {
+            if (greedy) {
+                compiler.patchSplit(split, repeat, exit);
+            } else {
+                compiler.patchSplit(split, exit, repeat);
+            }
+        }
+    }
+}
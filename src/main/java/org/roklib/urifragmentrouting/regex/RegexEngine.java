@@ -0,0 +1,20 @@
+package org.roklib.urifragmentrouting.regex;
+
+/**
+ * The regular expression engines which can be used by an {@link org.roklib.urifragmentrouting.parameter.converter.AbstractRegexToStringListParameterValueConverter
+ * AbstractRegexToStringListParameterValueConverter} to match URI tokens.
+ */
+public enum RegexEngine {
+    /**
+     * Uses {@link java.util.regex.Pattern}. This engine supports the full regular expression syntax of the JDK, but it
+     * is a backtracking engine. Depending on the regular expression, the time needed to match a URI token can grow
+     * exponentially with the length of the token.
+     */
+    JAVA_UTIL_REGEX,
+    /**
+     * Uses {@link LinearTimeRegex}. This engine only supports a subset of the JDK's regular expression syntax, but it
+     * guarantees that the time needed to match a URI token grows only linearly with the length of the token. Use this
+     * engine for regular expressions which are applied to URI fragments that can be controlled by an attacker.
+     */
+    LINEAR_TIME
+}
@@ -0,0 +1,7 @@
+/**
+ * A regular expression engine for URI path segments which guarantees matching in time linear to the length of the
+ * input. Used by {@link org.roklib.urifragmentrouting.parameter.converter.AbstractRegexToStringListParameterValueConverter
+ * AbstractRegexToStringListParameterValueConverter} when {@link org.roklib.urifragmentrouting.regex.RegexEngine#LINEAR_TIME}
+ * is selected.
+ */
+package org.roklib.urifragmentrouting.regex;
@@ -0,0 +1,466 @@
+package org.roklib.urifragmentrouting.rewrite;
+
+import org.roklib.urifragmentrouting.helper.Preconditions;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable, compiled set of rewrite rules for URI fragments. Rewrite rules keep legacy URI fragments and aliases alive
+ * after the URI structure of an application has changed. They are installed on a {@link
+ * org.roklib.urifragmentrouting.UriActionMapperTree UriActionMapperTree} with {@link
+ * org.roklib.urifragmentrouting.UriActionMapperTree#setFragmentRewriteRules(FragmentRewriteRules)} and are applied to
+ * every URI fragment before it is routed. Three kinds of rules are supported:
+ * <ul>
+ * <li><b>exact</b> rules replace one particular URI fragment with another one, e. g. <tt>/home.html</tt> with
+ * <tt>/home</tt>.</li>
+ * <li><b>pattern</b> rules capture parts of the URI fragment in named variables written in curly braces and insert
+ * them into a template, e. g. <tt>/shop/item-{id}.html</tt> is rewritten to <tt>/products/{id}</tt>. A variable matches
+ * one or more characters within a single path segment, i. e. it never matches a <tt>'/'</tt>. Each path segment of a
+ * pattern may contain at most one variable.</li>
+ * <li><b>prefix</b> rules replace the beginning of a URI fragment and keep the remainder, e. g. the prefix rule
+ * <tt>/legacy/</tt> to <tt>/v2/</tt> rewrites <tt>/legacy/a/b</tt> to <tt>/v2/a/b</tt>. Prefix rules may contain
+ * variables as well.</li>
+ * </ul>
+ * Rules are matched against the path part of a URI fragment. A query parameter section starting with <tt>'?'</tt> is
+ * appended unchanged to the rewritten URI fragment. If several rules match a URI fragment, exact and pattern rules take
+ * precedence over prefix rules, literal characters take precedence over variables, and longer prefixes take precedence
+ * over shorter ones. The result of a rewrite is not rewritten again.
+ * <h1>Compilation</h1>
+ * All rules are compiled into one character trie when the rule set is built. Rewriting a URI fragment is a single walk
+ * through this trie along the characters of the fragment, independent of the number of rules. Only variables require
+ * backtracking: for a variable, every possible end position within its path segment is tried, starting with the
+ * longest match, and each attempt walks the literal characters following the variable up to the end of the segment.
+ * Matching a path segment with a variable therefore costs up to <em>O(n &middot; m)</em> steps, where <em>n</em> is the
+ * length of the segment and <em>m</em> is the length of the longest literal following the variable in the same
+ * segment. Since a path segment may contain only one variable, the end position of a variable is fixed as soon as the
+ * literal after it reaches the next <tt>'/'</tt>, so that the backtracking never spans more than one path segment and
+ * the cost of a rewrite grows linearly with the number of path segments. Captured values are only extracted from the
+ * path once a rule has matched. In addition, the rewrite results of recently
+ * visited paths are kept in a bounded cache (see {@link Builder#cacheSize(int)}), so that frequently visited URI
+ * fragments do not need to be matched at all. The cache is keyed on the path part of a URI fragment only, hence URI
+ * fragments which differ in their query parameters share one cache entry. Looking up a path in the cache does not take
+ * any lock. When the cache is full, a sample of its entries is inspected and an entry which has not been used since
+ * the last eviction is removed.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class FragmentRewriteRules {
+    /**
+     * Default number of rewritten paths kept in the cache of a rule set.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1000;
+
+    /**
+     * The number of cache entries inspected for evicting a single entry.
+     */
+    private static final int EVICTION_SAMPLE_SIZE = 16;
+
+    private final Node root;
+    private final int ruleCount;
+    private final int cacheSize;
+    private final ConcurrentMap<String, CacheEntry> cache;
+
+    private FragmentRewriteRules(final Node root, final int ruleCount, final int cacheSize) {
+        this.root = root;
+        this.ruleCount = ruleCount;
+        this.cacheSize = cacheSize;
+        this.cache = cacheSize == 0 ? null : new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates a new builder for a set of rewrite rules.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the number of rules in this rule set.
+     *
+     * @return the number of rules
+     */
+    public int size() {
+        return ruleCount;
+    }
+
+    /**
+     * Rewrites the given URI fragment with the first matching rule of this rule set.
+     *
+     * @param uriFragment the URI fragment to rewrite. Must not be {@code null}.
+     *
+     * @return the rewritten URI fragment or the given URI fragment itself if no rule matches
+     */
+    public String rewrite(final String uriFragment) {
+        Preconditions.checkNotNull(uriFragment);
+        final int queryStart = uriFragment.indexOf('?');
+        final String path = queryStart < 0 ? uriFragment : uriFragment.substring(0, queryStart);
+        final String rewrittenPath = cache == null ? rewritePath(path) : rewritePathCached(path);
+        if (queryStart < 0) {
+            return rewrittenPath;
+        }
+        if (rewrittenPath.equals(path)) {
+            return uriFragment;
+        }
+        return rewrittenPath + uriFragment.substring(queryStart);
+    }
+
+    private String rewritePathCached(final String path) {
+        final CacheEntry cached = cache.get(path);
+        if (cached != null) {
+            if (!cached.referenced) {
+                cached.referenced = true;
+            }
+            return cached.rewrittenPath;
+        }
+        final String result = rewritePath(path);
+        cache.put(path, new CacheEntry(result));
+        while (cache.size() > cacheSize) {
+            evict();
+        }
+        return result;
+    }
+
+    /**
+     * Removes one entry from the cache. Referenced entries get a second chance: their reference mark is cleared and
+     * the first unreferenced entry of the sample is removed. If all sampled entries have been referenced, the first one
+     * of them is removed.
+     */
+    private void evict() {
+        Map.Entry<String, CacheEntry> victim = null;
+        int sampled = 0;
+        for (final Map.Entry<String, CacheEntry> candidate : cache.entrySet()) {
+            if (victim == null) {
+                victim = candidate;
+            }
+            if (!candidate.getValue().referenced) {
+                victim = candidate;
+                break;
+            }
+            candidate.getValue().referenced = false;
+            if (++sampled == EVICTION_SAMPLE_SIZE) {
+                break;
+            }
+        }
+        if (victim != null) {
+            cache.remove(victim.getKey(), victim.getValue());
+        }
+    }
+
+    private String rewritePath(final String path) {
+        final Match match = new Match(path);
+        if (!match(root, path, 0, 0, match) && match.rule == null) {
+            return path;
+        }
+        final StringBuilder result = new StringBuilder(match.rule.expand(match.captures));
+        if (match.rule.kind == Kind.PREFIX) {
+            result.append(path, match.end, path.length());
+        }
+        return result.toString();
+    }
+
+    /**
+     * Walks the trie from the given node along the path starting at the given position. Returns {@code true} if an
+     * exact or pattern rule matches the whole path; in this case, the match is stored in the given match object.
+     * Otherwise, the longest matching prefix rule seen during the walk is stored in the match object. The bounds of the
+     * first {@code captureCount} variables on the way to the given node are held by the match object.
+     */
+    private static boolean match(final Node node,
+                                 final String path,
+                                 final int position,
+                                 final int captureCount,
+                                 final Match match) {
+        if (node.prefixRule != null && (match.rule == null || position > match.end)) {
+            match.set(node.prefixRule, position, captureCount);
+        }
+        if (position == path.length()) {
+            if (node.fullMatchRule != null) {
+                match.set(node.fullMatchRule, position, captureCount);
+                return true;
+            }
+            return false;
+        }
+
+        final Node literalChild = node.literalChildren.get(path.charAt(position));
+        if (literalChild != null && match(literalChild, path, position + 1, captureCount, match)) {
+            return true;
+        }
+
+        if (node.variableChild != null) {
+            int segmentEnd = path.indexOf('/', position);
+            if (segmentEnd < 0) {
+                segmentEnd = path.length();
+            }
+            for (int end = segmentEnd; end > position; end--) {
+                match.setCaptureBounds(captureCount, position, end);
+                if (match(node.variableChild, path, end, captureCount + 1, match)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "FragmentRewriteRules{rules=" + ruleCount + '}';
+    }
+
+    private enum Kind {
+        EXACT, PATTERN, PREFIX
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> literalChildren = new HashMap<>();
+        private Node variableChild;
+        private Rule fullMatchRule;
+        private Rule prefixRule;
+    }
+
+    private static final class CacheEntry {
+        private final String rewrittenPath;
+        private volatile boolean referenced;
+
+        private CacheEntry(final String rewrittenPath) {
+            this.rewrittenPath = rewrittenPath;
+        }
+    }
+
+    private static final class Match {
+        private final String path;
+        private int[] captureBounds = new int[8];
+        private Rule rule;
+        private int end;
+        private List<String> captures;
+
+        private Match(final String path) {
+            this.path = path;
+        }
+
+        private void setCaptureBounds(final int index, final int start, final int end) {
+            if (2 * index + 1 >= captureBounds.length) {
+                captureBounds = Arrays.copyOf(captureBounds, 2 * captureBounds.length);
+            }
+            captureBounds[2 * index] = start;
+            captureBounds[2 * index + 1] = end;
+        }
+
+        private void set(final Rule rule, final int end, final int captureCount) {
+            this.rule = rule;
+            this.end = end;
+            captures = new ArrayList<>(captureCount);
+            for (int i = 0; i < captureCount; i++) {
+                captures.add(path.substring(captureBounds[2 * i], captureBounds[2 * i + 1]));
+            }
+        }
+    }
+
+    /**
+     * A single rewrite rule. The template is stored as a list of parts, each of which is either a literal String or the
+     * index of a captured variable.
+     */
+    private static final class Rule {
+        private final Kind kind;
+        private final String source;
+        private final List<Object> templateParts;
+
+        private Rule(final Kind kind, final String source, final List<Object> templateParts) {
+            this.kind = kind;
+            this.source = source;
+            this.templateParts = templateParts;
+        }
+
+        private String expand(final List<String> captures) {
+            final StringBuilder result = new StringBuilder();
+            for (final Object part : templateParts) {
+                if (part instanceof Integer) {
+                    result.append(captures.get((Integer) part));
+                } else {
+                    result.append((String) part);
+                }
+            }
+            return result.toString();
+        }
+    }
+
+    /**
+     * Builder for {@link FragmentRewriteRules}. Rules are compiled into the trie as they are added.
+     */
+    public static final class Builder {
+        private final Node root = new Node();
+        private int ruleCount;
+        private int cacheSize = DEFAULT_CACHE_SIZE;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a rule which rewrites exactly the given URI fragment path. Curly braces have no special meaning in exact
+         * rules.
+         *
+         * @param from the URI fragment path to be rewritten. Must not be {@code null}.
+         * @param to   the replacement URI fragment path. Must not be {@code null}.
+         *
+         * @return this builder
+         * @throws IllegalArgumentException if there already is an exact or pattern rule for the same path
+         */
+        public Builder exact(final String from, final String to) {
+            Preconditions.checkNotNull(from);
+            Preconditions.checkNotNull(to);
+            final Node node = addLiteral(root, from);
+            addFullMatchRule(node, new Rule(Kind.EXACT, from, Collections.singletonList(to)));
+            return this;
+        }
+
+        /**
+         * Adds a rule which rewrites URI fragment paths matching the given pattern. The pattern may contain variables
+         * in curly braces, such as <tt>{id}</tt>, which can be used in the template.
+         *
+         * @param from     the pattern for the URI fragment paths to be rewritten. Must not be {@code null}.
+         * @param template the template for the replacement URI fragment path. Must not be {@code null}.
+         *
+         * @return this builder
+         * @throws IllegalArgumentException if the pattern or the template is malformed, if a path segment of the
+         *                                  pattern contains more than one variable, if the template uses a variable
+         *                                  not defined in the pattern or if there already is a rule for the same
+         *                                  pattern
+         */
+        public Builder pattern(final String from, final String template) {
+            final List<String> variables = new ArrayList<>();
+            final Node node = addPattern(from, variables);
+            addFullMatchRule(node, new Rule(Kind.PATTERN, from, parseTemplate(template, variables)));
+            return this;
+        }
+
+        /**
+         * Adds a rule which rewrites URI fragment paths starting with the given prefix. The prefix is replaced with the
+         * given template while the remainder of the path is kept. The prefix may contain variables in curly braces
+         * just like a pattern rule.
+         *
+         * @param prefix   the prefix of the URI fragment paths to be rewritten. Must not be {@code null}.
+         * @param template the template for the replacement of the prefix. Must not be {@code null}.
+         *
+         * @return this builder
+         * @throws IllegalArgumentException if the prefix or the template is malformed, if a path segment of the prefix
+         *                                  contains more than one variable, if the template uses a variable not defined
+         *                                  in the prefix or if there already is a rule for the same prefix
+         */
+        public Builder prefix(final String prefix, final String template) {
+            final List<String> variables = new ArrayList<>();
+            final Node node = addPattern(prefix, variables);
+            if (node.prefixRule != null) {
+                throw new IllegalArgumentException("Duplicate prefix rule for '" + prefix + "'; conflicts with '"
+                        + node.prefixRule.source + "'");
+            }
+            node.prefixRule = new Rule(Kind.PREFIX, prefix, parseTemplate(template, variables));
+            ruleCount++;
+            return this;
+        }
+
+        /**
+         * Sets the number of rewritten paths kept in the cache of the rule set. Defaults to {@link
+         * #DEFAULT_CACHE_SIZE}.
+         *
+         * @param cacheSize the maximum number of cached rewrite results or 0 to disable the cache
+         *
+         * @return this builder
+         */
+        public Builder cacheSize(final int cacheSize) {
+            if (cacheSize < 0) {
+                throw new IllegalArgumentException("cacheSize must not be negative");
+            }
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        /**
+         * Creates the rule set. The builder must not be used any more afterwards.
+         *
+         * @return the compiled rule set
+         */
+        public FragmentRewriteRules build() {
+            return new FragmentRewriteRules(root, ruleCount, cacheSize);
+        }
+
+        private void addFullMatchRule(final Node node, final Rule rule) {
+            if (node.fullMatchRule != null) {
+                throw new IllegalArgumentException("Duplicate rule for '" + rule.source + "'; conflicts with '"
+                        + node.fullMatchRule.source + "'");
+            }
+            node.fullMatchRule = rule;
+            ruleCount++;
+        }
+
+        private static Node addLiteral(final Node start, final String literal) {
+            Node node = start;
+            for (int i = 0; i < literal.length(); i++) {
+                node = node.literalChildren.computeIfAbsent(literal.charAt(i), key -> new Node());
+            }
+            return node;
+        }
+
+        private Node addPattern(final String pattern, final List<String> variables) {
+            Preconditions.checkNotNull(pattern);
+            Node node = root;
+            int position = 0;
+            int previousVariableEnd = -1;
+            while (position < pattern.length()) {
+                final int variableStart = pattern.indexOf('{', position);
+                if (variableStart < 0) {
+                    return addLiteral(node, pattern.substring(position));
+                }
+                node = addLiteral(node, pattern.substring(position, variableStart));
+                final int variableEnd = pattern.indexOf('}', variableStart);
+                if (variableEnd < 0 || variableEnd == variableStart + 1) {
+                    throw new IllegalArgumentException("Malformed variable in pattern '" + pattern + "'");
+                }
+                if (previousVariableEnd >= 0 && pattern.lastIndexOf('/', variableStart) < previousVariableEnd) {
+                    throw new IllegalArgumentException("Only one variable per path segment is allowed in pattern '" + pattern + "'");
+                }
+                final String variable = pattern.substring(variableStart + 1, variableEnd);
+                if (variables.contains(variable)) {
+                    throw new IllegalArgumentException("Duplicate variable '" + variable + "' in pattern '" + pattern + "'");
+                }
+                variables.add(variable);
+                if (node.variableChild == null) {
+                    node.variableChild = new Node();
+                }
+                node = node.variableChild;
+                previousVariableEnd = variableEnd;
+                position = variableEnd + 1;
+            }
+            return node;
+        }
+
+        private static List<Object> parseTemplate(final String template, final List<String> variables) {
+            Preconditions.checkNotNull(template);
+            final List<Object> parts = new ArrayList<>();
+            int position = 0;
+            while (position < template.length()) {
+                final int variableStart = template.indexOf('{', position);
+                if (variableStart < 0) {
+                    parts.add(template.substring(position));
+                    break;
+                }
+                if (variableStart > position) {
+                    parts.add(template.substring(position, variableStart));
+                }
+                final int variableEnd = template.indexOf('}', variableStart);
+                if (variableEnd < 0) {
+                    throw new IllegalArgumentException("Malformed variable in template '" + template + "'");
+                }
+                final int index = variables.indexOf(template.substring(variableStart + 1, variableEnd));
+                if (index < 0) {
+                    throw new IllegalArgumentException("Template '" + template + "' uses undefined variable '"
+                            + template.substring(variableStart + 1, variableEnd) + "'");
+                }
+                parts.add(index);
+                position = variableEnd + 1;
+            }
+            return parts;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Rewrite rules which map legacy or alias URI fragments onto the URI fragments of the current action mapper tree
+ * before they are routed. See {@link org.roklib.urifragmentrouting.rewrite.FragmentRewriteRules FragmentRewriteRules}.
+ */
+package org.roklib.urifragmentrouting.rewrite;
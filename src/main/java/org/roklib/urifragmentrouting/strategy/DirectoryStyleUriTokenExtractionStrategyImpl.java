@@ -2,12 +2,11 @@ package org.roklib.urifragmentrouting.strategy;
 
 import org.roklib.urifragmentrouting.helper.UriEncoderDecoder;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.StringJoiner;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import static org.roklib.urifragmentrouting.helper.UriEncoderDecoder.encodeUriFragment;
 
@@ -21,13 +20,51 @@ import static org.roklib.urifragmentrouting.helper.UriEncoderDecoder.encodeUriFr
 public class DirectoryStyleUriTokenExtractionStrategyImpl implements UriTokenExtractionStrategy {
     @Override
     public List<String> extractUriTokens(String uriFragment) {
+        return extractUriTokens(uriFragment, UriFragmentLimits.unlimited());
+    }
+
+    /**
+     * Splits the given URI fragment along the path separator character while checking the limits for each URI token
+     * found. The URI fragment is scanned only once, and the scan is stopped as soon as a limit is exceeded. Like
+     * {@link String#split(String)}, trailing empty URI tokens are discarded. Only non-empty URI tokens count towards
+     * the maximum number of URI tokens, while the number of path separators is bounded separately (see {@link
+     * UriFragmentLimits#checkUriSeparatorCount(int)}).
+     */
+    @Override
+    public List<String> extractUriTokens(final String uriFragment, final UriFragmentLimits limits) {
         if (uriFragment == null || "".equals(uriFragment.trim())) {
             return Collections.emptyList();
         }
 
-        return Arrays.stream(uriFragment.split("/"))
-                .map(s -> UriEncoderDecoder.decodeUriFragment(decodeSpecialChars(s)))
-                .collect(Collectors.toList());
+        final List<String> rawTokens = new ArrayList<>();
+        int nonEmptyTokenCount = 0;
+        int resultSize = 0;
+        int start = 0;
+        while (true) {
+            int end = uriFragment.indexOf('/', start);
+            if (end < 0) {
+                end = uriFragment.length();
+            }
+            limits.checkUriTokenLength(end - start);
+            if (end > start) {
+                limits.checkUriTokenCount(nonEmptyTokenCount++);
+            }
+            rawTokens.add(uriFragment.substring(start, end));
+            if (end > start) {
+                resultSize = rawTokens.size();
+            }
+            if (end == uriFragment.length()) {
+                break;
+            }
+            limits.checkUriSeparatorCount(rawTokens.size());
+            start = end + 1;
+        }
+
+        final List<String> result = new ArrayList<>(resultSize);
+        for (int i = 0; i < resultSize; i++) {
+            result.add(UriEncoderDecoder.decodeUriFragment(decodeSpecialChars(rawTokens.get(i))));
+        }
+        return result;
     }
 
     @Override
@@ -48,6 +48,28 @@ public interface QueryParameterExtractionStrategy {
      */
     Map<String, String> extractQueryParameters(String uriFragment);
 
+    /**
+     * Extracts all URI parameters contained in the given URI fragment in query mode like {@link
+     * #extractQueryParameters(String)} while enforcing the given limits for the number of query parameters and the
+     * length of each query parameter. Implementations should check these limits while they scan the URI fragment. The
+     * default implementation extracts all query parameters first and checks the limits afterwards.
+     *
+     * @param uriFragment the URI fragment from which URI parameters in query mode are to be extracted
+     * @param limits      the limits to be enforced
+     *
+     * @return a map containing the extracted parameter values
+     * @throws org.roklib.urifragmentrouting.exception.UriFragmentLimitExceededException if the URI fragment exceeds
+     *                                                                                   one of the limits
+     */
+    default Map<String, String> extractQueryParameters(final String uriFragment, final UriFragmentLimits limits) {
+        final Map<String, String> parameters = extractQueryParameters(uriFragment);
+        limits.checkQueryParameterCount(parameters.size() - 1);
+        for (final Map.Entry<String, String> parameter : parameters.entrySet()) {
+            limits.checkUriTokenLength(parameter.getKey().length() + parameter.getValue().length() + 1);
+        }
+        return parameters;
+    }
+
     /**
      * Removes the section from the given URI fragment which contains the query parameters. For example, if called for
      * the following URI fragment: <tt>/view/products?id=42&amp;expand=details</tt>, the method will return the String
@@ -21,6 +21,16 @@ public class StandardQueryNotationQueryParameterExtractionStrategyImpl implement
 
     @Override
     public Map<String, String> extractQueryParameters(final String uriFragment) {
+        return extractQueryParameters(uriFragment, UriFragmentLimits.unlimited());
+    }
+
+    /**
+     * Splits the query parameter section of the given URI fragment into parameters while checking the limits for each
+     * parameter found. The query parameter section is scanned only once, and the scan is stopped as soon as a limit is
+     * exceeded.
+     */
+    @Override
+    public Map<String, String> extractQueryParameters(final String uriFragment, final UriFragmentLimits limits) {
         if (uriFragment == null || hasNoParameters(uriFragment)) {
             return Collections.emptyMap();
         }
@@ -30,8 +40,28 @@ public class StandardQueryNotationQueryParameterExtractionStrategyImpl implement
             return Collections.emptyMap();
         }
 
+        final List<String> rawParameters = new ArrayList<>();
+        int nonEmptyParameters = 0;
+        int start = 0;
+        while (true) {
+            int end = parameters.indexOf('&', start);
+            if (end < 0) {
+                end = parameters.length();
+            }
+            limits.checkQueryParameterCount(rawParameters.size());
+            limits.checkUriTokenLength(end - start);
+            rawParameters.add(parameters.substring(start, end));
+            if (end > start) {
+                nonEmptyParameters = rawParameters.size();
+            }
+            if (end == parameters.length()) {
+                break;
+            }
+            start = end + 1;
+        }
+
         final Map<String, String> resultMap = new HashMap<>();
-        Arrays.stream(parameters.split("&")).forEach(parameter -> {
+        rawParameters.subList(0, nonEmptyParameters).forEach(parameter -> {
             if (!parameter.contains("=")) {
                 resultMap.put(decodeUriFragment(parameter), "");
             } else {
@@ -0,0 +1,239 @@
+package org.roklib.urifragmentrouting.strategy;
+
+import org.roklib.urifragmentrouting.exception.UriFragmentLimitExceededException;
+
+/**
+ * Immutable set of upper bounds for the complexity of URI fragments which are interpreted by a {@link
+ * org.roklib.urifragmentrouting.UriActionMapperTree UriActionMapperTree}. These limits bound the work done for a
+ * single URI fragment, so that abusive input such as a fragment of one megabyte with a hundred thousand path segments
+ * is rejected early instead of being split, decoded and dispatched in full.
+ * <p>
+ * The following limits are supported:
+ * <ul>
+ * <li>the maximum length of the whole URI fragment,</li>
+ * <li>the maximum number of non-empty URI tokens (path segments) of a URI fragment,</li>
+ * <li>the maximum number of query parameters of a URI fragment,</li>
+ * <li>the maximum length of a single URI token or query parameter.</li>
+ * </ul>
+ * The fragment length is checked by the action mapper tree before anything else is done with the fragment. The other
+ * limits are checked by the {@link UriTokenExtractionStrategy} and {@link QueryParameterExtractionStrategy} while they
+ * scan the URI fragment. If a limit is exceeded, a {@link UriFragmentLimitExceededException} is thrown.
+ * <p>
+ * Limits are configured on the {@link org.roklib.urifragmentrouting.UriActionMapperTree.UriActionMapperTreeBuilder
+ * UriActionMapperTreeBuilder}. By default, URI fragments are not limited at all.
+ */
+public final class UriFragmentLimits {
+    private static final UriFragmentLimits UNLIMITED = new UriFragmentLimits(Integer.MAX_VALUE, Integer.MAX_VALUE,
+            Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    /**
+     * The individual limits of a {@link UriFragmentLimits} object.
+     */
+    public enum Limit {
+        /**
+         * Maximum length of a URI fragment.
+         */
+        FRAGMENT_LENGTH,
+        /**
+         * Maximum number of non-empty URI tokens of a URI fragment.
+         */
+        URI_TOKEN_COUNT,
+        /**
+         * Maximum number of query parameters of a URI fragment.
+         */
+        QUERY_PARAMETER_COUNT,
+        /**
+         * Maximum length of a single URI token or query parameter.
+         */
+        URI_TOKEN_LENGTH
+    }
+
+    private final int maxFragmentLength;
+    private final int maxUriTokenCount;
+    private final int maxQueryParameterCount;
+    private final int maxUriTokenLength;
+
+    private UriFragmentLimits(final int maxFragmentLength,
+                              final int maxUriTokenCount,
+                              final int maxQueryParameterCount,
+                              final int maxUriTokenLength) {
+        this.maxFragmentLength = maxFragmentLength;
+        this.maxUriTokenCount = maxUriTokenCount;
+        this.maxQueryParameterCount = maxQueryParameterCount;
+        this.maxUriTokenLength = maxUriTokenLength;
+    }
+
+    /**
+     * Returns a limits object which does not limit URI fragments at all.
+     *
+     * @return the limits object without any limits
+     */
+    public static UriFragmentLimits unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Returns a copy of this object with the given maximum fragment length.
+     *
+     * @param maxFragmentLength the maximum number of characters of a URI fragment. Must be positive.
+     *
+     * @return a copy of this limits object with the new limit
+     */
+    public UriFragmentLimits withMaxFragmentLength(final int maxFragmentLength) {
+        return new UriFragmentLimits(checkPositive(maxFragmentLength), maxUriTokenCount, maxQueryParameterCount, maxUriTokenLength);
+    }
+
+    /**
+     * Returns a copy of this object with the given maximum number of URI tokens.
+     *
+     * @param maxUriTokenCount the maximum number of URI tokens of a URI fragment. Must be positive.
+     *
+     * @return a copy of this limits object with the new limit
+     */
+    public UriFragmentLimits withMaxUriTokenCount(final int maxUriTokenCount) {
+        return new UriFragmentLimits(maxFragmentLength, checkPositive(maxUriTokenCount), maxQueryParameterCount, maxUriTokenLength);
+    }
+
+    /**
+     * Returns a copy of this object with the given maximum number of query parameters.
+     *
+     * @param maxQueryParameterCount the maximum number of query parameters of a URI fragment. Must be positive.
+     *
+     * @return a copy of this limits object with the new limit
+     */
+    public UriFragmentLimits withMaxQueryParameterCount(final int maxQueryParameterCount) {
+        return new UriFragmentLimits(maxFragmentLength, maxUriTokenCount, checkPositive(maxQueryParameterCount), maxUriTokenLength);
+    }
+
+    /**
+     * Returns a copy of this object with the given maximum length of a single URI token or query parameter.
+     *
+     * @param maxUriTokenLength the maximum number of characters of a single URI token or query parameter (including
+     *                          parameter name and value) before it is decoded. Must be positive.
+     *
+     * @return a copy of this limits object with the new limit
+     */
+    public UriFragmentLimits withMaxUriTokenLength(final int maxUriTokenLength) {
+        return new UriFragmentLimits(maxFragmentLength, maxUriTokenCount, maxQueryParameterCount, checkPositive(maxUriTokenLength));
+    }
+
+    private static int checkPositive(final int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return limit;
+    }
+
+    /**
+     * Returns the maximum number of characters of a URI fragment.
+     *
+     * @return the limit or {@link Integer#MAX_VALUE} if unlimited
+     */
+    public int getMaxFragmentLength() {
+        return maxFragmentLength;
+    }
+
+    /**
+     * Returns the maximum number of URI tokens of a URI fragment.
+     *
+     * @return the limit or {@link Integer#MAX_VALUE} if unlimited
+     */
+    public int getMaxUriTokenCount() {
+        return maxUriTokenCount;
+    }
+
+    /**
+     * Returns the maximum number of query parameters of a URI fragment.
+     *
+     * @return the limit or {@link Integer#MAX_VALUE} if unlimited
+     */
+    public int getMaxQueryParameterCount() {
+        return maxQueryParameterCount;
+    }
+
+    /**
+     * Returns the maximum number of characters of a single URI token or query parameter.
+     *
+     * @return the limit or {@link Integer#MAX_VALUE} if unlimited
+     */
+    public int getMaxUriTokenLength() {
+        return maxUriTokenLength;
+    }
+
+    /**
+     * Checks the length of the given URI fragment.
+     *
+     * @param uriFragment the URI fragment to check. May be {@code null}.
+     *
+     * @throws UriFragmentLimitExceededException if the URI fragment is longer than allowed
+     */
+    public void checkFragmentLength(final String uriFragment) {
+        if (uriFragment != null && uriFragment.length() > maxFragmentLength) {
+            throw new UriFragmentLimitExceededException(Limit.FRAGMENT_LENGTH, maxFragmentLength);
+        }
+    }
+
+    /**
+     * Checks whether another URI token may be added to the given number of URI tokens already extracted.
+     *
+     * @param extractedUriTokens the number of URI tokens extracted so far
+     *
+     * @throws UriFragmentLimitExceededException if no more URI token is allowed
+     */
+    public void checkUriTokenCount(final int extractedUriTokens) {
+        if (extractedUriTokens >= maxUriTokenCount) {
+            throw new UriFragmentLimitExceededException(Limit.URI_TOKEN_COUNT, maxUriTokenCount);
+        }
+    }
+
+    /**
+     * Checks the number of path separators found in a URI fragment so far. Since only non-empty URI tokens count
+     * towards the maximum number of URI tokens, a URI fragment may contain empty URI tokens, such as a leading
+     * separator or doubled separators. To bound the work for URI fragments consisting of little more than separators,
+     * a URI fragment may contain at most twice as many separators as URI tokens are allowed. Exceeding this bound is
+     * reported as an exceeded {@link Limit#URI_TOKEN_COUNT}.
+     *
+     * @param separators the number of path separators found so far
+     *
+     * @throws UriFragmentLimitExceededException if the URI fragment contains too many path separators
+     */
+    public void checkUriSeparatorCount(final int separators) {
+        if (separators > 2L * maxUriTokenCount) {
+            throw new UriFragmentLimitExceededException(Limit.URI_TOKEN_COUNT, maxUriTokenCount);
+        }
+    }
+
+    /**
+     * Checks whether another query parameter may be added to the given number of query parameters already extracted.
+     *
+     * @param extractedQueryParameters the number of query parameters extracted so far
+     *
+     * @throws UriFragmentLimitExceededException if no more query parameter is allowed
+     */
+    public void checkQueryParameterCount(final int extractedQueryParameters) {
+        if (extractedQueryParameters >= maxQueryParameterCount) {
+            throw new UriFragmentLimitExceededException(Limit.QUERY_PARAMETER_COUNT, maxQueryParameterCount);
+        }
+    }
+
+    /**
+     * Checks the length of a single URI token or query parameter.
+     *
+     * @param length the length of the raw URI token or query parameter
+     *
+     * @throws UriFragmentLimitExceededException if the token is longer than allowed
+     */
+    public void checkUriTokenLength(final int length) {
+        if (length > maxUriTokenLength) {
+            throw new UriFragmentLimitExceededException(Limit.URI_TOKEN_LENGTH, maxUriTokenLength);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "UriFragmentLimits{maxFragmentLength=" + maxFragmentLength
+                + ", maxUriTokenCount=" + maxUriTokenCount
+                + ", maxQueryParameterCount=" + maxQueryParameterCount
+                + ", maxUriTokenLength=" + maxUriTokenLength + '}';
+    }
+}
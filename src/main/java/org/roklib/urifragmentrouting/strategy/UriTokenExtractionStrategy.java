@@ -41,6 +41,33 @@ public interface UriTokenExtractionStrategy {
      */
     List<String> extractUriTokens(String uriFragment);
 
+    /**
+     * Converts a URI fragment String into a list of URI tokens like {@link #extractUriTokens(String)} while enforcing
+     * the given limits for the number of non-empty URI tokens and the length of each URI token. Implementations should check
+     * these limits while they scan the URI fragment, so that an oversized URI fragment is rejected before it has been
+     * split and decoded completely. The default implementation extracts all URI tokens first and checks the limits
+     * afterwards.
+     *
+     * @param uriFragment the URI fragment from which a list of URI tokens is to be extracted
+     * @param limits      the limits to be enforced
+     *
+     * @return a list of Strings that contains the extracted URI tokens for the given URI fragment
+     * @throws org.roklib.urifragmentrouting.exception.UriFragmentLimitExceededException if the URI fragment exceeds
+     *                                                                                   one of the limits
+     */
+    default List<String> extractUriTokens(final String uriFragment, final UriFragmentLimits limits) {
+        final List<String> uriTokens = extractUriTokens(uriFragment);
+        int nonEmptyTokenCount = 0;
+        for (final String uriToken : uriTokens) {
+            limits.checkUriTokenLength(uriToken.length());
+            if (!uriToken.isEmpty()) {
+                limits.checkUriTokenCount(nonEmptyTokenCount++);
+            }
+        }
+        limits.checkUriSeparatorCount(uriTokens.size() - 1);
+        return uriTokens;
+    }
+
     /**
      * Assembles a list of URI fragment tokens into a URI fragment. This operation reverts the token extraction done by
      * {@link #extractUriTokens(String)}. When the String returned by this method is split back into a token list with
@@ -0,0 +1,158 @@
+package org.roklib.urifragmentrouting;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.roklib.urifragmentrouting.annotation.CapturedParameter;
+import org.roklib.urifragmentrouting.mapper.AbstractUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.DispatchingUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class ActionCommandBindingsTest {
+
+    private UriActionMapperTree sharedTree;
+
+    @Before
+    public void setUp() {
+        // @formatter:off
+        sharedTree = UriActionMapperTree.create()
+                .setRootActionCommandFactory(ActionCommandBindings.sessionBound())
+                .buildMapperTree()
+                .map("home").onActionFactory(SharedCommand::new).finishMapper()
+                .mapSubtree("users").onSubtree()
+                    .map("profile").onActionFactory(ActionCommandBindings.sessionBound())
+                        .withSingleValuedParameter("id").forType(Integer.class).noDefault()
+                    .finishMapper()
+                .finishMapper()
+                .build();
+        // @formatter:on
+    }
+
+    @Test
+    public void sessions_share_one_tree_with_their_own_action_command_factories() {
+        final Session alice = new Session();
+        final Session bob = new Session();
+        final ActionCommandBindings aliceBindings = ActionCommandBindings.forTree(sharedTree)
+                .bind("profile", () -> new SessionCommand(alice))
+                .build();
+        final ActionCommandBindings bobBindings = ActionCommandBindings.forTree(sharedTree)
+                .bind("profile", () -> new SessionCommand(bob))
+                .bind(UriActionMapperTree.ROOT_MAPPER, () -> new SessionCommand(bob))
+                .build();
+
+        sharedTree.interpretFragment("/users/profile/id/17", null, aliceBindings);
+        sharedTree.interpretFragment("/users/profile/id/42", null, bobBindings);
+        sharedTree.interpretFragment("/", null, bobBindings);
+
+        assertThat(alice.profileIds.toString(), is("[17]"));
+        assertThat(bob.profileIds.toString(), is("[42, null]"));
+    }
+
+    @Test
+    public void unbound_action_mappers_use_their_own_action_command_factory() {
+        final ActionCommandBindings bindings = ActionCommandBindings.forTree(sharedTree).build();
+
+        assertThat(sharedTree.interpretFragment("/home", null, bindings), instanceOf(SharedCommand.class));
+        assertThat(bindings.getBinding("home") == null, is(true));
+    }
+
+    @Test
+    public void bound_action_command_factories_follow_the_lifecycle_of_the_action_mapper() {
+        final AbstractUriPathSegmentActionMapper profileMapper = (AbstractUriPathSegmentActionMapper)
+                ((DispatchingUriPathSegmentActionMapper) sharedTree.getRootActionMapper().getSubMapperMap().get("users"))
+                        .getSubMapperMap().get("profile");
+        profileMapper.setActionCommandLifecycle(ActionCommandLifecycle.POOLED, 1);
+        final Session session = new Session();
+        final ActionCommandBindings bindings = ActionCommandBindings.forTree(sharedTree)
+                .bind("profile", () -> new ResettableSessionCommand(session))
+                .build();
+
+        final UriActionCommand first = sharedTree.interpretFragment("/users/profile/id/17", null, bindings);
+        final UriActionCommand second = sharedTree.interpretFragment("/users/profile/id/42", null, bindings);
+
+        assertThat(second, sameInstance(first));
+        assertThat(((ResettableSessionCommand) second).resetCount, is(2));
+        assertThat(session.profileIds.toString(), is("[17, 42]"));
+    }
+
+    @Test
+    public void bindings_are_used_for_asynchronous_execution() throws Exception {
+        final Session session = new Session();
+        final ActionCommandBindings bindings = ActionCommandBindings.forTree(sharedTree)
+                .bind("profile", () -> new SessionCommand(session))
+                .build();
+
+        sharedTree.interpretFragmentAsync("/users/profile/id/17", null, bindings, Runnable::run).get();
+        new KeyedActionCommandScheduler<String>(sharedTree, Runnable::run)
+                .interpretFragment("session", "/users/profile/id/42", null, bindings).get();
+
+        assertThat(session.profileIds.toString(), is("[17, 42]"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void session_bound_mapper_cannot_be_interpreted_without_bindings() {
+        sharedTree.interpretFragment("/users/profile/id/17");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void binding_unknown_mapper_fails() {
+        ActionCommandBindings.forTree(sharedTree).bind("unknown", SharedCommand::new);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bindings_cannot_be_used_for_another_tree() {
+        final UriActionMapperTree otherTree = UriActionMapperTree.create().buildMapperTree()
+                .map("home").onActionFactory(SharedCommand::new).finishMapper()
+                .build();
+        otherTree.interpretFragment("/home", null, ActionCommandBindings.forTree(sharedTree).build());
+    }
+
+    private static class Session {
+        private final List<Integer> profileIds = new ArrayList<>();
+    }
+
+    public static class SharedCommand implements UriActionCommand {
+        @Override
+        public void run() {
+        }
+    }
+
+    public static class ResettableSessionCommand extends SessionCommand implements ResettableUriActionCommand {
+        private int resetCount;
+
+        ResettableSessionCommand(final Session session) {
+            super(session);
+        }
+
+        @Override
+        public void reset() {
+            resetCount++;
+        }
+    }
+
+    public static class SessionCommand implements UriActionCommand {
+        private final Session session;
+        private Integer id;
+
+        SessionCommand(final Session session) {
+            this.session = session;
+        }
+
+        @Override
+        public void run() {
+            session.profileIds.add(id);
+        }
+
+        @CapturedParameter(mapperName = "profile", parameterName = "id")
+        public void setId(final ParameterValue<Integer> id) {
+            this.id = id == null ? null : id.getValue();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package org.roklib.urifragmentrouting;
+
+import org.junit.Test;
+import org.roklib.urifragmentrouting.annotation.CapturedParameter;
+import org.roklib.urifragmentrouting.mapper.SimpleUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class ActionCommandLifecycleTest {
+
+    @Test
+    public void prototype_creates_new_command_for_every_fragment() {
+        final AtomicInteger created = new AtomicInteger();
+        // @formatter:off
+        final UriActionMapperTree tree = UriActionMapperTree.create().buildMapperTree()
+                .map("item").onActionFactory(() -> { created.incrementAndGet(); return new PooledItemCommand(); })
+                    .withSingleValuedParameter("id").forType(Integer.class).noDefault()
+                .finishMapper()
+                .build();
+        // @formatter:on
+
+        final UriActionCommand first = tree.interpretFragment("/item/id/1");
+        final UriActionCommand second = tree.interpretFragment("/item/id/2");
+
+        assertThat(first, not(sameInstance(second)));
+        assertThat(created.get(), is(2));
+    }
+
+    @Test
+    public void pooled_commands_are_reset_and_reused() {
+        final AtomicInteger created = new AtomicInteger();
+        final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        // @formatter:off
+        final UriActionMapperTree tree = UriActionMapperTree.create().buildMapperTree()
+                .map("item").onActionFactory(() -> { created.incrementAndGet(); return new PooledItemCommand(executed); })
+                    .withSingleValuedParameter("id").forType(Integer.class).noDefault()
+                    .withPooledActionCommands(2)
+                .finishMapper()
+                .build();
+        // @formatter:on
+
+        final PooledItemCommand first = (PooledItemCommand) tree.interpretFragment("/item/id/1");
+        assertThat(first.id, is(nullValue()));
+        assertThat(first.resetCount, is(1));
+        final PooledItemCommand second = (PooledItemCommand) tree.interpretFragment("/item/id/2");
+
+        assertThat(second, sameInstance(first));
+        assertThat(second.resetCount, is(2));
+        assertThat(created.get(), is(1));
+        assertThat(executed.toString(), is("[1, 2]"));
+    }
+
+    @Test
+    public void pooled_commands_which_are_not_executed_are_not_returned_to_the_pool() {
+        final AtomicInteger created = new AtomicInteger();
+        // @formatter:off
+        final UriActionMapperTree tree = UriActionMapperTree.create().buildMapperTree()
+                .map("item").onActionFactory(() -> { created.incrementAndGet(); return new PooledItemCommand(); })
+                    .withSingleValuedParameter("id").forType(Integer.class).noDefault()
+                    .withPooledActionCommands(2)
+                .finishMapper()
+                .build();
+        // @formatter:on
+
+        final PooledItemCommand first = (PooledItemCommand) tree.interpretFragment("/item/id/1", null, false);
+        final PooledItemCommand second = (PooledItemCommand) tree.interpretFragment("/item/id/2", null, false);
+
+        assertThat(first, not(sameInstance(second)));
+        assertThat(first.id, is(1));
+        assertThat(second.id, is(2));
+        assertThat(created.get(), is(2));
+    }
+
+    @Test
+    public void asynchronously_executed_pooled_commands_are_not_handed_out() throws Exception {
+        final AtomicInteger created = new AtomicInteger();
+        final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        final UriActionMapperTree tree = buildPooledTree(created, executed);
+
+        final UriActionCommand result = tree.interpretFragmentAsync("/item/id/1", null, Runnable::run).get(10, TimeUnit.SECONDS);
+        tree.interpretFragmentAsync("/item/id/2", null, Runnable::run).get(10, TimeUnit.SECONDS);
+
+        assertThat(result, instanceOf(ReleasedActionCommand.class));
+        assertThat(created.get(), is(1));
+        assertThat(executed.toString(), is("[1, 2]"));
+    }
+
+    @Test
+    public void pooled_commands_are_released_by_keyed_scheduler() throws Exception {
+        final AtomicInteger created = new AtomicInteger();
+        final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        final KeyedActionCommandScheduler<String> scheduler =
+                new KeyedActionCommandScheduler<>(buildPooledTree(created, executed), Runnable::run);
+
+        assertThat(scheduler.interpretFragment("session", "/item/id/1", null).get(10, TimeUnit.SECONDS),
+                instanceOf(ReleasedActionCommand.class));
+        scheduler.interpretFragment("session", "/item/id/2", null).get(10, TimeUnit.SECONDS);
+
+        assertThat(created.get(), is(1));
+        assertThat(executed.toString(), is("[1, 2]"));
+    }
+
+    @Test
+    public void pooled_commands_are_released_by_coalescing_interpreter() throws Exception {
+        final AtomicInteger created = new AtomicInteger();
+        final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            final CoalescingFragmentInterpreter<String> interpreter =
+                    new CoalescingFragmentInterpreter<>(buildPooledTree(created, executed), scheduler, 200, TimeUnit.MILLISECONDS);
+
+            final CompletableFuture<CoalescingFragmentInterpreter.Result> skipped = interpreter.interpretFragment("session", "/item/id/1", null);
+            final CompletableFuture<CoalescingFragmentInterpreter.Result> last = interpreter.interpretFragment("session", "/item/id/2", null);
+            assertThat(skipped.get(10, TimeUnit.SECONDS).getCommand(), instanceOf(ReleasedActionCommand.class));
+            assertThat(last.get(10, TimeUnit.SECONDS).getCommand(), instanceOf(ReleasedActionCommand.class));
+            interpreter.interpretFragment("session", "/item/id/3", null).get(10, TimeUnit.SECONDS);
+            interpreter.interpretFragment("session", "/item/id/4", null).get(10, TimeUnit.SECONDS);
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        assertThat(created.get(), is(2));
+        assertThat(executed.toString(), is("[2, 3, 4]"));
+    }
+
+    @Test
+    public void stateless_command_can_be_run_without_route_match() {
+        final List<RouteMatch> routeMatches = new ArrayList<>();
+        final StatelessUriActionCommand command = routeMatches::add;
+
+        command.run();
+
+        assertThat(routeMatches.get(0).getStatus(), is(RouteMatch.Status.NOT_FOUND));
+        assertThat(routeMatches.get(0).getUriFragment(), is(nullValue()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void pooled_lifecycle_requires_resettable_commands() {
+        // @formatter:off
+        final UriActionMapperTree tree = UriActionMapperTree.create().buildMapperTree()
+                .map("item").onActionFactory(() -> () -> {})
+                    .withActionCommandLifecycle(ActionCommandLifecycle.POOLED)
+                .finishMapper()
+                .build();
+        // @formatter:on
+        tree.interpretFragment("/item");
+    }
+
+    @Test
+    public void stateless_singleton_is_created_once_and_receives_route_match() {
+        final AtomicInteger created = new AtomicInteger();
+        final StatelessItemCommand singleton = new StatelessItemCommand();
+        // @formatter:off
+        final UriActionMapperTree tree = UriActionMapperTree.create().buildMapperTree()
+                .map("item").onActionFactory(() -> { created.incrementAndGet(); return singleton; })
+                    .withSingleValuedParameter("id").forType(Integer.class).noDefault()
+                    .withActionCommandLifecycle(ActionCommandLifecycle.STATELESS_SINGLETON)
+                .finishMapper()
+                .build();
+        // @formatter:on
+
+        tree.interpretFragment("/item/id/1", "context");
+        tree.interpretFragment("/item/id/2", "context");
+
+        assertThat(created.get(), is(1));
+        assertThat(singleton.executed.toString(), is("[1@/item/id/1@context@item, 2@/item/id/2@context@item]"));
+    }
+
+    @Test
+    public void stateless_commands_receive_the_route_match_of_the_tree() {
+        final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        final StatelessUriActionCommand command = routeMatch -> executed.add(routeMatch.getStatus() + " "
+                + (routeMatch.isFound() ? routeMatch.with("item", "id", 3) : routeMatch.getUriFragment()));
+        // @formatter:off
+        final UriActionMapperTree tree = UriActionMapperTree.create().buildMapperTree()
+                .map("item").onActionFactory(() -> command)
+                    .withSingleValuedParameter("id").forType(Integer.class).noDefault()
+                    .withActionCommandLifecycle(ActionCommandLifecycle.STATELESS_SINGLETON)
+                .finishMapper()
+                .build();
+        // @formatter:on
+        tree.setDefaultActionCommandFactory(() -> command);
+
+        tree.interpretFragment("/item/id/1");
+        tree.interpretFragment("/unknown");
+
+        assertThat(executed.toString(), is("[FOUND item/id/3, DEFAULT_FALLBACK /unknown]"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void stateless_singleton_lifecycle_requires_stateless_commands() {
+        final SimpleUriPathSegmentActionMapper mapper = new SimpleUriPathSegmentActionMapper("item", null, PooledItemCommand::new);
+        mapper.setActionCommandLifecycle(ActionCommandLifecycle.STATELESS_SINGLETON);
+        mapper.getActionCommandFactory().createUriActionCommand();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pool_size_must_be_positive() {
+        final SimpleUriPathSegmentActionMapper mapper = new SimpleUriPathSegmentActionMapper("item", null, PooledItemCommand::new);
+        mapper.setActionCommandLifecycle(ActionCommandLifecycle.POOLED, 0);
+    }
+
+    private static UriActionMapperTree buildPooledTree(final AtomicInteger created, final List<Integer> executed) {
+        // @formatter:off
+        return UriActionMapperTree.create().buildMapperTree()
+                .map("item").onActionFactory(() -> { created.incrementAndGet(); return new PooledItemCommand(executed); })
+                    .withSingleValuedParameter("id").forType(Integer.class).noDefault()
+                    .withPooledActionCommands(2)
+                .finishMapper()
+                .build();
+        // @formatter:on
+    }
+
+    public static class PooledItemCommand implements ResettableUriActionCommand {
+        private final List<Integer> executed;
+        private Integer id;
+        private int resetCount;
+
+        public PooledItemCommand() {
+            this(new ArrayList<>());
+        }
+
+        public PooledItemCommand(final List<Integer> executed) {
+            this.executed = executed;
+        }
+
+        @Override
+        public void run() {
+            executed.add(id);
+        }
+
+        @Override
+        public void reset() {
+            id = null;
+            resetCount++;
+        }
+
+        @CapturedParameter(mapperName = "item", parameterName = "id")
+        public void setId(final ParameterValue<Integer> id) {
+            this.id = id.getValue();
+        }
+    }
+
+    public static class StatelessItemCommand implements StatelessUriActionCommand {
+        private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void run(final RouteMatch routeMatch) {
+            final ParameterValue<Integer> id = routeMatch.getCapturedParameterValues().getValueFor("item", "id");
+            executed.add(id.getValue() + "@" + routeMatch.getUriFragment() + "@" + routeMatch.getRoutingContext()
+                    + "@" + routeMatch.getActionMapper().getMapperName());
+        }
+
+        @CapturedParameter(mapperName = "item", parameterName = "id")
+        public void setId(final ParameterValue<Integer> id) {
+            throw new AssertionError("setters must not be invoked on stateless commands");
+        }
+    }
+}
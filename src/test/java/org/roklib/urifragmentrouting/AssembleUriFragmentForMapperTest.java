@@ -18,6 +18,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.Matchers.startsWith;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
@@ -122,6 +123,44 @@ public class AssembleUriFragmentForMapperTest {
         assertThat(fragment + " doesn't match expected regex", fragment.matches("customer/show\\?((name=ACME%20Corp.|id=17|lang=de)&?){3}"), is(true));
     }
 
+    @Test
+    public void assemble_fragment_by_mapper_name() {
+        values.setValueFor("profiles", "type", ParameterValue.forValue("long"));
+        values.setValueFor("customer", "id", ParameterValue.forValue(17));
+
+        assertThat(mapperTree.assembleUriFragment("customer", values), is(equalTo("profiles/type/long/customer/id/17")));
+        assertThat(mapperTree.assembleUriFragment("users", values), is(equalTo("admin/users")));
+        assertThat(mapperTree.assembleUriFragment("login", null), is(equalTo("login")));
+    }
+
+    @Test
+    public void assemble_fragment_by_mapper_name_reuses_static_fragment() {
+        final String first = mapperTree.assembleUriFragment("users", null);
+
+        assertThat(mapperTree.assembleUriFragment("users", values), sameInstance(first));
+    }
+
+    @Test
+    public void assemble_fragment_by_mapper_name_in_query_mode() {
+        mapperTree = getMapperTreeForParameterMode(ParameterMode.QUERY);
+        values.setValueFor("customer", "name", ParameterValue.forValue("ACME Corp."));
+
+        assertThat(mapperTree.assembleUriFragment("show", values), is(equalTo("customer/show?name=ACME%20Corp.")));
+    }
+
+    @Test
+    public void mapper_name_index_includes_mappers_added_later() {
+        mapperTree.assembleUriFragment("login", null);
+        mapperTree.getRootActionMapper().addSubMapper(new SimpleUriPathSegmentActionMapper("logout"));
+
+        assertThat(mapperTree.assembleUriFragment("logout", null), is(equalTo("logout")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void using_unknown_mapper_name_is_not_allowed() {
+        mapperTree.assembleUriFragment("unknown", values);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void using_mapper_not_in_tree_is_not_allowed() {
         mapperTree.assembleUriFragment(values, new SimpleUriPathSegmentActionMapper("unknown"));
@@ -0,0 +1,173 @@
+package org.roklib.urifragmentrouting;
+
+import org.junit.Test;
+import org.roklib.urifragmentrouting.parameter.ParameterMode;
+import org.roklib.urifragmentrouting.parameter.SingleStringUriParameter;
+import org.roklib.urifragmentrouting.parameter.UriParameterError;
+import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class CanonicalUriFragmentTest {
+
+    @Test
+    public void query_parameters_are_ordered_by_declaration() {
+        final UriActionMapperTree tree = buildTree(ParameterMode.QUERY);
+
+        assertThat(tree.canonicalize("/products/list?sort=price&page=2&lang=de"), is("products/list?lang=de&page=2&sort=price"));
+        assertThat(tree.canonicalize("products/list?lang=de&sort=price&category=books&page=2"), is("products/list?lang=de&category=books&page=2&sort=price"));
+    }
+
+    @Test
+    public void duplicate_query_parameter_names_are_resolved_by_mapper_chain_order() {
+        // @formatter:off
+        final UriActionMapperTree tree = UriActionMapperTree.create()
+                .useParameterMode(ParameterMode.QUERY)
+                .buildMapperTree()
+                .mapSubtree("zeta").withSingleValuedParameter("id").forType(String.class).noDefault()
+                    .onSubtree()
+                    .map("alpha").onActionFactory(TestActionCommand::new)
+                        .withSingleValuedParameter("id").forType(String.class).noDefault()
+                    .finishMapper()
+                .finishMapper()
+                .build();
+        // @formatter:on
+
+        final CapturedParameterValues values = new CapturedParameterValues();
+        values.setValueFor("alpha", "id", ParameterValue.forValue("inner"));
+        assertThat(tree.assembleUriFragment("alpha", values, null), is("zeta/alpha?id=inner"));
+
+        values.setValueFor("zeta", "id", ParameterValue.forValue("outer"));
+        assertThat(tree.assembleUriFragment("alpha", values, null), is("zeta/alpha?id=outer"));
+    }
+
+    @Test
+    public void query_parameters_without_value_are_not_assembled() {
+        final UriActionMapperTree tree = buildTree(ParameterMode.QUERY);
+        final CapturedParameterValues values = new CapturedParameterValues();
+        values.setValueFor("list", "page", ParameterValue.forError(UriParameterError.CONVERSION_ERROR));
+        values.setValueFor("list", "sort", ParameterValue.forValue("name"));
+
+        assertThat(tree.assembleUriFragment("list", values, null), is("products/list?sort=name"));
+    }
+
+    @Test
+    public void empty_tokens_are_removed() {
+        final UriActionMapperTree tree = buildTree(ParameterMode.QUERY);
+
+        assertThat(tree.canonicalize("//products//list/?page=2"), is("products/list?page=2"));
+    }
+
+    @Test
+    public void percent_encoding_is_normalized() {
+        final UriActionMapperTree tree = buildTree(ParameterMode.DIRECTORY_WITH_NAMES);
+
+        assertThat(tree.canonicalize("/products/category/a%7bb%7d/list/sort/%6eame"), is("products/category/a%7Bb%7D/list/sort/name"));
+    }
+
+    @Test
+    public void default_values_are_omitted() {
+        final UriActionMapperTree tree = buildTree(ParameterMode.DIRECTORY_WITH_NAMES);
+
+        assertThat(tree.canonicalize("/products/list"), is("products/list"));
+        assertThat(tree.canonicalize("lang/en/products/list/page/1"), is("lang/en/products/list/page/1"));
+    }
+
+    @Test
+    public void equivalent_fragments_have_the_same_canonical_form() {
+        final UriActionMapperTree tree = buildTree(ParameterMode.QUERY);
+
+        for (final String uriFragment : Arrays.asList("products/list?page=3&lang=de", "/products/list?lang=de&page=3",
+                "products//list?lang=%64e&page=3")) {
+            assertThat(uriFragment, tree.canonicalize(uriFragment), is("products/list?lang=de&page=3"));
+        }
+    }
+
+    @Test
+    public void canonical_form_is_stable() {
+        for (final ParameterMode parameterMode : ParameterMode.values()) {
+            final UriActionMapperTree tree = buildTree(parameterMode);
+            for (final String uriFragment : Arrays.asList("/products/list", "/products/category/x%7by/list/page/2",
+                    "de/products/books/list/2/price", "/products/list?sort=price&page=2", "/unknown//path?b=2&a=1")) {
+                final String canonicalForm = tree.canonicalize(uriFragment);
+                assertThat(parameterMode + " " + uriFragment, tree.canonicalize(canonicalForm), is(canonicalForm));
+            }
+        }
+    }
+
+    @Test
+    public void unresolvable_fragments_are_normalized() {
+        final UriActionMapperTree tree = buildTree(ParameterMode.QUERY);
+
+        assertThat(tree.canonicalize("unknown/a%7b?b=2&a=1"), is("unknown/a%7B?a=1&b=2"));
+    }
+
+    @Test
+    public void fragments_with_conversion_errors_are_not_assembled_anew() {
+        final UriActionMapperTree tree = buildTree(ParameterMode.DIRECTORY_WITH_NAMES);
+
+        assertThat(tree.canonicalize("products/list/page/abc"), is("products/list/page/abc"));
+    }
+
+    @Test
+    public void fragments_exceeding_limits_are_returned_unchanged() {
+        // @formatter:off
+        final UriActionMapperTree tree = UriActionMapperTree.create()
+                .limitFragmentLength(32)
+                .limitUriTokenCount(3)
+                .buildMapperTree()
+                .map("home").onActionFactory(TestActionCommand::new).finishMapper()
+                .build();
+        // @formatter:on
+
+        assertThat(tree.canonicalize("/home/a%7bb/c/d/e"), is("/home/a%7bb/c/d/e"));
+        assertThat(tree.canonicalize("/home/" + String.join("", Collections.nCopies(40, "x"))).length(), is(46));
+    }
+
+    @Test
+    public void canonicalization_is_neither_profiled_nor_cached() {
+        final UriActionMapperTree tree = buildTree(ParameterMode.QUERY);
+        final RoutingProfiler profiler = new RoutingProfiler();
+        final NegativeRoutingCache cache = new NegativeRoutingCache(10, 1, TimeUnit.MINUTES);
+        tree.setRoutingProfiler(profiler);
+        tree.setNegativeRoutingCache(cache);
+
+        tree.canonicalize("/products/list?page=2");
+        tree.canonicalize("/unknown");
+
+        assertThat(profiler.snapshot().getRoutedFragmentCount(), is(0L));
+        assertThat(cache.size(), is(0));
+    }
+
+    private static UriActionMapperTree buildTree(final ParameterMode parameterMode) {
+        final SingleStringUriParameter langParameter = new SingleStringUriParameter("lang");
+        langParameter.setOptional("en");
+
+        // @formatter:off
+        return UriActionMapperTree.create()
+                .useParameterMode(parameterMode)
+                .registerRootActionMapperParameter(langParameter)
+                .buildMapperTree()
+                .mapSubtree("products").withSingleValuedParameter("category").forType(String.class).usingDefaultValue("all")
+                    .onSubtree()
+                    .map("list").onActionFactory(TestActionCommand::new)
+                        .withSingleValuedParameter("page").forType(Integer.class).usingDefaultValue(1)
+                        .withSingleValuedParameter("sort").forType(String.class).noDefault()
+                    .finishMapper()
+                .finishMapper()
+                .build();
+        // @formatter:on
+    }
+
+    public static class TestActionCommand implements UriActionCommand {
+        @Override
+        public void run() {
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package org.roklib.urifragmentrouting;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.roklib.urifragmentrouting.annotation.CapturedParameter;
+import org.roklib.urifragmentrouting.annotation.RoutingContext;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class CoalescingFragmentInterpreterTest {
+
+    private UriActionMapperTree mapperTree;
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void setUp() {
+        // @formatter:off
+        mapperTree = UriActionMapperTree.create().buildMapperTree()
+                .map("step").onActionFactory(StepCommand::new)
+                    .withSingleValuedParameter("n").forType(Integer.class).noDefault()
+                .finishMapper()
+                .map("block").onActionFactory(BlockingCommand::new).finishMapper()
+                .build();
+        // @formatter:on
+        scheduler = Executors.newScheduledThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void only_the_latest_command_of_a_burst_is_executed() throws Exception {
+        final CoalescingFragmentInterpreter<String> interpreter =
+                new CoalescingFragmentInterpreter<>(mapperTree, scheduler, 200, TimeUnit.MILLISECONDS);
+        final SessionContext context = new SessionContext();
+
+        final List<CompletableFuture<CoalescingFragmentInterpreter.Result>> futures = new ArrayList<>();
+        for (int step = 0; step < 10; step++) {
+            futures.add(interpreter.interpretFragment("session", "step/n/" + step, context));
+        }
+
+        final CoalescingFragmentInterpreter.Result last = futures.get(9).get(10, TimeUnit.SECONDS);
+        assertThat(last.getStatus(), is(CoalescingFragmentInterpreter.Status.EXECUTED));
+        for (int step = 0; step < 9; step++) {
+            final CoalescingFragmentInterpreter.Result result = futures.get(step).get(10, TimeUnit.SECONDS);
+            assertThat(result.isSkipped(), is(true));
+            assertThat(((StepCommand) result.getCommand()).step, is(step));
+        }
+        assertThat(context.executed, is(Collections.singletonList(9)));
+    }
+
+    @Test
+    public void latest_pending_command_is_executed_after_the_running_command_completes() throws Exception {
+        final CoalescingFragmentInterpreter<String> interpreter =
+                new CoalescingFragmentInterpreter<>(mapperTree, scheduler, 0, TimeUnit.MILLISECONDS);
+        final SessionContext context = new SessionContext();
+
+        final CompletableFuture<CoalescingFragmentInterpreter.Result> blocked = interpreter.interpretFragment("session", "block", context);
+        assertThat(context.started.await(10, TimeUnit.SECONDS), is(true));
+
+        final CompletableFuture<CoalescingFragmentInterpreter.Result> first = interpreter.interpretFragment("session", "step/n/1", context);
+        final CompletableFuture<CoalescingFragmentInterpreter.Result> second = interpreter.interpretFragment("session", "step/n/2", context);
+        assertThat(first.get(10, TimeUnit.SECONDS).isSkipped(), is(true));
+        assertThat(second.isDone(), is(false));
+
+        context.release.countDown();
+        assertThat(blocked.get(10, TimeUnit.SECONDS).getStatus(), is(CoalescingFragmentInterpreter.Status.EXECUTED));
+        assertThat(second.get(10, TimeUnit.SECONDS).getStatus(), is(CoalescingFragmentInterpreter.Status.EXECUTED));
+        assertThat(context.executed, is(Collections.singletonList(2)));
+    }
+
+    @Test
+    public void keys_are_coalesced_independently() throws Exception {
+        final CoalescingFragmentInterpreter<String> interpreter =
+                new CoalescingFragmentInterpreter<>(mapperTree, scheduler, 50, TimeUnit.MILLISECONDS);
+        final SessionContext contextA = new SessionContext();
+        final SessionContext contextB = new SessionContext();
+
+        interpreter.interpretFragment("a", "step/n/1", contextA);
+        final CompletableFuture<CoalescingFragmentInterpreter.Result> resultB = interpreter.interpretFragment("b", "step/n/2", contextB);
+        final CompletableFuture<CoalescingFragmentInterpreter.Result> resultA = interpreter.interpretFragment("a", "step/n/3", contextA);
+
+        resultA.get(10, TimeUnit.SECONDS);
+        resultB.get(10, TimeUnit.SECONDS);
+        assertThat(contextA.executed, is(Collections.singletonList(3)));
+        assertThat(contextB.executed, is(Collections.singletonList(2)));
+    }
+
+    @Test
+    public void unknown_fragment_supersedes_pending_command() throws Exception {
+        final CoalescingFragmentInterpreter<String> interpreter =
+                new CoalescingFragmentInterpreter<>(mapperTree, scheduler, 200, TimeUnit.MILLISECONDS);
+        final SessionContext context = new SessionContext();
+
+        final CompletableFuture<CoalescingFragmentInterpreter.Result> pending = interpreter.interpretFragment("session", "step/n/1", context);
+        final CoalescingFragmentInterpreter.Result notFound = interpreter.interpretFragment("session", "unknown", context).get();
+
+        assertThat(notFound.getStatus(), is(CoalescingFragmentInterpreter.Status.NOT_FOUND));
+        assertThat(notFound.getCommand(), is(nullValue()));
+        assertThat(pending.get(10, TimeUnit.SECONDS).isSkipped(), is(true));
+        assertThat(interpreter.getActiveKeyCount(), is(0));
+        assertThat(context.executed.isEmpty(), is(true));
+    }
+
+    @Test
+    public void failing_command_completes_exceptionally_and_releases_key() throws Exception {
+        final CoalescingFragmentInterpreter<String> interpreter =
+                new CoalescingFragmentInterpreter<>(mapperTree, scheduler, 0, TimeUnit.MILLISECONDS);
+        final SessionContext context = new SessionContext();
+        context.failing = true;
+
+        final CompletableFuture<CoalescingFragmentInterpreter.Result> failing = interpreter.interpretFragment("session", "step/n/1", context);
+        try {
+            failing.get(10, TimeUnit.SECONDS);
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause() instanceof IllegalStateException, is(true));
+        }
+        assertThat(failing.isCompletedExceptionally(), is(true));
+
+        context.failing = false;
+        interpreter.interpretFragment("session", "step/n/2", context).get(10, TimeUnit.SECONDS);
+        assertThat(context.executed, is(Arrays.asList(1, 2)));
+        awaitNoActiveKeys(interpreter);
+    }
+
+    @Test
+    public void rejected_command_completes_exceptionally_and_releases_key() throws Exception {
+        final AtomicBoolean rejecting = new AtomicBoolean(true);
+        final CoalescingFragmentInterpreter<String> interpreter = new CoalescingFragmentInterpreter<>(mapperTree, scheduler, task -> {
+            if (rejecting.get()) {
+                throw new RejectedExecutionException("saturated");
+            }
+            task.run();
+        }, 0, TimeUnit.MILLISECONDS);
+        final SessionContext context = new SessionContext();
+
+        final CompletableFuture<CoalescingFragmentInterpreter.Result> rejected = interpreter.interpretFragment("session", "step/n/1", context);
+        try {
+            rejected.get(10, TimeUnit.SECONDS);
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause() instanceof RejectedExecutionException, is(true));
+        }
+        assertThat(rejected.isCompletedExceptionally(), is(true));
+        awaitNoActiveKeys(interpreter);
+
+        rejecting.set(false);
+        interpreter.interpretFragment("session", "step/n/2", context).get(10, TimeUnit.SECONDS);
+        assertThat(context.executed, is(Collections.singletonList(2)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negative_quiet_period_is_rejected() {
+        new CoalescingFragmentInterpreter<String>(mapperTree, scheduler, -1, TimeUnit.MILLISECONDS);
+    }
+
+    private static void awaitNoActiveKeys(final CoalescingFragmentInterpreter<?> interpreter) throws InterruptedException {
+        final long timeout = System.currentTimeMillis() + 10000;
+        while (interpreter.getActiveKeyCount() > 0 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertThat(interpreter.getActiveKeyCount(), is(0));
+    }
+
+    public static class SessionContext {
+        private final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean failing;
+    }
+
+    public static class StepCommand implements UriActionCommand {
+        private SessionContext context;
+        private Integer step;
+
+        @Override
+        public void run() {
+            context.executed.add(step);
+            if (context.failing) {
+                throw new IllegalStateException("failed");
+            }
+        }
+
+        @RoutingContext
+        public void setContext(final SessionContext context) {
+            this.context = context;
+        }
+
+        @CapturedParameter(mapperName = "step", parameterName = "n")
+        public void setStep(final ParameterValue<Integer> step) {
+            this.step = step.getValue();
+        }
+    }
+
+    public static class BlockingCommand implements UriActionCommand {
+        private SessionContext context;
+
+        @Override
+        public void run() {
+            context.started.countDown();
+            try {
+                context.release.await(10, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @RoutingContext
+        public void setContext(final SessionContext context) {
+            this.context = context;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package org.roklib.urifragmentrouting;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.roklib.urifragmentrouting.annotation.CapturedParameter;
+import org.roklib.urifragmentrouting.annotation.RoutingContext;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class KeyedActionCommandSchedulerTest {
+
+    private UriActionMapperTree mapperTree;
+    private ExecutorService executor;
+    private KeyedActionCommandScheduler<String> scheduler;
+
+    @Before
+    public void setUp() {
+        // @formatter:off
+        mapperTree = UriActionMapperTree.create().buildMapperTree()
+                .map("step").onActionFactory(StepCommand::new)
+                    .withSingleValuedParameter("n").forType(Integer.class).noDefault()
+                .finishMapper()
+                .map("block").onActionFactory(BlockingCommand::new).finishMapper()
+                .build();
+        // @formatter:on
+        executor = Executors.newFixedThreadPool(4);
+        scheduler = new KeyedActionCommandScheduler<>(mapperTree, executor);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void commands_for_the_same_key_are_executed_in_order() throws Exception {
+        final List<Future<UriActionCommand>> futures = new ArrayList<>();
+        final List<List<Integer>> executionOrders = new ArrayList<>();
+        for (int session = 0; session < 5; session++) {
+            final SessionContext context = new SessionContext();
+            executionOrders.add(context.executed);
+            for (int step = 0; step < 200; step++) {
+                futures.add(scheduler.interpretFragment("session" + session, "step/n/" + step, context));
+            }
+        }
+        for (final Future<UriActionCommand> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+
+        for (final List<Integer> executionOrder : executionOrders) {
+            assertThat(executionOrder.size(), is(200));
+            for (int step = 0; step < 200; step++) {
+                assertThat(executionOrder.get(step), is(step));
+            }
+        }
+    }
+
+    @Test
+    public void commands_for_different_keys_are_executed_in_parallel() throws Exception {
+        final SessionContext blockedContext = new SessionContext();
+        final CompletableFuture<UriActionCommand> blocked = scheduler.interpretFragment("blocked", "block", blockedContext);
+        assertThat(blockedContext.started.await(10, TimeUnit.SECONDS), is(true));
+
+        final SessionContext otherContext = new SessionContext();
+        final CompletableFuture<UriActionCommand> waitingInLine = scheduler.interpretFragment("blocked", "step/n/1", blockedContext);
+        final CompletableFuture<UriActionCommand> other = scheduler.interpretFragment("other", "step/n/1", otherContext);
+
+        other.get(10, TimeUnit.SECONDS);
+        assertThat(otherContext.executed, is(Collections.singletonList(1)));
+        assertThat(waitingInLine.isDone(), is(false));
+
+        blockedContext.release.countDown();
+        blocked.get(10, TimeUnit.SECONDS);
+        waitingInLine.get(10, TimeUnit.SECONDS);
+        assertThat(blockedContext.executed, is(Collections.singletonList(1)));
+    }
+
+    @Test
+    public void failing_command_does_not_affect_subsequent_commands() throws Exception {
+        final SessionContext context = new SessionContext();
+        final CompletableFuture<UriActionCommand> failing = scheduler.schedule("session", () -> {
+            throw new IllegalStateException("failed");
+        });
+        final CompletableFuture<UriActionCommand> succeeding = scheduler.interpretFragment("session", "step/n/7", context);
+
+        succeeding.get(10, TimeUnit.SECONDS);
+        assertThat(failing.isCompletedExceptionally(), is(true));
+        assertThat(context.executed, is(Collections.singletonList(7)));
+    }
+
+    @Test
+    public void rejected_command_is_not_executed_later() {
+        final List<Runnable> accepted = new ArrayList<>();
+        final boolean[] rejecting = {true};
+        final KeyedActionCommandScheduler<String> rejectingScheduler = new KeyedActionCommandScheduler<>(mapperTree, task -> {
+            if (rejecting[0]) {
+                throw new RejectedExecutionException("saturated");
+            }
+            accepted.add(task);
+        });
+        final SessionContext context = new SessionContext();
+
+        final CompletableFuture<UriActionCommand> rejected = rejectingScheduler.interpretFragment("session", "step/n/1", context);
+
+        assertThat(rejected.isCompletedExceptionally(), is(true));
+        assertThat(rejectingScheduler.getActiveKeyCount(), is(0));
+
+        rejecting[0] = false;
+        rejectingScheduler.interpretFragment("session", "step/n/2", context);
+        accepted.forEach(Runnable::run);
+        assertThat(context.executed, is(Collections.singletonList(2)));
+    }
+
+    @Test
+    public void unknown_fragment_completes_with_null() throws Exception {
+        assertThat(scheduler.interpretFragment("session", "unknown", new SessionContext()).get(), is(nullValue()));
+    }
+
+    @Test
+    public void idle_mailboxes_are_discarded() throws Exception {
+        scheduler.interpretFragment("session", "step/n/1", new SessionContext()).get(10, TimeUnit.SECONDS);
+        final long timeout = System.currentTimeMillis() + 10000;
+        while (scheduler.getActiveKeyCount() > 0 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertThat(scheduler.getActiveKeyCount(), is(0));
+    }
+
+    public static class SessionContext {
+        private final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+    }
+
+    public static class StepCommand implements UriActionCommand {
+        private SessionContext context;
+        private Integer step;
+
+        @Override
+        public void run() {
+            context.executed.add(step);
+        }
+
+        @RoutingContext
+        public void setContext(final SessionContext context) {
+            this.context = context;
+        }
+
+        @CapturedParameter(mapperName = "step", parameterName = "n")
+        public void setStep(final ParameterValue<Integer> step) {
+            this.step = step.getValue();
+        }
+    }
+
+    public static class BlockingCommand implements UriActionCommand {
+        private SessionContext context;
+
+        @Override
+        public void run() {
+            context.started.countDown();
+            try {
+                context.release.await(10, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @RoutingContext
+        public void setContext(final SessionContext context) {
+            this.context = context;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.roklib.urifragmentrouting;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.roklib.urifragmentrouting.mapper.ImmutableActionMapperWrapper;
+import org.roklib.urifragmentrouting.mapper.SimpleUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.UriPathSegmentActionMapper;
+
+import java.io.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class MapperTreeRegistryTest {
+
+    private static final String TREE_NAME = "registry-test";
+
+    private UriActionMapperTree tree;
+    private AtomicReference<UriPathSegmentActionMapper> profileMapper;
+
+    @Before
+    public void setUp() {
+        profileMapper = new AtomicReference<>();
+        // @formatter:off
+        tree = UriActionMapperTree.create().buildMapperTree()
+                .mapSubtree("users").onSubtree()
+                    .map("profile").onActionFactory(() -> null)
+                        .withSingleValuedParameter("id").forType(Integer.class).noDefault()
+                    .finishMapper(profileMapper::set)
+                .finishMapper()
+                .build();
+        // @formatter:on
+    }
+
+    @After
+    public void tearDown() {
+        MapperTreeRegistry.unregister(TREE_NAME);
+    }
+
+    @Test
+    public void registered_tree_is_serialized_as_reference() throws Exception {
+        MapperTreeRegistry.register(TREE_NAME, 7, tree);
+
+        final byte[] bytes = serialize(tree);
+
+        assertThat(bytes.length, lessThan(200));
+        assertThat(deserialize(bytes), sameInstance(tree));
+    }
+
+    @Test
+    public void wrapped_mapper_of_registered_tree_is_serialized_as_reference() throws Exception {
+        MapperTreeRegistry.register(TREE_NAME, tree);
+        final UriPathSegmentActionMapper wrapper = profileMapper.get();
+        assertThat(wrapper, instanceOf(ImmutableActionMapperWrapper.class));
+
+        final byte[] bytes = serialize(wrapper);
+        final Object result = deserialize(bytes);
+
+        assertThat(bytes.length, lessThan(250));
+        assertThat(result, instanceOf(ImmutableActionMapperWrapper.class));
+        assertThat(result, is(wrapper));
+        assertThat(((UriPathSegmentActionMapper) result).getParentMapper().getMapperName(), is("users"));
+    }
+
+    @Test
+    public void mapper_of_registered_tree_is_resolved_to_same_instance() throws Exception {
+        final MapperTreeRegistry.Registration registration = MapperTreeRegistry.register(TREE_NAME, tree);
+        final UriPathSegmentActionMapper usersMapper = registration.getMapper("users");
+
+        assertThat(deserialize(serialize(usersMapper)), sameInstance(usersMapper));
+    }
+
+    @Test
+    public void reregistering_a_name_increments_the_version() {
+        final UriActionMapperTree otherTree = UriActionMapperTree.create().buildMapperTree().build();
+
+        assertThat(MapperTreeRegistry.register(TREE_NAME, tree).getVersion(), is(1));
+        assertThat(MapperTreeRegistry.register(TREE_NAME, tree).getVersion(), is(1));
+        assertThat(MapperTreeRegistry.register(TREE_NAME, otherTree).getVersion(), is(2));
+        assertThat(MapperTreeRegistry.getRegistration(tree) == null, is(true));
+    }
+
+    @Test(expected = InvalidObjectException.class)
+    public void reference_to_other_version_is_rejected() throws Exception {
+        MapperTreeRegistry.register(TREE_NAME, 1, tree);
+        final byte[] bytes = serialize(tree);
+        MapperTreeRegistry.register(TREE_NAME, 2, tree);
+
+        deserialize(bytes);
+    }
+
+    @Test(expected = NotSerializableException.class)
+    public void unregistered_tree_cannot_be_serialized() throws Exception {
+        serialize(tree);
+    }
+
+    @Test(expected = NotSerializableException.class)
+    public void mapper_of_unregistered_tree_cannot_be_serialized() throws Exception {
+        serialize(profileMapper.get());
+    }
+
+    @Test
+    public void wrapper_of_unregistered_mapper_is_serialized_with_its_mapper() throws Exception {
+        final ImmutableActionMapperWrapper wrapper = new ImmutableActionMapperWrapper(new SimpleUriPathSegmentActionMapper("standalone"));
+
+        final Object result = deserialize(serialize(wrapper));
+
+        assertThat(result, instanceOf(ImmutableActionMapperWrapper.class));
+        assertThat(((UriPathSegmentActionMapper) result).getMapperName(), is("standalone"));
+    }
+
+    private static byte[] serialize(final Object object) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(final byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+}
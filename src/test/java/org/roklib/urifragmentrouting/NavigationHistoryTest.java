@@ -0,0 +1,114 @@
+package org.roklib.urifragmentrouting;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValuesSnapshot;
+
+import java.io.*;
+
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class NavigationHistoryTest {
+
+    private NavigationHistory history;
+
+    @Before
+    public void setUp() {
+        history = new NavigationHistory(3);
+    }
+
+    @Test
+    public void moves_back_and_forward() {
+        history.record("/products/page/1", "products", page(1));
+        history.record("/products/page/2", "products", page(2));
+
+        assertThat(history.back().getUriFragment(), is("/products/page/1"));
+        assertThat(history.back(), is(nullValue()));
+        assertThat(history.forward().getCapturedParameterValues().getValueFor("products", "page").getValue(), is(2));
+        assertThat(history.canGoForward(), is(false));
+    }
+
+    @Test
+    public void recording_discards_forward_entries() {
+        history.record("/a", "a", new CapturedParameterValues());
+        history.record("/b", "b", new CapturedParameterValues());
+        history.back();
+
+        history.record("/c", "c", new CapturedParameterValues());
+
+        assertThat(history.size(), is(2));
+        assertThat(history.canGoForward(), is(false));
+        assertThat(history.back().getUriFragment(), is("/a"));
+    }
+
+    @Test
+    public void oldest_entries_are_evicted() {
+        for (int i = 1; i <= 5; i++) {
+            history.record("/products/page/" + i, "products", page(i));
+        }
+
+        assertThat(history.size(), is(3));
+        assertThat(history.getCurrent().getUriFragment(), is("/products/page/5"));
+        history.back();
+        assertThat(history.back().getUriFragment(), is("/products/page/3"));
+        assertThat(history.canGoBack(), is(false));
+    }
+
+    @Test
+    public void unchanged_parameter_values_are_shared() {
+        final CapturedParameterValues first = page(1);
+        first.setValueFor("filter", "category", ParameterValue.forValue("books"));
+        first.setValueFor("filter", "sort", ParameterValue.forValue("price"));
+        final CapturedParameterValues second = page(2);
+        second.setValueFor("filter", "category", ParameterValue.forValue("books"));
+        second.setValueFor("filter", "sort", ParameterValue.forValue("price"));
+
+        final ParameterValuesSnapshot firstSnapshot = history.record("/1", "products", first).getSnapshot();
+        final ParameterValuesSnapshot secondSnapshot = history.record("/2", "products", second).getSnapshot();
+
+        assertThat(secondSnapshot.getValueFor("filter", "category"), sameInstance(firstSnapshot.getValueFor("filter", "category")));
+        assertThat(secondSnapshot.getValueFor("products", "page").getValue(), is(2));
+        assertThat(secondSnapshot.getOwnSizeInBytes(), lessThan(firstSnapshot.getOwnSizeInBytes()));
+        assertThat(history.record("/2", "products", second).getSnapshot(), sameInstance(secondSnapshot));
+    }
+
+    @Test
+    public void estimated_size_is_bounded() {
+        history = new NavigationHistory(100, 400);
+        for (int i = 0; i < 50; i++) {
+            history.record("/products/page/" + i, "products", page(i));
+        }
+
+        assertThat(history.getEstimatedSizeInBytes() <= 400, is(true));
+        assertThat(history.size() < 50, is(true));
+        assertThat(history.getCurrent().getUriFragment(), is("/products/page/49"));
+    }
+
+    @Test
+    public void history_is_serializable() throws Exception {
+        history.record("/products/page/1", "products", page(1));
+        history.record("/products/page/2", "products", page(2));
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(history);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            final NavigationHistory result = (NavigationHistory) in.readObject();
+            assertThat(result.size(), is(2));
+            assertThat(result.back().getSnapshot().getValueFor("products", "page").getValue(), is(1));
+        }
+    }
+
+    private static CapturedParameterValues page(final int page) {
+        final CapturedParameterValues values = new CapturedParameterValues();
+        values.setValueFor("products", "page", ParameterValue.forValue(page));
+        return values;
+    }
+}
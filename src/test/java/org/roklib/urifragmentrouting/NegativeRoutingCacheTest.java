@@ -0,0 +1,196 @@
+package org.roklib.urifragmentrouting;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.roklib.urifragmentrouting.mapper.DispatchingUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.RegexUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.SimpleUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.parameter.ParameterMode;
+import org.roklib.urifragmentrouting.parameter.converter.AbstractRegexToStringListParameterValueConverter;
+import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class NegativeRoutingCacheTest {
+
+    private final AtomicInteger usersInterpretations = new AtomicInteger();
+    private final AtomicLong clock = new AtomicLong();
+    private UriActionMapperTree tree;
+
+    @Before
+    public void setUp() {
+        tree = buildTree();
+    }
+
+    @Test
+    public void unroutable_fragment_is_not_passed_through_tree_again() {
+        final NegativeRoutingCache cache = new NegativeRoutingCache(10, 1, TimeUnit.MINUTES);
+        tree.setNegativeRoutingCache(cache);
+
+        assertThat(tree.resolve("/users/unknown").getStatus(), is(RouteMatch.Status.NOT_FOUND));
+        assertThat(tree.resolve("/users/unknown").getStatus(), is(RouteMatch.Status.NOT_FOUND));
+        assertThat(usersInterpretations.get(), is(1));
+        assertThat(cache.size(), is(1));
+        assertThat(cache.getHitCount(), is(1L));
+
+        tree.setDefaultActionCommandFactory(DefaultActionCommand::new);
+        assertThat(tree.interpretFragment("/users/unknown"), instanceOf(DefaultActionCommand.class));
+        assertThat(tree.resolve("/users/unknown").getStatus(), is(RouteMatch.Status.DEFAULT_FALLBACK));
+        assertThat(usersInterpretations.get(), is(1));
+
+        assertThat(tree.resolve("/users/profile").getStatus(), is(RouteMatch.Status.FOUND));
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    public void null_fragment_is_neither_cached_nor_profiled() {
+        final NegativeRoutingCache cache = new NegativeRoutingCache(10, 1, TimeUnit.MINUTES);
+        final RoutingProfiler profiler = new RoutingProfiler();
+        tree.setNegativeRoutingCache(cache);
+        tree.setRoutingProfiler(profiler);
+
+        assertThat(tree.interpretFragment(null), is(nullValue()));
+        assertThat(tree.interpretFragment(null), is(nullValue()));
+        assertThat(cache.size(), is(0));
+        assertThat(profiler.snapshot().getRoutedFragmentCount(), is(2L));
+    }
+
+    @Test
+    public void cached_fragments_expire() {
+        tree.setNegativeRoutingCache(new NegativeRoutingCache(10, 5, TimeUnit.SECONDS, clock::get));
+
+        tree.resolve("/users/unknown");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        tree.resolve("/users/unknown");
+        assertThat(usersInterpretations.get(), is(1));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        tree.resolve("/users/unknown");
+        assertThat(usersInterpretations.get(), is(2));
+    }
+
+    @Test
+    public void least_recently_used_fragment_is_evicted() {
+        final NegativeRoutingCache cache = new NegativeRoutingCache(2, 1, TimeUnit.MINUTES, clock::get);
+        cache.add("a");
+        cache.add("b");
+        assertThat(cache.contains("a"), is(true));
+        cache.add("c");
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.contains("a"), is(true));
+        assertThat(cache.contains("b"), is(false));
+        assertThat(cache.contains("c"), is(true));
+    }
+
+    @Test
+    public void cache_size_is_bounded_under_concurrent_access() throws InterruptedException {
+        final NegativeRoutingCache cache = new NegativeRoutingCache(50, 1, TimeUnit.MINUTES);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            final int offset = thread * 1000;
+            executor.execute(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    cache.add("/unknown/" + (offset + i));
+                    cache.contains("/unknown/" + (offset + i / 2));
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS), is(true));
+
+        assertThat(cache.size() <= 50, is(true));
+        cache.add("/unknown/last");
+        assertThat(cache.contains("/unknown/last"), is(true));
+    }
+
+    @Test
+    public void first_segment_prefilter_rejects_unknown_first_segments() {
+        assertThat(tree.enableFirstSegmentPrefilter(), is(true));
+
+        assertThat(tree.resolve("/unknown/path").getStatus(), is(RouteMatch.Status.NOT_FOUND));
+        assertThat(tree.resolve("").getStatus(), is(RouteMatch.Status.NOT_FOUND));
+        assertThat(tree.resolve("/home").getStatus(), is(RouteMatch.Status.FOUND));
+        assertThat(tree.resolve("//users/profile").getStatus(), is(RouteMatch.Status.FOUND));
+        assertThat(usersInterpretations.get(), is(1));
+
+        tree.setDefaultActionCommandFactory(DefaultActionCommand::new);
+        assertThat(tree.interpretFragment("/unknown/path"), instanceOf(DefaultActionCommand.class));
+    }
+
+    @Test
+    public void first_segment_prefilter_has_no_false_negatives() {
+        final UriActionMapperTree.MapperTreeBuilder builder = UriActionMapperTree.create().buildMapperTree();
+        for (int i = 0; i < 500; i++) {
+            builder.map("segment" + i).onActionFactory(DefaultActionCommand::new).finishMapper();
+        }
+        final UriActionMapperTree largeTree = builder.build();
+        assertThat(largeTree.enableFirstSegmentPrefilter(), is(true));
+
+        for (int i = 0; i < 500; i++) {
+            assertThat(largeTree.resolve("/segment" + i).getStatus(), is(RouteMatch.Status.FOUND));
+        }
+    }
+
+    @Test
+    public void first_segment_prefilter_requires_literal_root_mappers() {
+        final RegexUriPathSegmentActionMapper regexMapper = new RegexUriPathSegmentActionMapper("regex", "values",
+                new AbstractRegexToStringListParameterValueConverter("id_(\\d+)") {
+                    @Override
+                    public String convertToString(final List<String> value) {
+                        return value.get(0);
+                    }
+                });
+        final UriActionMapperTree regexTree = UriActionMapperTree.create().buildMapperTree()
+                .addMapper(regexMapper)
+                .build();
+
+        assertThat(regexTree.enableFirstSegmentPrefilter(), is(false));
+    }
+
+    private UriActionMapperTree buildTree() {
+        final DispatchingUriPathSegmentActionMapper usersMapper = new DispatchingUriPathSegmentActionMapper("users") {
+            @Override
+            protected UriActionCommandFactory interpretTokensImpl(final CapturedParameterValues capturedParameterValues,
+                                                                  final String currentUriToken,
+                                                                  final List<String> uriTokens,
+                                                                  final Map<String, String> queryParameters,
+                                                                  final ParameterMode parameterMode) {
+                usersInterpretations.incrementAndGet();
+                return super.interpretTokensImpl(capturedParameterValues, currentUriToken, uriTokens, queryParameters, parameterMode);
+            }
+        };
+        usersMapper.addSubMapper(new SimpleUriPathSegmentActionMapper("profile", "profile", TestActionCommand::new));
+
+        // @formatter:off
+        return UriActionMapperTree.create()
+                .buildMapperTree()
+                .map("home").onActionFactory(TestActionCommand::new).finishMapper()
+                .addMapper(usersMapper)
+                .build();
+        // @formatter:on
+    }
+
+    public static class TestActionCommand implements UriActionCommand {
+        @Override
+        public void run() {
+        }
+    }
+
+    public static class DefaultActionCommand implements UriActionCommand {
+        @Override
+        public void run() {
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.roklib.urifragmentrouting;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.roklib.urifragmentrouting.mapper.DispatchingUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.RegexUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.SimpleUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.UriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.parameter.converter.AbstractRegexToStringListParameterValueConverter;
+import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class PathSegmentAliasTest {
+
+    private UriActionMapperTree tree;
+    private DispatchingUriPathSegmentActionMapper productsMapper;
+    private UriPathSegmentActionMapper detailsMapper;
+
+    @Before
+    public void setUp() {
+        productsMapper = new DispatchingUriPathSegmentActionMapper("products");
+        productsMapper.addPathSegmentAlias(Locale.GERMAN, "produkte");
+        productsMapper.addPathSegmentAlias(Locale.FRENCH, "produits");
+        // @formatter:off
+        tree = UriActionMapperTree.create().buildMapperTree()
+                .map("home").onActionFactory(SomeActionCommand::new).finishMapper()
+                .mapSubtree(productsMapper).onSubtree()
+                    .map("details").onPathSegment("info")
+                        .withPathSegmentAlias(Locale.GERMAN, "einzelheiten")
+                        .withPathSegmentAlias(Locale.GERMANY, "details-de")
+                        .onActionFactory(SomeActionCommand::new)
+                        .withSingleValuedParameter("id").forType(Integer.class).noDefault()
+                    .finishMapper(mapper -> detailsMapper = mapper)
+                .finishMapper()
+                .build();
+        // @formatter:on
+    }
+
+    @Test
+    public void all_aliases_resolve_to_the_same_mapper() {
+        for (final String fragment : new String[]{"/products/info", "/produkte/info", "/produits/info",
+                "/produkte/einzelheiten", "/produits/details-de"}) {
+            final RouteMatch match = tree.resolve(fragment);
+            assertThat(fragment, match.isFound(), is(true));
+            assertThat(fragment, match.getActionMapper().getMapperName(), is("details"));
+        }
+        assertThat(tree.resolve("/prodotti/info").isFound(), is(false));
+    }
+
+    @Test
+    public void aliases_are_registered_in_the_literal_segment_index() {
+        assertThat(productsMapper.getLiteralSegmentIndex().keySet().size(), is(3));
+        assertThat(productsMapper.getLiteralSegmentIndex().get("einzelheiten").getMapperName(), is("details"));
+        assertThat(productsMapper.getLiteralSegmentIndex().get("details-de").getMapperName(), is("details"));
+    }
+
+    @Test
+    public void alias_added_after_the_tree_has_been_built_is_found() {
+        productsMapper.addPathSegmentAlias(Locale.ITALIAN, "prodotti");
+
+        assertThat(tree.resolve("/prodotti/info").isFound(), is(true));
+    }
+
+    @Test
+    public void uri_fragment_is_assembled_for_locale() {
+        final CapturedParameterValues values = new CapturedParameterValues();
+        values.setValueFor("details", "id", ParameterValue.forValue(17));
+
+        assertThat(tree.assembleUriFragment(values, detailsMapper), is("products/info/id/17"));
+        assertThat(tree.assembleUriFragment(values, detailsMapper, Locale.FRENCH), is("produits/info/id/17"));
+        // the German language alias is used as a fallback for the Swiss locale
+        assertThat(tree.assembleUriFragment(values, detailsMapper, new Locale("de", "CH")), is("produkte/einzelheiten/id/17"));
+        assertThat(tree.assembleUriFragment(values, detailsMapper, Locale.GERMANY), is("produkte/details-de/id/17"));
+        assertThat(tree.assembleUriFragment(values, detailsMapper, Locale.JAPANESE), is("products/info/id/17"));
+        assertThat(tree.resolve(tree.assembleUriFragment(values, detailsMapper, Locale.GERMANY)).getCapturedParameterValues()
+                .getValueFor("details", "id").getValue(), is(17));
+    }
+
+    @Test
+    public void literal_segments_keep_the_precedence_of_the_sub_mapper_order() {
+        assertThat(buildRegexTree("a_anyWord").resolve("/suche").getActionMapper().getMapperName(), is("a_anyWord"));
+        assertThat(buildRegexTree("a_anyWord").resolve("/search").getActionMapper().getMapperName(), is("a_anyWord"));
+
+        final UriActionMapperTree regexTree = buildRegexTree("z_anyWord");
+        assertThat(regexTree.resolve("/suche").getActionMapper().getMapperName(), is("b_search"));
+        assertThat(regexTree.resolve("/search").getActionMapper().getMapperName(), is("b_search"));
+        assertThat(regexTree.resolve("/other").getActionMapper().getMapperName(), is("z_anyWord"));
+    }
+
+    private static UriActionMapperTree buildRegexTree(final String regexMapperName) {
+        final RegexUriPathSegmentActionMapper regexMapper = new RegexUriPathSegmentActionMapper(regexMapperName, "word",
+                new AbstractRegexToStringListParameterValueConverter("(\\w+)") {
+                    @Override
+                    public String convertToString(final List<String> value) {
+                        return value.get(0);
+                    }
+                });
+        regexMapper.setActionCommandFactory(SomeActionCommand::new);
+        final SimpleUriPathSegmentActionMapper searchMapper = new SimpleUriPathSegmentActionMapper("b_search", "search", SomeActionCommand::new);
+        searchMapper.addPathSegmentAlias(Locale.GERMAN, "suche");
+        return UriActionMapperTree.create().buildMapperTree()
+                .addMapper(regexMapper)
+                .addMapper(searchMapper)
+                .build();
+    }
+
+    @Test
+    public void first_segment_prefilter_accepts_path_segments_and_aliases() {
+        final UriActionMapperTree aliasTree = UriActionMapperTree.create().buildMapperTree()
+                .map("start").onPathSegment("home").withPathSegmentAlias(Locale.GERMAN, "startseite")
+                .onActionFactory(SomeActionCommand::new).finishMapper()
+                .build();
+        assertThat(aliasTree.enableFirstSegmentPrefilter(), is(true));
+
+        assertThat(aliasTree.resolve("/home").isFound(), is(true));
+        assertThat(aliasTree.resolve("/startseite").isFound(), is(true));
+        assertThat(aliasTree.resolve("/start").isFound(), is(true));
+        assertThat(aliasTree.resolve("/unknown").isFound(), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void empty_alias_is_rejected() {
+        productsMapper.addPathSegmentAlias(Locale.GERMAN, "");
+    }
+
+    private static class SomeActionCommand implements UriActionCommand {
+        @Override
+        public void run() {
+        }
+    }
+}
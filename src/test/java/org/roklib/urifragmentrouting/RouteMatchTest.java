@@ -0,0 +1,172 @@
+package org.roklib.urifragmentrouting;
+
+import org.junit.Test;
+import org.roklib.urifragmentrouting.mapper.CatchAllUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.parameter.ParameterMode;
+import org.roklib.urifragmentrouting.parameter.SingleStringUriParameter;
+import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+
+import java.util.*;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class RouteMatchTest {
+
+    private static final List<String> FRAGMENTS = Arrays.asList(
+            "/products/list", "/de/products/books/list/2/price", "/lang/de/products/category/books/list/page/2/sort/price",
+            "/products/category/a%252Fb/list/sort/name", "/products/list?page=2&sort=price&lang=de",
+            "/products/list?category=grüne%20Äpfel", "/blog/hello-world/comments", "/blog/hello-world/comments/page/3",
+            "/blog/hello-world/comments/3", "/blog/hello-world/comments?page=3",
+            "de/products/books/list/2/price", "de/products/books/list/2");
+
+    @Test
+    public void derived_fragments_equal_assembled_fragments_in_directory_mode_with_names() {
+        assertSameFragments(ParameterMode.DIRECTORY_WITH_NAMES);
+    }
+
+    @Test
+    public void derived_fragments_equal_assembled_fragments_in_directory_mode() {
+        assertSameFragments(ParameterMode.DIRECTORY);
+    }
+
+    @Test
+    public void derived_fragments_equal_assembled_fragments_in_query_mode() {
+        assertSameFragments(ParameterMode.QUERY);
+    }
+
+    @Test
+    public void pagination_links_are_derived_from_current_fragment() {
+        final RouteMatch match = buildTree(ParameterMode.DIRECTORY_WITH_NAMES).resolve("/products/category/books/list/page/2/sort/price");
+
+        assertThat(match.with("list", "page", 3), is("lang/en/products/category/books/list/page/3/sort/price"));
+        assertThat(match.with("list", "page", null), is("lang/en/products/category/books/list/sort/price"));
+        assertThat(match.with("products", "category", "a b"), is("lang/en/products/category/a%20b/list/page/2/sort/price"));
+        assertThat(match.with(UriActionMapperTree.ROOT_MAPPER, "lang", null), is("products/category/books/list/page/2/sort/price"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mapper_must_be_on_the_path_of_the_matched_mapper() {
+        buildTree(ParameterMode.DIRECTORY_WITH_NAMES).resolve("/products/list").with("comments", "page", 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameter_must_be_registered_on_the_mapper() {
+        buildTree(ParameterMode.DIRECTORY_WITH_NAMES).resolve("/products/list").with("list", "unknown", 2);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void captured_parameter_values_cannot_be_changed() {
+        final RouteMatch match = buildTree(ParameterMode.DIRECTORY_WITH_NAMES).resolve("/products/list/page/2");
+        assertThat(match.getCapturedParameterValues().getValueFor("list", "page").getValue(), is(2));
+
+        match.getCapturedParameterValues().removeValueFor("list", "page");
+    }
+
+    @Test
+    public void captured_parameter_values_are_copied() {
+        final CapturedParameterValues values = new CapturedParameterValues();
+        values.setValueFor("list", "page", ParameterValue.forValue(2));
+        final RouteMatch match = new RouteMatch("/products/list/page/2", null, values, null);
+
+        values.setValueFor("list", "page", ParameterValue.forValue(3));
+        values.setValueFor("list", "sort", ParameterValue.forValue("price"));
+
+        assertThat(match.getCapturedParameterValues().getValueFor("list", "page").getValue(), is(2));
+        assertThat(match.getCapturedParameterValues().hasValueFor("list", "sort"), is(false));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unresolved_route_match_cannot_derive_fragments() {
+        new RouteMatch("/products", null, new CapturedParameterValues(), null).with("products", "category", "books");
+    }
+
+    private void assertSameFragments(final ParameterMode parameterMode) {
+        final UriActionMapperTree tree = buildTree(parameterMode);
+        final Set<String> matchedMappers = new HashSet<>();
+        for (final String fragment : FRAGMENTS) {
+            final RouteMatch match = tree.resolve(fragment);
+            if (!match.isFound()) {
+                continue;
+            }
+            final String mapperName = match.getActionMapper().getMapperName();
+            matchedMappers.add(mapperName);
+            if (mapperName.equals("list")) {
+                assertSameFragment(tree, match, UriActionMapperTree.ROOT_MAPPER, "lang", "fr");
+                assertSameFragment(tree, match, UriActionMapperTree.ROOT_MAPPER, "lang", null);
+                assertSameFragment(tree, match, "products", "category", "toys & games");
+                assertSameFragment(tree, match, "products", "category", null);
+                for (int page = 1; page <= 3; page++) {
+                    assertSameFragment(tree, match, "list", "page", page);
+                }
+                assertSameFragment(tree, match, "list", "page", null);
+                assertSameFragment(tree, match, "list", "sort", "name/asc");
+                assertSameFragment(tree, match, "list", "sort", null);
+            } else {
+                assertSameFragment(tree, match, "comments", "page", 7);
+                assertSameFragment(tree, match, "comments", "page", null);
+                assertSameFragment(tree, match, "blogPost", "slug", "other post");
+            }
+        }
+        assertThat(matchedMappers.contains("list"), is(true));
+    }
+
+    private void assertSameFragment(final UriActionMapperTree tree, final RouteMatch match, final String mapperName,
+                                    final String parameterId, final Object value) {
+        final CapturedParameterValues values = new CapturedParameterValues();
+        final CapturedParameterValues capturedValues = match.getCapturedParameterValues();
+        for (final String name : capturedValues.getMapperNames()) {
+            for (final String id : capturedValues.getParameterIds(name)) {
+                if (capturedValues.getValueFor(name, id).hasValue()) {
+                    values.setValueFor(name, id, capturedValues.getValueFor(name, id));
+                }
+            }
+        }
+        if (value == null) {
+            values.removeValueFor(mapperName, parameterId);
+        } else {
+            values.setValueFor(mapperName, parameterId, ParameterValue.forValue(value));
+        }
+        final String expected = tree.assembleUriFragment(match.getActionMapper().getMapperName(), values);
+
+        final String actual = match.with(mapperName, parameterId, value);
+
+        assertThat(match.getUriFragment() + " " + mapperName + "." + parameterId + "=" + value, actual, is(expected));
+    }
+
+    private static UriActionMapperTree buildTree(final ParameterMode parameterMode) {
+        final SingleStringUriParameter langParameter = new SingleStringUriParameter("lang");
+        langParameter.setOptional("en");
+        final CatchAllUriPathSegmentActionMapper<String> blogPostMapper =
+                new CatchAllUriPathSegmentActionMapper<>("blogPost", new SingleStringUriParameter("slug"));
+
+        // @formatter:off
+        return UriActionMapperTree.create()
+                .useParameterMode(parameterMode)
+                .registerRootActionMapperParameter(langParameter)
+                .buildMapperTree()
+                .mapSubtree("products").withSingleValuedParameter("category").forType(String.class).usingDefaultValue("all")
+                    .onSubtree()
+                    .map("list").onActionFactory(TestActionCommand::new)
+                        .withSingleValuedParameter("page").forType(Integer.class).usingDefaultValue(1)
+                        .withSingleValuedParameter("sort").forType(String.class).noDefault()
+                    .finishMapper()
+                .finishMapper()
+                .mapSubtree("blog").onSubtree()
+                    .mapSubtree(blogPostMapper).onSubtree()
+                        .map("comments").onActionFactory(TestActionCommand::new)
+                            .withSingleValuedParameter("page").forType(Integer.class).usingDefaultValue(1)
+                        .finishMapper()
+                    .finishMapper()
+                .finishMapper()
+                .build();
+        // @formatter:on
+    }
+
+    public static class TestActionCommand implements UriActionCommand {
+        @Override
+        public void run() {
+        }
+    }
+}
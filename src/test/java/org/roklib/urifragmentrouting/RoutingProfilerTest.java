@@ -0,0 +1,241 @@
+package org.roklib.urifragmentrouting;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.roklib.urifragmentrouting.mapper.DispatchingUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.RegexUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.mapper.SimpleUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.parameter.ParameterMode;
+import org.roklib.urifragmentrouting.parameter.converter.AbstractRegexToStringListParameterValueConverter;
+import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class RoutingProfilerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AtomicInteger homeInterpretations = new AtomicInteger();
+    private final AtomicInteger homeCommands = new AtomicInteger();
+    private UriActionMapperTree tree;
+    private RoutingProfiler profiler;
+
+    @Before
+    public void setUp() {
+        tree = buildTree();
+        profiler = new RoutingProfiler();
+        tree.setRoutingProfiler(profiler);
+    }
+
+    @Test
+    public void routing_traffic_is_recorded() {
+        tree.resolve("/home");
+        tree.resolve("/home");
+        tree.interpretFragment("/users/profile/id/17");
+        tree.resolve("/users/profile/id/abc");
+        tree.resolve("/users/profile/id/1x");
+        tree.resolve("/unknown");
+
+        final RoutingProfile profile = profiler.snapshot();
+        assertThat(profile.getRoutedFragmentCount(), is(6L));
+        assertThat(profile.getMissCount(), is(1L));
+        assertThat(profile.getMissRate(), is(1.0 / 6));
+        assertThat(profile.getMapperHits("home"), is(2L));
+        assertThat(profile.getMapperHits("profile"), is(3L));
+        assertThat(profile.getMapperHits("users"), is(3L));
+        assertThat(profile.getParameterValueShapes().get("profile").get("id"),
+                is(map("String:alphanumeric", 1L, "String:digits", 1L, "String:letters", 1L)));
+        assertThat(profile.getFragmentHits(), is(map("/home", 2L)));
+        assertThat(profile.getHotFragments(10), is(Collections.singletonList("/home")));
+    }
+
+    @Test
+    public void number_of_recorded_fragments_is_limited() {
+        final RoutingProfiler limitedProfiler = new RoutingProfiler(1);
+        tree.setRoutingProfiler(limitedProfiler);
+        tree.resolve("/home");
+        tree.resolve("/users");
+        tree.resolve("/home");
+
+        assertThat(limitedProfiler.snapshot().getFragmentHits(), is(map("/home", 2L)));
+        assertThat(limitedProfiler.snapshot().getRoutedFragmentCount(), is(3L));
+    }
+
+    @Test
+    public void profile_can_be_saved_and_loaded() throws IOException {
+        tree.resolve("/home");
+        tree.resolve("/users/profile/id/17");
+        tree.resolve("/users/profile/id/tab%09bed");
+        tree.resolve("/users/profile/id/line%0Abreak");
+        final RoutingProfile profile = profiler.snapshot();
+
+        final Path file = temporaryFolder.newFile().toPath();
+        profile.save(file);
+
+        assertThat(RoutingProfile.load(file), is(profile));
+    }
+
+    @Test(expected = IOException.class)
+    public void malformed_profile_is_rejected() throws IOException {
+        RoutingProfile.readFrom(new StringReader("no profile"));
+    }
+
+    @Test
+    public void hot_literal_fragments_are_not_passed_through_the_tree() {
+        tree.resolve("/home");
+        tree.resolve("/users/profile/id/17");
+
+        final UriActionMapperTree specializedTree = buildTree();
+        specializedTree.applyRoutingProfile(profiler.snapshot());
+        homeInterpretations.set(0);
+
+        for (int i = 0; i < 3; i++) {
+            final RouteMatch match = specializedTree.resolve("/home");
+            assertThat(match.getStatus(), is(RouteMatch.Status.FOUND));
+            assertThat(match.getActionMapper().getMapperName(), is("home"));
+        }
+        assertThat(homeInterpretations.get(), is(0));
+        assertThat(specializedTree.resolve("/users/profile/id/17").getCapturedParameterValues()
+                .getValueFor("profile", "id").getValue(), is("17"));
+    }
+
+    @Test
+    public void hot_fragments_create_new_prototype_commands() {
+        final UriActionMapperTree specializedTree = buildHotTree(false);
+
+        final UriActionCommand first = specializedTree.interpretFragment("/home");
+        final UriActionCommand second = specializedTree.interpretFragment("/home");
+
+        assertThat(first == second, is(false));
+    }
+
+    @Test
+    public void hot_fragments_return_pooled_commands_only_once() {
+        final UriActionMapperTree specializedTree = buildHotTree(true);
+        specializedTree.interpretFragment("/home");
+        specializedTree.interpretFragment("/home");
+
+        // the only idle command object is taken from the pool, so the second fragment needs a new one
+        final UriActionCommand first = specializedTree.interpretFragment("/home", null, false);
+        final UriActionCommand second = specializedTree.interpretFragment("/home", null, false);
+
+        assertThat(first == second, is(false));
+        assertThat(homeCommands.get(), is(2));
+    }
+
+    @Test
+    public void sibling_order_of_adaptive_dispatching_mappers_follows_profile() {
+        for (int i = 0; i < 5; i++) {
+            tree.resolve("/articles/b_" + i);
+        }
+        tree.resolve("/articles/a_0");
+
+        final UriActionMapperTree specializedTree = buildTree();
+        final DispatchingUriPathSegmentActionMapper articles = (DispatchingUriPathSegmentActionMapper) specializedTree
+                .getRootActionMapper().getSubMapperMap().get("articles");
+        articles.setAdaptiveSubMapperOrder(true);
+        assertThat(articles.getSubMapperEvaluationOrder().get(0).getMapperName(), is("alpha"));
+
+        specializedTree.applyRoutingProfile(profiler.snapshot());
+
+        assertThat(articles.getSubMapperEvaluationOrder().get(0).getMapperName(), is("beta"));
+        assertThat(specializedTree.resolve("/articles/a_1").getActionMapper().getMapperName(), is("alpha"));
+    }
+
+    private UriActionMapperTree buildHotTree(final boolean pooled) {
+        // @formatter:off
+        final UriActionMapperTree specializedTree = UriActionMapperTree.create().buildMapperTree()
+                .map("home").onActionFactory(() -> {
+                    homeCommands.incrementAndGet();
+                    return new ResettableTestActionCommand();
+                }).finishMapper()
+                .build();
+        // @formatter:on
+        if (pooled) {
+            ((SimpleUriPathSegmentActionMapper) specializedTree.getRootActionMapper().getSubMapperMap().get("home"))
+                    .setActionCommandLifecycle(ActionCommandLifecycle.POOLED, 2);
+        }
+        specializedTree.setRoutingProfiler(profiler);
+        specializedTree.resolve("/home");
+        specializedTree.applyRoutingProfile(profiler.snapshot());
+        specializedTree.setRoutingProfiler(null);
+        homeCommands.set(0);
+        return specializedTree;
+    }
+
+    private static Map<String, Long> map(final Object... keysAndValues) {
+        final Map<String, Long> result = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            result.put((String) keysAndValues[i], (Long) keysAndValues[i + 1]);
+        }
+        return result;
+    }
+
+    private UriActionMapperTree buildTree() {
+        final SimpleUriPathSegmentActionMapper homeMapper = new SimpleUriPathSegmentActionMapper("home", "home", TestActionCommand::new) {
+            @Override
+            protected UriActionCommandFactory interpretTokensImpl(final CapturedParameterValues capturedParameterValues,
+                                                                  final String currentUriToken,
+                                                                  final List<String> uriTokens,
+                                                                  final Map<String, String> queryParameters,
+                                                                  final ParameterMode parameterMode) {
+                homeInterpretations.incrementAndGet();
+                return super.interpretTokensImpl(capturedParameterValues, currentUriToken, uriTokens, queryParameters, parameterMode);
+            }
+        };
+
+        // @formatter:off
+        return UriActionMapperTree.create()
+                .buildMapperTree()
+                .addMapper(homeMapper)
+                .mapSubtree("users").onActionFactory(TestActionCommand::new).onSubtree()
+                    .map("profile").onActionFactory(TestActionCommand::new)
+                        .withSingleValuedParameter("id").forType(String.class).noDefault()
+                    .finishMapper()
+                .finishMapper()
+                .mapSubtree("articles").onSubtree()
+                    .addMapper(regexMapper("alpha", "a_(\\w+)"))
+                    .addMapper(regexMapper("beta", "b_(\\w+)"))
+                .finishMapper()
+                .build();
+        // @formatter:on
+    }
+
+    private static RegexUriPathSegmentActionMapper regexMapper(final String mapperName, final String regex) {
+        final RegexUriPathSegmentActionMapper mapper = new RegexUriPathSegmentActionMapper(mapperName, "values",
+                new AbstractRegexToStringListParameterValueConverter(regex) {
+                    @Override
+                    public String convertToString(final List<String> value) {
+                        return value.get(0);
+                    }
+                });
+        mapper.setActionCommandFactory(TestActionCommand::new);
+        return mapper;
+    }
+
+    public static class TestActionCommand implements UriActionCommand {
+        @Override
+        public void run() {
+        }
+    }
+
+    public static class ResettableTestActionCommand implements ResettableUriActionCommand {
+        @Override
+        public void run() {
+        }
+
+        @Override
+        public void reset() {
+        }
+    }
+}
@@ -18,12 +18,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.awt.geom.Point2D;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.Is.isA;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.roklib.urifragmentrouting.parameter.ParameterMode.*;
 
@@ -116,6 +122,53 @@ public class UriActionMapperTreeTest {
         assertThat(context.wasDefaultCommandExecuted, is(false));
     }
 
+    @Test
+    public void test_interpretFragmentAsync_runs_action_command_with_given_executor() throws Exception {
+        mapperTree = UriActionMapperTree.create().buildMapperTree()
+                .map("home").onActionFactory(MyActionCommand::new).finishMapper()
+                .build();
+
+        final List<Runnable> scheduledTasks = new ArrayList<>();
+        final CompletableFuture<UriActionCommand> future = mapperTree.interpretFragmentAsync("home", context, scheduledTasks::add);
+
+        assertThat(future.isDone(), is(false));
+        assertThat(context.wasMyActionCommandExecuted, is(false));
+        assertThat(context.capturedValues, is(notNullValue()));
+
+        assertThat(scheduledTasks, hasSize(1));
+        scheduledTasks.get(0).run();
+        assertThat(future.isDone(), is(true));
+        assertThat(future.get(), instanceOf(MyActionCommand.class));
+        assertThatMyActionCommandWasExecuted();
+    }
+
+    @Test
+    public void test_interpretFragmentAsync_completes_with_null_for_unknown_fragment() throws Exception {
+        mapperTree = UriActionMapperTree.create().buildMapperTree()
+                .map("home").onActionFactory(MyActionCommand::new).finishMapper()
+                .build();
+
+        final CompletableFuture<UriActionCommand> future = mapperTree.interpretFragmentAsync("unknown", context, command -> {
+            throw new AssertionError("executor must not be used");
+        });
+
+        assertThat(future.isDone(), is(true));
+        assertThat(future.get(), is(nullValue()));
+    }
+
+    @Test
+    public void test_interpretFragmentAsync_completes_exceptionally_if_action_command_fails() throws Exception {
+        mapperTree = UriActionMapperTree.create().buildMapperTree()
+                .map("fail").onActionFactory(() -> () -> {
+                    throw new IllegalStateException("failed");
+                }).finishMapper()
+                .build();
+
+        final CompletableFuture<UriActionCommand> future = mapperTree.interpretFragmentAsync("fail", context, Runnable::run);
+
+        assertThat(future.isCompletedExceptionally(), is(true));
+    }
+
     /**
      * Maps a nested path element on a URI fragment action.
      * <p>
@@ -593,6 +646,61 @@ public class UriActionMapperTreeTest {
         assertThatMyActionCommandWasExecuted();
     }
 
+    @Test
+    public void resolve_returns_route_match_without_creating_command() {
+        final List<UriActionCommand> createdCommands = new ArrayList<>();
+        // @formatter:off
+        mapperTree = UriActionMapperTree.create().buildMapperTree()
+                .mapSubtree("users").onSubtree()
+                    .map("profile").onActionFactory(() -> { final MyActionCommand command = new MyActionCommand(); createdCommands.add(command); return command; })
+                        .withSingleValuedParameter("id").forType(Integer.class).noDefault()
+                    .finishMapper()
+                .finishMapper()
+                .build();
+        // @formatter:on
+
+        final RouteMatch match = mapperTree.resolve("/users/profile/id/17", context);
+
+        assertThat(match.getStatus(), is(RouteMatch.Status.FOUND));
+        assertThat(match.isFound(), is(true));
+        assertThat(match.getUriFragment(), is("/users/profile/id/17"));
+        assertThat(match.getActionMapper().getMapperName(), is("profile"));
+        assertThat(match.getCapturedParameterValues().getValueFor("profile", "id").getValue(), is(17));
+        assertThat(match.getRoutingContext(), is(context));
+        assertThat(createdCommands, hasSize(0));
+        assertThat(context.wasMyActionCommandExecuted, is(false));
+    }
+
+    @Test
+    public void resolve_unknown_fragment_with_default_command_factory() {
+        final List<UriActionCommand> createdCommands = new ArrayList<>();
+        mapperTree = UriActionMapperTree.create()
+                .useDefaultActionCommandFactory(() -> { final DefaultActionCommand command = new DefaultActionCommand(); createdCommands.add(command); return command; })
+                .buildMapperTree()
+                .map("home").onActionFactory(MyActionCommand::new).finishMapper()
+                .build();
+
+        final RouteMatch match = mapperTree.resolve("/unknown");
+
+        assertThat(match.getStatus(), is(RouteMatch.Status.DEFAULT_FALLBACK));
+        assertThat(match.isFound(), is(false));
+        assertThat(match.getActionMapper(), is(nullValue()));
+        assertThat(createdCommands, hasSize(0));
+    }
+
+    @Test
+    public void resolve_unknown_fragment() {
+        mapperTree = UriActionMapperTree.create().buildMapperTree()
+                .map("home").onActionFactory(MyActionCommand::new).finishMapper()
+                .build();
+
+        final RouteMatch match = mapperTree.resolve("/unknown");
+
+        assertThat(match.getStatus(), is(RouteMatch.Status.NOT_FOUND));
+        assertThat(match.getActionMapper(), is(nullValue()));
+        assertThat(match.getRoutingContext(), is(nullValue()));
+    }
+
     private void assertThatMyActionCommandWasExecuted() {
         assertThat(context.wasMyActionCommandExecuted, is(true));
         assertThat(context.wasDefaultCommandExecuted, is(false));
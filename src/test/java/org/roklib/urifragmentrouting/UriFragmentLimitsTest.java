@@ -0,0 +1,79 @@
+package org.roklib.urifragmentrouting;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.roklib.urifragmentrouting.parameter.ParameterMode;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class UriFragmentLimitsTest {
+
+    private UriActionMapperTree tree;
+
+    @Before
+    public void setUp() {
+        // @formatter:off
+        tree = UriActionMapperTree.create()
+                .limitFragmentLength(64)
+                .limitUriTokenCount(4)
+                .limitQueryParameterCount(2)
+                .limitUriTokenLength(16)
+                .useParameterMode(ParameterMode.QUERY)
+                .useDefaultActionCommandFactory(TestActionCommand::new)
+                .buildMapperTree()
+                .map("home").onActionFactory(TestActionCommand::new).finishMapper()
+                .build();
+        // @formatter:on
+    }
+
+    @Test
+    public void fragments_within_limits_are_interpreted() {
+        assertThat(tree.resolve("/home?a=1&b=2").getStatus(), is(RouteMatch.Status.FOUND));
+        assertThat(tree.resolve("/unknown").getStatus(), is(RouteMatch.Status.DEFAULT_FALLBACK));
+        assertThat(tree.resolve("/a/b/c/d").getStatus(), is(RouteMatch.Status.DEFAULT_FALLBACK));
+    }
+
+    @Test
+    public void fragments_exceeding_limits_are_rejected() {
+        assertThat(tree.resolve("/home/" + repeat('x', 60)).getStatus(), is(RouteMatch.Status.REJECTED));
+        assertThat(tree.resolve("/a/b/c/d/e").getStatus(), is(RouteMatch.Status.REJECTED));
+        assertThat(tree.resolve("/home?a=1&b=2&c=3").getStatus(), is(RouteMatch.Status.REJECTED));
+        assertThat(tree.resolve("/" + repeat('x', 17)).getStatus(), is(RouteMatch.Status.REJECTED));
+    }
+
+    @Test
+    public void interpreting_rejected_fragment_yields_no_action_command() {
+        assertThat(tree.interpretFragment("/a/b/c/d/e"), is(nullValue()));
+    }
+
+    @Test
+    public void very_large_fragment_is_rejected_by_token_count() {
+        final UriActionMapperTree treeWithoutLengthLimit = UriActionMapperTree.create()
+                .limitUriTokenCount(100)
+                .buildMapperTree()
+                .map("home").onActionFactory(TestActionCommand::new).finishMapper()
+                .build();
+        final StringBuilder fragment = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            fragment.append("/x");
+        }
+
+        assertThat(treeWithoutLengthLimit.resolve(fragment.toString()).getStatus(), is(RouteMatch.Status.REJECTED));
+    }
+
+    private static String repeat(final char c, final int count) {
+        final StringBuilder result = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            result.append(c);
+        }
+        return result.toString();
+    }
+
+    public static class TestActionCommand implements UriActionCommand {
+        @Override
+        public void run() {
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.roklib.urifragmentrouting.codegen;
+
+import org.junit.Test;
+import org.roklib.urifragmentrouting.RouteMatch;
+import org.roklib.urifragmentrouting.UriActionCommand;
+import org.roklib.urifragmentrouting.UriActionMapperTree;
+import org.roklib.urifragmentrouting.mapper.*;
+import org.roklib.urifragmentrouting.parameter.ParameterMode;
+import org.roklib.urifragmentrouting.parameter.SingleBooleanUriParameter;
+import org.roklib.urifragmentrouting.parameter.SingleStringUriParameter;
+import org.roklib.urifragmentrouting.parameter.UriParameter;
+import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+import org.roklib.urifragmentrouting.parameter.value.UriPathTail;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Differential test which asserts that a tree with an installed generated router resolves URI fragments exactly like an
+ * identical tree which interprets the URI fragments with its action mappers.
+ */
+public class GeneratedRouterDifferentialTest {
+
+    private static final List<String> FRAGMENTS = Arrays.asList(
+            "", "/", "//", "home", "/home", "/home/", "/home/unknown", "/unknown",
+            "/users", "/users/", "/users/profile", "/users/profile/17", "/users/profile/17/true",
+            "/users/profile/id/17", "/users/profile/id/17/active/true", "/users/profile/active/false/id/3",
+            "/users/profile/id/abc", "/users/profile/id", "/users/profile/id/17/id/18",
+            "/users/profile?id=17&active=true", "/users/profile?id=x", "/users/profile?active=1",
+            "/users/list", "/users/list/2.5/12345678901", "/users/list/page/2.5/offset/12345678901/ratio/0.5",
+            "/users/list?page=1e3&offset=-1&ratio=NaN", "/users/list/page/x",
+            "/users/settings", "/users/settings/dark", "/users/settings/theme/dark",
+            "/users/settings?theme=light", "/users/settings/theme/dark/details",
+            "/admin", "/administration", "/administration/log", "/admin/log", "/admin/log/42",
+            "/shop", "/shop/id_17", "/shop/id_17/details", "/shop/id_/details", "/shop/7_flowers/view",
+            "/shop/anything", "/shop/anything/reviews", "/shop/reviews", "/shop/id_catalog", "/shop/id_special",
+            "/blog", "/blog/2017/archive", "/blog/year/2017/archive", "/blog/archive", "/blog/archive?year=2017",
+            "/blog/hello-world", "/root?rootParam=x", "/home?rootParam=x", "/%C3%A4bc", "/users/profile/id/%31%37",
+            "/files", "/files/readme.txt", "/files/documents/2017/report.txt", "/files/a%2Fb//c/", "/files/shared",
+            "/startseite", "/accueil", "/startseite/unknown", "/verwaltung", "/verwaltung/log", "/admin/protokoll/42");
+
+    @Test
+    public void generated_router_resolves_like_interpreted_tree_in_directory_mode_with_names() {
+        assertSameResolution(ParameterMode.DIRECTORY_WITH_NAMES);
+    }
+
+    @Test
+    public void generated_router_resolves_like_interpreted_tree_in_directory_mode() {
+        assertSameResolution(ParameterMode.DIRECTORY);
+    }
+
+    @Test
+    public void generated_router_resolves_like_interpreted_tree_in_query_mode() {
+        assertSameResolution(ParameterMode.QUERY);
+    }
+
+    @Test
+    public void generated_router_can_be_uninstalled() {
+        final UriActionMapperTree tree = buildTree(ParameterMode.DIRECTORY_WITH_NAMES);
+        final GeneratedRouter router = RouterCompiler.compileAndInstall(tree);
+        assertThat(tree.getGeneratedRouter(), is(router));
+
+        tree.setGeneratedRouter(null);
+
+        assertThat(tree.resolve("/users/profile/id/17").getActionMapper().getMapperName(), is("profile"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void generated_router_cannot_be_used_for_a_different_tree() {
+        final GeneratedRouter router = RouterCompiler.compile(buildTree(ParameterMode.DIRECTORY_WITH_NAMES));
+        final UriActionMapperTree otherTree = UriActionMapperTree.create().buildMapperTree()
+                .map("home").onActionFactory(TestActionCommand::new).finishMapper()
+                .build();
+        // instantiating the same class for a differently shaped tree must fail
+        try {
+            router.getClass().getConstructor(UriActionMapperTree.class).newInstance(otherTree);
+        } catch (final java.lang.reflect.InvocationTargetException e) {
+            throw (RuntimeException) e.getCause();
+        } catch (final ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    public void generated_source_escapes_literals() {
+        final UriActionMapperTree tree = UriActionMapperTree.create().buildMapperTree()
+                .map("quote\"mapper").onPathSegment("back\\slash\nsegment").onActionFactory(TestActionCommand::new).finishMapper()
+                .build();
+        final String source = new RouterSourceGenerator(tree).generateSource("org.example", "EscapingRouter");
+        assertThat(source, containsString("\"back\\\\slash\\012segment\""));
+
+        final UriActionMapperTree generatedTree = UriActionMapperTree.create().buildMapperTree()
+                .map("quote\"mapper").onPathSegment("back\\slash\nsegment").onActionFactory(TestActionCommand::new).finishMapper()
+                .build();
+        RouterCompiler.compileAndInstall(generatedTree);
+        assertThat(generatedTree.resolve("/back%5Cslash%0Asegment").isFound(), is(true));
+        assertThat(tree.resolve("/back%5Cslash%0Asegment").isFound(), is(true));
+    }
+
+    private void assertSameResolution(final ParameterMode parameterMode) {
+        final UriActionMapperTree interpretedTree = buildTree(parameterMode);
+        final UriActionMapperTree generatedTree = buildTree(parameterMode);
+        RouterCompiler.compileAndInstall(generatedTree);
+        assertThat(generatedTree.getGeneratedRouter(), is(notNullValue()));
+
+        for (final String fragment : FRAGMENTS) {
+            assertThat(parameterMode + " " + fragment, resolve(generatedTree, fragment), is(resolve(interpretedTree, fragment)));
+        }
+    }
+
+    private String resolve(final UriActionMapperTree tree, final String fragment) {
+        final RouteMatch match;
+        try {
+            match = tree.resolve(fragment);
+        } catch (final RuntimeException e) {
+            return "exception " + e.getClass().getName();
+        }
+        final StringBuilder result = new StringBuilder();
+        result.append(match.getStatus())
+                .append(' ')
+                .append(match.getActionMapper() == null ? null : match.getActionMapper().getMapperName());
+        describeValues(tree.getRootActionMapper(), match.getCapturedParameterValues(), result);
+        return result.toString();
+    }
+
+    private void describeValues(final UriPathSegmentActionMapper mapper, final CapturedParameterValues values, final StringBuilder result) {
+        if (mapper instanceof AbstractUriPathSegmentActionMapper) {
+            for (final Map.Entry<String, UriParameter<?>> entry : ((AbstractUriPathSegmentActionMapper) mapper).getRegisteredUriParameters().entrySet()) {
+                if (values.hasValueFor(mapper.getMapperName(), entry.getKey())) {
+                    result.append(' ').append(mapper.getMapperName()).append('.').append(entry.getKey())
+                            .append('=').append(values.getValueFor(mapper.getMapperName(), entry.getKey()));
+                }
+            }
+        }
+        if (mapper instanceof DispatchingUriPathSegmentActionMapper) {
+            final DispatchingUriPathSegmentActionMapper dispatchingMapper = (DispatchingUriPathSegmentActionMapper) mapper;
+            dispatchingMapper.getSubMapperMap().values().forEach(subMapper -> describeValues(subMapper, values, result));
+            if (dispatchingMapper.getCatchAllMapper() != null) {
+                describeValues(dispatchingMapper.getCatchAllMapper(), values, result);
+            }
+            final TailUriPathSegmentActionMapper tailMapper = dispatchingMapper.getTailMapper();
+            if (tailMapper != null && values.hasValueFor(tailMapper.getMapperName(), tailMapper.getParameterId())) {
+                result.append(' ').append(tailMapper.getMapperName()).append('=')
+                        .append(values.<UriPathTail>getValueFor(tailMapper.getMapperName(), tailMapper.getParameterId()).getValue().getSegments());
+            }
+        }
+    }
+
+    private UriActionMapperTree buildTree(final ParameterMode parameterMode) {
+        final StartsWithUriPathSegmentActionMapper startsWithMapper = new StartsWithUriPathSegmentActionMapper("shopItem", "id_", "itemId");
+        startsWithMapper.setActionCommandFactory(TestActionCommand::new);
+        final CatchAllUriPathSegmentActionMapper<String> catchAllMapper = new CatchAllUriPathSegmentActionMapper<>("shopCatchAll", new SingleStringUriParameter("anything"));
+        final CatchAllUriPathSegmentActionMapper<String> blogCatchAll = new CatchAllUriPathSegmentActionMapper<>("blogPost", new SingleStringUriParameter("slug"));
+        blogCatchAll.setActionCommandFactory(TestActionCommand::new);
+
+        // @formatter:off
+        return UriActionMapperTree.create()
+                .useParameterMode(parameterMode)
+                .useDefaultActionCommandFactory(TestActionCommand::new)
+                .setRootActionCommandFactory(TestActionCommand::new)
+                .registerRootActionMapperParameter(new SingleStringUriParameter("rootParam"))
+                .buildMapperTree()
+                .map("home").withPathSegmentAlias(Locale.GERMAN, "startseite").withPathSegmentAlias(Locale.FRENCH, "accueil")
+                    .onActionFactory(TestActionCommand::new).finishMapper()
+                .mapSubtree("users").onSubtree()
+                    .map("profile").onActionFactory(TestActionCommand::new)
+                        .withSingleValuedParameter("id").forType(Integer.class).noDefault()
+                        .withParameter(new SingleBooleanUriParameter("active"))
+                    .finishMapper()
+                    .map("list").onActionFactory(TestActionCommand::new)
+                        .withSingleValuedParameter("page").forType(Double.class).usingDefaultValue(1.0)
+                        .withSingleValuedParameter("offset").forType(Long.class).noDefault()
+                        .withSingleValuedParameter("ratio").forType(Float.class).usingDefaultValue(0.25f)
+                    .finishMapper()
+                    .mapSubtree("settings").withSingleValuedParameter("theme").forType(String.class).usingDefaultValue("plain")
+                        .onActionFactory(TestActionCommand::new)
+                        .onSubtree()
+                        .map("details").onActionFactory(TestActionCommand::new).finishMapper()
+                    .finishMapper()
+                .finishMapper()
+                .map("admin").onPathSegment("administration").withPathSegmentAlias(Locale.GERMAN, "verwaltung").onActionFactory(TestActionCommand::new).finishMapper()
+                .mapSubtree("adminLog", "admin").onSubtree()
+                    .map("log").withPathSegmentAlias(Locale.GERMAN, "protokoll").onActionFactory(TestActionCommand::new)
+                        .withSingleValuedParameter("entry").forType(Integer.class).usingDefaultValue(0)
+                    .finishMapper()
+                .finishMapper()
+                .mapSubtree("shop").onSubtree()
+                    .addMapper(startsWithMapper)
+                    .map("catalog").onPathSegment("id_catalog").onActionFactory(TestActionCommand::new).finishMapper()
+                    .map("special").onPathSegment("id_special").onActionFactory(TestActionCommand::new).finishMapper()
+                    .mapSubtree(catchAllMapper).onSubtree()
+                        .map("reviews").onActionFactory(TestActionCommand::new).finishMapper()
+                    .finishMapper()
+                    .mapSubtree("shopItemDetails", "reviews").onSubtree()
+                        .map("reviewDetails").onPathSegment("details").onActionFactory(TestActionCommand::new).finishMapper()
+                    .finishMapper()
+                .finishMapper()
+                .mapSubtree("blog").onSubtree()
+                    .map("archive").onActionFactory(TestActionCommand::new)
+                        .withSingleValuedParameter("year").forType(Integer.class).noDefault()
+                    .finishMapper()
+                    .addMapper(blogCatchAll)
+                .finishMapper()
+                .mapSubtree("files").onSubtree()
+                    .map("shared").onActionFactory(TestActionCommand::new).finishMapper()
+                    .addMapper(new TailUriPathSegmentActionMapper("filePath", "path", TestActionCommand::new))
+                .finishMapper()
+                .build();
+        // @formatter:on
+    }
+
+    public static class TestActionCommand implements UriActionCommand {
+        @Override
+        public void run() {
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package org.roklib.urifragmentrouting.codegen;
+
+import org.junit.Test;
+import org.roklib.urifragmentrouting.UriActionCommand;
+import org.roklib.urifragmentrouting.UriActionMapperTree;
+import org.roklib.urifragmentrouting.mapper.CatchAllUriPathSegmentActionMapper;
+import org.roklib.urifragmentrouting.parameter.ParameterMode;
+import org.roklib.urifragmentrouting.parameter.SingleBooleanUriParameter;
+import org.roklib.urifragmentrouting.parameter.SingleStringUriParameter;
+import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+import org.roklib.urifragmentrouting.strategy.DirectoryStyleUriTokenExtractionStrategyImpl;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Differential test which asserts that generated link builders assemble the same URI fragments as {@link
+ * UriActionMapperTree#assembleUriFragment(String, CapturedParameterValues)}.
+ */
+public class LinkBuilderSourceGeneratorTest {
+
+    private static final LocalDate DATE = LocalDate.of(2017, 3, 24);
+
+    @Test
+    public void links_equal_assembled_uri_fragments_in_directory_mode_with_names() throws Exception {
+        assertSameLinks(ParameterMode.DIRECTORY_WITH_NAMES);
+    }
+
+    @Test
+    public void links_equal_assembled_uri_fragments_in_directory_mode() throws Exception {
+        assertSameLinks(ParameterMode.DIRECTORY);
+    }
+
+    @Test
+    public void links_equal_assembled_uri_fragments_in_query_mode() throws Exception {
+        assertSameLinks(ParameterMode.QUERY);
+    }
+
+    @Test
+    public void link_is_appended_to_string_builder() throws Exception {
+        final UriActionMapperTree tree = buildTree(ParameterMode.DIRECTORY_WITH_NAMES);
+        final Object linkBuilder = compile(tree);
+        final StringBuilder target = new StringBuilder("#!");
+
+        invoke(linkBuilder, "appendProductLink", target, null, "all", 17L, DATE);
+
+        assertThat(target.toString(), is("#!products/category/all/product/id/17/from/2017-03-24"));
+    }
+
+    @Test
+    public void uses_typed_arguments() {
+        final String source = new LinkBuilderSourceGenerator(buildTree(ParameterMode.DIRECTORY)).generateSource("org.example", "Links");
+
+        assertThat(source, containsString("public String productLink(final String lang, final String category, final long id, final java.time.LocalDate from)"));
+        assertThat(source, containsString("public String listLink(final String lang, final String category, final Integer page, final boolean active)"));
+    }
+
+    @Test
+    public void no_links_are_generated_for_catch_all_mappers() {
+        final String source = new LinkBuilderSourceGenerator(buildTree(ParameterMode.DIRECTORY)).generateSource("org.example", "Links");
+
+        assertThat(source.contains("blogPostLink"), is(false));
+        assertThat(source.contains("commentsLink"), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void trees_with_custom_strategies_are_rejected() {
+        final UriActionMapperTree tree = UriActionMapperTree.create()
+                .useUriTokenExtractionStrategy(new DirectoryStyleUriTokenExtractionStrategyImpl() {
+                })
+                .buildMapperTree()
+                .map("home").onActionFactory(TestActionCommand::new).finishMapper()
+                .build();
+        new LinkBuilderSourceGenerator(tree);
+    }
+
+    private void assertSameLinks(final ParameterMode parameterMode) throws Exception {
+        final UriActionMapperTree tree = buildTree(parameterMode);
+        final Object linkBuilder = compile(tree);
+
+        for (final String lang : Arrays.asList(null, "de")) {
+            assertSameLink(tree, linkBuilder, "home", values(lang, null), "homeLink", lang);
+            for (final String category : Arrays.asList(null, "", "books & more", "a/b%c=d", "grüne Äpfel")) {
+                assertSameLink(tree, linkBuilder, "products", values(lang, category), "productsLink", lang, category);
+                final CapturedParameterValues productValues = values(lang, category);
+                productValues.setValueFor("product", "id", ParameterValue.forValue(-17L));
+                assertSameLink(tree, linkBuilder, "product", productValues, "productLink", lang, category, -17L, null);
+                productValues.setValueFor("product", "from", ParameterValue.forValue(DATE));
+                assertSameLink(tree, linkBuilder, "product", productValues, "productLink", lang, category, -17L, DATE);
+
+                final CapturedParameterValues listValues = values(lang, category);
+                listValues.setValueFor("list", "active", ParameterValue.forValue(true));
+                assertSameLink(tree, linkBuilder, "list", listValues, "listLink", lang, category, null, true);
+                listValues.setValueFor("list", "page", ParameterValue.forValue(3));
+                assertSameLink(tree, linkBuilder, "list", listValues, "listLink", lang, category, 3, true);
+            }
+        }
+        final CapturedParameterValues ratioValues = new CapturedParameterValues();
+        ratioValues.setValueFor("my-special ratio", "value", ParameterValue.forValue(0.5d));
+        assertSameLink(tree, linkBuilder, "my-special ratio", ratioValues, "mySpecialRatioLink", null, 0.5d);
+    }
+
+    private void assertSameLink(final UriActionMapperTree tree, final Object linkBuilder,
+                                final String mapperName, final CapturedParameterValues values,
+                                final String methodName, final Object... arguments) throws Exception {
+        final String expected = tree.assembleUriFragment(mapperName, values);
+        final String actual = (String) invoke(linkBuilder, methodName, arguments);
+        assertThat(Arrays.toString(arguments), actual, is(expected));
+    }
+
+    private static CapturedParameterValues values(final String lang, final String category) {
+        final CapturedParameterValues values = new CapturedParameterValues();
+        if (lang != null) {
+            values.setValueFor(UriActionMapperTree.ROOT_MAPPER, "lang", ParameterValue.forValue(lang));
+        }
+        if (category != null) {
+            values.setValueFor("products", "category", ParameterValue.forValue(category));
+        }
+        return values;
+    }
+
+    private static Object compile(final UriActionMapperTree tree) {
+        final String source = new LinkBuilderSourceGenerator(tree).generateSource(RouterCompiler.GENERATED_PACKAGE, "TestLinks");
+        return RouterCompiler.compile(tree, RouterCompiler.GENERATED_PACKAGE + ".TestLinks", source);
+    }
+
+    private static Object invoke(final Object linkBuilder, final String methodName, final Object... arguments) throws Exception {
+        for (final Method method : linkBuilder.getClass().getMethods()) {
+            if (method.getName().equals(methodName)) {
+                try {
+                    return method.invoke(linkBuilder, arguments);
+                } catch (final InvocationTargetException e) {
+                    throw (Exception) e.getCause();
+                }
+            }
+        }
+        throw new AssertionError("No method " + methodName);
+    }
+
+    private static UriActionMapperTree buildTree(final ParameterMode parameterMode) {
+        final SingleStringUriParameter langParameter = new SingleStringUriParameter("lang");
+        langParameter.setOptional("en");
+
+        // @formatter:off
+        return UriActionMapperTree.create()
+                .useParameterMode(parameterMode)
+                .registerRootActionMapperParameter(langParameter)
+                .buildMapperTree()
+                .map("home").onActionFactory(TestActionCommand::new).finishMapper()
+                .mapSubtree("products").withSingleValuedParameter("category").forType(String.class).usingDefaultValue("all")
+                    .onActionFactory(TestActionCommand::new)
+                    .onSubtree()
+                    .map("product").onActionFactory(TestActionCommand::new)
+                        .withSingleValuedParameter("id").forType(Long.class).noDefault()
+                        .withSingleValuedParameter("from").forType(LocalDate.class).usingDefaultValue(DATE)
+                    .finishMapper()
+                    .map("list").onPathSegment("all items").onActionFactory(TestActionCommand::new)
+                        .withSingleValuedParameter("page").forType(Integer.class).usingDefaultValue(1)
+                        .withParameter(new SingleBooleanUriParameter("active"))
+                    .finishMapper()
+                .finishMapper()
+                .map("my-special ratio").onPathSegment("ratio/value").onActionFactory(TestActionCommand::new)
+                    .withSingleValuedParameter("value").forType(Double.class).noDefault()
+                .finishMapper()
+                .mapSubtree("blog").onSubtree()
+                    .mapSubtree(new CatchAllUriPathSegmentActionMapper<>("blogPost", new SingleStringUriParameter("slug"))).onSubtree()
+                        .map("comments").onActionFactory(TestActionCommand::new).finishMapper()
+                    .finishMapper()
+                .finishMapper()
+                .build();
+        // @formatter:on
+    }
+
+    public static class TestActionCommand implements UriActionCommand {
+        @Override
+        public void run() {
+        }
+    }
+}
@@ -41,6 +41,14 @@ public class ActionCommandConfigurerTest {
         assertThat(action, instanceOf(ActionCommandForSettingAnyData.class));
     }
 
+    @Test
+    public void wrapped_action_mapper_is_not_wrapped_again() {
+        final ImmutableActionMapperWrapper wrapper = new ImmutableActionMapperWrapper(new SimpleUriPathSegmentActionMapper("test"));
+        factory = new ActionCommandConfigurer(ActionCommandForSettingAnyData::new, wrapper);
+
+        assertThat(factory.getActionMapper(), is(sameInstance(wrapper)));
+    }
+
     @Test
     public void set_one_captured_parameter() {
         ActionCommandForSettingAnyData result = new ActionCommandForSettingAnyData();
@@ -0,0 +1,130 @@
+package org.roklib.urifragmentrouting.index;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class SortedKeyIndexTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void keys_are_found_with_their_ids() {
+        final SortedKeyIndex index = SortedKeyIndex.builder()
+                .put("shoes", 3L)
+                .put("boots", 1L)
+                .put("sandals", 2L)
+                .build();
+
+        assertThat(index.size(), is(3));
+        assertThat(index.getKey(0), is("boots"));
+        assertThat(index.getKey(2), is("shoes"));
+        assertThat(index.getId(index.indexOf("sandals")), is(2L));
+        assertThat(index.indexOf("slippers"), is(-1));
+        assertThat(index.containsKey(""), is(false));
+    }
+
+    @Test
+    public void keys_are_sorted_by_their_utf8_encoding() {
+        final SortedKeyIndex index = SortedKeyIndex.builder()
+                .put("über", 1L)
+                .put("zebra", 2L)
+                .put("Zebra", 3L)
+                .build();
+
+        assertThat(index.getKey(0), is("Zebra"));
+        assertThat(index.getKey(1), is("zebra"));
+        assertThat(index.getKey(2), is("über"));
+        assertThat(index.getId(index.indexOf("über")), is(1L));
+    }
+
+    @Test
+    public void index_can_be_changed_through_builder() {
+        final SortedKeyIndex index = SortedKeyIndex.builder().put("a", 1L).put("b", 2L).build();
+        final SortedKeyIndex changed = index.toBuilder().put("a", 10L).remove("b").put("c", 3L).build();
+
+        assertThat(index.size(), is(2));
+        assertThat(changed.size(), is(2));
+        assertThat(changed.getId(changed.indexOf("a")), is(10L));
+        assertThat(changed.containsKey("b"), is(false));
+        assertThat(changed.containsKey("c"), is(true));
+    }
+
+    @Test
+    public void keys_can_be_found_by_id() {
+        final SortedKeyIndex index = SortedKeyIndex.builder()
+                .put("new-name", 7L)
+                .put("old-name", 7L)
+                .put("other", 3L)
+                .build();
+
+        assertThat(index.getKey(index.positionOfId(7L)), is("new-name"));
+        assertThat(index.getKey(index.positionOfId(3L)), is("other"));
+        assertThat(index.positionOfId(4L), is(-1));
+    }
+
+    @Test
+    public void index_can_be_saved_loaded_and_mapped() throws IOException {
+        final SortedKeyIndex index = createIndex(1000);
+        final Path file = temporaryFolder.newFile().toPath();
+        index.save(file);
+
+        for (final SortedKeyIndex readIndex : new SortedKeyIndex[]{SortedKeyIndex.load(file), SortedKeyIndex.map(file)}) {
+            assertThat(readIndex.size(), is(1000));
+            assertThat(readIndex.getSizeInBytes(), is(index.getSizeInBytes()));
+            for (int i = 0; i < 1000; i++) {
+                assertThat(readIndex.getId(readIndex.indexOf("product-" + i)), is((long) i));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void corrupt_file_is_rejected() throws IOException {
+        final Path file = temporaryFolder.newFile().toPath();
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17});
+        SortedKeyIndex.load(file);
+    }
+
+    @Test
+    public void index_is_serializable() throws IOException, ClassNotFoundException {
+        final SortedKeyIndex index = createIndex(10);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(index);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            final SortedKeyIndex readIndex = (SortedKeyIndex) in.readObject();
+            assertThat(readIndex.size(), is(10));
+            assertThat(readIndex.getId(readIndex.indexOf("product-5")), is(5L));
+        }
+    }
+
+    @Test
+    public void index_needs_few_bytes_per_key() {
+        final int keyCount = 100_000;
+        final SortedKeyIndex index = createIndex(keyCount);
+        long keyBytes = 0;
+        for (int i = 0; i < keyCount; i++) {
+            keyBytes += ("product-" + i).length();
+        }
+        final double overheadPerKey = (double) (index.getSizeInBytes() - keyBytes) / keyCount;
+        assertTrue("overhead per key: " + overheadPerKey, overheadPerKey <= 16.5);
+    }
+
+    private static SortedKeyIndex createIndex(final int keyCount) {
+        final SortedKeyIndex.Builder builder = SortedKeyIndex.builder();
+        for (int i = 0; i < keyCount; i++) {
+            builder.put("product-" + i, i);
+        }
+        return builder.build();
+    }
+}
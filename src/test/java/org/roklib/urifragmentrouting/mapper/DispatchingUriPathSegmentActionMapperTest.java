@@ -8,11 +8,16 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.roklib.urifragmentrouting.UriActionCommand;
 import org.roklib.urifragmentrouting.UriActionCommandFactory;
 import org.roklib.urifragmentrouting.parameter.ParameterMode;
+import org.roklib.urifragmentrouting.parameter.SingleStringUriParameter;
+import org.roklib.urifragmentrouting.parameter.converter.AbstractRegexToStringListParameterValueConverter;
 import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -84,6 +89,125 @@ public class DispatchingUriPathSegmentActionMapperTest {
         assertThatCorrectActionClassIsReturned(result);
     }
 
+    @Test
+    public void regex_sub_mapper_matches_token_only_once() {
+        final AtomicInteger matchCount = new AtomicInteger();
+        final RegexUriPathSegmentActionMapper regexMapper = new RegexUriPathSegmentActionMapper("regex", "values",
+                new AbstractRegexToStringListParameterValueConverter("(\\d+)_(\\w+)") {
+                    @Override
+                    public List<String> match(final String value) {
+                        matchCount.incrementAndGet();
+                        return super.match(value);
+                    }
+
+                    @Override
+                    public String convertToString(final List<String> value) {
+                        return null;
+                    }
+                });
+        regexMapper.setActionCommandFactory(ActionCommandForTest::new);
+        mapper.addSubMapper(regexMapper);
+        final CapturedParameterValues values = new CapturedParameterValues();
+
+        final UriActionCommandFactory factory = mapper.interpretTokens(values, "", new LinkedList<>(Collections.singletonList("17_abc")), Collections.emptyMap(), ParameterMode.QUERY);
+
+        assertThat(factory, is(notNullValue()));
+        assertThat(matchCount.get(), is(1));
+        assertThat(values.getValueFor("regex", "values").getValue(), is(Arrays.asList("17", "abc")));
+    }
+
+    @Test
+    public void overridden_responsibility_check_of_regex_sub_mapper_is_honored() {
+        final RegexUriPathSegmentActionMapper regexMapper = new RegexUriPathSegmentActionMapper("regex", "values",
+                new AbstractRegexToStringListParameterValueConverter("(\\d+)") {
+                    @Override
+                    public String convertToString(final List<String> value) {
+                        return null;
+                    }
+                }) {
+            @Override
+            public boolean isResponsibleForToken(final String uriToken) {
+                return false;
+            }
+        };
+        mapper.addSubMapper(regexMapper);
+
+        assertThat(mapper.interpretTokens(new CapturedParameterValues(), "", new LinkedList<>(Collections.singletonList("17")), Collections.emptyMap(), ParameterMode.QUERY), is(nullValue()));
+    }
+
+    @Test
+    public void catch_all_sub_mapper_captures_tokens_with_line_terminators() {
+        final CatchAllUriPathSegmentActionMapper<String> catchAllMapper = new CatchAllUriPathSegmentActionMapper<>("catchAll", new SingleStringUriParameter("param"));
+        catchAllMapper.setActionCommandFactory(ActionCommandForTest::new);
+        mapper.addSubMapper(catchAllMapper);
+        final CapturedParameterValues values = new CapturedParameterValues();
+
+        mapper.interpretTokens(values, "", new LinkedList<>(Collections.singletonList("a\nb")), Collections.emptyMap(), ParameterMode.QUERY);
+
+        assertThat(values.getValueFor("catchAll", "param").getValue(), is("a\nb"));
+    }
+
+    @Test
+    public void adaptive_sub_mapper_order_asks_most_frequently_hit_sub_mapper_first() {
+        mapper.addSubMapper(regexMapper("alpha", "a_(\\w+)"));
+        mapper.addSubMapper(regexMapper("beta", "b_(\\w+)"));
+        mapper.setAdaptiveSubMapperOrder(true);
+        assertThat(evaluationOrder(), is(Arrays.asList("alpha", "beta")));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(interpret("b_" + i), is("beta"));
+        }
+        assertThat(interpret("a_0"), is("alpha"));
+        mapper.republishSubMapperEvaluationOrder();
+
+        assertThat(evaluationOrder(), is(Arrays.asList("beta", "alpha")));
+        assertThat(interpret("a_1"), is("alpha"));
+        assertThat(interpret("b_1"), is("beta"));
+    }
+
+    @Test
+    public void adaptive_sub_mapper_order_does_not_move_sub_mappers_out_of_their_priority_group() {
+        mapper.addSubMapper(regexMapper("anyWord", "(\\w+)"));
+        mapper.addSubMapper(regexMapper("number", "(\\d+)"));
+        assertThat(interpret("17"), is("anyWord"));
+
+        mapper.setSubMapperPriorityGroup("number", 0);
+        mapper.setSubMapperPriorityGroup("anyWord", 1);
+        mapper.setAdaptiveSubMapperOrder(true);
+        for (int i = 0; i < 10; i++) {
+            assertThat(interpret("word" + i), is("anyWord"));
+        }
+        mapper.republishSubMapperEvaluationOrder();
+
+        assertThat(evaluationOrder(), is(Arrays.asList("number", "anyWord")));
+        assertThat(interpret("17"), is("number"));
+    }
+
+    @Test
+    public void literal_segment_index_keeps_sub_mapper_precedence() {
+        mapper.addSubMapper(regexMapper("beta", "(id_\\w+)"));
+        mapper.addSubMapper(new SimpleUriPathSegmentActionMapper("alpha", "id_alpha", ActionCommandForTest::new));
+        mapper.addSubMapper(new SimpleUriPathSegmentActionMapper("gamma", "id_gamma", ActionCommandForTest::new));
+
+        assertThat(mapper.getLiteralSegmentIndex().keySet().size(), is(2));
+        assertThat(interpret("id_alpha"), is(nullValue()));
+        assertThat(interpret("id_gamma"), is("beta"));
+        assertThat(interpret("id_beta"), is("beta"));
+    }
+
+    @Test
+    public void literal_segment_mappers_are_flagged() {
+        assertThat(submapper.isLiteralSegmentMapper(), is(true));
+        assertThat(mapper.isLiteralSegmentMapper(), is(true));
+        assertThat(regexMapper("regex", "(\\d+)").isLiteralSegmentMapper(), is(false));
+        assertThat(new StartsWithUriPathSegmentActionMapper("startsWith", "id_", "id").isLiteralSegmentMapper(), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void priority_group_of_unknown_sub_mapper_cannot_be_set() {
+        mapper.setSubMapperPriorityGroup("unknown", 1);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void test_addSubMapper_with_submappers_parent_already_set() {
         DispatchingUriPathSegmentActionMapper otherParent = new DispatchingUriPathSegmentActionMapper("other");
@@ -114,6 +238,36 @@ public class DispatchingUriPathSegmentActionMapperTest {
     }
 
     @SuppressWarnings("unchecked")
+    private RegexUriPathSegmentActionMapper regexMapper(final String mapperName, final String regex) {
+        final RegexUriPathSegmentActionMapper regexMapper = new RegexUriPathSegmentActionMapper(mapperName, "values",
+                new AbstractRegexToStringListParameterValueConverter(regex) {
+                    @Override
+                    public String convertToString(final List<String> value) {
+                        return null;
+                    }
+                });
+        regexMapper.setActionCommandFactory(() -> () -> {
+        });
+        return regexMapper;
+    }
+
+    private String interpret(final String uriToken) {
+        final CapturedParameterValues values = new CapturedParameterValues();
+        mapper.interpretTokens(values, "", new LinkedList<>(Collections.singletonList(uriToken)), Collections.emptyMap(), ParameterMode.QUERY);
+        for (final UriPathSegmentActionMapper subMapper : mapper.getSubMapperMap().values()) {
+            if (values.hasValueFor(subMapper.getMapperName(), "values")) {
+                return subMapper.getMapperName();
+            }
+        }
+        return null;
+    }
+
+    private List<String> evaluationOrder() {
+        final List<String> result = new ArrayList<>();
+        mapper.getSubMapperEvaluationOrder().forEach(subMapper -> result.add(subMapper.getMapperName()));
+        return result;
+    }
+
     private UriActionCommand doInterpretTokens(List<String> uriTokens) {
         UriActionCommandFactory uriActionCommandFactory = mapper.interpretTokens(capturedParameterValues, "", uriTokens, Collections.emptyMap(), ParameterMode.QUERY);
         if (uriActionCommandFactory != null) {
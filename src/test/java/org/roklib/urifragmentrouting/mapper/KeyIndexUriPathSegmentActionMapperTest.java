@@ -0,0 +1,84 @@
+package org.roklib.urifragmentrouting.mapper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.roklib.urifragmentrouting.RouteMatch;
+import org.roklib.urifragmentrouting.UriActionCommand;
+import org.roklib.urifragmentrouting.UriActionMapperTree;
+import org.roklib.urifragmentrouting.index.SortedKeyIndex;
+import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class KeyIndexUriPathSegmentActionMapperTest {
+
+    private KeyIndexUriPathSegmentActionMapper mapper;
+    private UriActionMapperTree tree;
+
+    @Before
+    public void setUp() {
+        mapper = new KeyIndexUriPathSegmentActionMapper("product", "id", SortedKeyIndex.builder()
+                .put("blue-suede-shoes", 17L)
+                .put("red-boots", 42L)
+                .build(), TestActionCommand::new);
+        // @formatter:off
+        tree = UriActionMapperTree.create()
+                .buildMapperTree()
+                .mapSubtree("products").onSubtree()
+                    .map("new").onActionFactory(TestActionCommand::new).finishMapper()
+                    .addMapper(mapper)
+                .finishMapper()
+                .build();
+        // @formatter:on
+    }
+
+    @Test
+    public void id_of_indexed_path_segment_is_captured() {
+        final RouteMatch match = tree.resolve("/products/red-boots");
+
+        assertThat(match.getStatus(), is(RouteMatch.Status.FOUND));
+        assertThat(match.getActionMapper().getMapperName(), is("product"));
+        assertThat(match.getCapturedParameterValues().getValueFor("product", "id").getValue(), is(42L));
+        assertThat(tree.resolve("/products/new").getActionMapper().getMapperName(), is("new"));
+    }
+
+    @Test
+    public void unknown_path_segment_is_not_found() {
+        assertThat(tree.resolve("/products/green-sandals").getStatus(), is(RouteMatch.Status.NOT_FOUND));
+    }
+
+    @Test
+    public void uri_fragment_can_be_assembled_from_id() {
+        final CapturedParameterValues values = new CapturedParameterValues();
+        values.setValueFor("product", "id", ParameterValue.forValue(17L));
+
+        final String fragment = tree.assembleUriFragment(values, mapper);
+
+        assertThat(fragment, is("products/blue-suede-shoes"));
+        assertThat(tree.resolve(fragment).getCapturedParameterValues().getValueFor("product", "id").getValue(), is(17L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void assembling_uri_fragment_with_unknown_id_fails() {
+        final CapturedParameterValues values = new CapturedParameterValues();
+        values.setValueFor("product", "id", ParameterValue.forValue(99L));
+        tree.assembleUriFragment(values, mapper);
+    }
+
+    @Test
+    public void index_can_be_replaced() {
+        mapper.setIndex(mapper.getIndex().toBuilder().remove("red-boots").put("green-sandals", 43L).build());
+
+        assertThat(tree.resolve("/products/red-boots").getStatus(), is(RouteMatch.Status.NOT_FOUND));
+        assertThat(tree.resolve("/products/green-sandals").getCapturedParameterValues()
+                .getValueFor("product", "id").getValue(), is(43L));
+    }
+
+    public static class TestActionCommand implements UriActionCommand {
+        @Override
+        public void run() {
+        }
+    }
+}
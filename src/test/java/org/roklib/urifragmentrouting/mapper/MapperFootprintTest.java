@@ -0,0 +1,74 @@
+package org.roklib.urifragmentrouting.mapper;
+
+import org.junit.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.roklib.urifragmentrouting.UriActionMapperTree;
+import org.roklib.urifragmentrouting.parameter.SingleIntegerUriParameter;
+import org.roklib.urifragmentrouting.parameter.SingleStringUriParameter;
+import org.roklib.urifragmentrouting.parameter.UriParameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Measures the memory footprint of a large action mapper tree which is built and thereby trimmed with the {@link
+ * UriActionMapperTree.MapperTreeBuilder MapperTreeBuilder}. Each sub-tree consists of simple action mappers and a tail
+ * mapper with a path segment alias. The footprint is the retained size of the tree as determined by walking its object
+ * graph with JOL. Mapper names, path segment aliases, and URI parameters are created beforehand and are not part of the
+ * footprint. A tree of this shape retains about 155 bytes per action mapper on a 64 bit JVM with compressed oops. The
+ * bound asserted by this test is deliberately generous, so that it only catches gross regressions and does not depend
+ * on the JVM's object layout.
+ */
+public class MapperFootprintTest {
+    private static final Logger LOG = LoggerFactory.getLogger(MapperFootprintTest.class);
+    private static final int SUBTREES = 1000;
+    private static final int MAPPERS_PER_SUBTREE = 100;
+
+    @Test
+    public void large_mapper_tree_has_compact_footprint() {
+        // create names and parameters beforehand so that they are not counted
+        final String[] subtreeNames = new String[SUBTREES];
+        final String[] tailMapperNames = new String[SUBTREES];
+        final String[] mapperNames = new String[SUBTREES * MAPPERS_PER_SUBTREE];
+        final Locale aliasLocale = Locale.GERMAN;
+        final String alias = "pfad";
+        final String tailParameterId = "path";
+        final UriParameter<?>[] parameters = new UriParameter<?>[]{new SingleIntegerUriParameter("id"), new SingleStringUriParameter("lang")};
+        for (int i = 0; i < SUBTREES; i++) {
+            subtreeNames[i] = "subtree" + i;
+            tailMapperNames[i] = "tail" + i;
+            for (int j = 0; j < MAPPERS_PER_SUBTREE; j++) {
+                mapperNames[i * MAPPERS_PER_SUBTREE + j] = "mapper" + i + "_" + j;
+            }
+        }
+        final UriActionMapperTree.MapperTreeBuilder builder = UriActionMapperTree.create().buildMapperTree();
+
+        for (int i = 0; i < SUBTREES; i++) {
+            final UriActionMapperTree.MapperTreeBuilder subtreeBuilder =
+                    builder.mapSubtree(new DispatchingUriPathSegmentActionMapper(subtreeNames[i])).onSubtree();
+            for (int j = 0; j < MAPPERS_PER_SUBTREE; j++) {
+                final SimpleUriPathSegmentActionMapper mapper = new SimpleUriPathSegmentActionMapper(mapperNames[i * MAPPERS_PER_SUBTREE + j]);
+                mapper.registerURIParameter(parameters[0]);
+                mapper.registerURIParameter(parameters[1]);
+                subtreeBuilder.addMapper(mapper);
+            }
+            final TailUriPathSegmentActionMapper tailMapper = new TailUriPathSegmentActionMapper(tailMapperNames[i], tailParameterId);
+            tailMapper.registerURIParameter(parameters[1]);
+            tailMapper.addPathSegmentAlias(aliasLocale, alias);
+            subtreeBuilder.addMapper(tailMapper).finishMapper();
+        }
+        final DispatchingUriPathSegmentActionMapper root = builder.build().getRootActionMapper();
+        final long retained = GraphLayout.parseInstance(root)
+                .subtract(GraphLayout.parseInstance(subtreeNames, tailMapperNames, mapperNames, parameters, aliasLocale, alias, tailParameterId))
+                .totalSize();
+
+        final int mapperCount = SUBTREES * (MAPPERS_PER_SUBTREE + 2);
+        final long bytesPerMapper = retained / mapperCount;
+        LOG.info("Mapper tree footprint: {} bytes retained by {} mappers, {} bytes per mapper", retained, mapperCount, bytesPerMapper);
+        assertThat(bytesPerMapper, lessThan(500L));
+    }
+}
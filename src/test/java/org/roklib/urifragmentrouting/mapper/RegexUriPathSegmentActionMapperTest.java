@@ -8,6 +8,7 @@ import org.roklib.urifragmentrouting.parameter.ParameterMode;
 import org.roklib.urifragmentrouting.parameter.converter.AbstractRegexToStringListParameterValueConverter;
 import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
 import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+import org.roklib.urifragmentrouting.regex.RegexEngine;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -49,6 +50,54 @@ public class RegexUriPathSegmentActionMapperTest {
         assertThat(values.getValue(), hasSize(2));
     }
 
+    @Test
+    public void capturing_groups_go_into_uri_parameter_with_linear_time_engine() {
+        mapper = new RegexUriPathSegmentActionMapper("regexMapper", "values",
+                new AbstractRegexToStringListParameterValueConverter("(\\d+)xxx(\\d+)", RegexEngine.LINEAR_TIME) {
+                    @Override
+                    public String convertToString(List<String> value) {
+                        return null;
+                    }
+                });
+        assertThat(mapper.isResponsibleForToken("123xxx456"), is(true));
+        assertThat(mapper.isResponsibleForToken("123xx456"), is(false));
+
+        CapturedParameterValues capturedParameterValues = new CapturedParameterValues();
+        mapper.interpretTokensImpl(capturedParameterValues,
+                "123xxx456",
+                Collections.emptyList(),
+                Collections.emptyMap(),
+                ParameterMode.DIRECTORY);
+
+        final ParameterValue<List<String>> values = capturedParameterValues.getValueFor("regexMapper", "values");
+        assertThat(values.getValue(), hasItems("123", "456"));
+        assertThat(values.getValue(), hasSize(2));
+    }
+
+    @Test
+    public void converted_and_captured_values_are_modifiable_lists() throws Exception {
+        final AbstractRegexToStringListParameterValueConverter converter = new AbstractRegexToStringListParameterValueConverter("(\\d+)xxx(\\d+)") {
+            @Override
+            public String convertToString(List<String> value) {
+                return null;
+            }
+        };
+        final List<String> converted = converter.convertToValue("123xxx456");
+        converted.add("789");
+        assertThat(converted, hasSize(3));
+        converter.convertToValue("no match").add("value");
+
+        final DispatchingUriPathSegmentActionMapper parent = new DispatchingUriPathSegmentActionMapper("parent");
+        parent.addSubMapper(mapper);
+        final CapturedParameterValues capturedParameterValues = new CapturedParameterValues();
+        parent.interpretTokens(capturedParameterValues, "parent", new ArrayList<>(Collections.singletonList("123xxx456")),
+                Collections.emptyMap(), ParameterMode.QUERY);
+
+        final ParameterValue<List<String>> values = capturedParameterValues.getValueFor("regexMapper", "values");
+        values.getValue().add("789");
+        assertThat(values.getValue(), hasSize(3));
+    }
+
     @Test
     public void test_dispatches_to_sub_mapper() {
         mapper.addSubMapper(new SimpleUriPathSegmentActionMapper("aaa"));
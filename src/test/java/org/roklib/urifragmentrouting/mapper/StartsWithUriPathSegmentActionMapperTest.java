@@ -51,4 +51,12 @@ public class StartsWithUriPathSegmentActionMapperTest {
         assertThat(capturedParameterValues.hasValueFor("mapperName", "parameter"), is(true));
         assertThat((List<String>) capturedParameterValues.getValueFor("mapperName", "parameter").getValue(), IsIterableContainingInOrder.contains("xxxxx"));
     }
+
+    @Test
+    public void prefix_is_matched_without_regex() {
+        mapper = new StartsWithUriPathSegmentActionMapper("mapperName", "a]b}", "parameter");
+        assertThat(mapper.isResponsibleForToken("a]b}17"), is(true));
+        assertThat(mapper.isResponsibleForToken("a]b}"), is(true));
+        assertThat(mapper.isResponsibleForToken("ab}17"), is(false));
+    }
 }
@@ -0,0 +1,127 @@
+package org.roklib.urifragmentrouting.mapper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.roklib.urifragmentrouting.UriActionCommand;
+import org.roklib.urifragmentrouting.UriActionMapperTree;
+import org.roklib.urifragmentrouting.parameter.ParameterMode;
+import org.roklib.urifragmentrouting.parameter.Point2DUriParameter;
+import org.roklib.urifragmentrouting.parameter.SingleStringUriParameter;
+import org.roklib.urifragmentrouting.parameter.value.CapturedParameterValues;
+import org.roklib.urifragmentrouting.parameter.value.ParameterValue;
+import org.roklib.urifragmentrouting.parameter.value.UriPathTail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class TailUriPathSegmentActionMapperTest {
+
+    private TailUriPathSegmentActionMapper mapper;
+
+    @Before
+    public void setUp() {
+        mapper = new TailUriPathSegmentActionMapper("filePath", "path", TestActionCommand::new);
+    }
+
+    @Test
+    public void captures_current_and_all_remaining_tokens() {
+        final CapturedParameterValues capturedParameterValues = new CapturedParameterValues();
+        final List<String> uriTokens = new ArrayList<>(Arrays.asList("2017", "", "report.txt"));
+        mapper.interpretTokensImpl(capturedParameterValues,
+                "documents",
+                uriTokens,
+                Collections.emptyMap(),
+                ParameterMode.DIRECTORY);
+
+        assertThat(uriTokens.isEmpty(), is(true));
+        final UriPathTail pathTail = capturedParameterValues.<UriPathTail>getValueFor("filePath", "path").getValue();
+        assertThat(pathTail.getSegments(), is(Arrays.asList("documents", "2017", "", "report.txt")));
+        assertThat(pathTail.getPath(), is("documents/2017//report.txt"));
+    }
+
+    @Test
+    public void action_mapper_is_responsible_for_all_tokens() {
+        assertThat(mapper.isResponsibleForToken(""), is(true));
+        assertThat(mapper.isResponsibleForToken("token"), is(true));
+    }
+
+    @Test
+    public void tail_mapper_is_asked_after_all_other_sub_mappers() {
+        final UriActionMapperTree tree = buildTree(ParameterMode.DIRECTORY_WITH_NAMES);
+
+        assertThat(tree.resolve("/files/shared").getActionMapper().getMapperName(), is("shared"));
+        assertThat(tree.resolve("/files/public/a.txt").getActionMapper().getMapperName(), is("filePath"));
+        assertThat(tree.resolve("/files/public/a.txt").getCapturedParameterValues()
+                .<UriPathTail>getValueFor("filePath", "path").getValue(), is(UriPathTail.of("public", "a.txt")));
+    }
+
+    @Test
+    public void path_tail_can_be_assembled_to_uri_fragment() {
+        for (final ParameterMode parameterMode : ParameterMode.values()) {
+            mapper = new TailUriPathSegmentActionMapper("filePath", "path", TestActionCommand::new);
+            final UriActionMapperTree tree = buildTree(parameterMode);
+            final CapturedParameterValues values = new CapturedParameterValues();
+            values.setValueFor("filePath", "path", ParameterValue.forValue(UriPathTail.of("a/b", "c", "report.txt")));
+
+            final String fragment = tree.assembleUriFragment(values, mapper);
+            assertThat(parameterMode.toString(), fragment, is("files/a%252Fb/c/report.txt"));
+            assertThat(parameterMode.toString(), tree.resolve(fragment).getCapturedParameterValues()
+                    .<UriPathTail>getValueFor("filePath", "path").getValue(), is(UriPathTail.of("a/b", "c", "report.txt")));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void assembling_uri_fragment_without_path_tail_fails() {
+        buildTree(ParameterMode.DIRECTORY).assembleUriFragment(new CapturedParameterValues(), mapper);
+    }
+
+    @Test
+    public void path_tail_can_be_parsed() {
+        assertThat(UriPathTail.parse("/a/b//c/").getSegments(), is(Arrays.asList("a", "b", "", "c")));
+        assertThat(UriPathTail.parse("//").isEmpty(), is(true));
+        assertThat(UriPathTail.parse("a/b").toString(), is("a/b"));
+    }
+
+    @Test
+    public void tail_mapper_is_trimmed_when_tree_is_built() {
+        mapper.registerURIParameter(new SingleStringUriParameter("lang"));
+        mapper.addPathSegmentAlias(Locale.GERMAN, "dateien");
+        buildTree(ParameterMode.QUERY);
+
+        assertThat(mapper.getRegisteredUriParameters().keySet(), is(Collections.singleton("lang")));
+        assertThat(mapper.getUriParameterNames().contains("lang"), is(true));
+        assertThat(mapper.getPathSegment(Locale.GERMANY), is("dateien"));
+
+        mapper.registerURIParameter(new Point2DUriParameter("pos", "x", "y"));
+        mapper.addPathSegmentAlias(Locale.FRENCH, "fichiers");
+        assertThat(mapper.getUriParameterNames(), is(new HashSet<>(Arrays.asList("lang", "x", "y"))));
+        assertThat(mapper.getPathSegmentAliases().size(), is(2));
+        assertThat(mapper.getPathSegment(Locale.FRENCH), is("fichiers"));
+    }
+
+    private UriActionMapperTree buildTree(final ParameterMode parameterMode) {
+        // @formatter:off
+        return UriActionMapperTree.create()
+                .useParameterMode(parameterMode)
+                .buildMapperTree()
+                .mapSubtree("files").onSubtree()
+                    .map("shared").onActionFactory(TestActionCommand::new).finishMapper()
+                    .addMapper(mapper)
+                .finishMapper()
+                .build();
+        // @formatter:on
+    }
+
+    public static class TestActionCommand implements UriActionCommand {
+        @Override
+        public void run() {
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.roklib.urifragmentrouting.parameter.value;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.roklib.urifragmentrouting.parameter.UriParameterError;
+
+import java.awt.geom.Point2D;
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class CapturedParameterValuesCodecTest {
+
+    private CapturedParameterValues values;
+
+    @Before
+    public void setUp() {
+        values = new CapturedParameterValues();
+        values.setValueFor("products", "id", ParameterValue.forValue(-17L));
+        values.setValueFor("products", "page", ParameterValue.forDefaultValue(1));
+        values.setValueFor("products", "from", ParameterValue.forValue(LocalDate.of(2017, 3, 24)));
+        values.setValueFor("products", "q", ParameterValue.forValue("grüne Äpfel"));
+        values.setValueFor("view", "id", ParameterValue.forError(UriParameterError.CONVERSION_ERROR));
+        values.setValueFor("view", "ratio", ParameterValue.forValue(0.25d));
+        values.setValueFor("view", "scale", ParameterValue.forValue(1.5f));
+        values.setValueFor("view", "expand", ParameterValue.forValue(true));
+        values.setValueFor("view", "since", ParameterValue.forValue(new Date(1490000000000L)));
+        values.setValueFor("view", "tags", ParameterValue.forValue(Arrays.asList("a", "b")));
+        values.setValueFor("files", "tail", ParameterValue.forValue(UriPathTail.of("docs", "2017", "report.txt")));
+        values.setValueFor("map", "coord", ParameterValue.forValue(new Point2D.Double(1.0, 2.0)));
+    }
+
+    @Test
+    public void values_survive_round_trip_through_byte_buffer() {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+        buffer.put((byte) 42);
+        final int written = CapturedParameterValuesCodec.write(values, buffer);
+        buffer.flip();
+        buffer.get();
+
+        final CapturedParameterValues result = CapturedParameterValuesCodec.read(buffer);
+
+        assertThat(buffer.position(), is(written + 1));
+        assertValuesEqual(result);
+    }
+
+    @Test
+    public void values_survive_java_serialization() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(values);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertValuesEqual((CapturedParameterValues) in.readObject());
+        }
+    }
+
+    @Test
+    public void single_parameter_value_survives_java_serialization() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(ParameterValue.forDefaultValue(42L));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            final ParameterValue<?> result = (ParameterValue<?>) in.readObject();
+            assertThat(result.getValue(), is(42L));
+            assertThat(result.isDefaultValue(), is(true));
+        }
+    }
+
+    @Test
+    public void mapper_names_and_parameter_ids_are_written_once() {
+        final CapturedParameterValues typical = new CapturedParameterValues();
+        typical.setValueFor("products", "id", ParameterValue.forValue(17L));
+        typical.setValueFor("details", "id", ParameterValue.forValue(3L));
+        typical.setValueFor("details", "lang", ParameterValue.forValue("de"));
+
+        // version, table of 5 strings with 24 characters, 2 mappers with 3 parameters
+        assertThat(CapturedParameterValuesCodec.encode(typical).length, lessThan(48));
+    }
+
+    @Test
+    public void empty_values_are_encoded_in_three_bytes() {
+        final byte[] bytes = CapturedParameterValuesCodec.encode(new CapturedParameterValues());
+
+        assertThat(bytes.length, is(3));
+        assertThat(CapturedParameterValuesCodec.decode(bytes).isEmpty(), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void non_serializable_values_are_rejected() {
+        values.setValueFor("products", "other", ParameterValue.forValue(new Object()));
+        CapturedParameterValuesCodec.encode(values);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void serializable_values_of_unaccepted_classes_are_rejected() {
+        values.setValueFor("products", "other", ParameterValue.forValue(new CustomValue()));
+        CapturedParameterValuesCodec.encode(values);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unaccepted_classes_are_not_deserialized() {
+        final CapturedParameterValues wrapped = new CapturedParameterValues();
+        wrapped.setValueFor("products", "other", ParameterValue.forValue(new ArrayList<>(Collections.singletonList(new CustomValue()))));
+        CapturedParameterValuesCodec.decode(CapturedParameterValuesCodec.encode(wrapped));
+    }
+
+    @Test
+    public void accepted_serializable_values_survive_round_trip() {
+        final CapturedParameterValues other = new CapturedParameterValues();
+        other.setValueFor("products", "price", ParameterValue.forValue(new BigDecimal("17.95")));
+
+        assertThat(CapturedParameterValuesCodec.decode(CapturedParameterValuesCodec.encode(other))
+                .getValueFor("products", "price").getValue(), is(new BigDecimal("17.95")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void counts_exceeding_the_remaining_bytes_are_rejected() {
+        CapturedParameterValuesCodec.decode(new byte[]{1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void string_lengths_exceeding_the_remaining_bytes_are_rejected() {
+        CapturedParameterValuesCodec.decode(new byte[]{1, 1, 100, 'a', 'b'});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknown_format_version_is_rejected() {
+        CapturedParameterValuesCodec.decode(new byte[]{99, 0, 0});
+    }
+
+    private void assertValuesEqual(final CapturedParameterValues result) {
+        assertThat(result.getMapperNames(), is(values.getMapperNames()));
+        for (final String mapperName : values.getMapperNames()) {
+            assertThat(result.getParameterIds(mapperName), is(values.getParameterIds(mapperName)));
+            for (final String parameterId : values.getParameterIds(mapperName)) {
+                final ParameterValue<?> expected = values.getValueFor(mapperName, parameterId);
+                final ParameterValue<?> actual = result.getValueFor(mapperName, parameterId);
+                assertThat(actual.getError(), is(expected.getError()));
+                assertThat(actual.isDefaultValue(), is(expected.isDefaultValue()));
+                if (expected.hasValue()) {
+                    assertThat(actual.getValue(), is(expected.getValue()));
+                    assertThat(actual.getValue().getClass() == expected.getValue().getClass()
+                            || actual.getValue() instanceof List, is(true));
+                }
+            }
+        }
+    }
+
+    private static final class CustomValue implements Serializable {
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -123,4 +123,30 @@ public class CapturedParameterValuesTest {
         assertThat(value.getValue(), is("textValue"));
         assertThat(values.isEmpty(), is(true));
     }
+
+    @Test
+    public void unmodifiable_view_reflects_underlying_values() {
+        final CapturedParameterValues view = CapturedParameterValues.unmodifiable(values);
+        assertThat(view.isEmpty(), is(true));
+
+        values.setValueFor("first", stringTextParameter, ParameterValue.forValue("textValue"));
+        assertThat(view.getValueFor("first", "text").getValue(), is("textValue"));
+        assertThat(view.getMapperNames().contains("first"), is(true));
+        assertThat(CapturedParameterValues.unmodifiable(view) == view, is(true));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void unmodifiable_view_cannot_be_changed() {
+        CapturedParameterValues.unmodifiable(values).setValueFor("first", stringTextParameter, ParameterValue.forValue("textValue"));
+    }
+
+    @Test
+    public void copy_is_modifiable_and_independent() {
+        values.setValueFor("first", stringTextParameter, ParameterValue.forValue("textValue"));
+        final CapturedParameterValues copy = CapturedParameterValues.copyOf(CapturedParameterValues.unmodifiable(values));
+        copy.removeValueFor("first", "text");
+
+        assertThat(copy.isEmpty(), is(true));
+        assertThat(values.hasValueFor("first", "text"), is(true));
+    }
 }
@@ -0,0 +1,108 @@
+package org.roklib.urifragmentrouting.regex;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class LinearTimeRegexTest {
+
+    private static final List<String> REGEXES = Arrays.asList(
+            "abc", "a.c", "a*", "a+b", "(a+)(b*)", "(a|ab)(c|bcd)(d*)", "(a*)(a*)", "(a*?)(a*)", "(a+?)(a*)",
+            "(\\d+)_(\\w+)", "id_(.*)", "(.*)_(.*)", "(.*?)_(.*)", "[a-c]+x?", "[^/]+", "[\\d-]+", "[-a]+", "[a-]+",
+            "(?:ab)+(c)?", "(a)?(b)?c", "(a|b)*c", "((a)|b)+", "x{2}", "x{2,}", "x{1,3}", "(x{1,3}?)(x*)",
+            "\\.\\*\\+", "\\x41\\u0042\\0103", "\\s\\S\\D\\W", "^a$", "(^a|b)+", "a|", "|a", "()",
+            "(\\d{4})-(\\d{2})-(\\d{2})", "([a-z]+)(?:-([a-z]+))*", "é+(ü)", ".+\\]");
+
+    private static final List<String> INPUTS = Arrays.asList(
+            "", "a", "aa", "ab", "abc", "abcd", "abbcd", "abcbcd", "ac", "b", "bc", "aac", "abababc", "ababab",
+            "123_abc", "1_", "_", "a_b_c", "id_", "id_17", "xy/z", "x", "xx", "xxx", "xxxx", "-a-", "--", "a-",
+            ".*+", "ABC", " x1!", "2017-05-12", "2017-5-12", "foo-bar-baz", "foo-", "ééü", "ü", "a]", "a\nb", "z", "&z");
+
+    @Test
+    public void group_values_match_java_util_regex() {
+        for (final String regex : REGEXES) {
+            final Pattern pattern = Pattern.compile(regex);
+            final LinearTimeRegex linearTimeRegex = LinearTimeRegex.compile(regex);
+            assertThat(regex, linearTimeRegex.groupCount(), is(pattern.matcher("").groupCount()));
+
+            for (final String input : INPUTS) {
+                final Matcher matcher = pattern.matcher(input);
+                final int[] groupBounds = new int[2 * (linearTimeRegex.groupCount() + 1)];
+                final boolean matches = matcher.matches();
+                assertThat(regex + " ~ " + input, linearTimeRegex.matches(input), is(matches));
+                assertThat(regex + " ~ " + input, linearTimeRegex.matches(input, groupBounds), is(matches));
+                if (matches) {
+                    for (int group = 0; group <= matcher.groupCount(); group++) {
+                        assertThat(regex + " ~ " + input + " group " + group, groupBounds[2 * group], is(matcher.start(group)));
+                        assertThat(regex + " ~ " + input + " group " + group, groupBounds[2 * group + 1], is(matcher.end(group)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void catastrophic_backtracking_patterns_are_matched_in_linear_time() {
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            input.append('a');
+        }
+        input.append('!');
+
+        assertThat(LinearTimeRegex.compile("(a+)+b").matches(input), is(false));
+        assertThat(LinearTimeRegex.compile("(a|aa)*c").matches(input), is(false));
+        assertThat(LinearTimeRegex.compile("(a*)*(a*)*!").matches(input), is(true));
+    }
+
+    @Test
+    public void unsupported_constructs_are_rejected() {
+        for (final String regex : Arrays.asList("(a)\\1", "(?=a)", "(?<name>a)", "(?i)a", "a*+", "[a[b]]", "[a&&b]", "\\p{L}", "\\bword")) {
+            try {
+                LinearTimeRegex.compile(regex);
+                fail("expected PatternSyntaxException for " + regex);
+            } catch (final PatternSyntaxException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void invalid_expressions_are_rejected() {
+        for (final String regex : Arrays.asList("(a", "a)", "[a", "*a", "a{2", "a{3,2}", "[z-a]", "a{", "\\")) {
+            try {
+                LinearTimeRegex.compile(regex);
+                fail("expected PatternSyntaxException for " + regex);
+            } catch (final PatternSyntaxException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void group_bounds_array_must_be_large_enough() {
+        LinearTimeRegex.compile("(a)(b)").matches("ab", new int[4]);
+    }
+
+    @Test
+    public void can_be_serialized() throws IOException, ClassNotFoundException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(LinearTimeRegex.compile("(\\d+)_(\\w+)"));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            final LinearTimeRegex regex = (LinearTimeRegex) in.readObject();
+            final int[] groupBounds = new int[6];
+            assertThat(regex.matches("17_abc", groupBounds), is(true));
+            assertThat(groupBounds[3], is(2));
+        }
+    }
+}
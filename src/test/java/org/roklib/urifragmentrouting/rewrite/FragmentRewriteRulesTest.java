@@ -0,0 +1,153 @@
+package org.roklib.urifragmentrouting.rewrite;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.roklib.urifragmentrouting.RouteMatch;
+import org.roklib.urifragmentrouting.UriActionCommand;
+import org.roklib.urifragmentrouting.UriActionMapperTree;
+
+import java.util.Collections;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class FragmentRewriteRulesTest {
+
+    private FragmentRewriteRules rules;
+
+    @Before
+    public void setUp() {
+        rules = FragmentRewriteRules.builder()
+                .exact("/home.html", "/home")
+                .exact("/shop/item-new.html", "/products/new")
+                .pattern("/shop/item-{id}.html", "/products/{id}")
+                .pattern("/user/{name}/{tab}", "/users/{name}?tab={tab}")
+                .prefix("/legacy/", "/v2/")
+                .prefix("/legacy/admin/", "/admin/")
+                .prefix("/blog/{year}/", "/articles/{year}/")
+                .build();
+    }
+
+    @Test
+    public void exact_rule_is_applied() {
+        assertThat(rules.rewrite("/home.html"), is("/home"));
+        assertThat(rules.rewrite("/home.htm"), is("/home.htm"));
+    }
+
+    @Test
+    public void pattern_rule_captures_variables() {
+        assertThat(rules.rewrite("/shop/item-42.html"), is("/products/42"));
+        assertThat(rules.rewrite("/shop/item-a.b.html"), is("/products/a.b"));
+        assertThat(rules.rewrite("/user/john/settings"), is("/users/john?tab=settings"));
+        assertThat(rules.rewrite("/shop/item-.html"), is("/shop/item-.html"));
+        assertThat(rules.rewrite("/shop/item-4/2.html"), is("/shop/item-4/2.html"));
+    }
+
+    @Test
+    public void literal_characters_take_precedence_over_variables() {
+        assertThat(rules.rewrite("/shop/item-new.html"), is("/products/new"));
+    }
+
+    @Test
+    public void longest_prefix_rule_is_applied() {
+        assertThat(rules.rewrite("/legacy/a/b"), is("/v2/a/b"));
+        assertThat(rules.rewrite("/legacy/admin/users"), is("/admin/users"));
+        assertThat(rules.rewrite("/blog/2017/hello-world"), is("/articles/2017/hello-world"));
+    }
+
+    @Test
+    public void query_parameter_section_is_kept() {
+        assertThat(rules.rewrite("/home.html?lang=de"), is("/home?lang=de"));
+        assertThat(rules.rewrite("/legacy/a?x=1"), is("/v2/a?x=1"));
+    }
+
+    @Test
+    public void rewrite_results_are_cached() {
+        final String first = rules.rewrite("/legacy/a");
+        assertThat(rules.rewrite("/legacy/a") == first, is(true));
+        final FragmentRewriteRules uncachedRules = FragmentRewriteRules.builder().exact("/a", "/b").cacheSize(0).build();
+        assertThat(uncachedRules.rewrite("/a"), is("/b"));
+    }
+
+    @Test
+    public void query_parameters_do_not_evict_cached_paths() {
+        final FragmentRewriteRules smallCacheRules = FragmentRewriteRules.builder()
+                .prefix("/legacy/", "/v2/")
+                .cacheSize(2)
+                .build();
+        final String first = smallCacheRules.rewrite("/legacy/a");
+        for (int i = 0; i < 100; i++) {
+            assertThat(smallCacheRules.rewrite("/legacy/a?session=" + i), is("/v2/a?session=" + i));
+        }
+        assertThat(smallCacheRules.rewrite("/legacy/a") == first, is(true));
+    }
+
+    @Test
+    public void many_rules_can_be_compiled() {
+        final FragmentRewriteRules.Builder builder = FragmentRewriteRules.builder();
+        for (int i = 0; i < 500; i++) {
+            builder.exact("/old/page" + i, "/page/" + i);
+        }
+        final FragmentRewriteRules manyRules = builder.build();
+
+        assertThat(manyRules.size(), is(500));
+        assertThat(manyRules.rewrite("/old/page317"), is("/page/317"));
+        assertThat(manyRules.rewrite("/old/page500"), is("/old/page500"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicate_rules_are_rejected() {
+        FragmentRewriteRules.builder().pattern("/a/{x}", "/b").pattern("/a/{y}", "/c");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void undefined_template_variable_is_rejected() {
+        FragmentRewriteRules.builder().pattern("/a/{x}", "/b/{y}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void several_variables_in_one_path_segment_are_rejected() {
+        FragmentRewriteRules.builder().pattern("/a/{x}-{y}", "/b/{x}/{y}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void several_variables_in_one_path_segment_of_a_prefix_are_rejected() {
+        FragmentRewriteRules.builder().prefix("/a/{x}.{y}/", "/b/");
+    }
+
+    @Test
+    public void variables_match_long_path_segments() {
+        final FragmentRewriteRules longRules = FragmentRewriteRules.builder()
+                .cacheSize(0)
+                .pattern("/{a}/{b}/{c}.html", "/{c}/{b}/{a}")
+                .prefix("/{a}-x/", "/prefix/")
+                .build();
+        final String segment = String.join("", Collections.nCopies(20000, "a-"));
+
+        assertThat(longRules.rewrite("/" + segment + "/b/" + segment + ".html"), is("/" + segment + "/b/" + segment));
+        assertThat(longRules.rewrite("/" + segment + "/" + segment + "/" + segment + ".htm"),
+                is("/" + segment + "/" + segment + "/" + segment + ".htm"));
+        assertThat(longRules.rewrite("/" + segment + "x/rest"), is("/prefix/rest"));
+    }
+
+    @Test
+    public void rewrite_rules_are_applied_by_mapper_tree() {
+        // @formatter:off
+        final UriActionMapperTree tree = UriActionMapperTree.create()
+                .useFragmentRewriteRules(rules)
+                .buildMapperTree()
+                .map("home").onActionFactory(TestActionCommand::new).finishMapper()
+                .build();
+        // @formatter:on
+
+        final RouteMatch match = tree.resolve("/home.html");
+        assertThat(match.getStatus(), is(RouteMatch.Status.FOUND));
+        assertThat(match.getUriFragment(), is("/home"));
+    }
+
+    public static class TestActionCommand implements UriActionCommand {
+        @Override
+        public void run() {
+        }
+    }
+}
@@ -3,8 +3,10 @@ package org.roklib.urifragmentrouting.strategy;
 import org.hamcrest.collection.IsIterableContainingInOrder;
 import org.junit.Before;
 import org.junit.Test;
+import org.roklib.urifragmentrouting.exception.UriFragmentLimitExceededException;
 
 import java.net.URLEncoder;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -14,6 +16,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.collection.IsEmptyCollection.emptyCollectionOf;
 import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.junit.Assert.fail;
 
 public class DirectoryStyleUriTokenExtractionStrategyImplTest {
 
@@ -77,4 +80,58 @@ public class DirectoryStyleUriTokenExtractionStrategyImplTest {
         assertThat(result, IsIterableContainingInOrder.contains("a/b", "c%2fd"));
     }
 
+
+    @Test
+    public void extracted_tokens_equal_split_semantics() {
+        for (final String fragment : Arrays.asList("a", "/a", "a/", "a//b", "///", "/a/b//")) {
+            final List<String> expected = new ArrayList<>(Arrays.asList(fragment.split("/")));
+            assertThat(fragment, strategy.extractUriTokens(fragment, UriFragmentLimits.unlimited()), is(expected));
+        }
+    }
+
+    @Test
+    public void tokens_within_limits_are_extracted() {
+        final UriFragmentLimits limits = UriFragmentLimits.unlimited().withMaxUriTokenCount(3).withMaxUriTokenLength(4);
+        assertThat(strategy.extractUriTokens("/abcd/efgh", limits), is(contains("", "abcd", "efgh")));
+    }
+
+    @Test
+    public void empty_tokens_do_not_count_towards_token_limit() {
+        final UriFragmentLimits limits = UriFragmentLimits.unlimited().withMaxUriTokenCount(3);
+        assertThat(strategy.extractUriTokens("/a/b/c", limits), is(contains("", "a", "b", "c")));
+        assertThat(strategy.extractUriTokens("a//b/c/", limits), is(contains("a", "", "b", "c")));
+    }
+
+    @Test
+    public void too_many_tokens_are_rejected() {
+        final UriFragmentLimits limits = UriFragmentLimits.unlimited().withMaxUriTokenCount(3);
+        try {
+            strategy.extractUriTokens("/a/b/c/d", limits);
+            fail();
+        } catch (final UriFragmentLimitExceededException e) {
+            assertThat(e.getLimit(), is(UriFragmentLimits.Limit.URI_TOKEN_COUNT));
+        }
+    }
+
+    @Test
+    public void too_many_separators_are_rejected() {
+        final UriFragmentLimits limits = UriFragmentLimits.unlimited().withMaxUriTokenCount(3);
+        try {
+            strategy.extractUriTokens("///////a", limits);
+            fail();
+        } catch (final UriFragmentLimitExceededException e) {
+            assertThat(e.getLimit(), is(UriFragmentLimits.Limit.URI_TOKEN_COUNT));
+        }
+    }
+
+    @Test
+    public void too_long_token_is_rejected() {
+        final UriFragmentLimits limits = UriFragmentLimits.unlimited().withMaxUriTokenLength(4);
+        try {
+            strategy.extractUriTokens("/abcde", limits);
+            fail();
+        } catch (final UriFragmentLimitExceededException e) {
+            assertThat(e.getLimit(), is(UriFragmentLimits.Limit.URI_TOKEN_LENGTH));
+        }
+    }
 }
@@ -2,6 +2,7 @@ package org.roklib.urifragmentrouting.strategy;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.roklib.urifragmentrouting.exception.UriFragmentLimitExceededException;
 
 import java.net.URLEncoder;
 import java.util.Collections;
@@ -122,4 +123,23 @@ public class StandardQueryNotationQueryParameterExtractionStrategyImplTest {
         final Map<String, String> result = strategy.extractQueryParameters(querySection);
         assertThat(result.get("id"), is(equalTo(values.get("id"))));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void parameters_within_limits_are_extracted() {
+        final UriFragmentLimits limits = UriFragmentLimits.unlimited().withMaxQueryParameterCount(2).withMaxUriTokenLength(5);
+        final Map<String, String> expectedParameters = new HashMap<>();
+        expectedParameters.put("id", "42");
+        expectedParameters.put("a", "b");
+        assertThat(strategy.extractQueryParameters("/path?id=42&a=b", limits), equalTo(expectedParameters));
+    }
+
+    @Test(expected = UriFragmentLimitExceededException.class)
+    public void too_many_parameters_are_rejected() {
+        strategy.extractQueryParameters("/path?a=1&b=2&c=3", UriFragmentLimits.unlimited().withMaxQueryParameterCount(2));
+    }
+
+    @Test(expected = UriFragmentLimitExceededException.class)
+    public void too_long_parameter_is_rejected() {
+        strategy.extractQueryParameters("/path?id=123456", UriFragmentLimits.unlimited().withMaxUriTokenLength(8));
+    }
+}